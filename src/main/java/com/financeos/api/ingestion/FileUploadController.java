@@ -18,7 +18,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -55,15 +54,11 @@ public class FileUploadController {
         List<StagedFile> stagedFiles = new ArrayList<>();
         if (files != null) {
             for (MultipartFile f : files) {
-                try {
-                    stagedFiles.add(new StagedFile(
-                            f.getOriginalFilename() != null ? f.getOriginalFilename() : "unknown",
-                            f.getContentType() != null ? f.getContentType() : "application/octet-stream",
-                            f.getBytes()
-                    ));
-                } catch (IOException e) {
-                    throw new ValidationException("Failed to read uploaded file: " + f.getOriginalFilename());
-                }
+                stagedFiles.add(new StagedFile(
+                        f.getOriginalFilename() != null ? f.getOriginalFilename() : "unknown",
+                        f.getContentType() != null ? f.getContentType() : "application/octet-stream",
+                        f
+                ));
             }
         }
 
@@ -50,13 +50,15 @@ public record SummaryResponse(
             BigDecimal realized,
             BigDecimal intradayRealized,
             BigDecimal unrealized,
-            BigDecimal totalCharges
+            BigDecimal totalCharges,
+            Double xirr
     ) {}
 
     public record InstrumentTypeSummaryDto(
             InstrumentType type,
             BigDecimal invested,
             BigDecimal currentValue,
-            BigDecimal percentage
+            BigDecimal percentage,
+            Double xirr
     ) {}
 }
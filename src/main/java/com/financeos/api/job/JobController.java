@@ -42,7 +42,7 @@ public class JobController {
         List<JobStatus> statusList = null;
         if (status != null && !status.isBlank()) {
           if ("active".equalsIgnoreCase(status.trim())) {
-            statusList = List.of(JobStatus.PENDING, JobStatus.RUNNING);
+            statusList = List.of(JobStatus.PENDING, JobStatus.RUNNING, JobStatus.WAITING);
           } else {
             try {
               statusList = Arrays.stream(status.split(","))
@@ -94,7 +94,7 @@ public class JobController {
     @GetMapping("/active")
     public ResponseEntity<List<JobResponse>> getActiveJobs() {
         UUID userId = UserContext.getCurrentUserId();
-        List<Job> activeJobs = jobRepository.findByUserIdAndStatusIn(userId, List.of(JobStatus.PENDING, JobStatus.RUNNING));
+        List<Job> activeJobs = jobRepository.findByUserIdAndStatusIn(userId, List.of(JobStatus.PENDING, JobStatus.RUNNING, JobStatus.WAITING));
         List<JobResponse> response = activeJobs.stream()
                 .map(job -> JobResponse.from(job, objectMapper))
                 .toList();
@@ -109,6 +109,17 @@ public class JobController {
         return ResponseEntity.ok(JobResponse.from(job, objectMapper));
     }
 
+    @GetMapping("/{id}/children")
+    public ResponseEntity<List<JobResponse>> getChildJobs(@PathVariable UUID id) {
+        UUID userId = UserContext.getCurrentUserId();
+        jobRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job", id));
+        List<JobResponse> response = jobService.getChildren(id).stream()
+                .map(job -> JobResponse.from(job, objectMapper))
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{id}/cancel")
     public ResponseEntity<JobResponse> cancelJob(@PathVariable UUID id) {
         UUID userId = UserContext.getCurrentUserId();
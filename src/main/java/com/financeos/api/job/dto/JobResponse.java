@@ -12,6 +12,7 @@ import java.util.UUID;
 
 public record JobResponse(
         UUID id,
+        UUID parentId,
         JobType type,
         JobStatus status,
         JobTrigger triggerSource,
@@ -38,6 +39,7 @@ public record JobResponse(
         }
         return new JobResponse(
                 job.getId(),
+                job.getParentId(),
                 job.getType(),
                 job.getStatus(),
                 job.getTriggerSource(),
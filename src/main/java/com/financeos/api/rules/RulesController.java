@@ -13,6 +13,7 @@ import com.financeos.core.security.UserContext;
 import com.financeos.domain.categorization.CategoryRule;
 import com.financeos.domain.categorization.CategoryRuleRepository;
 import com.financeos.domain.categorization.CategorizationService;
+import com.financeos.domain.categorization.CategoryRulesChangedEvent;
 import com.financeos.domain.categorization.MatchType;
 import com.financeos.domain.categorization.RuleMatchService;
 import com.financeos.domain.categorization.RuleMatcher;
@@ -23,6 +24,7 @@ import com.financeos.domain.user.User;
 import com.financeos.domain.user.UserRepository;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -48,19 +50,22 @@ public class RulesController {
     private final CategorizationService categorizationService;
     private final RuleMatchService ruleMatchService;
     private final com.financeos.domain.job.JobService jobService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RulesController(CategoryRuleRepository categoryRuleRepository,
                            CategoryRepository categoryRepository,
                            UserRepository userRepository,
                            CategorizationService categorizationService,
                            RuleMatchService ruleMatchService,
-                           com.financeos.domain.job.JobService jobService) {
+                           com.financeos.domain.job.JobService jobService,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRuleRepository = categoryRuleRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
         this.categorizationService = categorizationService;
         this.ruleMatchService = ruleMatchService;
         this.jobService = jobService;
+        this.eventPublisher = eventPublisher;
     }
 
     private static MatchType parseMatchType(String value) {
@@ -131,6 +136,7 @@ public class RulesController {
         rule.setMcc(request.mcc());
 
         CategoryRule saved = categoryRuleRepository.save(rule);
+        eventPublisher.publishEvent(new CategoryRulesChangedEvent(currentSessionUserId));
         return ResponseEntity.status(HttpStatus.CREATED).body(RuleResponse.from(saved));
     }
 
@@ -190,6 +196,7 @@ public class RulesController {
             categorizationService.updateRuleCategories(rule, new HashSet<>(categories));
         } else {
             categoryRuleRepository.save(rule);
+            eventPublisher.publishEvent(new CategoryRulesChangedEvent(currentSessionUserId));
         }
 
         return ResponseEntity.ok(RuleResponse.from(rule));
@@ -281,6 +288,7 @@ public class RulesController {
         }
 
         categoryRuleRepository.delete(rule);
+        eventPublisher.publishEvent(new CategoryRulesChangedEvent(currentSessionUserId));
         return ResponseEntity.noContent().build();
     }
 }
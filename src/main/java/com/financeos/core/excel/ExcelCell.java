@@ -0,0 +1,51 @@
+package com.financeos.core.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * One physically present cell of an {@link ExcelRow}. Formula cells are reported as their cached
+ * result, so {@code type} is never FORMULA (the equivalent of POI's
+ * {@code getCachedFormulaResultType}).
+ *
+ * @param text   the string value for STRING cells, the error code for ERROR cells, else null
+ * @param number the value of NUMERIC cells; 1 or 0 for BOOLEAN cells
+ */
+public record ExcelCell(int column, CellType type, String text, double number,
+                        int formatIndex, String formatString, boolean date1904) {
+
+    public String stringValue() {
+        return type == CellType.STRING ? text : "";
+    }
+
+    public double numericValue() {
+        return number;
+    }
+
+    public boolean booleanValue() {
+        return type == CellType.BOOLEAN && number != 0;
+    }
+
+    /** Same test as {@code DateUtil.isCellDateFormatted}: a valid serial date in a date format. */
+    public boolean isDateFormatted() {
+        return type == CellType.NUMERIC && DateUtil.isValidExcelDate(number)
+                && DateUtil.isADateFormat(formatIndex, formatString);
+    }
+
+    public LocalDateTime localDateTimeValue() {
+        return DateUtil.getLocalDateTime(number, date1904);
+    }
+
+    /** The cell as Excel displays it, as {@code DataFormatter.formatCellValue} renders it. */
+    public String formatted(DataFormatter formatter) {
+        return switch (type) {
+            case NUMERIC -> formatter.formatRawCellContents(number, formatIndex, formatString, date1904);
+            case STRING, ERROR -> text;
+            case BOOLEAN -> number != 0 ? "TRUE" : "FALSE";
+            default -> "";
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.financeos.core.excel;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A sheet row as read by {@link ExcelRowReader}: its 0-based row number and its physically
+ * present cells in column order (absent cells are skipped, as POI's row iterator does).
+ */
+public record ExcelRow(int rowNum, List<ExcelCell> cells) implements Iterable<ExcelCell> {
+
+    public ExcelRow {
+        cells = List.copyOf(cells);
+    }
+
+    /** The cell at the 0-based column, or null when the row has none there. */
+    public ExcelCell cell(int column) {
+        int lo = 0;
+        int hi = cells.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = cells.get(mid).column();
+            if (c < column) {
+                lo = mid + 1;
+            } else if (c > column) {
+                hi = mid - 1;
+            } else {
+                return cells.get(mid);
+            }
+        }
+        return null;
+    }
+
+    /** Index of the first present cell, or -1; as {@code Row.getFirstCellNum}. */
+    public int firstCellNum() {
+        return cells.isEmpty() ? -1 : cells.get(0).column();
+    }
+
+    /** One past the last present cell's index, or -1; as {@code Row.getLastCellNum}. */
+    public int lastCellNum() {
+        return cells.isEmpty() ? -1 : cells.get(cells.size() - 1).column() + 1;
+    }
+
+    @Override
+    public Iterator<ExcelCell> iterator() {
+        return cells.iterator();
+    }
+}
@@ -0,0 +1,470 @@
+package com.financeos.core.excel;
+
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Row-at-a-time reader for spreadsheet uploads (broker exports, bank statements).
+ * <p>
+ * {@code .xlsx} files are spooled to a temp file and each sheet's XML is pulled straight out of
+ * the zip (POI's event model: {@link XSSFReader} parts, a read-only shared-strings table and the
+ * styles table), so apart from the shared strings only the current row is ever in memory — not
+ * the DOM {@code WorkbookFactory} builds, which for a tens-of-MB tradebook or multi-year bank
+ * export is several times the file's size. Password-protected {@code .xlsx} is decrypted on the
+ * way to the temp file. Legacy {@code .xls} has no streaming reader in POI; those still load
+ * through HSSF and are adapted to the same {@link ExcelRow}s.
+ * <p>
+ * Formula cells carry their cached result; nothing is recalculated. Not thread-safe. Close the
+ * reader to release the temp file and any sheet still being iterated.
+ */
+public final class ExcelRowReader implements Closeable {
+
+    private final OPCPackage pkg;
+    private final Path spool;
+    private final XSSFReader xssf;
+    private final SharedStrings strings;
+    private final StylesTable styles;
+    private final Workbook workbook;
+    private final boolean date1904;
+    private final List<String> sheetNames;
+    private final List<Closeable> openSheets = new ArrayList<>();
+
+    private ExcelRowReader(OPCPackage pkg, Path spool) throws IOException {
+        this.pkg = pkg;
+        this.spool = spool;
+        this.workbook = null;
+        try {
+            this.xssf = new XSSFReader(pkg);
+            this.strings = new ReadOnlySharedStringsTable(pkg, false);
+            this.styles = xssf.getStylesTable();
+            this.date1904 = readDate1904(xssf);
+            List<String> names = new ArrayList<>();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssf.getSheetsData();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                names.add(sheets.getSheetName());
+            }
+            this.sheetNames = List.copyOf(names);
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Unreadable .xlsx file: " + e.getMessage(), e);
+        }
+    }
+
+    private ExcelRowReader(Workbook workbook) {
+        this.pkg = null;
+        this.spool = null;
+        this.xssf = null;
+        this.strings = null;
+        this.styles = null;
+        this.workbook = workbook;
+        this.date1904 = workbook instanceof Date1904Support d && d.isDate1904();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            names.add(workbook.getSheetName(i));
+        }
+        this.sheetNames = List.copyOf(names);
+    }
+
+    public static ExcelRowReader open(byte[] bytes, String password) throws IOException {
+        return open(new ByteArrayInputStream(bytes), password);
+    }
+
+    /**
+     * Opens an .xlsx or .xls stream. A null password opens unprotected files (and files
+     * protected with Excel's default password); a missing or wrong password for a protected
+     * file throws {@link EncryptedDocumentException}, as {@code WorkbookFactory} does.
+     */
+    public static ExcelRowReader open(InputStream in, String password) throws IOException {
+        InputStream is = FileMagic.prepareToCheckMagic(in);
+        FileMagic magic = FileMagic.valueOf(is);
+        if (magic == FileMagic.OOXML) {
+            return openXlsx(is);
+        }
+        if (magic != FileMagic.OLE2) {
+            throw new IOException("Not an Excel file (" + magic + ")");
+        }
+        POIFSFileSystem fs = new POIFSFileSystem(is);
+        if (!fs.getRoot().hasEntry(Decryptor.DEFAULT_POIFS_ENTRY)) {
+            try {
+                return new ExcelRowReader(WorkbookFactory.create(fs.getRoot(), password));
+            } catch (IOException | RuntimeException e) {
+                fs.close();
+                throw e;
+            }
+        }
+        try (fs) {
+            Decryptor decryptor = Decryptor.getInstance(new EncryptionInfo(fs));
+            if (!decryptor.verifyPassword(password != null ? password : Decryptor.DEFAULT_PASSWORD)) {
+                throw new EncryptedDocumentException(password != null
+                        ? "Password incorrect" : "Excel file is password-protected and no password was given");
+            }
+            try (InputStream decrypted = decryptor.getDataStream(fs)) {
+                return openXlsx(decrypted);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new EncryptedDocumentException("Excel file could not be decrypted", e);
+        }
+    }
+
+    private static ExcelRowReader openXlsx(InputStream in) throws IOException {
+        Path spool = Files.createTempFile("excel-rows-", ".xlsx");
+        OPCPackage pkg = null;
+        try {
+            Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+            pkg = OPCPackage.open(spool.toFile(), PackageAccess.READ);
+            ExcelRowReader reader = new ExcelRowReader(pkg, spool);
+            pkg = null;
+            spool = null;
+            return reader;
+        } catch (InvalidFormatException e) {
+            throw new IOException("Unreadable .xlsx file: " + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+            if (spool != null) {
+                Files.deleteIfExists(spool);
+            }
+        }
+    }
+
+    public List<String> sheetNames() {
+        return sheetNames;
+    }
+
+    /**
+     * The rows of the sheet at {@code index}, read lazily; each {@code iterator()} call starts a
+     * new pass over the sheet. Read errors surface as {@link UncheckedIOException}.
+     */
+    public Iterable<ExcelRow> sheet(int index) {
+        if (index < 0 || index >= sheetNames.size()) {
+            throw new IndexOutOfBoundsException("No sheet " + index + " (" + sheetNames.size() + " sheets)");
+        }
+        return () -> workbook != null ? new HssfRows(index) : new XlsxRows(index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Copy: closing a sheet removes it from openSheets.
+        for (Closeable sheet : new ArrayList<>(openSheets)) {
+            try {
+                sheet.close();
+            } catch (IOException ignored) {
+            }
+        }
+        openSheets.clear();
+        if (workbook != null) {
+            workbook.close();
+        }
+        if (pkg != null) {
+            pkg.revert();
+        }
+        if (spool != null) {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private static boolean readDate1904(XSSFReader xssf) throws IOException, OpenXML4JException {
+        try (InputStream in = xssf.getWorkbookData()) {
+            XMLStreamReader xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String name = xml.getLocalName();
+                    if ("workbookPr".equals(name)) {
+                        String v = xml.getAttributeValue(null, "date1904");
+                        return "1".equals(v) || "true".equalsIgnoreCase(v);
+                    }
+                    if ("sheets".equals(name)) {
+                        return false;
+                    }
+                }
+                return false;
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Unreadable workbook part: " + e.getMessage(), e);
+        }
+    }
+
+    private record NumberFormat(int index, String pattern) {
+    }
+
+    /** Pulls {@code <row>} elements off one sheet part with StAX, one at a time. */
+    private final class XlsxRows implements Iterator<ExcelRow>, Closeable {
+        private final InputStream in;
+        private final XMLStreamReader xml;
+        private final Map<Integer, NumberFormat> formatByStyle = new HashMap<>();
+        private ExcelRow next;
+        private boolean done;
+        private int lastRow = -1;
+
+        XlsxRows(int index) {
+            try {
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssf.getSheetsData();
+                InputStream sheet = null;
+                for (int i = 0; i <= index; i++) {
+                    if (sheet != null) {
+                        sheet.close();
+                    }
+                    sheet = sheets.next();
+                }
+                this.in = sheet;
+                this.xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (OpenXML4JException | XMLStreamException e) {
+                throw new UncheckedIOException(new IOException("Unreadable sheet: " + e.getMessage(), e));
+            }
+            openSheets.add(this);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = readRow();
+                } catch (XMLStreamException e) {
+                    closeQuietly();
+                    throw new UncheckedIOException(new IOException("Unreadable sheet: " + e.getMessage(), e));
+                }
+                if (next == null) {
+                    done = true;
+                    closeQuietly();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ExcelRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ExcelRow row = next;
+            next = null;
+            return row;
+        }
+
+        private ExcelRow readRow() throws XMLStreamException {
+            while (true) {
+                if (!xml.hasNext()) {
+                    return null;
+                }
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                    break;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xml.getLocalName())) {
+                    return null;
+                }
+            }
+            String r = xml.getAttributeValue(null, "r");
+            int rowNum = r != null ? Integer.parseInt(r) - 1 : lastRow + 1;
+            lastRow = rowNum;
+            List<ExcelCell> cells = new ArrayList<>();
+            int column = -1;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                    ExcelCell cell = readCell(column);
+                    cells.add(cell);
+                    column = cell.column();
+                } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+            return new ExcelRow(rowNum, cells);
+        }
+
+        private ExcelCell readCell(int previousColumn) throws XMLStreamException {
+            String ref = xml.getAttributeValue(null, "r");
+            String t = xml.getAttributeValue(null, "t");
+            String s = xml.getAttributeValue(null, "s");
+            int column = ref != null ? columnIndex(ref) : previousColumn + 1;
+            String value = null;
+            StringBuilder inline = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                    break;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (xml.getLocalName()) {
+                    case "v" -> value = xml.getElementText();
+                    case "is" -> inline = new StringBuilder();
+                    case "t" -> {
+                        String text = xml.getElementText();
+                        if (inline != null) {
+                            inline.append(text);
+                        }
+                    }
+                    case "rPh", "f" -> skipElement();
+                    default -> {
+                    }
+                }
+            }
+
+            NumberFormat format = formatByStyle.computeIfAbsent(s != null ? Integer.parseInt(s) : 0, this::numberFormat);
+            int formatIndex = format.index();
+            String formatString = format.pattern();
+            String type = t != null ? t : "n";
+            return switch (type) {
+                case "s" -> new ExcelCell(column, CellType.STRING,
+                        value != null ? strings.getItemAt(Integer.parseInt(value.trim())).getString() : "",
+                        0, formatIndex, formatString, date1904);
+                case "inlineStr" -> new ExcelCell(column, CellType.STRING, inline != null ? inline.toString() : "",
+                        0, formatIndex, formatString, date1904);
+                case "str" -> new ExcelCell(column, CellType.STRING, value != null ? value : "",
+                        0, formatIndex, formatString, date1904);
+                case "b" -> new ExcelCell(column, CellType.BOOLEAN, null,
+                        "1".equals(value) || "true".equalsIgnoreCase(value) ? 1 : 0, formatIndex, formatString, date1904);
+                case "e" -> new ExcelCell(column, CellType.ERROR, value, 0, formatIndex, formatString, date1904);
+                default -> value == null || value.isBlank()
+                        ? new ExcelCell(column, CellType.BLANK, null, 0, formatIndex, formatString, date1904)
+                        : new ExcelCell(column, CellType.NUMERIC, null, Double.parseDouble(value),
+                                formatIndex, formatString, date1904);
+            };
+        }
+
+        private NumberFormat numberFormat(int style) {
+            XSSFCellStyle cellStyle = styles != null ? styles.getStyleAt(style) : null;
+            int index = cellStyle != null ? cellStyle.getDataFormat() : 0;
+            String pattern = cellStyle != null ? cellStyle.getDataFormatString() : null;
+            return new NumberFormat(index, pattern != null ? pattern : BuiltinFormats.getBuiltinFormat(index));
+        }
+
+        private void skipElement() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0 && xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                xml.close();
+            } catch (XMLStreamException ignored) {
+            }
+            in.close();
+            openSheets.remove(this);
+        }
+    }
+
+    /** 0-based column of an A1-style reference ("AB12" -> 27). */
+    static int columnIndex(String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                column = column * 26 + (c - 'A' + 1);
+            } else if (c >= 'a' && c <= 'z') {
+                column = column * 26 + (c - 'a' + 1);
+            } else {
+                break;
+            }
+        }
+        return column - 1;
+    }
+
+    /** .xls fallback: walks the HSSF sheet and converts each row. */
+    private final class HssfRows implements Iterator<ExcelRow> {
+        private final Iterator<Row> rows;
+
+        HssfRows(int index) {
+            this.rows = workbook.getSheetAt(index).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public ExcelRow next() {
+            Row row = rows.next();
+            List<ExcelCell> cells = new ArrayList<>();
+            for (Cell cell : row) {
+                cells.add(convert(cell));
+            }
+            return new ExcelRow(row.getRowNum(), cells);
+        }
+
+        private ExcelCell convert(Cell cell) {
+            CellStyle style = cell.getCellStyle();
+            int formatIndex = style != null ? style.getDataFormat() : 0;
+            String formatString = style != null ? style.getDataFormatString() : BuiltinFormats.getBuiltinFormat(0);
+            CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+            int column = cell.getColumnIndex();
+            return switch (type) {
+                case STRING -> new ExcelCell(column, type, cell.getStringCellValue(), 0, formatIndex, formatString, date1904);
+                case NUMERIC -> new ExcelCell(column, type, null, cell.getNumericCellValue(), formatIndex, formatString, date1904);
+                case BOOLEAN -> new ExcelCell(column, type, null, cell.getBooleanCellValue() ? 1 : 0,
+                        formatIndex, formatString, date1904);
+                case ERROR -> new ExcelCell(column, type, FormulaError.forInt(cell.getErrorCellValue()).getString(), 0,
+                        formatIndex, formatString, date1904);
+                default -> new ExcelCell(column, CellType.BLANK, null, 0, formatIndex, formatString, date1904);
+            };
+        }
+    }
+}
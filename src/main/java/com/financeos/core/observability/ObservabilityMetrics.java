@@ -3,9 +3,11 @@ package com.financeos.core.observability;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -51,6 +53,30 @@ public class ObservabilityMetrics {
                 .increment();
     }
 
+    /**
+     * Records how long a job waited between enqueue and claim.
+     * @param lane bounded job lane identifier (the job name, e.g. "statement-ingest")
+     */
+    public void recordJobQueueWait(String lane, Duration wait) {
+        Timer.builder("financeos.job.queue.wait")
+                .tag("lane", lane != null ? lane : "unknown")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(wait.isNegative() ? Duration.ZERO : wait);
+    }
+
+    /**
+     * Records how long a job's handler ran, whatever its outcome.
+     * @param lane bounded job lane identifier
+     */
+    public void recordJobRunTime(String lane, Duration runTime) {
+        Timer.builder("financeos.job.run.time")
+                .tag("lane", lane != null ? lane : "unknown")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(runTime);
+    }
+
     private AtomicLong getOrCreateJobGauge(String jobName, long initialEpochSecond) {
         return jobLastSuccessGauges.computeIfAbsent(jobName, name -> {
             AtomicLong gaugeValue = new AtomicLong(initialEpochSecond);
@@ -91,4 +117,64 @@ public class ObservabilityMetrics {
                 .register(registry)
                 .increment(tokenCount);
     }
+
+    /**
+     * Records the latency of a successful LLM call.
+     * @param provider LLM provider name
+     */
+    public void recordLlmLatency(String provider, Duration latency) {
+        Timer.builder("financeos.llm.latency")
+                .tag("provider", provider != null ? provider : "unknown")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    /**
+     * Increments the hedged-request counter.
+     * @param provider provider the hedge was sent to
+     * @param outcome "fired" when the hedge is sent, "won" when it answered first
+     */
+    public void recordLlmHedge(String provider, String outcome) {
+        Counter.builder("financeos.llm.hedges")
+                .tag("provider", provider != null ? provider : "unknown")
+                .tag("outcome", outcome != null ? outcome : "unknown")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Increments the lookup counter of an in-process cache.
+     * @param cache bounded cache identifier (e.g. "category-rules")
+     * @param hit whether the lookup was served from the cache
+     */
+    public void recordCacheAccess(String cache, boolean hit) {
+        Counter.builder("financeos.cache.requests")
+                .tag("cache", cache != null ? cache : "unknown")
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Increments the count of LLM calls answered without a provider (e.g. by a learned template).
+     * @param task bounded LLM task identifier (e.g. "email-extract")
+     */
+    public void recordLlmCallAvoided(String task) {
+        Counter.builder("financeos.llm.calls.avoided")
+                .tag("task", task != null ? task : "unknown")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Increments the count of sampled alert-template hits checked against the LLM.
+     * @param agreed whether the template and the LLM extracted the same transaction
+     */
+    public void recordAlertTemplateVerification(boolean agreed) {
+        Counter.builder("financeos.gmail.alert.template.verifications")
+                .tag("result", agreed ? "agreed" : "disagreed")
+                .register(registry)
+                .increment();
+    }
 }
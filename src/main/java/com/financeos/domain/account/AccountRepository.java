@@ -1,10 +1,17 @@
 package com.financeos.domain.account;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -27,5 +34,16 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     List<Account> findByUserIdAndHasStatementPassword(UUID userId);
 
     List<Account> findByUserId(UUID userId);
-}
 
+    /** Moves last_statement_date forward only, so concurrent ingests of older statements can't rewind it. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Account a SET a.lastStatementDate = :date WHERE a.id = :id " +
+           "AND (a.lastStatementDate IS NULL OR a.lastStatementDate < :date)")
+    int advanceLastStatementDate(@Param("id") UUID id, @Param("date") LocalDate date);
+
+    /** Serializes ingest writes into one account, so each one's duplicate check sees the others' rows. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") UUID id);
+}
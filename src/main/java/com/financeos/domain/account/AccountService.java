@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -86,7 +87,11 @@ public class AccountService {
     @Transactional(readOnly = true)
     public List<Account> getAllAccounts() {
         List<Account> accounts = accountRepository.findAll();
-        accounts.forEach(this::populateBalanceInfo);
+        Map<UUID, BigDecimal> brokerMarketValues = holdingValuationService.getBrokerMarketValues(accounts.stream()
+                .filter(a -> a.getType() == AccountType.broker)
+                .map(Account::getId)
+                .toList());
+        accounts.forEach(account -> populateBalanceInfo(account, brokerMarketValues));
         return accounts;
     }
 
@@ -271,11 +276,18 @@ public class AccountService {
     }
 
     private void populateBalanceInfo(Account account) {
+        populateBalanceInfo(account, null);
+    }
+
+    /** {@code brokerMarketValues}, when given, holds the broker accounts' market values computed up front. */
+    private void populateBalanceInfo(Account account, Map<UUID, BigDecimal> brokerMarketValues) {
         if (account.getType() == AccountType.broker) {
             BigDecimal cash = account.getBrokerDetails() != null && account.getBrokerDetails().getCashBalance() != null
                     ? account.getBrokerDetails().getCashBalance()
                     : BigDecimal.ZERO;
-            BigDecimal marketValue = holdingValuationService.getBrokerMarketValue(account.getId());
+            BigDecimal marketValue = brokerMarketValues != null
+                    ? brokerMarketValues.getOrDefault(account.getId(), BigDecimal.ZERO)
+                    : holdingValuationService.getBrokerMarketValue(account.getId());
             account.setCalculatedBalance(marketValue.add(cash));
             account.setBalanceAnchored(false);
             account.setAnchorDate(null);
@@ -1,6 +1,7 @@
 package com.financeos.domain.categorization;
 
 import com.financeos.core.observability.Events;
+import com.financeos.domain.categorization.CompiledRuleSetCache.RuleRef;
 import net.logstash.logback.argument.StructuredArguments;
 import com.financeos.domain.category.Category;
 import com.financeos.domain.category.CategoryRepository;
@@ -8,6 +9,7 @@ import com.financeos.domain.transaction.*;
 import com.financeos.domain.user.User;
 import com.financeos.domain.user.UserRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +27,8 @@ public class CategorizationService {
     private final UserRepository userRepository;
     private final TransactionCategorizer transactionCategorizer;
     private final ReviewStatusManager reviewStatusManager;
+    private final CompiledRuleSetCache ruleSetCache;
+    private final ApplicationEventPublisher eventPublisher;
     private final CategorizationService self;
 
     // self is a @Lazy-injected proxy of this same bean: batchCategorize/suggestForDescription must call
@@ -38,6 +42,8 @@ public class CategorizationService {
                                  UserRepository userRepository,
                                  TransactionCategorizer transactionCategorizer,
                                  ReviewStatusManager reviewStatusManager,
+                                 CompiledRuleSetCache ruleSetCache,
+                                 ApplicationEventPublisher eventPublisher,
                                  @Lazy CategorizationService self) {
         this.categoryRuleRepository = categoryRuleRepository;
         this.categoryRepository = categoryRepository;
@@ -45,6 +51,8 @@ public class CategorizationService {
         this.userRepository = userRepository;
         this.transactionCategorizer = transactionCategorizer;
         this.reviewStatusManager = reviewStatusManager;
+        this.ruleSetCache = ruleSetCache;
+        this.eventPublisher = eventPublisher;
         this.self = self != null ? self : this;
     }
 
@@ -59,8 +67,8 @@ public class CategorizationService {
     }
 
     public Optional<CategoryRule> findBestMatchingRule(UUID userId, String description) {
-        List<CategoryRule> rules = categoryRuleRepository.findByUserId(userId);
-        return bestMatch(rules, description);
+        return bestMatch(compiledRules(userId), description)
+                .flatMap(ref -> categoryRuleRepository.findWithCategoriesById(ref.id()));
     }
 
     /**
@@ -68,21 +76,23 @@ public class CategorizationService {
      * always beat auto-generated ones, then the more literal match type wins, then the
      * longer pattern, then verified, then most recently updated.
      */
-    static final Comparator<CategoryRule> RULE_PRECEDENCE = Comparator
-            .<CategoryRule, Integer>comparing(r -> "USER".equals(r.getSource()) ? 1 : 0)
-            .thenComparing(r -> (r.getMatchType() == null ? MatchType.MERCHANT_KEY : r.getMatchType()).specificity())
-            .thenComparing(r -> r.getMerchantKey().length())
-            .thenComparing(CategoryRule::isVerified)
-            .thenComparing(CategoryRule::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
-
-    private static Optional<CategoryRule> bestMatch(List<CategoryRule> rules, String description) {
+    static final Comparator<RuleRef> RULE_PRECEDENCE = Comparator
+            .<RuleRef, Integer>comparing(r -> "USER".equals(r.source()) ? 1 : 0)
+            .thenComparing(r -> (r.matchType() == null ? MatchType.MERCHANT_KEY : r.matchType()).specificity())
+            .thenComparing(r -> r.pattern().length())
+            .thenComparing(RuleRef::verified)
+            .thenComparing(RuleRef::updatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private RuleIndex<RuleRef> compiledRules(UUID userId) {
+        return ruleSetCache.get(userId, () -> categoryRuleRepository.findByUserId(userId));
+    }
+
+    private static Optional<RuleRef> bestMatch(RuleIndex<RuleRef> rules, String description) {
         RuleMatcher.MatchContext ctx = RuleMatcher.MatchContext.of(description);
         if (ctx.isBlank()) {
             return Optional.empty();
         }
-        return rules.stream()
-                .filter(rule -> RuleMatcher.matches(rule, ctx))
-                .max(RULE_PRECEDENCE);
+        return rules.best(ctx, RULE_PRECEDENCE);
     }
 
     private CategoryRule getOrCreateRule(UUID userId, String normalizedKey, String displayName,
@@ -109,6 +119,7 @@ public class CategorizationService {
         rule.setSource("LLM");
         rule.setAppliedCount(0);
         CategoryRule saved = categoryRuleRepository.save(rule);
+        eventPublisher.publishEvent(new CategoryRulesChangedEvent(userId));
         batchCache.put(normalizedKey, saved);
         return saved;
     }
@@ -117,6 +128,7 @@ public class CategorizationService {
     public void verifyRule(CategoryRule rule) {
         rule.setVerified(true);
         categoryRuleRepository.save(rule);
+        eventPublisher.publishEvent(new CategoryRulesChangedEvent(rule.getUser().getId()));
 
         List<Transaction> txns = transactionRepository.findByAppliedRuleId(rule.getId());
         List<Transaction> toSave = new ArrayList<>();
@@ -135,6 +147,7 @@ public class CategorizationService {
     public void updateRuleCategories(CategoryRule rule, Set<Category> newCategories) {
         rule.setCategories(newCategories);
         categoryRuleRepository.save(rule);
+        eventPublisher.publishEvent(new CategoryRulesChangedEvent(rule.getUser().getId()));
 
         List<Transaction> txns = transactionRepository.findByAppliedRuleId(rule.getId());
         List<Transaction> toSave = new ArrayList<>();
@@ -168,7 +181,7 @@ public class CategorizationService {
         UUID userId = user.getId();
 
         List<Category> userCategories = categoryRepository.findByUserId(userId);
-        List<CategoryRule> rules = categoryRuleRepository.findByUserId(userId);
+        RuleIndex<RuleRef> rules = compiledRules(userId);
 
         Map<Integer, UUID> ruleMatchesByIndex = new HashMap<>();
         List<TransactionCategorizer.CategorizeItemRequest> llmBatchRequests = new ArrayList<>();
@@ -180,9 +193,9 @@ public class CategorizationService {
                 continue;
             }
 
-            Optional<CategoryRule> matchingRule = bestMatch(rules, description);
+            Optional<RuleRef> matchingRule = bestMatch(rules, description);
             if (matchingRule.isPresent()) {
-                ruleMatchesByIndex.put(i, matchingRule.get().getId());
+                ruleMatchesByIndex.put(i, matchingRule.get().id());
             } else {
                 llmBatchRequests.add(new TransactionCategorizer.CategorizeItemRequest(i, description));
             }
@@ -216,6 +229,7 @@ public class CategorizationService {
                                            List<TransactionCategorizer.CategorizeItemResponse> llmResponses) {
         Map<String, CategoryRule> batchCache = new HashMap<>();
         Map<String, Category> createdCategoriesByName = new HashMap<>();
+        Map<UUID, Integer> appliedCounts = new HashMap<>();
 
         for (Map.Entry<Integer, UUID> entry : ruleMatchesByIndex.entrySet()) {
             Transaction txn = txns.get(entry.getKey());
@@ -233,9 +247,7 @@ public class CategorizationService {
             if ((txn.getMcc() == null || txn.getMcc().isBlank()) && rule.getMcc() != null && !rule.getMcc().isBlank()) {
                 txn.setMcc(rule.getMcc());
             }
-            rule.setAppliedCount(rule.getAppliedCount() + 1);
-            rule.setLastAppliedAt(Instant.now());
-            categoryRuleRepository.save(rule);
+            appliedCounts.merge(rule.getId(), 1, Integer::sum);
 
             String catAfter = rule.getCategories() != null ? rule.getCategories().toString() : "";
             boolean overridden = catBefore != null && !catBefore.isBlank() && !catBefore.equals("[]");
@@ -322,9 +334,7 @@ public class CategorizationService {
                             CategoryRule rule = getOrCreateRule(userId, normalizedKey, res.displayName(), resolvedCategories, batchCache);
                             txn.setCategories(resolvedCategories);
                             txn.setAppliedRule(rule);
-                            rule.setAppliedCount(rule.getAppliedCount() + 1);
-                            rule.setLastAppliedAt(Instant.now());
-                            categoryRuleRepository.save(rule);
+                            appliedCounts.merge(rule.getId(), 1, Integer::sum);
 
                             String catAfter = resolvedCategories.toString();
                             boolean overridden = catBefore != null && !catBefore.isBlank() && !catBefore.equals("[]");
@@ -350,6 +360,8 @@ public class CategorizationService {
             }
         }
 
+        Instant now = Instant.now();
+        appliedCounts.forEach((ruleId, count) -> categoryRuleRepository.recordApplied(ruleId, count, now));
         saveAllTxnsIfPersisted(txns);
     }
 
@@ -409,8 +421,8 @@ public class CategorizationService {
      */
     @Transactional(readOnly = true)
     public Optional<SuggestionResult> suggestFromRules(UUID userId, String description) {
-        List<CategoryRule> rules = categoryRuleRepository.findByUserId(userId);
-        Optional<CategoryRule> match = bestMatch(rules, description);
+        Optional<CategoryRule> match = bestMatch(compiledRules(userId), description)
+                .flatMap(ref -> categoryRuleRepository.findWithCategoriesById(ref.id()));
         if (match.isEmpty()) {
             return Optional.empty();
         }
@@ -4,9 +4,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +32,12 @@ public interface CategoryRuleRepository extends JpaRepository<CategoryRule, UUID
 
     @EntityGraph(attributePaths = "categories")
     Optional<CategoryRule> findWithCategoriesById(UUID id);
+
+    /**
+     * Counts applications of a rule without an entity update, so {@code updatedAt} (a precedence
+     * tie-break held by the compiled-rule cache) only moves when the rule itself changes.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CategoryRule r SET r.appliedCount = r.appliedCount + :count, r.lastAppliedAt = :now WHERE r.id = :id")
+    int recordApplied(@Param("id") UUID id, @Param("count") int count, @Param("now") Instant now);
 }
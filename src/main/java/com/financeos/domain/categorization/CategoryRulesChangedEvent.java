@@ -0,0 +1,11 @@
+package com.financeos.domain.categorization;
+
+import java.util.UUID;
+
+/**
+ * Published when one of a user's category rules is created, edited, verified or deleted. Handled
+ * by {@link CompiledRuleSetCache}, which bumps the user's rule-set version so the next match
+ * recompiles from the table. Usage bookkeeping (applied count, last applied) does not publish it.
+ */
+public record CategoryRulesChangedEvent(UUID userId) {
+}
@@ -0,0 +1,98 @@
+package com.financeos.domain.categorization;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of each user's compiled rule set, so single-description suggestions (UI,
+ * Gmail ingestion) and batch categorization stop re-reading and re-compiling the rule table.
+ *
+ * <p>Entries are tagged with the user's rule-set version, which {@link CategoryRulesChangedEvent}
+ * bumps after commit (immediately when raised outside a transaction). The version is read before
+ * the rules are loaded, so a set compiled from pre-change rows is never served after the bump.
+ * Cached rules are detached {@link RuleRef} snapshots; callers re-fetch the matched rule by id
+ * when they need its categories. Bounded LRU of {@code categorization.rule-cache.size} users.
+ */
+@Component
+public class CompiledRuleSetCache {
+
+    private static final String CACHE_NAME = "category-rules";
+
+    /** The fields of a rule that matching and precedence read. */
+    public record RuleRef(UUID id, MatchType matchType, String pattern, String source, boolean verified,
+                          Instant updatedAt) {
+        static RuleRef of(CategoryRule rule) {
+            return new RuleRef(rule.getId(), rule.getMatchType(), rule.getMerchantKey(), rule.getSource(),
+                    rule.isVerified(), rule.getUpdatedAt());
+        }
+    }
+
+    private record Entry(long version, RuleIndex<RuleRef> rules) {
+    }
+
+    private final ObservabilityMetrics metrics;
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> entries;
+
+    public CompiledRuleSetCache(@Value("${categorization.rule-cache.size:1000}") int maxEntries,
+                                ObservabilityMetrics metrics) {
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** The user's compiled rules, compiling from {@code loader} on a miss or a stale version. */
+    public RuleIndex<RuleRef> get(UUID userId, Supplier<List<CategoryRule>> loader) {
+        long version = version(userId);
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version() == version) {
+                metrics.recordCacheAccess(CACHE_NAME, true);
+                return entry.rules();
+            }
+        }
+        metrics.recordCacheAccess(CACHE_NAME, false);
+
+        List<RuleRef> refs = loader.get().stream().map(RuleRef::of).toList();
+        RuleIndex<RuleRef> rules = RuleIndex.compile(refs, RuleRef::matchType, RuleRef::pattern);
+        synchronized (this) {
+            if (version(userId) == version) {
+                entries.put(userId, new Entry(version, rules));
+            }
+        }
+        return rules;
+    }
+
+    public long version(UUID userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    public void invalidate(UUID userId) {
+        versions.merge(userId, 1L, Long::sum);
+        synchronized (this) {
+            entries.remove(userId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRulesChanged(CategoryRulesChangedEvent event) {
+        if (event.userId() != null) {
+            invalidate(event.userId());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.financeos.domain.categorization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * A set of rule patterns compiled for matching many descriptions. MERCHANT_KEY and CONTAINS
+ * patterns go into Aho–Corasick automatons (over the normalized and upper-cased description
+ * respectively), STARTS_WITH into an anchored trie and EXACT into a hash map, so one pass over
+ * a description finds every literal rule it matches; only REGEX rules (compiled once, here) are
+ * evaluated one by one.
+ * Match semantics are exactly those of {@link RuleMatcher#matches(MatchType, String, RuleMatcher.MatchContext)}.
+ * <p>
+ * Immutable once compiled and safe to share across threads.
+ */
+public final class RuleIndex<T> {
+
+    private final List<T> items;
+    private final Automaton merchantKeys;
+    private final Automaton contains;
+    private final Automaton prefixes;
+    private final Map<String, int[]> exact;
+    private final int[] regexIds;
+    private final Pattern[] regexes;
+
+    private RuleIndex(List<T> items, Automaton merchantKeys, Automaton contains, Automaton prefixes,
+                      Map<String, int[]> exact, int[] regexIds, Pattern[] regexes) {
+        this.items = items;
+        this.merchantKeys = merchantKeys;
+        this.contains = contains;
+        this.prefixes = prefixes;
+        this.exact = exact;
+        this.regexIds = regexIds;
+        this.regexes = regexes;
+    }
+
+    public static RuleIndex<CategoryRule> of(List<CategoryRule> rules) {
+        return compile(rules, CategoryRule::getMatchType, CategoryRule::getMerchantKey);
+    }
+
+    /** Index over a single (possibly unsaved) pattern, e.g. for a rule preview. */
+    public static RuleIndex<String> ofPattern(MatchType type, String pattern) {
+        return compile(List.of(pattern == null ? "" : pattern), p -> type, Function.identity());
+    }
+
+    public static <T> RuleIndex<T> compile(List<T> items, Function<T, MatchType> typeOf, Function<T, String> patternOf) {
+        Automaton merchantKeys = new Automaton(false);
+        Automaton contains = new Automaton(false);
+        Automaton prefixes = new Automaton(true);
+        Map<String, List<Integer>> exactIds = new HashMap<>();
+        List<Integer> regexIds = new ArrayList<>();
+        List<Pattern> regexes = new ArrayList<>();
+
+        for (int id = 0; id < items.size(); id++) {
+            T item = items.get(id);
+            String pattern = patternOf.apply(item);
+            if (pattern == null || pattern.isBlank()) {
+                continue;
+            }
+            MatchType type = typeOf.apply(item);
+            switch (type == null ? MatchType.MERCHANT_KEY : type) {
+                case MERCHANT_KEY -> {
+                    if (pattern.length() >= RuleMatcher.MIN_PATTERN_LENGTH) {
+                        merchantKeys.add(pattern, id);
+                    }
+                }
+                case CONTAINS -> contains.add(pattern.toUpperCase(Locale.ROOT), id);
+                case STARTS_WITH -> prefixes.add(pattern.trim().toUpperCase(Locale.ROOT), id);
+                case EXACT -> exactIds.computeIfAbsent(pattern.trim().toUpperCase(Locale.ROOT), k -> new ArrayList<>()).add(id);
+                case REGEX -> {
+                    Pattern compiled = RuleMatcher.compileRegex(pattern);
+                    if (compiled != null) {
+                        regexIds.add(id);
+                        regexes.add(compiled);
+                    }
+                }
+            }
+        }
+        merchantKeys.build();
+        contains.build();
+
+        Map<String, int[]> exact = new HashMap<>();
+        exactIds.forEach((key, ids) -> exact.put(key, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return new RuleIndex<>(List.copyOf(items), merchantKeys, contains, prefixes, exact,
+                regexIds.stream().mapToInt(Integer::intValue).toArray(), regexes.toArray(Pattern[]::new));
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /** Every item whose pattern matches, in index order. */
+    public List<T> matching(RuleMatcher.MatchContext ctx) {
+        BitSet matched = new BitSet(items.size());
+        scan(ctx, id -> {
+            matched.set(id);
+            return true;
+        });
+        List<T> result = new ArrayList<>(matched.cardinality());
+        for (int id = matched.nextSetBit(0); id >= 0; id = matched.nextSetBit(id + 1)) {
+            result.add(items.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * The highest-precedence match; on ties the earliest item wins, as with
+     * {@code items.stream().filter(matches).max(precedence)}.
+     */
+    public Optional<T> best(RuleMatcher.MatchContext ctx, Comparator<? super T> precedence) {
+        T best = null;
+        for (T candidate : matching(ctx)) {
+            if (best == null || precedence.compare(candidate, best) > 0) {
+                best = candidate;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public boolean anyMatch(RuleMatcher.MatchContext ctx) {
+        boolean[] found = new boolean[1];
+        scan(ctx, id -> {
+            found[0] = true;
+            return false;
+        });
+        return found[0];
+    }
+
+    /** Reports matched ids (possibly repeatedly) until {@code onMatch} returns false. */
+    private void scan(RuleMatcher.MatchContext ctx, IntPredicate onMatch) {
+        if (items.isEmpty() || ctx.isBlank()) {
+            return;
+        }
+        String upper = ctx.upper();
+        int[] exactIds = exact.get(upper);
+        if (exactIds != null) {
+            for (int id : exactIds) {
+                if (!onMatch.test(id)) {
+                    return;
+                }
+            }
+        }
+        if (!prefixes.scan(upper, onMatch) || !contains.scan(upper, onMatch)) {
+            return;
+        }
+        if (!merchantKeys.isEmpty() && !merchantKeys.scan(ctx.normalized(), onMatch)) {
+            return;
+        }
+        for (int i = 0; i < regexIds.length; i++) {
+            if (RuleMatcher.regexMatches(regexes[i], ctx) && !onMatch.test(regexIds[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Char trie; unanchored instances get Aho–Corasick failure and dictionary-suffix links and
+     * report every pattern occurring anywhere in the text, anchored ones only patterns that are
+     * prefixes of it.
+     */
+    static final class Automaton {
+        private static final int[] NO_OUTPUTS = new int[0];
+        private static final int ROOT = 0;
+
+        private final boolean anchored;
+        private final List<Node> nodes = new ArrayList<>();
+
+        Automaton(boolean anchored) {
+            this.anchored = anchored;
+            nodes.add(new Node());
+        }
+
+        private static final class Node {
+            char[] keys = new char[0];
+            int[] targets = new int[0];
+            int[] outputs = NO_OUTPUTS;
+            int fail = ROOT;
+            int dictLink = -1; // nearest node on the failure chain that has outputs
+
+            int child(char c) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] == c) {
+                        return targets[i];
+                    }
+                }
+                return -1;
+            }
+
+            void addChild(char c, int target) {
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                targets = Arrays.copyOf(targets, targets.length + 1);
+                keys[keys.length - 1] = c;
+                targets[targets.length - 1] = target;
+            }
+        }
+
+        void add(String pattern, int id) {
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int next = nodes.get(state).child(c);
+                if (next < 0) {
+                    next = nodes.size();
+                    nodes.add(new Node());
+                    nodes.get(state).addChild(c, next);
+                }
+                state = next;
+            }
+            Node node = nodes.get(state);
+            node.outputs = Arrays.copyOf(node.outputs, node.outputs.length + 1);
+            node.outputs[node.outputs.length - 1] = id;
+        }
+
+        boolean isEmpty() {
+            return nodes.size() == 1;
+        }
+
+        /** Computes failure links breadth-first; a no-op for anchored tries. */
+        void build() {
+            if (anchored) {
+                return;
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(ROOT);
+            while (!queue.isEmpty()) {
+                Node parent = nodes.get(queue.poll());
+                for (int i = 0; i < parent.keys.length; i++) {
+                    char c = parent.keys[i];
+                    int target = parent.targets[i];
+                    Node node = nodes.get(target);
+                    int f = parent.fail;
+                    int link = nodes.get(f).child(c);
+                    while (link < 0 && f != ROOT) {
+                        f = nodes.get(f).fail;
+                        link = nodes.get(f).child(c);
+                    }
+                    node.fail = link >= 0 && link != target ? link : ROOT;
+                    Node failNode = nodes.get(node.fail);
+                    node.dictLink = failNode.outputs.length > 0 ? node.fail : failNode.dictLink;
+                    queue.add(target);
+                }
+            }
+        }
+
+        /** Returns false if {@code onMatch} stopped the scan. */
+        boolean scan(String text, IntPredicate onMatch) {
+            if (isEmpty()) {
+                return true;
+            }
+            int state = ROOT;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                int next = nodes.get(state).child(c);
+                if (anchored) {
+                    if (next < 0) {
+                        return true;
+                    }
+                } else {
+                    while (next < 0 && state != ROOT) {
+                        state = nodes.get(state).fail;
+                        next = nodes.get(state).child(c);
+                    }
+                    if (next < 0) {
+                        continue;
+                    }
+                }
+                state = next;
+                Node node = nodes.get(state);
+                if (!emit(node.outputs, onMatch)) {
+                    return false;
+                }
+                for (int d = node.dictLink; d >= 0; d = nodes.get(d).dictLink) {
+                    if (!emit(nodes.get(d).outputs, onMatch)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static boolean emit(int[] ids, IntPredicate onMatch) {
+            for (int id : ids) {
+                if (!onMatch.test(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
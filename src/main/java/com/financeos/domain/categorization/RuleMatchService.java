@@ -10,6 +10,7 @@ import com.financeos.domain.transaction.TransactionType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -98,12 +100,50 @@ public class RuleMatchService {
         return apply(loadRule(ruleId), transactionIds);
     }
 
-    /** Applies the rule to every transaction its pattern currently matches. */
+    /**
+     * Resume point of an apply-to-all-matches run: candidates are scanned in id order, and
+     * {@code afterId} is the last one covered by a committed chunk.
+     */
+    public record ApplyCursor(UUID afterId, int scanned, int applied, boolean done) {
+        public static ApplyCursor start() {
+            return new ApplyCursor(new UUID(0L, 0L), 0, 0, false);
+        }
+    }
+
+    /** Number of transactions an apply-to-all-matches run scans, for progress reporting. */
+    @Transactional(readOnly = true)
+    public long countApplyCandidates(UUID userId) {
+        return transactionRepository.countRuleMatchCandidates(userId, ReviewType.MANUALLY_REVIEWED);
+    }
+
+    /**
+     * Applies the rule to the matches among the next {@code chunkSize} candidates after the
+     * cursor, in one transaction. {@code onChunk} receives the advanced cursor inside that
+     * transaction (e.g. to persist it as a job checkpoint), so the cursor and the applied rows
+     * commit together. Called once per chunk until the returned cursor is done.
+     */
     @Transactional
-    public int applyToAllMatches(UUID ruleId) {
+    public ApplyCursor applyNextChunk(UUID ruleId, ApplyCursor cursor, int chunkSize, Consumer<ApplyCursor> onChunk) {
         CategoryRule rule = loadRule(ruleId);
-        List<UUID> matchedIds = matchingTransactionIds(rule.getUser().getId(), rule.getMatchType(), rule.getMerchantKey());
-        return apply(rule, matchedIds);
+        List<TransactionRepository.RuleMatchCandidate> candidates = transactionRepository.findRuleMatchCandidatesAfter(
+                rule.getUser().getId(), ReviewType.MANUALLY_REVIEWED, cursor.afterId(), PageRequest.of(0, chunkSize));
+
+        RuleIndex<CategoryRule> index = RuleIndex.of(List.of(rule));
+        List<UUID> matched = new ArrayList<>();
+        for (TransactionRepository.RuleMatchCandidate candidate : candidates) {
+            if (index.anyMatch(RuleMatcher.MatchContext.of(candidate.getSourcedDescription()))) {
+                matched.add(candidate.getId());
+            }
+        }
+        int applied = matched.isEmpty() ? 0 : applyLoaded(rule, index, matched);
+
+        ApplyCursor next = new ApplyCursor(
+                candidates.isEmpty() ? cursor.afterId() : candidates.get(candidates.size() - 1).getId(),
+                cursor.scanned() + candidates.size(),
+                cursor.applied() + applied,
+                candidates.size() < chunkSize);
+        onChunk.accept(next);
+        return next;
     }
 
     private CategoryRule loadRule(UUID ruleId) {
@@ -111,13 +151,24 @@ public class RuleMatchService {
                 .orElseThrow(() -> new com.financeos.core.exception.ResourceNotFoundException("Rule", ruleId));
     }
 
+    /**
+     * Ids of the user's candidates the pattern matches, newest first. The pattern is pushed down
+     * to Oracle as a {@link RulePrefilter} where it translates, so only likely matches leave the
+     * database; either way each row is decided by the Java matcher.
+     */
     private List<UUID> matchingTransactionIds(UUID userId, MatchType matchType, String pattern) {
-        List<TransactionRepository.RuleMatchCandidate> candidates =
-                transactionRepository.findRuleMatchCandidates(userId, ReviewType.MANUALLY_REVIEWED);
+        if (pattern == null || pattern.isBlank()) {
+            return List.of();
+        }
+        List<TransactionRepository.RuleMatchCandidate> candidates = RulePrefilter.of(matchType, pattern)
+                .map(prefilter -> transactionRepository.findRuleMatchCandidatesPrefiltered(
+                        userId, ReviewType.MANUALLY_REVIEWED, prefilter))
+                .orElseGet(() -> transactionRepository.findRuleMatchCandidates(userId, ReviewType.MANUALLY_REVIEWED));
+        RuleIndex<String> index = RuleIndex.ofPattern(matchType, pattern);
         List<UUID> matched = new ArrayList<>();
         for (TransactionRepository.RuleMatchCandidate candidate : candidates) {
             RuleMatcher.MatchContext ctx = RuleMatcher.MatchContext.of(candidate.getSourcedDescription());
-            if (RuleMatcher.matches(matchType, pattern, ctx)) {
+            if (index.anyMatch(ctx)) {
                 matched.add(candidate.getId());
             }
         }
@@ -125,6 +176,12 @@ public class RuleMatchService {
     }
 
     private int apply(CategoryRule rule, List<UUID> transactionIds) {
+        int applied = applyLoaded(rule, RuleIndex.of(List.of(rule)), transactionIds);
+        log.info("Applied rule {} ({}) to {} transaction(s)", rule.getId(), rule.getMerchantKey(), applied);
+        return applied;
+    }
+
+    private int applyLoaded(CategoryRule rule, RuleIndex<CategoryRule> index, List<UUID> transactionIds) {
         UUID ruleUserId = rule.getUser().getId();
         Set<Category> ruleCategories = new HashSet<>(rule.getCategories());
 
@@ -140,7 +197,7 @@ public class RuleMatchService {
                 }
                 // Re-verify the predicate so a stale or hand-crafted id can't attach the rule
                 // to a transaction its pattern doesn't match.
-                if (!RuleMatcher.matches(rule, RuleMatcher.MatchContext.of(txn.getSourcedDescription()))) {
+                if (!index.anyMatch(RuleMatcher.MatchContext.of(txn.getSourcedDescription()))) {
                     continue;
                 }
 
@@ -162,11 +219,8 @@ public class RuleMatchService {
         }
 
         if (applied > 0) {
-            rule.setAppliedCount(rule.getAppliedCount() + applied);
-            rule.setLastAppliedAt(Instant.now());
-            categoryRuleRepository.save(rule);
+            categoryRuleRepository.recordApplied(rule.getId(), applied, Instant.now());
         }
-        log.info("Applied rule {} ({}) to {} transaction(s)", rule.getId(), rule.getMerchantKey(), applied);
         return applied;
     }
 
@@ -56,7 +56,11 @@ public final class RuleMatcher {
             return raw.isBlank();
         }
 
-        private String normalized() {
+        String upper() {
+            return upper;
+        }
+
+        String normalized() {
             if (normalized == null) {
                 normalized = DescriptionNormalizer.normalize(raw);
             }
@@ -130,17 +134,33 @@ public final class RuleMatcher {
 
     private static boolean regexMatches(String pattern, String description) {
         Pattern compiled = compiledRegex(pattern);
-        if (compiled == null) {
-            return false;
+        return compiled != null && regexMatches(compiled, description);
+    }
+
+    /** Compiles a stored regex rule pattern, or null when it is invalid (and so never matches). */
+    static Pattern compileRegex(String pattern) {
+        try {
+            return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            // Save-time validation should prevent this; a stored-but-invalid pattern just never matches.
+            return null;
         }
+    }
+
+    /** Deadline-guarded find of a precompiled regex rule against the raw description. */
+    static boolean regexMatches(Pattern compiled, MatchContext ctx) {
+        return !ctx.isBlank() && regexMatches(compiled, ctx.raw);
+    }
+
+    private static boolean regexMatches(Pattern compiled, String description) {
         long deadlineNanos = System.nanoTime() + REGEX_TIMEOUT_MS * 1_000_000;
         try {
             return compiled.matcher(new DeadlineCharSequence(description, deadlineNanos)).find();
         } catch (RegexTimeoutException e) {
-            log.warn("Regex rule evaluation timed out after {}ms; treating as no match. Pattern: {}", REGEX_TIMEOUT_MS, pattern);
+            log.warn("Regex rule evaluation timed out after {}ms; treating as no match. Pattern: {}", REGEX_TIMEOUT_MS, compiled.pattern());
             return false;
         } catch (RuntimeException | StackOverflowError e) {
-            log.warn("Regex rule evaluation failed; treating as no match. Pattern: {}", pattern, e);
+            log.warn("Regex rule evaluation failed; treating as no match. Pattern: {}", compiled.pattern(), e);
             return false;
         }
     }
@@ -150,17 +170,14 @@ public final class RuleMatcher {
         if (cached != null) {
             return cached;
         }
-        try {
-            Pattern compiled = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+        Pattern compiled = compileRegex(pattern);
+        if (compiled != null) {
             if (REGEX_CACHE.size() >= MAX_REGEX_CACHE_SIZE) {
                 REGEX_CACHE.clear();
             }
             REGEX_CACHE.put(pattern, compiled);
-            return compiled;
-        } catch (PatternSyntaxException e) {
-            // Save-time validation should prevent this; a stored-but-invalid pattern just never matches.
-            return null;
         }
+        return compiled;
     }
 
     private static final class RegexTimeoutException extends RuntimeException {
@@ -0,0 +1,123 @@
+package com.financeos.domain.categorization;
+
+import com.financeos.domain.transaction.DescriptionPrefilter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Translates a rule pattern into a {@link DescriptionPrefilter} Oracle can evaluate, so a match
+ * preview only ships likely matches out of the database. Every prefilter accepts at least what
+ * {@link RuleMatcher} accepts; RuleMatcher still decides.
+ * <ul>
+ *   <li>CONTAINS — substring of the upper-cased description.</li>
+ *   <li>STARTS_WITH / EXACT — prefix / equality on the indexed description key.</li>
+ *   <li>MERCHANT_KEY — every space-separated token of the key is a substring of the upper-cased
+ *       description (the normalized description only ever drops or splits characters).</li>
+ *   <li>REGEX — REGEXP_LIKE, only for the subset of Java syntax Oracle reads the same way.</li>
+ * </ul>
+ * Patterns outside printable ASCII get no prefilter, since Oracle's UPPER and Java's disagree
+ * beyond it; for the same reason descriptions outside ASCII always pass the prefilter.
+ */
+final class RulePrefilter {
+
+    private RulePrefilter() {
+    }
+
+    static Optional<DescriptionPrefilter> of(MatchType type, String pattern) {
+        if (pattern == null || pattern.isBlank() || !isPrintableAscii(pattern)) {
+            return Optional.empty();
+        }
+        String upper = pattern.toUpperCase(Locale.ROOT);
+        return switch (type == null ? MatchType.MERCHANT_KEY : type) {
+            case MERCHANT_KEY -> Optional.of(DescriptionPrefilter.containsAll(
+                    Arrays.stream(upper.split(" ")).filter(token -> !token.isEmpty()).toList()));
+            case CONTAINS -> Optional.of(DescriptionPrefilter.containsAll(List.of(upper)));
+            case STARTS_WITH -> Optional.of(DescriptionPrefilter.keyStartsWith(upper.trim()));
+            case EXACT -> Optional.of(DescriptionPrefilter.keyEquals(upper.trim()));
+            case REGEX -> isPortableRegex(pattern)
+                    ? Optional.of(DescriptionPrefilter.regex(pattern))
+                    : Optional.empty();
+        };
+    }
+
+    /**
+     * True when Oracle's REGEXP_LIKE finds a match wherever Java's {@code find()} does. Rejects
+     * Java-only constructs ({@code (?...)} groups, {@code \b}/{@code \p}/{@code \Q} and other
+     * letter escapes, backreferences, class escapes, nested or intersected classes), lazy and
+     * possessive quantifiers, and quantified groups — the last so a backtracking-prone
+     * {@code (a+)+} never runs inside the database, where RuleMatcher's deadline can't stop it.
+     */
+    static boolean isPortableRegex(String pattern) {
+        boolean inClass = false;
+        boolean afterGroup = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            char next = i + 1 < pattern.length() ? pattern.charAt(i + 1) : 0;
+            if (inClass) {
+                if (c == '\\' || c == '[' || (c == '&' && next == '&')) {
+                    return false;
+                }
+                if (c == ']') {
+                    inClass = false;
+                }
+                continue;
+            }
+            boolean quantifier = c == '*' || c == '+' || c == '?' || c == '{';
+            if (quantifier && afterGroup) {
+                return false;
+            }
+            afterGroup = c == ')';
+            switch (c) {
+                case '\\' -> {
+                    if (next == 0 || (Character.isLetterOrDigit(next) && "dDsSwW".indexOf(next) < 0)) {
+                        return false;
+                    }
+                    i++;
+                }
+                case '[' -> {
+                    inClass = true;
+                    if (next == '^') {
+                        i++;
+                    }
+                }
+                case '(' -> {
+                    if (next == '?') {
+                        return false;
+                    }
+                }
+                case '*', '+', '?' -> {
+                    if (next == '?' || next == '+') {
+                        return false;
+                    }
+                }
+                case '{' -> {
+                    int close = pattern.indexOf('}', i);
+                    if (close < 0) {
+                        return false;
+                    }
+                    char after = close + 1 < pattern.length() ? pattern.charAt(close + 1) : 0;
+                    if (after == '?' || after == '+') {
+                        return false;
+                    }
+                    i = close;
+                }
+                default -> {
+                }
+            }
+        }
+        return !inClass;
+    }
+
+    private static boolean isPrintableAscii(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
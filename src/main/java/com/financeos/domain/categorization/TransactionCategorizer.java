@@ -1,31 +1,49 @@
 package com.financeos.domain.categorization;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.financeos.llm.LlmClient;
 import com.financeos.llm.LlmRequest;
 import com.financeos.llm.LlmResponse;
+import com.financeos.llm.cache.LlmResponseCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class TransactionCategorizer {
 
+    private static final String TASK = "categorize";
     private static final int RETRY_CHUNK_SIZE = 20;
 
     private final LlmClient llmClient;
     private final ObjectMapper objectMapper;
+    private final LlmResponseCache responseCache;
 
     public TransactionCategorizer(LlmClient llmClient, ObjectMapper objectMapper) {
+        this(llmClient, objectMapper, null);
+    }
+
+    @Autowired
+    public TransactionCategorizer(LlmClient llmClient, ObjectMapper objectMapper, LlmResponseCache responseCache) {
         this.llmClient = llmClient;
         this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
     }
 
     public record CategorizeItemRequest(int index, String description) {}
@@ -38,7 +56,7 @@ public class TransactionCategorizer {
             Boolean noFit
     ) {}
 
-    private record ChunkResult(List<CategorizeItemResponse> responses, String providerId) {}
+    private record ChunkResult(List<CategorizeItemResponse> responses, String providerId, String model) {}
 
     public List<CategorizeItemResponse> categorize(List<CategorizeItemRequest> items, List<String> availableCategories) {
         List<CategorizeItemResponse> fallbackResults = new ArrayList<>();
@@ -79,32 +97,103 @@ public class TransactionCategorizer {
         }
 
         List<CategorizeItemResponse> fanOutResults = new ArrayList<>();
-        int size = llmClient.recommendedBatchSize("categorize");
-        int i = 0;
-        while (i < representatives.size()) {
-            int chunkSize = Math.min(size, representatives.size() - i);
-            List<CategorizeItemRequest> chunk = representatives.subList(i, i + chunkSize);
-            i += chunkSize;
+        representatives = serveCachedItems(representatives, workingCategories, groupMembers, fanOutResults);
+        if (representatives.isEmpty()) {
+            return fanOutResults;
+        }
+        int size = Math.max(1, llmClient.recommendedBatchSize(TASK));
+
+        // The first chunk goes alone: the provider serving it sets the batch size for the rest, and
+        // the categories it proposes are offered to every later chunk.
+        List<CategorizeItemRequest> firstChunk = representatives.subList(0, Math.min(size, representatives.size()));
+        try {
+            String scope = itemScope(workingCategories);
+            ChunkResult result = categorizeChunk(firstChunk, workingCategories);
+            log.info("Categorized chunk of {} items via provider {}", firstChunk.size(), result.providerId());
+            cacheItems(firstChunk, scope, result);
+            size = Math.max(1, llmClient.batchSizeOf(result.providerId()));
+            updateWorkingCategories(result.responses(), workingCategories);
+            emitFanOut(result.responses(), groupMembers, fanOutResults);
+        } catch (Exception e) {
+            log.warn("Chunk of {} items failed categorization, retrying in sub-chunks of {}: {}",
+                    firstChunk.size(), RETRY_CHUNK_SIZE, e.getMessage());
+            emitFanOut(retryChunkInSubChunks(firstChunk, workingCategories), groupMembers, fanOutResults);
+        }
 
+        // The remaining chunks are all sent at once; the LLM client bounds how many run concurrently
+        List<List<CategorizeItemRequest>> chunks = new ArrayList<>();
+        for (int i = firstChunk.size(); i < representatives.size(); i += size) {
+            chunks.add(representatives.subList(i, Math.min(i + size, representatives.size())));
+        }
+        List<String> promptCategories = List.copyOf(workingCategories);
+        String promptScope = itemScope(promptCategories);
+        List<CompletableFuture<ChunkResult>> pending = new ArrayList<>();
+        for (List<CategorizeItemRequest> chunk : chunks) {
+            pending.add(categorizeChunkAsync(chunk, promptCategories));
+        }
+
+        for (int c = 0; c < chunks.size(); c++) {
+            List<CategorizeItemRequest> chunk = chunks.get(c);
             List<CategorizeItemResponse> chunkResponses;
             try {
-                ChunkResult result = categorizeChunk(chunk, workingCategories);
+                ChunkResult result = pending.get(c).join();
                 log.info("Categorized chunk of {} items via provider {}", chunk.size(), result.providerId());
-                size = llmClient.batchSizeOf(result.providerId());
+                cacheItems(chunk, promptScope, result);
                 chunkResponses = result.responses();
                 updateWorkingCategories(chunkResponses, workingCategories);
-            } catch (Exception e) {
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
                 log.warn("Chunk of {} items failed categorization, retrying in sub-chunks of {}: {}",
-                        chunk.size(), RETRY_CHUNK_SIZE, e.getMessage());
+                        chunk.size(), RETRY_CHUNK_SIZE, cause.getMessage());
                 chunkResponses = retryChunkInSubChunks(chunk, workingCategories);
             }
+            emitFanOut(chunkResponses, groupMembers, fanOutResults);
+        }
+
+        return chunks.isEmpty() ? fanOutResults : mergeProposedCategories(fanOutResults, promptCategories);
+    }
 
-            for (CategorizeItemResponse response : chunkResponses) {
-                emitFanOut(response, groupMembers, fanOutResults);
+    /**
+     * The parallel chunks were all offered the same category list, so each may have proposed its
+     * own spelling of one new category ("Grocery", "Groceries"). Once they all finished, every name
+     * is rewritten to the first spelling seen for it, offered categories first, so a batch never
+     * creates near-duplicates of one category.
+     */
+    private static List<CategorizeItemResponse> mergeProposedCategories(List<CategorizeItemResponse> responses,
+                                                                        List<String> offeredCategories) {
+        Map<String, String> canonical = new HashMap<>();
+        for (String category : offeredCategories) {
+            canonical.putIfAbsent(categoryKey(category), category);
+        }
+        List<CategorizeItemResponse> merged = new ArrayList<>(responses.size());
+        for (CategorizeItemResponse response : responses) {
+            if (response.categoryNames() == null) {
+                merged.add(response);
+                continue;
+            }
+            List<String> names = new ArrayList<>();
+            for (String name : response.categoryNames()) {
+                String resolved = name == null || name.isBlank() ? name : canonical.computeIfAbsent(categoryKey(name), k -> name);
+                if (!names.contains(resolved)) {
+                    names.add(resolved);
+                }
             }
+            merged.add(new CategorizeItemResponse(response.index(), response.merchantKey(), response.displayName(),
+                    names, response.noFit()));
         }
+        return merged;
+    }
 
-        return fanOutResults;
+    /** Case, spacing, punctuation and a plural ending don't make a category name distinct. */
+    static String categoryKey(String name) {
+        String key = name.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+        if (key.length() > 4 && key.endsWith("ies")) {
+            return key.substring(0, key.length() - 3) + "y";
+        }
+        if (key.length() > 3 && key.endsWith("s") && !key.endsWith("ss")) {
+            return key.substring(0, key.length() - 1);
+        }
+        return key;
     }
 
     private List<CategorizeItemResponse> retryChunkInSubChunks(List<CategorizeItemRequest> chunk, List<String> workingCategories) {
@@ -116,8 +205,10 @@ public class TransactionCategorizer {
             i += subSize;
 
             try {
+                String scope = itemScope(workingCategories);
                 ChunkResult result = categorizeChunk(subChunk, workingCategories);
                 log.info("Categorized retry sub-chunk of {} items via provider {}", subChunk.size(), result.providerId());
+                cacheItems(subChunk, scope, result);
                 updateWorkingCategories(result.responses(), workingCategories);
                 results.addAll(result.responses());
             } catch (Exception e) {
@@ -127,6 +218,89 @@ public class TransactionCategorizer {
         return results;
     }
 
+    /**
+     * Answers the items whose description was categorized before against the same category list,
+     * and returns the rest. A cached answer is one item of an earlier batch response, so a batch
+     * that is mostly repeats only sends the new descriptions.
+     */
+    private List<CategorizeItemRequest> serveCachedItems(List<CategorizeItemRequest> items, List<String> workingCategories,
+                                                         Map<Integer, List<Integer>> groupMembers, List<CategorizeItemResponse> out) {
+        if (responseCache == null || !responseCache.isEnabled()) {
+            return items;
+        }
+        String scope = itemScope(workingCategories);
+        Map<Integer, String> keyByIndex = new HashMap<>();
+        for (CategorizeItemRequest item : items) {
+            keyByIndex.put(item.index(), LlmResponseCache.key(TASK, scope, item.description()));
+        }
+        Map<String, LlmResponse> cached = responseCache.findAll(keyByIndex.values());
+
+        List<CategorizeItemRequest> misses = new ArrayList<>();
+        List<CategorizeItemResponse> hits = new ArrayList<>();
+        for (CategorizeItemRequest item : items) {
+            LlmResponse hit = cached.get(keyByIndex.get(item.index()));
+            CategorizeItemResponse response = hit != null ? readCachedItem(hit, item.index()) : null;
+            if (response == null) {
+                misses.add(item);
+                continue;
+            }
+            hits.add(response);
+            responseCache.recordSaved(TASK, Objects.toString(item.description(), "").length(), hit.jsonText().length());
+        }
+        if (!hits.isEmpty()) {
+            log.info("Categorized {} of {} items from the response cache", hits.size(), items.size());
+            updateWorkingCategories(hits, workingCategories);
+            emitFanOut(hits, groupMembers, out);
+        }
+        return misses;
+    }
+
+    private void cacheItems(List<CategorizeItemRequest> chunk, String scope, ChunkResult result) {
+        if (responseCache == null || !responseCache.isEnabled()) {
+            return;
+        }
+        Map<Integer, CategorizeItemRequest> byIndex = new HashMap<>();
+        for (CategorizeItemRequest item : chunk) {
+            byIndex.put(item.index(), item);
+        }
+        Map<String, LlmResponse> entries = new HashMap<>();
+        for (CategorizeItemResponse response : result.responses()) {
+            CategorizeItemRequest item = response.index() != null ? byIndex.get(response.index()) : null;
+            if (item == null || response.categoryNames() == null) {
+                continue;
+            }
+            try {
+                String json = objectMapper.writeValueAsString(new CategorizeItemResponse(null, response.merchantKey(),
+                        response.displayName(), response.categoryNames(), response.noFit()));
+                entries.put(LlmResponseCache.key(TASK, scope, item.description()),
+                        new LlmResponse(json, result.providerId(), result.model()));
+            } catch (JsonProcessingException e) {
+                log.debug("Could not cache categorization of item {}: {}", item.index(), e.getMessage());
+            }
+        }
+        responseCache.putAll(TASK, entries);
+    }
+
+    private CategorizeItemResponse readCachedItem(LlmResponse cached, int index) {
+        try {
+            CategorizeItemResponse response = objectMapper.readValue(cached.jsonText(), CategorizeItemResponse.class);
+            return new CategorizeItemResponse(index, response.merchantKey(), response.displayName(),
+                    response.categoryNames(), response.noFit());
+        } catch (JsonProcessingException e) {
+            log.debug("Unreadable cached categorization: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** An item's answer depends on the categories offered, so cached items are keyed by that set too. */
+    private static String itemScope(List<String> categories) {
+        return categories.stream()
+                .map(c -> c.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining("\n", "categories:\n", ""));
+    }
+
     private void updateWorkingCategories(List<CategorizeItemResponse> responses, List<String> workingCategories) {
         if (responses == null) {
             return;
@@ -145,6 +319,12 @@ public class TransactionCategorizer {
         }
     }
 
+    private void emitFanOut(List<CategorizeItemResponse> responses, Map<Integer, List<Integer>> groupMembers, List<CategorizeItemResponse> out) {
+        for (CategorizeItemResponse response : responses) {
+            emitFanOut(response, groupMembers, out);
+        }
+    }
+
     private void emitFanOut(CategorizeItemResponse response, Map<Integer, List<Integer>> groupMembers, List<CategorizeItemResponse> out) {
         if (response.index() == null) {
             return;
@@ -159,6 +339,23 @@ public class TransactionCategorizer {
     }
 
     private ChunkResult categorizeChunk(List<CategorizeItemRequest> items, List<String> availableCategories) throws Exception {
+        log.info("Calling LLM to categorize batch of {} items", items.size());
+        return parseChunk(llmClient.complete(buildRequest(items, availableCategories)));
+    }
+
+    private CompletableFuture<ChunkResult> categorizeChunkAsync(List<CategorizeItemRequest> items, List<String> availableCategories) {
+        log.info("Calling LLM to categorize batch of {} items", items.size());
+        return llmClient.completeAsync(buildRequest(items, availableCategories))
+                .thenApply(response -> {
+                    try {
+                        return parseChunk(response);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    private LlmRequest buildRequest(List<CategorizeItemRequest> items, List<String> availableCategories) {
         StringBuilder promptBuilder = new StringBuilder();
         promptBuilder.append("You are a transaction categorization assistant.\n");
         if (availableCategories == null || availableCategories.isEmpty()) {
@@ -214,10 +411,10 @@ public class TransactionCategorizer {
 
         schema.putArray("required").add("results");
 
-        LlmRequest request = new LlmRequest("categorize", prompt, schema, 0.0);
+        return new LlmRequest(TASK, prompt, schema, 0.0);
+    }
 
-        log.info("Calling LLM to categorize batch of {} items", items.size());
-        LlmResponse response = llmClient.complete(request);
+    private ChunkResult parseChunk(LlmResponse response) throws Exception {
         String jsonText = response.jsonText();
         log.debug("LLM returned JSON text: {}", jsonText);
 
@@ -231,6 +428,6 @@ public class TransactionCategorizer {
             CategorizeItemResponse itemRes = objectMapper.treeToValue(node, CategorizeItemResponse.class);
             results.add(itemRes);
         }
-        return new ChunkResult(results, response.providerId());
+        return new ChunkResult(results, response.providerId(), response.model());
     }
 }
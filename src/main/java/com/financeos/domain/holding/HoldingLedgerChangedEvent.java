@@ -0,0 +1,35 @@
+package com.financeos.domain.holding;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction when a holding's lot ledger inputs change — trades,
+ * intraday classifications, dividends or corporate actions. Holdings are named directly or, for
+ * bulk writes, by instrument (optionally within one broker account). {@code affectedFrom} is the
+ * earliest business date touched; {@code dividendsOnly} changes leave the FIFO replay intact.
+ * Handled synchronously by the holding_position projection, which marks the rows stale so the
+ * change commits atomically with its invalidation.
+ */
+public record HoldingLedgerChangedEvent(Set<UUID> holdingIds,
+                                        Set<UUID> instrumentIds,
+                                        UUID brokerAccountId,
+                                        LocalDate affectedFrom,
+                                        boolean dividendsOnly) {
+
+    public static HoldingLedgerChangedEvent forHolding(Holding holding, LocalDate affectedFrom) {
+        return new HoldingLedgerChangedEvent(Set.of(holding.getId()), Set.of(holding.getInstrument().getId()),
+                holding.getBrokerAccount().getId(), affectedFrom, false);
+    }
+
+    public static HoldingLedgerChangedEvent forDividends(Holding holding) {
+        return new HoldingLedgerChangedEvent(Set.of(holding.getId()), Set.of(holding.getInstrument().getId()),
+                holding.getBrokerAccount().getId(), null, true);
+    }
+
+    /** Every holding of {@code instrumentIds}, restricted to {@code brokerAccountId} when non-null. */
+    public static HoldingLedgerChangedEvent forInstruments(UUID brokerAccountId, Set<UUID> instrumentIds, LocalDate affectedFrom) {
+        return new HoldingLedgerChangedEvent(Set.of(), instrumentIds, brokerAccountId, affectedFrom, false);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +16,8 @@ public interface HoldingRepository extends JpaRepository<Holding, UUID> {
 
     List<Holding> findByBrokerAccountId(UUID brokerAccountId);
 
+    List<Holding> findByBrokerAccountIdIn(Collection<UUID> brokerAccountIds);
+
     List<Holding> findByInstrumentId(UUID instrumentId);
 
     @Query("SELECT DISTINCT h FROM Holding h LEFT JOIN FETCH h.brokerAccount b LEFT JOIN FETCH b.brokerDetails LEFT JOIN FETCH h.instrument")
@@ -31,4 +34,8 @@ public interface HoldingRepository extends JpaRepository<Holding, UUID> {
            "HAVING SUM(CASE WHEN t.type = com.financeos.domain.investment.InvestmentTransactionType.buy " +
            "THEN t.quantity ELSE -t.quantity END) > 0")
     List<UUID> findDistinctActiveInstrumentIdsHeld();
+
+    /** Owners of at least one holding; spans all users when the userFilter is inactive (scheduled job). */
+    @Query("SELECT DISTINCT h.user.id FROM Holding h WHERE h.user IS NOT NULL")
+    List<UUID> findDistinctHoldingUserIds();
 }
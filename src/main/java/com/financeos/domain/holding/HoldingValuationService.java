@@ -6,7 +6,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -26,8 +29,7 @@ public class HoldingValuationService {
         List<Holding> holdings = holdingRepository.findByBrokerAccountId(brokerAccountId);
         BigDecimal totalMarketValue = BigDecimal.ZERO;
 
-        for (Holding holding : holdings) {
-            HoldingPosition position = investmentService.calculateHoldingPosition(holding);
+        for (HoldingPosition position : investmentService.calculateHoldingPositions(holdings)) {
             if (position != null && position.currentValue() != null) {
                 totalMarketValue = totalMarketValue.add(position.currentValue());
             }
@@ -35,4 +37,27 @@ public class HoldingValuationService {
 
         return totalMarketValue;
     }
+
+    /**
+     * Market value of each broker account, with all their holdings valued in one pass (one portfolio
+     * snapshot) rather than one per account. Accounts without holdings map to zero.
+     */
+    public Map<UUID, BigDecimal> getBrokerMarketValues(Collection<UUID> brokerAccountIds) {
+        Map<UUID, BigDecimal> values = new HashMap<>();
+        for (UUID brokerAccountId : brokerAccountIds) {
+            values.put(brokerAccountId, BigDecimal.ZERO);
+        }
+        if (values.isEmpty()) {
+            return values;
+        }
+
+        List<Holding> holdings = holdingRepository.findByBrokerAccountIdIn(values.keySet());
+        for (HoldingPosition position : investmentService.calculateHoldingPositions(holdings)) {
+            if (position != null && position.currentValue() != null) {
+                values.merge(position.holding().getBrokerAccount().getId(), position.currentValue(), BigDecimal::add);
+            }
+        }
+
+        return values;
+    }
 }
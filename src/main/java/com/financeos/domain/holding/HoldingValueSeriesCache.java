@@ -0,0 +1,157 @@
+package com.financeos.domain.holding;
+
+import com.financeos.domain.instrument.price.PriceRefreshEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * In-process cache of each holding's month-end valuation series, so the portfolio_value report
+ * only replays the lot timeline of holdings whose inputs changed since the last run.
+ *
+ * <p>A series is valid for the day it was computed on (its last point is "today") and until a
+ * {@link ValuationInputsChangedEvent} or {@link PriceRefreshEvent} names one of the instruments it
+ * depends on — its own instrument plus the parents of any demerger/merger that seeded it.
+ * Eviction runs after commit; events raised outside a transaction (e.g. the scheduled price
+ * refresh) are handled immediately.
+ *
+ * <p>A report that read its inputs before such a commit could still be computing when the
+ * eviction runs, and would then cache pre-change values. So callers take a generation from
+ * {@link #beginRead()} before reading, pass it to {@link #put} and hand it back to
+ * {@link #endRead}: every eviction stamps the instruments it names with a new generation, and a
+ * series that depends on an instrument stamped after the caller's generation is dropped instead of
+ * cached. A stamp no older than every open read can no longer drop anything and is forgotten.
+ * Bounded LRU: holdings beyond {@code reports.portfolio-value.cache-size} are recomputed on demand.
+ *
+ * <p>The series are held in memory rather than persisted: a series only serves the day it was
+ * computed on, so a stored copy would outlive a restart by hours at most, while every node would
+ * have to agree on evictions through the table. After a restart the first report recomputes each
+ * holding in one forward sweep over its history.
+ */
+@Component
+public class HoldingValueSeriesCache {
+
+    /**
+     * Month-end (plus today) values of one holding, in ascending date order; only dates with an
+     * open quantity are present. Values are unscaled at scale 2.
+     */
+    public record Series(LocalDate asOf, Set<UUID> instrumentIds, long[] epochDays, long[] unscaledValues) {
+        public int size() {
+            return epochDays.length;
+        }
+    }
+
+    private final Map<UUID, Series> entries;
+    /** Generation of the latest eviction naming each instrument, while an open read may predate it. */
+    private final Map<UUID, Long> evictedAt = new HashMap<>();
+    /** Generations taken by reads still in progress, with how many reads hold each. */
+    private final TreeMap<Long, Integer> openReads = new TreeMap<>();
+    private long generation;
+    private long clearedAt;
+
+    public HoldingValueSeriesCache(@Value("${reports.portfolio-value.cache-size:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Series> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** The cached series for the holding, or null when absent or computed on an earlier day. */
+    public synchronized Series get(UUID holdingId, LocalDate asOf) {
+        Series series = entries.get(holdingId);
+        if (series == null) {
+            return null;
+        }
+        if (!series.asOf().equals(asOf)) {
+            entries.remove(holdingId);
+            return null;
+        }
+        return series;
+    }
+
+    /**
+     * Opens a read at the current generation; take it before reading the inputs of a series to
+     * {@link #put}, and pass it to {@link #endRead} once done putting.
+     */
+    public synchronized long beginRead() {
+        openReads.merge(generation, 1, Integer::sum);
+        return generation;
+    }
+
+    public synchronized void endRead(long readGeneration) {
+        openReads.computeIfPresent(readGeneration, (g, count) -> count > 1 ? count - 1 : null);
+        prune();
+    }
+
+    /**
+     * Caches the series unless one of its instruments was evicted after {@code readGeneration},
+     * i.e. while the caller was computing it from possibly stale inputs.
+     */
+    public synchronized void put(UUID holdingId, Series series, long readGeneration) {
+        if (clearedAt > readGeneration) {
+            return;
+        }
+        for (UUID instrumentId : series.instrumentIds()) {
+            if (evictedAt.getOrDefault(instrumentId, Long.MIN_VALUE) > readGeneration) {
+                return;
+            }
+        }
+        entries.put(holdingId, series);
+    }
+
+    public synchronized void evictInstruments(Set<UUID> instrumentIds) {
+        if (instrumentIds == null || instrumentIds.isEmpty()) {
+            return;
+        }
+        generation++;
+        for (UUID instrumentId : instrumentIds) {
+            evictedAt.put(instrumentId, generation);
+        }
+        entries.values().removeIf(s -> s.instrumentIds().stream().anyMatch(instrumentIds::contains));
+        prune();
+    }
+
+    public synchronized void clear() {
+        clearedAt = ++generation;
+        evictedAt.clear();
+        entries.clear();
+    }
+
+    /** Instruments whose eviction is still remembered. */
+    synchronized int trackedEvictions() {
+        return evictedAt.size();
+    }
+
+    /** Forgets stamps that no open read predates; only a read older than a stamp can be dropped by it. */
+    private void prune() {
+        if (openReads.isEmpty()) {
+            evictedAt.clear();
+            return;
+        }
+        long oldestRead = openReads.firstKey();
+        evictedAt.values().removeIf(stamp -> stamp <= oldestRead);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onValuationInputsChanged(ValuationInputsChangedEvent event) {
+        evictInstruments(event.instrumentIds());
+    }
+
+    // Tradebook changes (manual buy, bulk import, reconciliation) already announce the touched
+    // instruments through this event; new transactions invalidate the series just like edits.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTradebookChanged(PriceRefreshEvent event) {
+        evictInstruments(event.instrumentIds());
+    }
+}
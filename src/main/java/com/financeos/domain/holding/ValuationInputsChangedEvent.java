@@ -0,0 +1,14 @@
+package com.financeos.domain.holding;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when something a holding's valuation history is derived from changes — an
+ * investment transaction is edited/deleted, a corporate action is saved/removed, or a stored
+ * price is written — carrying the affected instrument IDs. Handled by
+ * {@link HoldingValueSeriesCache}, which drops the cached series of every holding that depends
+ * on one of them.
+ */
+public record ValuationInputsChangedEvent(Set<UUID> instrumentIds) {
+}
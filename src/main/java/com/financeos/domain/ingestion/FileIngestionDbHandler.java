@@ -1,5 +1,6 @@
 package com.financeos.domain.ingestion;
 
+import com.financeos.domain.account.AccountRepository;
 import com.financeos.domain.transaction.Transaction;
 import com.financeos.domain.transaction.TransactionRepository;
 import org.springframework.stereotype.Component;
@@ -13,14 +14,17 @@ import java.util.UUID;
 public class FileIngestionDbHandler {
 
     private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
 
-    public FileIngestionDbHandler(TransactionRepository transactionRepository) {
-        this.transactionRepository = transactionRepository;
+    /** Flags duplicates among new and existing rows and returns the existing rows it changed. */
+    @FunctionalInterface
+    public interface DuplicateCheck {
+        List<Transaction> flag(List<Transaction> newTxns, List<Transaction> existingTxns);
     }
 
-    @Transactional(readOnly = true)
-    public List<Transaction> findExistingTransactions(UUID accountId, LocalDate minDate, LocalDate maxDate) {
-        return transactionRepository.findByAccountIdAndDateRange(accountId, minDate, maxDate);
+    public FileIngestionDbHandler(TransactionRepository transactionRepository, AccountRepository accountRepository) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
     }
 
     @Transactional
@@ -32,4 +36,26 @@ public class FileIngestionDbHandler {
             transactionRepository.saveAll(newTxns);
         }
     }
+
+    /** The user's transactions among the ids, with their categories and review reasons loaded. */
+    public List<Transaction> loadTransactions(List<UUID> ids, UUID userId) {
+        return ids.isEmpty() ? List.of() : transactionRepository.findAllByIdInAndUserId(ids, userId);
+    }
+
+    /**
+     * Runs the duplicate check and the write in one transaction that holds the account's row lock.
+     * The per-file sub-jobs of one upload ingest into the same account concurrently; the lock makes
+     * them take turns here, so each check sees the rows the others committed.
+     */
+    @Transactional
+    public void saveCheckingDuplicates(UUID accountId, List<Transaction> newTxns, DuplicateCheck check) {
+        if (newTxns.isEmpty()) {
+            return;
+        }
+        accountRepository.findByIdForUpdate(accountId);
+        LocalDate minDate = newTxns.stream().map(Transaction::getDate).min(LocalDate::compareTo).get();
+        LocalDate maxDate = newTxns.stream().map(Transaction::getDate).max(LocalDate::compareTo).get();
+        List<Transaction> existing = transactionRepository.findByAccountIdAndDateRange(accountId, minDate, maxDate);
+        saveTransactions(newTxns, check.flag(newTxns, existing));
+    }
 }
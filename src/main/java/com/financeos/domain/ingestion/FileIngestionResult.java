@@ -1,6 +1,7 @@
 package com.financeos.domain.ingestion;
 
 import java.util.List;
+import java.util.UUID;
 
 public record FileIngestionResult(
     int filesProcessed,
@@ -12,6 +13,11 @@ public record FileIngestionResult(
         String filename,
         String status, // "SUCCESS", "FAILED"
         int linesParsed,
-        String errorMessage
-    ) {}
+        String errorMessage,
+        UUID statementId // the statement created from the file, if any
+    ) {
+        public FileSummary(String filename, String status, int linesParsed, String errorMessage) {
+            this(filename, status, linesParsed, errorMessage, null);
+        }
+    }
 }
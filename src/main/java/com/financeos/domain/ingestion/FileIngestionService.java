@@ -76,6 +76,15 @@ public class FileIngestionService {
     }
 
     public FileIngestionResult ingest(UUID accountId, List<UploadedFile> files, com.financeos.domain.job.JobExecutionContext execCtx) {
+        return ingest(accountId, files, execCtx, true);
+    }
+
+    /**
+     * Ingests the files; with {@code categorize} false the new transactions are stored uncategorized,
+     * for a later {@link #categorizeStatements} over several ingests at once.
+     */
+    public FileIngestionResult ingest(UUID accountId, List<UploadedFile> files, com.financeos.domain.job.JobExecutionContext execCtx,
+                                      boolean categorize) {
         // Read account (this does not need a long-lived transaction)
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
@@ -118,7 +127,7 @@ public class FileIngestionService {
             }
 
             try {
-                byte[] bytes = file.bytes() != null ? file.bytes() : new byte[0];
+                byte[] bytes = file.bytes();
                 if (bytes.length == 0) {
                     fileDetails.add(new FileIngestionResult.FileSummary(filename, "FAILED", 0, "File is empty"));
                     continue;
@@ -200,7 +209,7 @@ public class FileIngestionService {
                     pendingLinks.add(new PendingLink(txn, statementId, i, line.balance(), line.chainValid()));
                 }
 
-                fileDetails.add(new FileIngestionResult.FileSummary(filename, "SUCCESS", lines.size(), fileMessage));
+                fileDetails.add(new FileIngestionResult.FileSummary(filename, "SUCCESS", lines.size(), fileMessage, statementId));
                 filesProcessed++;
 
             } catch (Exception e) {
@@ -212,52 +221,17 @@ public class FileIngestionService {
         // Perform duplicate checking and save transactions in a short, dedicated database transaction
         int totalDuplicatesFound = 0;
         if (!newTransactionsToInsert.isEmpty()) {
-            LocalDate minDate = newTransactionsToInsert.stream().map(Transaction::getDate).min(LocalDate::compareTo).get();
-            LocalDate maxDate = newTransactionsToInsert.stream().map(Transaction::getDate).max(LocalDate::compareTo).get();
-
-            // Load candidates inside a read-only transaction boundary
-            List<Transaction> dbTxns = dbHandler.findExistingTransactions(account.getId(), minDate, maxDate);
-            Set<Transaction> dbTxnsToUpdate = new HashSet<>();
-            Set<Transaction> duplicateNewTxns = new HashSet<>();
-
-            int dateWindow = 0; // Same day only as requested
-
-            for (int i = 0; i < newTransactionsToInsert.size(); i++) {
-                Transaction newTx = newTransactionsToInsert.get(i);
-
-                // Check duplicates against DB using shared TransactionMatcher
-                for (Transaction dbTx : dbTxns) {
-                    if (transactionMatcher.areDuplicates(newTx, dbTx, dateWindow)) {
-                        duplicateNewTxns.add(newTx);
-                        reviewStatusManager.addReason(dbTx, ReviewReason.DUPLICATE_SUSPECT);
-                        dbTxnsToUpdate.add(dbTx);
-                    }
-                }
-
-                // Check duplicates within the uploaded batch
-                for (int j = 0; j < newTransactionsToInsert.size(); j++) {
-                    if (i == j) continue;
-                    Transaction otherNewTx = newTransactionsToInsert.get(j);
-                    if (transactionMatcher.areDuplicates(newTx, otherNewTx, dateWindow)) {
-                        duplicateNewTxns.add(newTx);
-                        duplicateNewTxns.add(otherNewTx);
-                    }
-                }
+            if (categorize) {
+                // Categorize transactions before persisting (outside the account lock; it may call the LLM)
+                categorizationService.batchCategorize(newTransactionsToInsert);
             }
 
-            // Flag duplicate new transactions
-            for (Transaction newTx : duplicateNewTxns) {
-                reviewStatusManager.addReason(newTx, ReviewReason.DUPLICATE_SUSPECT);
-            }
+            Set<Transaction> duplicateNewTxns = new HashSet<>();
+            dbHandler.saveCheckingDuplicates(account.getId(), newTransactionsToInsert,
+                    (newTxns, dbTxns) -> flagDuplicates(newTxns, dbTxns, duplicateNewTxns));
 
             totalDuplicatesFound = duplicateNewTxns.size();
 
-            // Categorize transactions before persisting
-            categorizationService.batchCategorize(newTransactionsToInsert);
-
-            // Persist changes inside a write transaction boundary
-            dbHandler.saveTransactions(newTransactionsToInsert, new ArrayList<>(dbTxnsToUpdate));
-
             Map<UUID, List<StatementPersistenceService.TxnLink>> linksByStatement = new HashMap<>();
             for (PendingLink pl : pendingLinks) {
                 linksByStatement.computeIfAbsent(pl.statementId(), k -> new ArrayList<>())
@@ -269,11 +243,8 @@ public class FileIngestionService {
         }
 
         if (maxEffectiveEnd != null) {
-            LocalDate existing = account.getLastStatementDate();
-            if (existing == null || maxEffectiveEnd.isAfter(existing)) {
-                account.setLastStatementDate(maxEffectiveEnd);
-                accountRepository.save(account);
-            }
+            // Conditional update: files of one upload are ingested by parallel sub-jobs.
+            accountRepository.advanceLastStatementDate(account.getId(), maxEffectiveEnd);
         }
 
         if (execCtx != null) {
@@ -287,4 +258,54 @@ public class FileIngestionService {
                 fileDetails
         );
     }
+
+    /**
+     * Categorizes the transactions of statements ingested without categorization, in one batch: the
+     * sub-jobs of a multi-file upload leave it to their parent. Transactions that already have
+     * categories are left alone, so a re-run after a partial one only sends the rest.
+     */
+    public void categorizeStatements(List<UUID> statementIds) {
+        List<UUID> transactionIds = statementPersistenceService.transactionIds(statementIds);
+        List<Transaction> txns = dbHandler.loadTransactions(transactionIds,
+                com.financeos.core.security.UserContext.getCurrentUserId());
+        categorizationService.batchCategorize(txns);
+    }
+
+    /**
+     * Flags new transactions that duplicate a stored one or each other, and the stored ones they
+     * duplicate. Returns the stored rows that changed; the flagged new rows are added to {@code duplicateNewTxns}.
+     */
+    private List<Transaction> flagDuplicates(List<Transaction> newTxns, List<Transaction> dbTxns, Set<Transaction> duplicateNewTxns) {
+        Set<Transaction> dbTxnsToUpdate = new HashSet<>();
+        int dateWindow = 0; // Same day only as requested
+
+        for (int i = 0; i < newTxns.size(); i++) {
+            Transaction newTx = newTxns.get(i);
+
+            // Check duplicates against DB using shared TransactionMatcher
+            for (Transaction dbTx : dbTxns) {
+                if (transactionMatcher.areDuplicates(newTx, dbTx, dateWindow)) {
+                    duplicateNewTxns.add(newTx);
+                    reviewStatusManager.addReason(dbTx, ReviewReason.DUPLICATE_SUSPECT);
+                    dbTxnsToUpdate.add(dbTx);
+                }
+            }
+
+            // Check duplicates within the uploaded batch
+            for (int j = 0; j < newTxns.size(); j++) {
+                if (i == j) continue;
+                Transaction otherNewTx = newTxns.get(j);
+                if (transactionMatcher.areDuplicates(newTx, otherNewTx, dateWindow)) {
+                    duplicateNewTxns.add(newTx);
+                    duplicateNewTxns.add(otherNewTx);
+                }
+            }
+        }
+
+        // Flag duplicate new transactions
+        for (Transaction newTx : duplicateNewTxns) {
+            reviewStatusManager.addReason(newTx, ReviewReason.DUPLICATE_SUSPECT);
+        }
+        return new ArrayList<>(dbTxnsToUpdate);
+    }
 }
@@ -1,3 +1,17 @@
 package com.financeos.domain.ingestion;
 
-public record UploadedFile(String filename, String contentType, byte[] bytes) {}
+import java.util.function.Supplier;
+
+/** A file to ingest; {@code content} is read when ingestion reaches the file, not up front. */
+public record UploadedFile(String filename, String contentType, Supplier<byte[]> content) {
+
+    public UploadedFile(String filename, String contentType, byte[] bytes) {
+        this(filename, contentType, () -> bytes);
+    }
+
+    /** Reads the content (again on every call); never null. */
+    public byte[] bytes() {
+        byte[] bytes = content != null ? content.get() : null;
+        return bytes != null ? bytes : new byte[0];
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,4 +27,9 @@ public interface InstrumentPriceRepository extends JpaRepository<InstrumentPrice
             @Param("to") LocalDate to);
 
     List<InstrumentPrice> findByInstrumentIdInOrderByAsOfAsc(List<UUID> instrumentIds);
+
+    /** The newest price row per instrument; one row each thanks to the (instrument, as_of) unique key. */
+    @Query("SELECT p FROM InstrumentPrice p WHERE p.instrument.id IN :instrumentIds AND p.asOf = " +
+           "(SELECT MAX(p2.asOf) FROM InstrumentPrice p2 WHERE p2.instrument.id = p.instrument.id)")
+    List<InstrumentPrice> findLatestByInstrumentIdIn(@Param("instrumentIds") Collection<UUID> instrumentIds);
 }
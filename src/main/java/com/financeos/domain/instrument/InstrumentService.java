@@ -6,6 +6,7 @@ import com.financeos.api.instrument.dto.InstrumentResponse;
 import com.financeos.api.instrument.dto.UpsertPriceRequest;
 import com.financeos.core.exception.ResourceNotFoundException;
 import com.financeos.core.exception.ValidationException;
+import com.financeos.domain.holding.ValuationInputsChangedEvent;
 import com.financeos.domain.instrument.price.PriceRefreshEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -138,6 +139,7 @@ public class InstrumentService {
             price = new InstrumentPrice(instrument, asOf, request.price(), PriceSource.MANUAL);
         }
         priceRepository.save(price);
+        eventPublisher.publishEvent(new ValuationInputsChangedEvent(Set.of(id)));
 
         Optional<InstrumentPrice> latestPrice = priceRepository.findTopByInstrumentIdOrderByAsOfDesc(id);
         return InstrumentResponse.from(instrument, latestPrice);
@@ -161,6 +163,7 @@ public class InstrumentService {
 
         price.setClose(newClose);
         priceRepository.save(price);
+        eventPublisher.publishEvent(new ValuationInputsChangedEvent(Set.of(instrumentId)));
 
         // Note: deleting/editing the latest point simply makes positions recompute their
         // currentValue from the next-latest price (or null if none) — no extra work, positions read latest dynamically.
@@ -184,6 +187,7 @@ public class InstrumentService {
         // Note: deleting/editing the latest point simply makes positions recompute their
         // currentValue from the next-latest price (or null if none) — no extra work, positions read latest dynamically.
         priceRepository.delete(price);
+        eventPublisher.publishEvent(new ValuationInputsChangedEvent(Set.of(instrumentId)));
     }
 
     @Transactional(readOnly = true)
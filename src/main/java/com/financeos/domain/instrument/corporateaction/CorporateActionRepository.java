@@ -1,9 +1,11 @@
 package com.financeos.domain.instrument.corporateaction;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,6 +16,13 @@ public interface CorporateActionRepository extends JpaRepository<CorporateAction
 
     List<CorporateAction> findByTargetInstrumentIdOrderByExDateAsc(UUID targetInstrumentId);
 
+    // Both sides are fetched so positions can be computed off the loading thread without lazy loads.
+    @EntityGraph(attributePaths = {"instrument", "targetInstrument"})
+    List<CorporateAction> findByInstrumentIdInOrderByExDateAsc(Collection<UUID> instrumentIds);
+
+    @EntityGraph(attributePaths = {"instrument", "targetInstrument"})
+    List<CorporateAction> findByTargetInstrumentIdInOrderByExDateAsc(Collection<UUID> targetInstrumentIds);
+
     List<CorporateAction> findAllByOrderByExDateDesc();
 
     @Query("SELECT ca FROM CorporateAction ca LEFT JOIN FETCH ca.instrument LEFT JOIN FETCH ca.targetInstrument ORDER BY ca.exDate DESC")
@@ -7,7 +7,9 @@ import com.financeos.core.exception.ResourceNotFoundException;
 import com.financeos.core.exception.ValidationException;
 import com.financeos.core.security.UserContext;
 import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
 import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.holding.ValuationInputsChangedEvent;
 import com.financeos.domain.instrument.Instrument;
 import com.financeos.domain.instrument.InstrumentRepository;
 import com.financeos.domain.user.User;
@@ -16,12 +18,16 @@ import com.financeos.core.observability.Events;
 import net.logstash.logback.argument.StructuredArguments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -34,15 +40,18 @@ public class CorporateActionService {
     private final InstrumentRepository instrumentRepository;
     private final HoldingRepository holdingRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CorporateActionService(CorporateActionRepository corporateActionRepository,
                                   InstrumentRepository instrumentRepository,
                                   HoldingRepository holdingRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ApplicationEventPublisher eventPublisher) {
         this.corporateActionRepository = corporateActionRepository;
         this.instrumentRepository = instrumentRepository;
         this.holdingRepository = holdingRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public CorporateActionResponse createCorporateAction(UUID instrumentId, CreateCorporateActionRequest request) {
@@ -76,6 +85,7 @@ public class CorporateActionService {
         if ((saved.getType() == CorporateActionType.demerger || saved.getType() == CorporateActionType.merger) && saved.getTargetInstrument() != null) {
             materializeChildHoldings(saved.getInstrument().getId(), saved.getTargetInstrument());
         }
+        publishValuationChange(saved, null, null);
 
         String parentIsin = saved.getInstrument() != null ? saved.getInstrument().getIsin() : "";
         String childIsin = saved.getTargetInstrument() != null ? saved.getTargetInstrument().getIsin() : "";
@@ -100,6 +110,8 @@ public class CorporateActionService {
         if (!ca.getInstrument().getId().equals(instrumentId)) {
             throw new ResourceNotFoundException("CorporateAction", id);
         }
+        UUID previousTargetId = ca.getTargetInstrument() != null ? ca.getTargetInstrument().getId() : null;
+        LocalDate previousExDate = ca.getExDate();
 
         validateRequest(instrumentId, request.type(), request.targetInstrumentId(), request.costAllocationPct(), request.fractionalCashInLieu());
 
@@ -126,10 +138,30 @@ public class CorporateActionService {
         if ((saved.getType() == CorporateActionType.demerger || saved.getType() == CorporateActionType.merger) && saved.getTargetInstrument() != null) {
             materializeChildHoldings(saved.getInstrument().getId(), saved.getTargetInstrument());
         }
+        publishValuationChange(saved, previousTargetId, previousExDate);
 
         return CorporateActionResponse.from(saved);
     }
 
+    /**
+     * Parent and target (current and, on update, previous) valuation histories and lot ledgers depend
+     * on this CA, from the earlier of its current and previous ex-date.
+     */
+    private void publishValuationChange(CorporateAction ca, UUID previousTargetId, LocalDate previousExDate) {
+        Set<UUID> instrumentIds = new HashSet<>();
+        instrumentIds.add(ca.getInstrument().getId());
+        if (ca.getTargetInstrument() != null) {
+            instrumentIds.add(ca.getTargetInstrument().getId());
+        }
+        if (previousTargetId != null) {
+            instrumentIds.add(previousTargetId);
+        }
+        eventPublisher.publishEvent(new ValuationInputsChangedEvent(instrumentIds));
+        LocalDate affectedFrom = previousExDate != null && previousExDate.isBefore(ca.getExDate())
+                ? previousExDate : ca.getExDate();
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forInstruments(null, instrumentIds, affectedFrom));
+    }
+
     private void validateRequest(UUID parentInstrumentId, CorporateActionType type, UUID targetInstrumentId, BigDecimal costAllocationPct, BigDecimal fractionalCashInLieu) {
         if (fractionalCashInLieu != null && fractionalCashInLieu.compareTo(BigDecimal.ZERO) < 0) {
             throw new ValidationException("Fractional cash-in-lieu amount must be greater than or equal to 0.");
@@ -183,6 +215,7 @@ public class CorporateActionService {
         }
 
         corporateActionRepository.delete(ca);
+        publishValuationChange(ca, null, null);
     }
 
     @Transactional(readOnly = true)
@@ -2,9 +2,11 @@ package com.financeos.domain.instrument.price;
 
 import com.financeos.core.exception.ResourceNotFoundException;
 import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.holding.ValuationInputsChangedEvent;
 import com.financeos.domain.instrument.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,17 +25,20 @@ public class PriceRefreshService {
     private final HoldingRepository holdingRepository;
     private final List<PriceProvider> priceProviders;
     private final PriceProperties priceProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PriceRefreshService(InstrumentRepository instrumentRepository,
                                InstrumentPriceRepository priceRepository,
                                HoldingRepository holdingRepository,
                                List<PriceProvider> priceProviders,
-                               PriceProperties priceProperties) {
+                               PriceProperties priceProperties,
+                               ApplicationEventPublisher eventPublisher) {
         this.instrumentRepository = instrumentRepository;
         this.priceRepository = priceRepository;
         this.holdingRepository = holdingRepository;
         this.priceProviders = priceProviders;
         this.priceProperties = priceProperties;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -59,6 +64,7 @@ public class PriceRefreshService {
         int refreshedCount = 0;
         int skippedCount = 0;
         List<PriceRefreshResult.FailedItem> failedList = new ArrayList<>();
+        Set<UUID> refreshedIds = new HashSet<>();
         ZoneId zoneId = ZoneId.of(priceProperties.getTimezone() != null ? priceProperties.getTimezone() : "Asia/Kolkata");
 
         if (targets.isEmpty()) {
@@ -108,10 +114,12 @@ public class PriceRefreshService {
                             ep.setClose(quote.close());
                             ep.setSource(provider.source());
                             priceRepository.save(ep);
+                            refreshedIds.add(inst.getId());
                             refreshedCount++;
                         } else {
                             InstrumentPrice newPrice = new InstrumentPrice(inst, quote.asOf(), quote.close(), provider.source());
                             priceRepository.save(newPrice);
+                            refreshedIds.add(inst.getId());
                             refreshedCount++;
                         }
                     } else {
@@ -132,6 +140,10 @@ public class PriceRefreshService {
             }
         }
 
+        if (!refreshedIds.isEmpty()) {
+            eventPublisher.publishEvent(new ValuationInputsChangedEvent(refreshedIds));
+        }
+
         return new PriceRefreshResult(refreshedCount, skippedCount, failedList, LocalDate.now(zoneId));
     }
 
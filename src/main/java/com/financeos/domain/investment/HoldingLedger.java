@@ -0,0 +1,150 @@
+package com.financeos.domain.investment;
+
+import com.financeos.domain.investment.returncalc.XirrCalculator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Price-independent result of replaying one holding's history: the FIFO queue, realized P&L,
+ * charges, dividends and the dated cashflows behind XIRR. {@link InvestmentService} turns it into a
+ * {@link HoldingPosition} against the latest price; the holding_position projection persists it so
+ * reads skip the replay, and an append-only change resumes the replay from the stored state.
+ */
+public final class HoldingLedger {
+
+    /** One FIFO match of a sell against an open lot. */
+    public record ClosedLot(LocalDate buyDate, LocalDate sellDate, BigDecimal quantity,
+                            BigDecimal buyValue, BigDecimal sellValue) {}
+
+    final LinkedList<InvestmentService.Lot> openLots;
+    final List<ClosedLot> closedLots;
+    final List<XirrCalculator.Cashflow> cashflows;
+    final List<XirrCalculator.Cashflow> tradeFlows;
+    List<XirrCalculator.Cashflow> dividendFlows;
+    BigDecimal realized;
+    BigDecimal intradayRealized;
+    BigDecimal totalCharges;
+    BigDecimal dividends;
+    String mergedIntoName;
+    LocalDate mergedIntoDate;
+    boolean seeded;
+    LocalDate lastEventDate;
+    LocalDate validUntil;
+
+    HoldingLedger() {
+        this(new LinkedList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null, null, false, null, null);
+    }
+
+    private HoldingLedger(LinkedList<InvestmentService.Lot> openLots, List<ClosedLot> closedLots,
+                          List<XirrCalculator.Cashflow> cashflows, List<XirrCalculator.Cashflow> tradeFlows,
+                          List<XirrCalculator.Cashflow> dividendFlows, BigDecimal realized, BigDecimal intradayRealized,
+                          BigDecimal totalCharges, BigDecimal dividends, String mergedIntoName, LocalDate mergedIntoDate,
+                          boolean seeded, LocalDate lastEventDate, LocalDate validUntil) {
+        this.openLots = openLots;
+        this.closedLots = closedLots;
+        this.cashflows = cashflows;
+        this.tradeFlows = tradeFlows;
+        this.dividendFlows = dividendFlows;
+        this.realized = realized;
+        this.intradayRealized = intradayRealized;
+        this.totalCharges = totalCharges;
+        this.dividends = dividends;
+        this.mergedIntoName = mergedIntoName;
+        this.mergedIntoDate = mergedIntoDate;
+        this.seeded = seeded;
+        this.lastEventDate = lastEventDate;
+        this.validUntil = validUntil;
+    }
+
+    /** Rebuilds a ledger from persisted state; the lists are copied so a resumed replay can append. */
+    public static HoldingLedger restore(List<InvestmentService.Lot> openLots, List<ClosedLot> closedLots,
+                                        List<XirrCalculator.Cashflow> cashflows, List<XirrCalculator.Cashflow> tradeFlows,
+                                        List<XirrCalculator.Cashflow> dividendFlows, BigDecimal realized,
+                                        BigDecimal intradayRealized, BigDecimal totalCharges, BigDecimal dividends,
+                                        String mergedIntoName, LocalDate mergedIntoDate, boolean seeded,
+                                        LocalDate lastEventDate, LocalDate validUntil) {
+        return new HoldingLedger(new LinkedList<>(openLots), new ArrayList<>(closedLots), new ArrayList<>(cashflows),
+                new ArrayList<>(tradeFlows), new ArrayList<>(dividendFlows), realized, intradayRealized, totalCharges,
+                dividends, mergedIntoName, mergedIntoDate, seeded, lastEventDate, validUntil);
+    }
+
+    public List<InvestmentService.Lot> openLots() {
+        return openLots;
+    }
+
+    public List<ClosedLot> closedLots() {
+        return closedLots;
+    }
+
+    /** Holding XIRR flows in replay order, excluding dividends and the terminal market value. */
+    public List<XirrCalculator.Cashflow> cashflows() {
+        return cashflows;
+    }
+
+    /** Raw trade flows (buy outflow incl. charges, sell proceeds net of charges) for the portfolio XIRR. */
+    public List<XirrCalculator.Cashflow> tradeFlows() {
+        return tradeFlows;
+    }
+
+    public List<XirrCalculator.Cashflow> dividendFlows() {
+        return dividendFlows;
+    }
+
+    public BigDecimal realized() {
+        return realized;
+    }
+
+    public BigDecimal intradayRealized() {
+        return intradayRealized;
+    }
+
+    public BigDecimal totalCharges() {
+        return totalCharges;
+    }
+
+    public BigDecimal dividends() {
+        return dividends;
+    }
+
+    public String mergedIntoName() {
+        return mergedIntoName;
+    }
+
+    public LocalDate mergedIntoDate() {
+        return mergedIntoDate;
+    }
+
+    /** Whether lots arrive via corporate actions of other instruments, which rules out resuming the replay. */
+    public boolean seeded() {
+        return seeded;
+    }
+
+    public LocalDate lastEventDate() {
+        return lastEventDate;
+    }
+
+    public LocalDate validUntil() {
+        return validUntil;
+    }
+
+    public BigDecimal openQty() {
+        BigDecimal qty = BigDecimal.ZERO;
+        for (InvestmentService.Lot lot : openLots) {
+            qty = qty.add(lot.remainingQty);
+        }
+        return qty;
+    }
+
+    public BigDecimal openCost() {
+        BigDecimal cost = BigDecimal.ZERO;
+        for (InvestmentService.Lot lot : openLots) {
+            cost = cost.add(lot.remainingQty.multiply(lot.costPerUnit));
+        }
+        return cost;
+    }
+}
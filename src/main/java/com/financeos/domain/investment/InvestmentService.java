@@ -8,7 +8,9 @@ import com.financeos.domain.account.Account;
 import com.financeos.domain.account.AccountRepository;
 import com.financeos.domain.account.AccountType;
 import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
 import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.holding.ValuationInputsChangedEvent;
 import com.financeos.domain.instrument.*;
 import com.financeos.domain.instrument.corporateaction.CorporateAction;
 import com.financeos.domain.instrument.corporateaction.CorporateActionRepository;
@@ -17,11 +19,13 @@ import com.financeos.domain.instrument.price.PriceRefreshEvent;
 import com.financeos.domain.investment.dividend.Dividend;
 import com.financeos.domain.investment.dividend.DividendRepository;
 import com.financeos.domain.investment.fno.FnoTradeRepository;
+import com.financeos.domain.investment.projection.HoldingPositionStore;
 import com.financeos.domain.investment.returncalc.XirrCalculator;
 import com.financeos.domain.user.User;
 import com.financeos.domain.user.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +38,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -52,6 +60,10 @@ public class InvestmentService {
     private final TradeSettlementClassificationRepository classificationRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final FnoTradeRepository fnoTradeRepository;
+    private final PortfolioSnapshotLoader snapshotLoader;
+    private final Executor positionExecutor;
+    private final HoldingPositionStore positionStore;
+    private final PositionInputs repositoryInputs = new RepositoryPositionInputs();
 
     public InvestmentService(InvestmentTransactionRepository transactionRepository,
                               HoldingRepository holdingRepository,
@@ -63,7 +75,10 @@ public class InvestmentService {
                               DividendRepository dividendRepository,
                               TradeSettlementClassificationRepository classificationRepository,
                               ApplicationEventPublisher eventPublisher,
-                              FnoTradeRepository fnoTradeRepository) {
+                              FnoTradeRepository fnoTradeRepository,
+                              PortfolioSnapshotLoader snapshotLoader,
+                              @Qualifier("positionExecutor") Executor positionExecutor,
+                              HoldingPositionStore positionStore) {
         this.transactionRepository = transactionRepository;
         this.holdingRepository = holdingRepository;
         this.accountRepository = accountRepository;
@@ -75,6 +90,9 @@ public class InvestmentService {
         this.classificationRepository = classificationRepository;
         this.eventPublisher = eventPublisher;
         this.fnoTradeRepository = fnoTradeRepository;
+        this.snapshotLoader = snapshotLoader;
+        this.positionExecutor = positionExecutor;
+        this.positionStore = positionStore;
     }
 
     public InvestmentTransactionResponse createTransaction(CreateInvestmentTransactionRequest request) {
@@ -126,6 +144,7 @@ public class InvestmentService {
         // Auto-fetch the latest price for this instrument once the trade commits, so the UI
         // reflects it without a manual price refresh (handled by PriceRefreshEventListener).
         eventPublisher.publishEvent(new PriceRefreshEvent(Set.of(instrument.getId())));
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forHolding(holding, saved.getTradeDate()));
 
         return InvestmentTransactionResponse.from(saved);
     }
@@ -161,6 +180,9 @@ public class InvestmentService {
             recomputeClassificationForDay(saved.getHolding(), oldDate);
         }
         validateHoldingFifo(saved.getHolding());
+        eventPublisher.publishEvent(new ValuationInputsChangedEvent(Set.of(saved.getHolding().getInstrument().getId())));
+        LocalDate affectedFrom = oldDate != null && oldDate.isBefore(saved.getTradeDate()) ? oldDate : saved.getTradeDate();
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forHolding(saved.getHolding(), affectedFrom));
 
         return InvestmentTransactionResponse.from(saved);
     }
@@ -183,6 +205,8 @@ public class InvestmentService {
         // validate FIFO consistency.
         recomputeClassificationForDay(holding, date);
         validateHoldingFifo(holding);
+        eventPublisher.publishEvent(new ValuationInputsChangedEvent(Set.of(holding.getInstrument().getId())));
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forHolding(holding, date));
     }
 
     @Transactional(readOnly = true)
@@ -224,18 +248,13 @@ public class InvestmentService {
     @Transactional(readOnly = true)
     public List<PositionDto> getAllPositions() {
         List<Holding> holdings = holdingRepository.findAllWithDetails();
+        PortfolioLedgers ledgers = portfolioLedgers(holdings, false, "positions");
         List<PositionDto> positions = new ArrayList<>();
 
-        for (Holding holding : holdings) {
-            HoldingPosition pos;
-            try {
-                pos = calculateHoldingPosition(holding);
-            } catch (Exception e) {
-                log.warn("Skipping holding {} ({}) in positions: {}",
-                        holding.getId(), holding.getInstrument().getName(), e.getMessage());
-                continue;
+        for (HoldingPosition pos : ledgers.positions(true)) {
+            if (pos != null) {
+                positions.add(pos.toPositionDto());
             }
-            positions.add(pos.toPositionDto());
         }
 
         return positions;
@@ -243,7 +262,10 @@ public class InvestmentService {
 
     @Transactional(readOnly = true)
     public SummaryResponse getSummary() {
+        // Ledgers come from the holding_position projection (live replay for stale rows); the loop
+        // below issues no query per holding.
         List<Holding> holdings = holdingRepository.findAllWithDetails();
+        PortfolioLedgers ledgers = portfolioLedgers(holdings, false, "summary");
 
         BigDecimal totalInvested = BigDecimal.ZERO;
         BigDecimal totalCurrentValue = BigDecimal.ZERO;
@@ -258,18 +280,21 @@ public class InvestmentService {
         Map<UUID, BrokerSummaryAccumulator> brokerMap = new LinkedHashMap<>();
         Map<InstrumentType, InstrumentTypeAccumulator> typeMap = new EnumMap<>(InstrumentType.class);
 
-        List<XirrCalculator.Cashflow> portfolioCashflows = new ArrayList<>();
-
-        for (Holding holding : holdings) {
-            HoldingPosition pos;
-            try {
-                pos = calculateHoldingPosition(holding);
-            } catch (Exception e) {
-                // Skip a holding with inconsistent history rather than failing the whole summary.
-                log.warn("Skipping holding {} ({}) in summary: {}",
-                        holding.getId(), holding.getInstrument().getName(), e.getMessage());
+        // Each holding's raw trade and dividend flows are packed once; the portfolio, broker and
+        // instrument-type XIRRs are solved as groups over those shared arrays.
+        XirrCalculator.Batch xirrBatch = new XirrCalculator.Batch();
+        List<Integer> portfolioSeries = new ArrayList<>();
+
+        // Accumulators are merged in holding order so broker/type ordering and totals match a
+        // sequential pass. A holding with inconsistent history has no ledger and is skipped.
+        List<HoldingPosition> positions = ledgers.positions(false);
+        for (int i = 0; i < holdings.size(); i++) {
+            Holding holding = holdings.get(i);
+            HoldingPosition pos = positions.get(i);
+            if (pos == null) {
                 continue;
             }
+            HoldingLedger ledger = ledgers.ledger(holding);
             totalRealized = totalRealized.add(pos.realized());
             totalIntradayRealized = totalIntradayRealized.add(pos.intradayRealized());
             totalCharges = totalCharges.add(pos.totalCharges());
@@ -281,24 +306,8 @@ public class InvestmentService {
                 }
             }
 
-            // Accumulate transaction cashflows for XIRR
-            List<InvestmentTransaction> txns = transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
-            for (InvestmentTransaction txn : txns) {
-                BigDecimal charges = txn.getTotalCharges() != null ? txn.getTotalCharges() : BigDecimal.ZERO;
-                if (txn.getType() == InvestmentTransactionType.buy) {
-                    BigDecimal outflow = txn.getQuantity().multiply(txn.getPrice()).add(charges);
-                    portfolioCashflows.add(new XirrCalculator.Cashflow(txn.getTradeDate(), outflow.negate()));
-                } else if (txn.getType() == InvestmentTransactionType.sell) {
-                    BigDecimal inflow = txn.getQuantity().multiply(txn.getPrice()).subtract(charges);
-                    portfolioCashflows.add(new XirrCalculator.Cashflow(txn.getTradeDate(), inflow));
-                }
-            }
-
-            // Accumulate dividend cashflows
-            List<Dividend> dividends = dividendRepository.findByHoldingIdOrderByPayDateDescCreatedAtDesc(holding.getId());
-            for (Dividend div : dividends) {
-                portfolioCashflows.add(new XirrCalculator.Cashflow(div.getPayDate(), div.getAmount()));
-            }
+            int series = xirrBatch.add(ledger.tradeFlows(), ledger.dividendFlows());
+            portfolioSeries.add(series);
 
             // Broker accumulation
             Account broker = holding.getBrokerAccount();
@@ -319,6 +328,7 @@ public class InvestmentService {
             brokerAcc.realized = brokerAcc.realized.add(pos.realized());
             brokerAcc.intradayRealized = brokerAcc.intradayRealized.add(pos.intradayRealized());
             brokerAcc.totalCharges = brokerAcc.totalCharges.add(pos.totalCharges());
+            brokerAcc.xirrSeries.add(series);
 
             // Instrument Type accumulation
             InstrumentType instType = holding.getInstrument().getType();
@@ -329,6 +339,7 @@ public class InvestmentService {
                     typeAcc.currentValue = typeAcc.currentValue.add(pos.currentValue());
                 }
             }
+            typeAcc.xirrSeries.add(series);
         }
 
         BigDecimal totalDividends = dividendRepository.sumTotalUserDividends();
@@ -342,12 +353,7 @@ public class InvestmentService {
                 : BigDecimal.ZERO;
         BigDecimal totalPnl = totalRealized.add(totalIntradayRealized).add(totalUnrealized).add(totalDividends);
 
-        // Portfolio terminal cashflow
-        if (totalCurrentValue.compareTo(BigDecimal.ZERO) > 0) {
-            portfolioCashflows.add(new XirrCalculator.Cashflow(LocalDate.now(), totalCurrentValue));
-        }
-
-        Double portfolioXirr = calculateXirrPercentage(portfolioCashflows);
+        Double portfolioXirr = groupXirrPercentage(xirrBatch, portfolioSeries, totalCurrentValue);
         BigDecimal absoluteReturnPercent = totalInvested.compareTo(BigDecimal.ZERO) > 0
                 ? totalPnl.divide(totalInvested, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100")).setScale(2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
@@ -365,7 +371,8 @@ public class InvestmentService {
                             b.realized.setScale(2, RoundingMode.HALF_UP),
                             b.intradayRealized.setScale(2, RoundingMode.HALF_UP),
                             unrell.setScale(2, RoundingMode.HALF_UP),
-                            b.totalCharges.setScale(2, RoundingMode.HALF_UP)
+                            b.totalCharges.setScale(2, RoundingMode.HALF_UP),
+                            groupXirrPercentage(xirrBatch, b.xirrSeries, b.currentValue)
                     );
                 })
                 .toList();
@@ -380,7 +387,8 @@ public class InvestmentService {
                             t.type,
                             t.invested.setScale(2, RoundingMode.HALF_UP),
                             t.currentValue.setScale(2, RoundingMode.HALF_UP),
-                            pct
+                            pct,
+                            groupXirrPercentage(xirrBatch, t.xirrSeries, t.currentValue)
                     );
                 })
                 .toList();
@@ -429,40 +437,112 @@ public class InvestmentService {
     }
 
     public HoldingPosition calculateHoldingPosition(Holding holding, java.util.function.Consumer<com.financeos.domain.investment.dto.RealizedLot> lotCollector) {
-        List<InvestmentTransaction> txns = transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
-        List<CorporateAction> corpActions = corporateActionRepository.findByInstrumentIdOrderByExDateAsc(holding.getInstrument().getId());
+        return calculateHoldingPosition(holding, lotCollector, repositoryInputs);
+    }
+
+    private HoldingPosition calculateHoldingPosition(Holding holding, java.util.function.Consumer<com.financeos.domain.investment.dto.RealizedLot> lotCollector,
+            PositionInputs inputs) {
+        HoldingLedger ledger = replayLedger(holding, inputs, null, null);
+        if (lotCollector != null) {
+            for (HoldingLedger.ClosedLot lot : ledger.closedLots()) {
+                lotCollector.accept(toRealizedLot(holding, lot));
+            }
+        }
+        return toPosition(holding, ledger, inputs.latestPrice(holding.getInstrument().getId()).orElse(null));
+    }
 
-        SeedDerivation seedDerivation = deriveSeeds(holding);
+    /** Full replay of one holding's ledger from the repositories (projection rebuild and verification). */
+    public HoldingLedger replayLedger(Holding holding) {
+        return replayLedger(holding, repositoryInputs, null, null);
+    }
+
+    /**
+     * Resumes {@code base} with the holding's events dated on or after {@code from}. Only valid when
+     * every event already in {@code base} is dated before {@code from} and the holding has no seeded
+     * lots; dividends are always re-read in full.
+     */
+    public HoldingLedger resumeLedger(Holding holding, HoldingLedger base, LocalDate from) {
+        return replayLedger(holding, repositoryInputs, base, from);
+    }
+
+    /**
+     * Full replays of {@code holdings} against one portfolio snapshot, keyed by holding id (projection
+     * verification). Holdings whose history cannot be replayed are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, HoldingLedger> replayLedgers(List<Holding> holdings) {
+        PortfolioSnapshot snapshot = snapshotLoader.load(holdings);
+        List<HoldingLedger> ledgers = computePerHolding(holdings, holding -> {
+            try {
+                return replayLedger(holding, snapshot, null, null);
+            } catch (Exception e) {
+                log.warn("Skipping holding {} in ledger replay: {}", holding.getId(), e.getMessage());
+                return null;
+            }
+        });
+        Map<UUID, HoldingLedger> byHolding = new HashMap<>();
+        for (int i = 0; i < holdings.size(); i++) {
+            if (ledgers.get(i) != null) {
+                byHolding.put(holdings.get(i).getId(), ledgers.get(i));
+            }
+        }
+        return byHolding;
+    }
+
+    private HoldingLedger replayLedger(Holding holding, PositionInputs inputs, HoldingLedger base, LocalDate from) {
+        List<InvestmentTransaction> txns = inputs.transactions(holding);
+        List<CorporateAction> corpActions = inputs.corporateActions(holding.getInstrument().getId());
+
+        HoldingLedger ledger;
         List<DemergerSeedEvent> demergerSeedEvents = new ArrayList<>();
-        for (SeedLot s : seedDerivation.seedLots()) {
-            demergerSeedEvents.add(new DemergerSeedEvent(s.date(), s.qty(), s.costPerUnit()));
+        if (base == null) {
+            SeedDerivation seedDerivation = deriveSeeds(holding, inputs);
+            for (SeedLot s : seedDerivation.seedLots()) {
+                demergerSeedEvents.add(new DemergerSeedEvent(s.date(), s.qty(), s.costPerUnit()));
+            }
+            ledger = new HoldingLedger();
+            ledger.seeded = seedDerivation.hasSources();
+            ledger.realized = seedDerivation.fractionalRealized();
+            ledger.cashflows.addAll(seedDerivation.mergerBridgeOutflows());
+            ledger.cashflows.addAll(seedDerivation.fractionalCashflows());
+        } else {
+            ledger = base;
         }
-        List<XirrCalculator.Cashflow> mergerBridgeOutflows = seedDerivation.mergerBridgeOutflows();
-        BigDecimal fractionalRealized = seedDerivation.fractionalRealized();
-        List<XirrCalculator.Cashflow> fractionalCashflows = seedDerivation.fractionalCashflows();
+        LocalDate lastEventDate = ledger.lastEventDate;
 
-        List<TradeSettlementClassification> classifications = classificationRepository.findByHoldingId(holding.getId());
         Map<LocalDate, TradeSettlementClassification> classMap = new HashMap<>();
-        for (TradeSettlementClassification c : classifications) {
+        for (TradeSettlementClassification c : inputs.classifications(holding)) {
             classMap.put(c.getTradeDate(), c);
         }
 
-        BigDecimal intradayRealized = BigDecimal.ZERO;
-        BigDecimal totalHoldingCharges = BigDecimal.ZERO;
-        List<XirrCalculator.Cashflow> cashflows = new ArrayList<>();
-        cashflows.addAll(mergerBridgeOutflows);
-        cashflows.addAll(fractionalCashflows);
+        BigDecimal intradayRealized = ledger.intradayRealized;
+        BigDecimal totalHoldingCharges = ledger.totalCharges;
+        List<XirrCalculator.Cashflow> cashflows = ledger.cashflows;
         List<TimelineEvent> timeline = new ArrayList<>();
 
         // Group raw transactions by trade date
         Map<LocalDate, List<InvestmentTransaction>> txnsByDate = new LinkedHashMap<>();
         for (InvestmentTransaction txn : txns) {
+            if (from != null && txn.getTradeDate().isBefore(from)) {
+                continue;
+            }
             txnsByDate.computeIfAbsent(txn.getTradeDate(), k -> new ArrayList<>()).add(txn);
+
+            // Raw trade flows for the portfolio-level XIRR
+            BigDecimal charges = txn.getTotalCharges() != null ? txn.getTotalCharges() : BigDecimal.ZERO;
+            if (txn.getType() == InvestmentTransactionType.buy) {
+                BigDecimal outflow = txn.getQuantity().multiply(txn.getPrice()).add(charges);
+                ledger.tradeFlows.add(new XirrCalculator.Cashflow(txn.getTradeDate(), outflow.negate()));
+            } else if (txn.getType() == InvestmentTransactionType.sell) {
+                BigDecimal inflow = txn.getQuantity().multiply(txn.getPrice()).subtract(charges);
+                ledger.tradeFlows.add(new XirrCalculator.Cashflow(txn.getTradeDate(), inflow));
+            }
         }
 
         for (Map.Entry<LocalDate, List<InvestmentTransaction>> entry : txnsByDate.entrySet()) {
             LocalDate date = entry.getKey();
             List<InvestmentTransaction> dayTxns = entry.getValue();
+            lastEventDate = later(lastEventDate, date);
 
             BigDecimal dayCharges = BigDecimal.ZERO;
             for (InvestmentTransaction t : dayTxns) {
@@ -539,10 +619,14 @@ public class InvestmentService {
         }
 
         for (CorporateAction ca : corpActions) {
-            timeline.add(new CorpActionEvent(ca));
+            if (from == null || !ca.getExDate().isBefore(from)) {
+                timeline.add(new CorpActionEvent(ca));
+                lastEventDate = later(lastEventDate, ca.getExDate());
+            }
         }
         for (DemergerSeedEvent seed : demergerSeedEvents) {
             timeline.add(seed);
+            lastEventDate = later(lastEventDate, seed.date());
         }
 
         timeline.sort((e1, e2) -> {
@@ -555,8 +639,8 @@ public class InvestmentService {
             return Integer.compare(order1, order2);
         });
 
-        LinkedList<Lot> openLots = new LinkedList<>();
-        BigDecimal cumulativeRealized = fractionalRealized;
+        LinkedList<Lot> openLots = ledger.openLots;
+        BigDecimal cumulativeRealized = ledger.realized;
 
         for (TimelineEvent event : timeline) {
             if (event instanceof DemergerSeedEvent seed) {
@@ -628,30 +712,9 @@ public class InvestmentService {
                         oldestLot.remainingQty = oldestLot.remainingQty.subtract(takeQty);
                         qtyToMatch = qtyToMatch.subtract(takeQty);
 
-                        if (lotCollector != null) {
-                            BigDecimal sellVal = takeQty.multiply(txn.getPrice());
-                            BigDecimal pnl = sellVal.subtract(buyVal);
-                            LocalDate bDate = oldestLot.buyDate != null ? oldestLot.buyDate : txn.getTradeDate();
-                            long days = java.time.temporal.ChronoUnit.DAYS.between(bDate, txn.getTradeDate());
-                            String term = days > 365 ? "long" : "short";
-
-                            lotCollector.accept(new com.financeos.domain.investment.dto.RealizedLot(
-                                    holding.getId(),
-                                    holding.getBrokerAccount().getId(),
-                                    holding.getBrokerAccount().getName(),
-                                    holding.getInstrument().getId(),
-                                    holding.getInstrument().getName(),
-                                    holding.getInstrument().getType(),
-                                    bDate,
-                                    txn.getTradeDate(),
-                                    takeQty,
-                                    buyVal,
-                                    sellVal,
-                                    pnl,
-                                    days,
-                                    term
-                            ));
-                        }
+                        LocalDate bDate = oldestLot.buyDate != null ? oldestLot.buyDate : txn.getTradeDate();
+                        ledger.closedLots.add(new HoldingLedger.ClosedLot(
+                                bDate, txn.getTradeDate(), takeQty, buyVal, takeQty.multiply(txn.getPrice())));
 
                         if (oldestLot.remainingQty.compareTo(BigDecimal.ZERO) == 0) {
                             openLots.poll();
@@ -667,18 +730,65 @@ public class InvestmentService {
             }
         }
 
-        BigDecimal openQty = BigDecimal.ZERO;
-        BigDecimal openCost = BigDecimal.ZERO;
-        for (Lot lot : openLots) {
-            openQty = openQty.add(lot.remainingQty);
-            openCost = openCost.add(lot.remainingQty.multiply(lot.costPerUnit));
+        ledger.realized = cumulativeRealized;
+        ledger.intradayRealized = intradayRealized;
+        ledger.totalCharges = totalHoldingCharges;
+        ledger.lastEventDate = lastEventDate;
+
+        // Dividends sit outside the lot timeline, so they are always re-read in full.
+        BigDecimal holdingDividends = BigDecimal.ZERO;
+        List<XirrCalculator.Cashflow> dividendFlows = new ArrayList<>();
+        for (Dividend div : inputs.dividends(holding)) {
+            holdingDividends = holdingDividends.add(div.getAmount());
+            dividendFlows.add(new XirrCalculator.Cashflow(div.getPayDate(), div.getAmount()));
+        }
+        ledger.dividends = holdingDividends;
+        ledger.dividendFlows = dividendFlows;
+
+        LocalDate today = LocalDate.now();
+        ledger.mergedIntoName = null;
+        ledger.mergedIntoDate = null;
+        ledger.validUntil = null;
+        for (CorporateAction ca : corpActions) {
+            if (ca.getType() == CorporateActionType.merger && ca.getTargetInstrument() != null && !ca.getExDate().isAfter(today)) {
+                ledger.mergedIntoName = ca.getTargetInstrument().getName();
+                ledger.mergedIntoDate = ca.getExDate();
+                break;
+            }
         }
+        for (CorporateAction ca : corpActions) {
+            if (ca.getExDate().isAfter(today)) {
+                // mergedInto is evaluated against today; the ledger expires when this CA goes ex.
+                ledger.validUntil = ca.getExDate();
+                break;
+            }
+        }
+
+        return ledger;
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    /** Values a replayed ledger at {@code price} (null = unpriced, valued at cost). */
+    HoldingPosition toPosition(Holding holding, HoldingLedger ledger, InstrumentPrice price) {
+        return toPosition(holding, ledger, price, true);
+    }
+
+    /** As above; {@code withXirr} false leaves the holding XIRR null for callers that only aggregate. */
+    private HoldingPosition toPosition(Holding holding, HoldingLedger ledger, InstrumentPrice price, boolean withXirr) {
+        BigDecimal openQty = ledger.openQty();
+        BigDecimal openCost = ledger.openCost();
+        BigDecimal cumulativeRealized = ledger.realized;
+        BigDecimal intradayRealized = ledger.intradayRealized;
+        BigDecimal holdingDividends = ledger.dividends;
 
         BigDecimal avgCost = openQty.compareTo(BigDecimal.ZERO) > 0
                 ? openCost.divide(openQty, 4, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        Optional<InstrumentPrice> latestPrice = priceRepository.findTopByInstrumentIdOrderByAsOfDesc(holding.getInstrument().getId());
+        Optional<InstrumentPrice> latestPrice = Optional.ofNullable(price);
         BigDecimal priceClose = latestPrice.map(InstrumentPrice::getClose).orElse(null);
         LocalDate priceAsOf = latestPrice.map(InstrumentPrice::getAsOf).orElse(null);
         PriceSource priceSource = latestPrice.map(InstrumentPrice::getSource).orElse(null);
@@ -699,24 +809,19 @@ public class InvestmentService {
             unrealizedPercent = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         }
 
-        // Add dividends to cashflows
-        BigDecimal holdingDividends = dividendRepository.sumAmountByHoldingId(holding.getId());
-        if (holdingDividends == null) {
-            holdingDividends = BigDecimal.ZERO;
-        }
+        Double xirr = null;
+        if (withXirr) {
+            List<XirrCalculator.Cashflow> cashflows = new ArrayList<>(ledger.cashflows);
+            cashflows.addAll(ledger.dividendFlows);
 
-        List<Dividend> dividendsList = dividendRepository.findByHoldingIdOrderByPayDateDescCreatedAtDesc(holding.getId());
-        for (Dividend div : dividendsList) {
-            cashflows.add(new XirrCalculator.Cashflow(div.getPayDate(), div.getAmount()));
-        }
+            // Terminal cashflow for XIRR
+            if (currentValue != null && openQty.compareTo(BigDecimal.ZERO) > 0) {
+                cashflows.add(new XirrCalculator.Cashflow(LocalDate.now(), currentValue));
+            }
 
-        // Terminal cashflow for XIRR
-        if (currentValue != null && openQty.compareTo(BigDecimal.ZERO) > 0) {
-            cashflows.add(new XirrCalculator.Cashflow(LocalDate.now(), currentValue));
+            xirr = calculateXirrPercentage(cashflows);
         }
 
-        Double xirr = calculateXirrPercentage(cashflows);
-
         BigDecimal absoluteReturnPercent = null;
         if (currentValue != null && openCost.compareTo(BigDecimal.ZERO) > 0) {
             BigDecimal totalHoldingGain = currentValue
@@ -729,16 +834,6 @@ public class InvestmentService {
                     .setScale(2, RoundingMode.HALF_UP);
         }
 
-        String mergedIntoName = null;
-        LocalDate mergedIntoDate = null;
-        for (CorporateAction ca : corpActions) {
-            if (ca.getType() == CorporateActionType.merger && ca.getTargetInstrument() != null && !ca.getExDate().isAfter(LocalDate.now())) {
-                mergedIntoName = ca.getTargetInstrument().getName();
-                mergedIntoDate = ca.getExDate();
-                break;
-            }
-        }
-
         return new HoldingPosition(
                 holding,
                 openQty.setScale(8, RoundingMode.HALF_UP),
@@ -752,17 +847,50 @@ public class InvestmentService {
                 unrealizedPercent,
                 cumulativeRealized.setScale(4, RoundingMode.HALF_UP),
                 intradayRealized.setScale(4, RoundingMode.HALF_UP),
-                totalHoldingCharges.setScale(4, RoundingMode.HALF_UP),
+                ledger.totalCharges.setScale(4, RoundingMode.HALF_UP),
                 holdingDividends.setScale(2, RoundingMode.HALF_UP),
                 xirr,
                 absoluteReturnPercent,
-                mergedIntoName,
-                mergedIntoDate
+                ledger.mergedIntoName,
+                ledger.mergedIntoDate
+        );
+    }
+
+    private com.financeos.domain.investment.dto.RealizedLot toRealizedLot(Holding holding, HoldingLedger.ClosedLot lot) {
+        long days = java.time.temporal.ChronoUnit.DAYS.between(lot.buyDate(), lot.sellDate());
+        String term = days > 365 ? "long" : "short";
+        return new com.financeos.domain.investment.dto.RealizedLot(
+                holding.getId(),
+                holding.getBrokerAccount().getId(),
+                holding.getBrokerAccount().getName(),
+                holding.getInstrument().getId(),
+                holding.getInstrument().getName(),
+                holding.getInstrument().getType(),
+                lot.buyDate(),
+                lot.sellDate(),
+                lot.quantity(),
+                lot.buyValue(),
+                lot.sellValue(),
+                lot.sellValue().subtract(lot.buyValue()),
+                days,
+                term
         );
     }
 
+    /** XIRR of the union of {@code series} in {@code batch}, closed by a terminal flow of {@code currentValue} today. */
+    private Double groupXirrPercentage(XirrCalculator.Batch batch, List<Integer> series, BigDecimal currentValue) {
+        List<XirrCalculator.Cashflow> terminal = currentValue.compareTo(BigDecimal.ZERO) > 0
+                ? List.of(new XirrCalculator.Cashflow(LocalDate.now(), currentValue))
+                : List.of();
+        int group = batch.group(series.stream().mapToInt(Integer::intValue).toArray(), terminal);
+        return toXirrPercentage(batch.solve(group));
+    }
+
     private Double calculateXirrPercentage(List<XirrCalculator.Cashflow> cashflows) {
-        Double rawXirr = XirrCalculator.calculateXirr(cashflows);
+        return toXirrPercentage(XirrCalculator.calculateXirr(cashflows));
+    }
+
+    private Double toXirrPercentage(Double rawXirr) {
         if (rawXirr == null || Double.isNaN(rawXirr) || Double.isInfinite(rawXirr)) {
             return null;
         }
@@ -800,7 +928,8 @@ public class InvestmentService {
             List<SeedLot> seedLots,
             List<XirrCalculator.Cashflow> mergerBridgeOutflows,
             BigDecimal fractionalRealized,
-            List<XirrCalculator.Cashflow> fractionalCashflows) {}
+            List<XirrCalculator.Cashflow> fractionalCashflows,
+            boolean hasSources) {}
 
     /**
      * Derives the CA-seeded lots for a holding whose instrument is the target of demerger/merger
@@ -808,19 +937,19 @@ public class InvestmentService {
      * Extracted verbatim from calculateHoldingPosition so buildOpenLotsBeforeDate callers
      * (e.g. the portfolio_value datasource) can seed the same lots.
      */
-    private SeedDerivation deriveSeeds(Holding holding) {
-        List<CorporateAction> targetCAs = corporateActionRepository.findByTargetInstrumentIdOrderByExDateAsc(holding.getInstrument().getId());
+    private SeedDerivation deriveSeeds(Holding holding, PositionInputs inputs) {
+        List<CorporateAction> targetCAs = inputs.corporateActionsTargeting(holding.getInstrument().getId());
         List<SeedLot> seedLots = new ArrayList<>();
         List<XirrCalculator.Cashflow> mergerBridgeOutflows = new ArrayList<>();
         BigDecimal fractionalRealized = BigDecimal.ZERO;
         List<XirrCalculator.Cashflow> fractionalCashflows = new ArrayList<>();
         for (CorporateAction ca : targetCAs) {
-            Optional<Holding> parentHoldingOpt = holdingRepository.findByBrokerAccountIdAndInstrumentId(
+            Optional<Holding> parentHoldingOpt = inputs.holding(
                     holding.getBrokerAccount().getId(),
                     ca.getInstrument().getId()
             );
             if (parentHoldingOpt.isPresent() && (ca.getCostAllocationPct() != null || ca.getType() == CorporateActionType.merger) && ca.getRatioFrom() != null && ca.getRatioFrom() > 0 && ca.getRatioTo() != null && ca.getRatioTo() > 0) {
-                List<Lot> parentOpenLots = buildParentOpenLotsBeforeCa(parentHoldingOpt.get(), ca);
+                List<Lot> parentOpenLots = buildParentOpenLotsBeforeCa(parentHoldingOpt.get(), ca, inputs);
                 BigDecimal costAllocPct = ca.getType() == CorporateActionType.merger ? new BigDecimal("100") : ca.getCostAllocationPct();
                 BigDecimal E = BigDecimal.ZERO;
                 BigDecimal Cseed = BigDecimal.ZERO;
@@ -860,7 +989,7 @@ public class InvestmentService {
                     if (F.compareTo(BigDecimal.ZERO) > 0) {
                         BigDecimal proceeds = BigDecimal.ZERO;
                         if (ca.getFractionalCashInLieu() != null && ca.getFractionalCashInLieu().compareTo(BigDecimal.ZERO) > 0) {
-                            BigDecimal totalFrac = computeTotalFractionForCa(ca);
+                            BigDecimal totalFrac = computeTotalFractionForCa(ca, inputs);
                             if (totalFrac.compareTo(BigDecimal.ZERO) > 0) {
                                 proceeds = ca.getFractionalCashInLieu().multiply(F).divide(totalFrac, 4, RoundingMode.HALF_UP);
                             }
@@ -873,12 +1002,12 @@ public class InvestmentService {
             }
         }
 
-        return new SeedDerivation(seedLots, mergerBridgeOutflows, fractionalRealized, fractionalCashflows);
+        return new SeedDerivation(seedLots, mergerBridgeOutflows, fractionalRealized, fractionalCashflows, !targetCAs.isEmpty());
     }
 
     /** The seeded lots for a holding, for callers that only need quantities/cost (no XIRR parts). */
     public List<SeedLot> seedLotsFor(Holding holding) {
-        return deriveSeeds(holding).seedLots();
+        return deriveSeeds(holding, repositoryInputs).seedLots();
     }
 
     private int getEventOrder(TimelineEvent e) {
@@ -937,11 +1066,11 @@ public class InvestmentService {
         classificationRepository.save(c);
     }
 
-    private BigDecimal computeTotalFractionForCa(CorporateAction ca) {
+    private BigDecimal computeTotalFractionForCa(CorporateAction ca, PositionInputs inputs) {
         BigDecimal total = BigDecimal.ZERO;
-        for (Holding ph : holdingRepository.findByInstrumentId(ca.getInstrument().getId())) {
+        for (Holding ph : inputs.holdingsOfInstrument(ca.getInstrument().getId())) {
             BigDecimal e = BigDecimal.ZERO;
-            for (Lot lot : buildParentOpenLotsBeforeCa(ph, ca)) {
+            for (Lot lot : buildParentOpenLotsBeforeCa(ph, ca, inputs)) {
                 e = e.add(lot.remainingQty.multiply(BigDecimal.valueOf(ca.getRatioTo()))
                         .divide(BigDecimal.valueOf(ca.getRatioFrom()), 10, RoundingMode.HALF_UP).setScale(8, RoundingMode.HALF_UP));
             }
@@ -959,8 +1088,8 @@ public class InvestmentService {
         return total.compareTo(BigDecimal.ZERO) > 0 ? total : BigDecimal.ZERO;
     }
 
-    private List<Lot> buildParentOpenLotsBeforeCa(Holding parentHolding, CorporateAction demergerCa) {
-        return buildOpenLotsBeforeDate(parentHolding, demergerCa.getExDate(), false, demergerCa.getId());
+    private List<Lot> buildParentOpenLotsBeforeCa(Holding parentHolding, CorporateAction demergerCa, PositionInputs inputs) {
+        return buildOpenLots(parentHolding, demergerCa.getExDate(), false, demergerCa.getId(), null, null, null, inputs);
     }
 
     public List<Lot> buildOpenLotsBeforeDate(Holding parentHolding, LocalDate cutoffDate, boolean strictBefore, UUID caToIgnore) {
@@ -976,12 +1105,66 @@ public class InvestmentService {
      */
     public List<Lot> buildOpenLotsBeforeDate(Holding parentHolding, LocalDate cutoffDate, boolean strictBefore, UUID caToIgnore,
             List<InvestmentTransaction> prefetchedTxns, List<CorporateAction> prefetchedCorpActions, List<SeedLot> seedLots) {
-        List<InvestmentTransaction> txns = prefetchedTxns != null ? prefetchedTxns
-                : transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(parentHolding.getId());
+        return buildOpenLots(parentHolding, cutoffDate, strictBefore, caToIgnore, prefetchedTxns, prefetchedCorpActions, seedLots,
+                repositoryInputs);
+    }
+
+    private List<Lot> buildOpenLots(Holding parentHolding, LocalDate cutoffDate, boolean strictBefore, UUID caToIgnore,
+            List<InvestmentTransaction> prefetchedTxns, List<CorporateAction> prefetchedCorpActions, List<SeedLot> seedLots,
+            PositionInputs inputs) {
+        List<TimelineEvent> timeline = buildLotTimeline(parentHolding, cutoffDate, strictBefore, caToIgnore,
+                prefetchedTxns, prefetchedCorpActions, seedLots, inputs);
+        LinkedList<Lot> openLots = new LinkedList<>();
+        for (TimelineEvent event : timeline) {
+            applyLotEvent(openLots, event);
+        }
+        return openLots;
+    }
+
+    /** Open quantity and cost basis of a holding as of one valuation date. */
+    public record OpenLotTotals(LocalDate date, BigDecimal quantity, BigDecimal cost) {}
+
+    /**
+     * Open-lot totals at each of the ascending {@code valuationDates}; equivalent to calling
+     * {@code buildOpenLotsBeforeDate(holding, d, false, null, ...)} per date, but the holding's
+     * timeline is built once and replayed in a single forward sweep, snapshotting the carried
+     * lot state as each valuation date is passed. Every cutoff's timeline is a prefix of the
+     * last one's (same date/event-order sort), so the snapshots match the per-date rebuilds.
+     */
+    public List<OpenLotTotals> openLotTotalsAsOf(Holding holding, List<LocalDate> valuationDates,
+            List<InvestmentTransaction> prefetchedTxns, List<CorporateAction> prefetchedCorpActions, List<SeedLot> seedLots) {
+        if (valuationDates.isEmpty()) {
+            return List.of();
+        }
+        List<TimelineEvent> timeline = buildLotTimeline(holding, valuationDates.get(valuationDates.size() - 1), false, null,
+                prefetchedTxns, prefetchedCorpActions, seedLots, repositoryInputs);
+
+        List<OpenLotTotals> totals = new ArrayList<>(valuationDates.size());
+        LinkedList<Lot> openLots = new LinkedList<>();
+        int next = 0;
+        for (LocalDate valuationDate : valuationDates) {
+            while (next < timeline.size() && !timeline.get(next).date().isAfter(valuationDate)) {
+                applyLotEvent(openLots, timeline.get(next++));
+            }
+            BigDecimal qty = BigDecimal.ZERO;
+            BigDecimal cost = BigDecimal.ZERO;
+            for (Lot lot : openLots) {
+                qty = qty.add(lot.remainingQty);
+                cost = cost.add(lot.remainingQty.multiply(lot.costPerUnit));
+            }
+            totals.add(new OpenLotTotals(valuationDate, qty, cost));
+        }
+        return totals;
+    }
+
+    private List<TimelineEvent> buildLotTimeline(Holding parentHolding, LocalDate cutoffDate, boolean strictBefore, UUID caToIgnore,
+            List<InvestmentTransaction> prefetchedTxns, List<CorporateAction> prefetchedCorpActions, List<SeedLot> seedLots,
+            PositionInputs inputs) {
+        List<InvestmentTransaction> txns = prefetchedTxns != null ? prefetchedTxns : inputs.transactions(parentHolding);
         List<CorporateAction> corpActions = prefetchedCorpActions != null ? prefetchedCorpActions
-                : corporateActionRepository.findByInstrumentIdOrderByExDateAsc(parentHolding.getInstrument().getId());
+                : inputs.corporateActions(parentHolding.getInstrument().getId());
 
-        List<TradeSettlementClassification> classifications = classificationRepository.findByHoldingId(parentHolding.getId());
+        List<TradeSettlementClassification> classifications = inputs.classifications(parentHolding);
         Map<LocalDate, TradeSettlementClassification> classMap = new HashMap<>();
         for (TradeSettlementClassification c : classifications) {
             boolean include = strictBefore ? c.getTradeDate().compareTo(cutoffDate) < 0 : c.getTradeDate().compareTo(cutoffDate) <= 0;
@@ -1080,78 +1263,235 @@ public class InvestmentService {
             }
             return Integer.compare(getEventOrder(e1), getEventOrder(e2));
         });
+        return timeline;
+    }
 
-        LinkedList<Lot> openLots = new LinkedList<>();
-
-        for (TimelineEvent event : timeline) {
-            if (event instanceof DemergerSeedEvent seed) {
-                openLots.add(new Lot(seed.qty(), seed.costPerUnit(), seed.date()));
-            } else if (event instanceof CorpActionEvent caEvent) {
-                CorporateAction ca = caEvent.action();
-                if (ca.getType() == CorporateActionType.merger) {
-                    // The transferor's shares convert in-kind on merger; without this the ratio
-                    // branch below would scale them instead of closing the position.
-                    openLots.clear();
-                } else if (ca.getType() == CorporateActionType.demerger) {
-                    if (ca.getCostAllocationPct() != null && ca.getCostAllocationPct().compareTo(BigDecimal.ZERO) > 0) {
-                        BigDecimal factor = BigDecimal.ONE.subtract(
-                                ca.getCostAllocationPct().divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
-                        );
-                        for (Lot lot : openLots) {
-                            lot.costPerUnit = lot.costPerUnit.multiply(factor).setScale(8, RoundingMode.HALF_UP);
-                        }
-                    }
-                } else if (ca.getRatioFrom() != null && ca.getRatioFrom() > 0 && ca.getRatioTo() != null && ca.getRatioTo() > 0) {
-                    BigDecimal multiplier = BigDecimal.valueOf(ca.getRatioTo())
-                            .divide(BigDecimal.valueOf(ca.getRatioFrom()), 10, RoundingMode.HALF_UP);
+    private void applyLotEvent(LinkedList<Lot> openLots, TimelineEvent event) {
+        if (event instanceof DemergerSeedEvent seed) {
+            openLots.add(new Lot(seed.qty(), seed.costPerUnit(), seed.date()));
+        } else if (event instanceof CorpActionEvent caEvent) {
+            CorporateAction ca = caEvent.action();
+            if (ca.getType() == CorporateActionType.merger) {
+                // The transferor's shares convert in-kind on merger; without this the ratio
+                // branch below would scale them instead of closing the position.
+                openLots.clear();
+            } else if (ca.getType() == CorporateActionType.demerger) {
+                if (ca.getCostAllocationPct() != null && ca.getCostAllocationPct().compareTo(BigDecimal.ZERO) > 0) {
+                    BigDecimal factor = BigDecimal.ONE.subtract(
+                            ca.getCostAllocationPct().divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
+                    );
                     for (Lot lot : openLots) {
-                        lot.remainingQty = lot.remainingQty.multiply(multiplier).setScale(8, RoundingMode.HALF_UP);
-                        lot.costPerUnit = lot.costPerUnit.divide(multiplier, 8, RoundingMode.HALF_UP);
+                        lot.costPerUnit = lot.costPerUnit.multiply(factor).setScale(8, RoundingMode.HALF_UP);
                     }
                 }
-            } else if (event instanceof TxnEvent txnEvent) {
-                InvestmentTransaction txn = txnEvent.txn();
-
-                if (txn.getType() == InvestmentTransactionType.buy) {
-                    BigDecimal costPerUnit = txn.getPrice();
-                    openLots.add(new Lot(txn.getQuantity(), costPerUnit, txn.getTradeDate()));
-                } else if (txn.getType() == InvestmentTransactionType.sell) {
-                    BigDecimal qtyToMatch = txn.getQuantity();
-                    while (qtyToMatch.compareTo(BigDecimal.ZERO) > 0) {
-                        if (openLots.isEmpty()) {
-                            break;
-                        }
-                        Lot oldestLot = openLots.peek();
-                        BigDecimal takeQty = qtyToMatch.min(oldestLot.remainingQty);
-                        oldestLot.remainingQty = oldestLot.remainingQty.subtract(takeQty);
-                        qtyToMatch = qtyToMatch.subtract(takeQty);
+            } else if (ca.getRatioFrom() != null && ca.getRatioFrom() > 0 && ca.getRatioTo() != null && ca.getRatioTo() > 0) {
+                BigDecimal multiplier = BigDecimal.valueOf(ca.getRatioTo())
+                        .divide(BigDecimal.valueOf(ca.getRatioFrom()), 10, RoundingMode.HALF_UP);
+                for (Lot lot : openLots) {
+                    lot.remainingQty = lot.remainingQty.multiply(multiplier).setScale(8, RoundingMode.HALF_UP);
+                    lot.costPerUnit = lot.costPerUnit.divide(multiplier, 8, RoundingMode.HALF_UP);
+                }
+            }
+        } else if (event instanceof TxnEvent txnEvent) {
+            InvestmentTransaction txn = txnEvent.txn();
+
+            if (txn.getType() == InvestmentTransactionType.buy) {
+                BigDecimal costPerUnit = txn.getPrice();
+                openLots.add(new Lot(txn.getQuantity(), costPerUnit, txn.getTradeDate()));
+            } else if (txn.getType() == InvestmentTransactionType.sell) {
+                BigDecimal qtyToMatch = txn.getQuantity();
+                while (qtyToMatch.compareTo(BigDecimal.ZERO) > 0) {
+                    if (openLots.isEmpty()) {
+                        break;
+                    }
+                    Lot oldestLot = openLots.peek();
+                    BigDecimal takeQty = qtyToMatch.min(oldestLot.remainingQty);
+                    oldestLot.remainingQty = oldestLot.remainingQty.subtract(takeQty);
+                    qtyToMatch = qtyToMatch.subtract(takeQty);
 
-                        if (oldestLot.remainingQty.compareTo(BigDecimal.ZERO) == 0) {
-                            openLots.poll();
-                        }
+                    if (oldestLot.remainingQty.compareTo(BigDecimal.ZERO) == 0) {
+                        openLots.poll();
                     }
                 }
             }
         }
-
-        return openLots;
     }
 
     @Transactional(readOnly = true)
     public List<com.financeos.domain.investment.dto.RealizedLot> getAllRealizedLots() {
         List<Holding> holdings = holdingRepository.findAllWithDetails();
+        PortfolioLedgers ledgers = portfolioLedgers(holdings, true, "realized lots");
         List<com.financeos.domain.investment.dto.RealizedLot> lots = new ArrayList<>();
         for (Holding holding : holdings) {
-            try {
-                calculateHoldingPosition(holding, lots::add);
-            } catch (Exception e) {
-                log.warn("Skipping holding {} ({}) in realized lots: {}",
-                        holding.getId(), holding.getInstrument().getName(), e.getMessage());
+            HoldingLedger ledger = ledgers.ledger(holding);
+            if (ledger != null) {
+                for (HoldingLedger.ClosedLot lot : ledger.closedLots()) {
+                    lots.add(toRealizedLot(holding, lot));
+                }
             }
         }
         return lots;
     }
 
+    /**
+     * Positions of {@code holdings} in input order. Unlike the summary, a holding whose history cannot
+     * be replayed fails the call.
+     */
+    @Transactional(readOnly = true)
+    public List<HoldingPosition> calculateHoldingPositions(List<Holding> holdings) {
+        if (holdings.isEmpty()) {
+            return List.of();
+        }
+        return portfolioLedgers(holdings, false, null).positions(true);
+    }
+
+    /**
+     * Ledgers of {@code holdings} in input order: servable holding_position rows as stored, the rest
+     * replayed live on the position executor. A failed replay is logged and left null when
+     * {@code skipContext} names the caller, and fails the call when it is null.
+     */
+    private PortfolioLedgers portfolioLedgers(List<Holding> holdings, boolean withClosedLots, String skipContext) {
+        Set<UUID> instrumentIds = new LinkedHashSet<>();
+        List<UUID> holdingIds = new ArrayList<>(holdings.size());
+        for (Holding holding : holdings) {
+            holdingIds.add(holding.getId());
+            instrumentIds.add(holding.getInstrument().getId());
+        }
+        Map<UUID, HoldingLedger> stored = positionStore.freshLedgers(holdingIds, withClosedLots);
+        List<Holding> missing = holdings.stream().filter(h -> !stored.containsKey(h.getId())).toList();
+        if (missing.isEmpty()) {
+            Map<UUID, InstrumentPrice> prices = snapshotLoader.latestPrices(instrumentIds);
+            return new PortfolioLedgers(holdings, stored, prices::get);
+        }
+
+        // Seeds and cash-in-lieu fractions look across brokers, so the snapshot covers the whole portfolio.
+        PortfolioSnapshot snapshot = snapshotLoader.load();
+        List<HoldingLedger> replayed = computePerHolding(missing, holding -> {
+            try {
+                return replayLedger(holding, snapshot, null, null);
+            } catch (RuntimeException e) {
+                if (skipContext == null) {
+                    throw e;
+                }
+                // Skip a holding with inconsistent history rather than failing the whole read.
+                log.warn("Skipping holding {} ({}) in {}: {}",
+                        holding.getId(), holding.getInstrument().getName(), skipContext, e.getMessage());
+                return null;
+            }
+        });
+        Map<UUID, HoldingLedger> byHolding = new HashMap<>(stored);
+        for (int i = 0; i < missing.size(); i++) {
+            if (replayed.get(i) != null) {
+                byHolding.put(missing.get(i).getId(), replayed.get(i));
+            }
+        }
+        return new PortfolioLedgers(holdings, byHolding, id -> snapshot.latestPrice(id).orElse(null));
+    }
+
+    /** Ledgers of a holding list plus the latest prices to value them at. */
+    private final class PortfolioLedgers {
+        private final List<Holding> holdings;
+        private final Map<UUID, HoldingLedger> byHolding;
+        private final Function<UUID, InstrumentPrice> prices;
+
+        PortfolioLedgers(List<Holding> holdings, Map<UUID, HoldingLedger> byHolding, Function<UUID, InstrumentPrice> prices) {
+            this.holdings = holdings;
+            this.byHolding = byHolding;
+            this.prices = prices;
+        }
+
+        /** The holding's ledger, or null when its history could not be replayed. */
+        HoldingLedger ledger(Holding holding) {
+            return byHolding.get(holding.getId());
+        }
+
+        /** Positions in holding order (null where there is no ledger), valued on the position executor. */
+        List<HoldingPosition> positions(boolean withXirr) {
+            return computePerHolding(holdings, holding -> {
+                HoldingLedger ledger = ledger(holding);
+                return ledger != null
+                        ? toPosition(holding, ledger, prices.apply(holding.getInstrument().getId()), withXirr)
+                        : null;
+            });
+        }
+    }
+
+    /**
+     * Applies {@code task} to each holding on the position executor and returns the results in holding
+     * order. Tasks may only read snapshot inputs: they run off the request thread, outside its
+     * persistence context.
+     */
+    private <R> List<R> computePerHolding(List<Holding> holdings, Function<Holding, R> task) {
+        List<R> results = new ArrayList<>(holdings.size());
+        if (holdings.size() < 2) {
+            for (Holding holding : holdings) {
+                results.add(task.apply(holding));
+            }
+            return results;
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(holdings.size());
+        for (Holding holding : holdings) {
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(holding), positionExecutor));
+        }
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    /** Per-holding repository lookups, for single-holding callers (trade validation, valuation). */
+    private class RepositoryPositionInputs implements PositionInputs {
+        @Override
+        public List<InvestmentTransaction> transactions(Holding holding) {
+            return transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
+        }
+
+        @Override
+        public List<CorporateAction> corporateActions(UUID instrumentId) {
+            return corporateActionRepository.findByInstrumentIdOrderByExDateAsc(instrumentId);
+        }
+
+        @Override
+        public List<CorporateAction> corporateActionsTargeting(UUID instrumentId) {
+            return corporateActionRepository.findByTargetInstrumentIdOrderByExDateAsc(instrumentId);
+        }
+
+        @Override
+        public List<TradeSettlementClassification> classifications(Holding holding) {
+            return classificationRepository.findByHoldingId(holding.getId());
+        }
+
+        @Override
+        public List<Dividend> dividends(Holding holding) {
+            return dividendRepository.findByHoldingIdOrderByPayDateDescCreatedAtDesc(holding.getId());
+        }
+
+        @Override
+        public Optional<InstrumentPrice> latestPrice(UUID instrumentId) {
+            return priceRepository.findTopByInstrumentIdOrderByAsOfDesc(instrumentId);
+        }
+
+        @Override
+        public Optional<Holding> holding(UUID brokerAccountId, UUID instrumentId) {
+            return holdingRepository.findByBrokerAccountIdAndInstrumentId(brokerAccountId, instrumentId);
+        }
+
+        @Override
+        public List<Holding> holdingsOfInstrument(UUID instrumentId) {
+            return holdingRepository.findByInstrumentId(instrumentId);
+        }
+    }
+
     public static class Lot {
         public BigDecimal remainingQty;
         public BigDecimal costPerUnit;
@@ -1180,6 +1520,7 @@ public class InvestmentService {
         BigDecimal realized = BigDecimal.ZERO;
         BigDecimal intradayRealized = BigDecimal.ZERO;
         BigDecimal totalCharges = BigDecimal.ZERO;
+        List<Integer> xirrSeries = new ArrayList<>();
 
         BrokerSummaryAccumulator(UUID brokerAccountId, String brokerName, String provider, BigDecimal cashBalance) {
             this.brokerAccountId = brokerAccountId;
@@ -1193,6 +1534,7 @@ public class InvestmentService {
         InstrumentType type;
         BigDecimal invested = BigDecimal.ZERO;
         BigDecimal currentValue = BigDecimal.ZERO;
+        List<Integer> xirrSeries = new ArrayList<>();
 
         InstrumentTypeAccumulator(InstrumentType type) {
             this.type = type;
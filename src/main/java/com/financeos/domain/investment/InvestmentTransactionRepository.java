@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +16,8 @@ public interface InvestmentTransactionRepository extends JpaRepository<Investmen
 
     List<InvestmentTransaction> findByHoldingIdOrderByTradeDateAscCreatedAtAsc(UUID holdingId);
 
+    List<InvestmentTransaction> findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(Collection<UUID> holdingIds);
+
     @Query(value = "SELECT t FROM InvestmentTransaction t JOIN FETCH t.holding h JOIN FETCH h.instrument i JOIN FETCH h.brokerAccount b LEFT JOIN FETCH b.brokerDetails bd WHERE " +
                    "(:brokerAccountId IS NULL OR b.id = :brokerAccountId) AND " +
                    "(:instrumentId IS NULL OR i.id = :instrumentId) AND " +
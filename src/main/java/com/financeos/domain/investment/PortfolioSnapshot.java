@@ -0,0 +1,96 @@
+package com.financeos.domain.investment;
+
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.instrument.InstrumentPrice;
+import com.financeos.domain.instrument.corporateaction.CorporateAction;
+import com.financeos.domain.investment.dividend.Dividend;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory position inputs for a set of holdings, produced by {@link PortfolioSnapshotLoader}
+ * with a fixed number of set-based queries. Lookups outside the loaded set behave like empty
+ * query results, so the snapshot must cover every holding the position math can reach (the
+ * user's full holding list does, including demerger/merger parents).
+ */
+public final class PortfolioSnapshot implements PositionInputs {
+
+    private final List<Holding> holdings;
+    private final Map<UUID, List<InvestmentTransaction>> transactionsByHolding;
+    private final Map<UUID, List<CorporateAction>> corporateActionsByInstrument;
+    private final Map<UUID, List<CorporateAction>> corporateActionsByTarget;
+    private final Map<UUID, List<TradeSettlementClassification>> classificationsByHolding;
+    private final Map<UUID, List<Dividend>> dividendsByHolding;
+    private final Map<UUID, InstrumentPrice> latestPriceByInstrument;
+    private final Map<UUID, List<Holding>> holdingsByInstrument;
+
+    PortfolioSnapshot(List<Holding> holdings,
+                      Map<UUID, List<InvestmentTransaction>> transactionsByHolding,
+                      Map<UUID, List<CorporateAction>> corporateActionsByInstrument,
+                      Map<UUID, List<CorporateAction>> corporateActionsByTarget,
+                      Map<UUID, List<TradeSettlementClassification>> classificationsByHolding,
+                      Map<UUID, List<Dividend>> dividendsByHolding,
+                      Map<UUID, InstrumentPrice> latestPriceByInstrument,
+                      Map<UUID, List<Holding>> holdingsByInstrument) {
+        this.holdings = holdings;
+        this.transactionsByHolding = transactionsByHolding;
+        this.corporateActionsByInstrument = corporateActionsByInstrument;
+        this.corporateActionsByTarget = corporateActionsByTarget;
+        this.classificationsByHolding = classificationsByHolding;
+        this.dividendsByHolding = dividendsByHolding;
+        this.latestPriceByInstrument = latestPriceByInstrument;
+        this.holdingsByInstrument = holdingsByInstrument;
+    }
+
+    public List<Holding> holdings() {
+        return holdings;
+    }
+
+    @Override
+    public List<InvestmentTransaction> transactions(Holding holding) {
+        return transactionsByHolding.getOrDefault(holding.getId(), List.of());
+    }
+
+    @Override
+    public List<CorporateAction> corporateActions(UUID instrumentId) {
+        return corporateActionsByInstrument.getOrDefault(instrumentId, List.of());
+    }
+
+    @Override
+    public List<CorporateAction> corporateActionsTargeting(UUID instrumentId) {
+        return corporateActionsByTarget.getOrDefault(instrumentId, List.of());
+    }
+
+    @Override
+    public List<TradeSettlementClassification> classifications(Holding holding) {
+        return classificationsByHolding.getOrDefault(holding.getId(), List.of());
+    }
+
+    @Override
+    public List<Dividend> dividends(Holding holding) {
+        return dividendsByHolding.getOrDefault(holding.getId(), List.of());
+    }
+
+    @Override
+    public Optional<InstrumentPrice> latestPrice(UUID instrumentId) {
+        return Optional.ofNullable(latestPriceByInstrument.get(instrumentId));
+    }
+
+    @Override
+    public Optional<Holding> holding(UUID brokerAccountId, UUID instrumentId) {
+        for (Holding h : holdingsOfInstrument(instrumentId)) {
+            if (h.getBrokerAccount().getId().equals(brokerAccountId)) {
+                return Optional.of(h);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Holding> holdingsOfInstrument(UUID instrumentId) {
+        return holdingsByInstrument.getOrDefault(instrumentId, List.of());
+    }
+}
@@ -0,0 +1,130 @@
+package com.financeos.domain.investment;
+
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.instrument.InstrumentPrice;
+import com.financeos.domain.instrument.InstrumentPriceRepository;
+import com.financeos.domain.instrument.corporateaction.CorporateAction;
+import com.financeos.domain.instrument.corporateaction.CorporateActionRepository;
+import com.financeos.domain.investment.dividend.Dividend;
+import com.financeos.domain.investment.dividend.DividendRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Loads a {@link PortfolioSnapshot} for the current user's holdings in a fixed handful of
+ * set-based queries (holdings, transactions, corporate actions by parent and by target,
+ * settlement classifications, dividends, latest prices), independent of the holding count.
+ */
+@Component
+@Transactional(readOnly = true)
+public class PortfolioSnapshotLoader {
+
+    // Oracle rejects IN lists longer than 1000 expressions (ORA-01795).
+    private static final int IN_LIST_LIMIT = 1000;
+
+    private final HoldingRepository holdingRepository;
+    private final InvestmentTransactionRepository transactionRepository;
+    private final CorporateActionRepository corporateActionRepository;
+    private final TradeSettlementClassificationRepository classificationRepository;
+    private final DividendRepository dividendRepository;
+    private final InstrumentPriceRepository priceRepository;
+
+    public PortfolioSnapshotLoader(HoldingRepository holdingRepository,
+                                   InvestmentTransactionRepository transactionRepository,
+                                   CorporateActionRepository corporateActionRepository,
+                                   TradeSettlementClassificationRepository classificationRepository,
+                                   DividendRepository dividendRepository,
+                                   InstrumentPriceRepository priceRepository) {
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.corporateActionRepository = corporateActionRepository;
+        this.classificationRepository = classificationRepository;
+        this.dividendRepository = dividendRepository;
+        this.priceRepository = priceRepository;
+    }
+
+    public PortfolioSnapshot load() {
+        return load(holdingRepository.findAllWithDetails());
+    }
+
+    public PortfolioSnapshot load(List<Holding> holdings) {
+        Set<UUID> holdingIds = new LinkedHashSet<>();
+        Set<UUID> instrumentIds = new LinkedHashSet<>();
+        Map<UUID, List<Holding>> holdingsByInstrument = new HashMap<>();
+        for (Holding h : holdings) {
+            holdingIds.add(h.getId());
+            instrumentIds.add(h.getInstrument().getId());
+            holdingsByInstrument.computeIfAbsent(h.getInstrument().getId(), k -> new ArrayList<>()).add(h);
+        }
+        if (holdings.isEmpty()) {
+            return new PortfolioSnapshot(holdings, Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+        }
+
+        Map<UUID, List<InvestmentTransaction>> txnsByHolding = group(
+                inChunks(holdingIds, transactionRepository::findByHoldingIdInOrderByTradeDateAscCreatedAtAsc),
+                t -> t.getHolding().getId());
+        Map<UUID, List<CorporateAction>> casByInstrument = group(
+                inChunks(instrumentIds, corporateActionRepository::findByInstrumentIdInOrderByExDateAsc),
+                ca -> ca.getInstrument().getId());
+        Map<UUID, List<CorporateAction>> casByTarget = group(
+                inChunks(instrumentIds, corporateActionRepository::findByTargetInstrumentIdInOrderByExDateAsc),
+                ca -> ca.getTargetInstrument().getId());
+        Map<UUID, List<TradeSettlementClassification>> classificationsByHolding = group(
+                inChunks(holdingIds, classificationRepository::findByHoldingIdIn),
+                c -> c.getHolding() != null ? c.getHolding().getId() : null);
+        Map<UUID, List<Dividend>> dividendsByHolding = group(
+                inChunks(holdingIds, dividendRepository::findByHoldingIdInOrderByPayDateDescCreatedAtDesc),
+                d -> d.getHolding().getId());
+        Map<UUID, InstrumentPrice> latestPrices = latestPrices(instrumentIds);
+
+        return new PortfolioSnapshot(holdings, txnsByHolding, casByInstrument, casByTarget,
+                classificationsByHolding, dividendsByHolding, latestPrices, holdingsByInstrument);
+    }
+
+    /** Latest price per instrument; instruments never priced are absent. */
+    public Map<UUID, InstrumentPrice> latestPrices(Collection<UUID> instrumentIds) {
+        Map<UUID, InstrumentPrice> latestPrices = new HashMap<>();
+        if (instrumentIds.isEmpty()) {
+            return latestPrices;
+        }
+        for (InstrumentPrice p : inChunks(instrumentIds, priceRepository::findLatestByInstrumentIdIn)) {
+            latestPrices.put(p.getInstrument().getId(), p);
+        }
+        return latestPrices;
+    }
+
+    /** Groups preserving query order within each key; rows keyed to null are dropped. */
+    private static <T> Map<UUID, List<T>> group(List<T> rows, Function<T, UUID> key) {
+        Map<UUID, List<T>> grouped = new HashMap<>();
+        for (T row : rows) {
+            UUID k = key.apply(row);
+            if (k != null) {
+                grouped.computeIfAbsent(k, x -> new ArrayList<>()).add(row);
+            }
+        }
+        return grouped;
+    }
+
+    private static <T> List<T> inChunks(Collection<UUID> ids, Function<List<UUID>, List<T>> query) {
+        List<UUID> all = new ArrayList<>(ids);
+        if (all.size() <= IN_LIST_LIMIT) {
+            return query.apply(all);
+        }
+        List<T> rows = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_LIST_LIMIT) {
+            rows.addAll(query.apply(all.subList(from, Math.min(from + IN_LIST_LIMIT, all.size()))));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,35 @@
+package com.financeos.domain.investment;
+
+import com.financeos.core.observability.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PositionExecutorConfig {
+
+    @Value("${investments.positions.parallelism:4}")
+    private int parallelism;
+
+    @Value("${investments.positions.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Bean(name = "positionExecutor")
+    public Executor positionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("position-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // Position tasks are pure CPU over an already-loaded snapshot; when the pool is saturated
+        // by concurrent requests the caller computes the holding itself instead of failing.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.financeos.domain.investment;
+
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.instrument.InstrumentPrice;
+import com.financeos.domain.instrument.corporateaction.CorporateAction;
+import com.financeos.domain.investment.dividend.Dividend;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Everything {@link InvestmentService#calculateHoldingPosition} reads besides the holding itself.
+ * Single-holding callers go through the repositories; portfolio-wide reads use a
+ * {@link PortfolioSnapshot} loaded up front so the per-holding math issues no queries.
+ */
+interface PositionInputs {
+
+    /** Trade-date ascending, then creation order. */
+    List<InvestmentTransaction> transactions(Holding holding);
+
+    /** Ex-date ascending. */
+    List<CorporateAction> corporateActions(UUID instrumentId);
+
+    /** Demerger/merger actions whose target is the instrument, ex-date ascending. */
+    List<CorporateAction> corporateActionsTargeting(UUID instrumentId);
+
+    List<TradeSettlementClassification> classifications(Holding holding);
+
+    /** Pay-date descending, then newest first. */
+    List<Dividend> dividends(Holding holding);
+
+    Optional<InstrumentPrice> latestPrice(UUID instrumentId);
+
+    Optional<Holding> holding(UUID brokerAccountId, UUID instrumentId);
+
+    List<Holding> holdingsOfInstrument(UUID instrumentId);
+}
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +12,7 @@ import java.util.UUID;
 @Repository
 public interface TradeSettlementClassificationRepository extends JpaRepository<TradeSettlementClassification, UUID> {
     List<TradeSettlementClassification> findByHoldingId(UUID holdingId);
+    List<TradeSettlementClassification> findByHoldingIdIn(Collection<UUID> holdingIds);
     List<TradeSettlementClassification> findByBrokerAccountIdAndInstrumentId(UUID brokerAccountId, UUID instrumentId);
     Optional<TradeSettlementClassification> findByBrokerAccountIdAndInstrumentIdAndTradeDate(UUID brokerAccountId, UUID instrumentId, LocalDate tradeDate);
     void deleteByBrokerAccountId(UUID brokerAccountId);
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +18,8 @@ public interface DividendRepository extends JpaRepository<Dividend, UUID> {
 
     List<Dividend> findByHoldingIdOrderByPayDateDescCreatedAtDesc(UUID holdingId);
 
+    List<Dividend> findByHoldingIdInOrderByPayDateDescCreatedAtDesc(Collection<UUID> holdingIds);
+
     List<Dividend> findByHoldingBrokerAccountIdOrderByPayDateDescCreatedAtDesc(UUID brokerAccountId);
 
     @Query(value = "SELECT d FROM Dividend d JOIN FETCH d.holding h JOIN FETCH h.instrument i JOIN FETCH h.brokerAccount b LEFT JOIN FETCH b.brokerDetails bd WHERE " +
@@ -5,6 +5,7 @@ import com.financeos.core.exception.ResourceNotFoundException;
 import com.financeos.core.exception.ValidationException;
 import com.financeos.core.security.UserContext;
 import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
 import com.financeos.domain.holding.HoldingRepository;
 import com.financeos.domain.instrument.Instrument;
 import com.financeos.domain.instrument.InstrumentType;
@@ -14,6 +15,7 @@ import com.financeos.domain.investment.InvestmentTransaction;
 import com.financeos.domain.investment.InvestmentTransactionRepository;
 import com.financeos.domain.user.User;
 import com.financeos.domain.user.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -38,19 +40,22 @@ public class DividendService {
     private final InvestmentService investmentService;
     private final YahooDividendEventsClient yahooClient;
     private final InvestmentTransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DividendService(DividendRepository dividendRepository,
                            HoldingRepository holdingRepository,
                            UserRepository userRepository,
                            InvestmentService investmentService,
                            YahooDividendEventsClient yahooClient,
-                           InvestmentTransactionRepository transactionRepository) {
+                           InvestmentTransactionRepository transactionRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.dividendRepository = dividendRepository;
         this.holdingRepository = holdingRepository;
         this.userRepository = userRepository;
         this.investmentService = investmentService;
         this.yahooClient = yahooClient;
         this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public DividendResponse createDividend(CreateDividendRequest request) {
@@ -72,6 +77,7 @@ public class DividendService {
         dividend.setNotes(request.notes());
 
         Dividend saved = dividendRepository.save(dividend);
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forDividends(saved.getHolding()));
         return DividendResponse.from(saved);
     }
 
@@ -93,6 +99,7 @@ public class DividendService {
         dividend.setNotes(request.notes());
 
         Dividend saved = dividendRepository.save(dividend);
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forDividends(saved.getHolding()));
         return DividendResponse.from(saved);
     }
 
@@ -106,6 +113,7 @@ public class DividendService {
         }
 
         dividendRepository.delete(dividend);
+        eventPublisher.publishEvent(HoldingLedgerChangedEvent.forDividends(dividend.getHolding()));
     }
 
     @Transactional(readOnly = true)
@@ -300,6 +308,7 @@ public class DividendService {
             dividend.setNotes(item.notes());
 
             Dividend saved = dividendRepository.save(dividend);
+            eventPublisher.publishEvent(HoldingLedgerChangedEvent.forDividends(holding));
             createdResponses.add(DividendResponse.from(saved));
         }
 
@@ -1,6 +1,9 @@
 package com.financeos.domain.investment.imports;
 
-import org.apache.poi.ss.usermodel.*;
+import com.financeos.core.excel.ExcelCell;
+import com.financeos.core.excel.ExcelRow;
+import com.financeos.core.excel.ExcelRowReader;
+import org.apache.poi.ss.usermodel.CellType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,120 +19,121 @@ public class ExcelReader {
         return readExcel(inputStream, Collections.emptyList());
     }
 
+    /**
+     * Rows of the first sheet after its header row, keyed by lower-cased header. The sheet is
+     * streamed ({@link ExcelRowReader}); only the returned maps are kept.
+     */
     public static List<Map<String, String>> readExcel(InputStream inputStream, Collection<String> headerHints) throws Exception {
-        Workbook workbook = WorkbookFactory.create(inputStream);
-        Sheet sheet = workbook.getSheetAt(0);
-
         List<Map<String, String>> result = new ArrayList<>();
-        Iterator<Row> rowIterator = sheet.iterator();
-
-        if (!rowIterator.hasNext()) {
-            workbook.close();
-            return result;
-        }
+        try (ExcelRowReader reader = ExcelRowReader.open(inputStream, null)) {
+            if (reader.sheetNames().isEmpty()) {
+                return result;
+            }
+            Iterable<ExcelRow> sheet = reader.sheet(0);
+            Iterator<ExcelRow> rowIterator = sheet.iterator();
 
-        Row headerRow = null;
-        if (headerHints != null && !headerHints.isEmpty()) {
-            List<String> cleanHints = headerHints.stream()
-                    .filter(h -> h != null && !h.isBlank())
-                    .map(String::toLowerCase)
-                    .toList();
+            if (!rowIterator.hasNext()) {
+                return result;
+            }
 
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                if (isRowEmpty(row)) {
-                    continue;
-                }
-                List<String> cellValues = new ArrayList<>();
-                for (Cell cell : row) {
-                    String val = getCellValueAsString(cell).trim().toLowerCase();
-                    if (!val.isBlank()) {
-                        cellValues.add(val);
+            ExcelRow headerRow = null;
+            if (headerHints != null && !headerHints.isEmpty()) {
+                List<String> cleanHints = headerHints.stream()
+                        .filter(h -> h != null && !h.isBlank())
+                        .map(String::toLowerCase)
+                        .toList();
+
+                while (rowIterator.hasNext()) {
+                    ExcelRow row = rowIterator.next();
+                    if (isRowEmpty(row)) {
+                        continue;
+                    }
+                    List<String> cellValues = new ArrayList<>();
+                    for (ExcelCell cell : row) {
+                        String val = getCellValueAsString(cell).trim().toLowerCase();
+                        if (!val.isBlank()) {
+                            cellValues.add(val);
+                        }
+                    }
+                    boolean matchesAll = cleanHints.stream()
+                            .allMatch(hint -> cellValues.stream().anyMatch(val -> val.contains(hint)));
+                    if (matchesAll) {
+                        headerRow = row;
+                        break;
                     }
-                }
-                boolean matchesAll = cleanHints.stream()
-                        .allMatch(hint -> cellValues.stream().anyMatch(val -> val.contains(hint)));
-                if (matchesAll) {
-                    headerRow = row;
-                    break;
                 }
             }
-        }
 
-        if (headerRow == null) {
-            rowIterator = sheet.iterator();
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                if (!isRowEmpty(row)) {
-                    headerRow = row;
-                    break;
+            if (headerRow == null) {
+                // No hinted header: a second pass takes the first non-empty row.
+                rowIterator = sheet.iterator();
+                while (rowIterator.hasNext()) {
+                    ExcelRow row = rowIterator.next();
+                    if (!isRowEmpty(row)) {
+                        headerRow = row;
+                        break;
+                    }
                 }
             }
-        }
 
-        if (headerRow == null) {
-            workbook.close();
-            return result;
-        }
-
-        List<String> headers = new ArrayList<>();
-        for (Cell cell : headerRow) {
-            headers.add(getCellValueAsString(cell).trim().toLowerCase());
-        }
-
-        for (Row row : sheet) {
-            if (row.getRowNum() <= headerRow.getRowNum()) {
-                continue;
+            if (headerRow == null) {
+                return result;
             }
-            if (isRowEmpty(row)) {
-                continue;
+
+            List<String> headers = new ArrayList<>();
+            for (ExcelCell cell : headerRow) {
+                headers.add(getCellValueAsString(cell).trim().toLowerCase());
             }
 
-            Map<String, String> rowMap = new LinkedHashMap<>();
-            for (int col = 0; col < headers.size(); col++) {
-                Cell cell = row.getCell(col);
-                String val = cell != null ? getCellValueAsString(cell).trim() : "";
-                rowMap.put(headers.get(col), val);
+            // Rows come in sheet order, so the data rows are the rest of this pass.
+            while (rowIterator.hasNext()) {
+                ExcelRow row = rowIterator.next();
+                if (row.rowNum() <= headerRow.rowNum()) {
+                    continue;
+                }
+                if (isRowEmpty(row)) {
+                    continue;
+                }
+
+                Map<String, String> rowMap = new LinkedHashMap<>();
+                for (int col = 0; col < headers.size(); col++) {
+                    ExcelCell cell = row.cell(col);
+                    String val = cell != null ? getCellValueAsString(cell).trim() : "";
+                    rowMap.put(headers.get(col), val);
+                }
+                result.add(rowMap);
             }
-            result.add(rowMap);
         }
-
-        workbook.close();
         return result;
     }
 
-    private static String getCellValueAsString(Cell cell) {
+    private static String getCellValueAsString(ExcelCell cell) {
         if (cell == null) return "";
-        CellType type = cell.getCellType();
-        if (type == CellType.FORMULA) {
-            type = cell.getCachedFormulaResultType();
-        }
 
-        switch (type) {
+        switch (cell.type()) {
             case STRING:
-                return cell.getStringCellValue();
+                return cell.stringValue();
             case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toLocalDate().toString();
+                if (cell.isDateFormatted()) {
+                    return cell.localDateTimeValue().toLocalDate().toString();
                 } else {
-                    double doubleVal = cell.getNumericCellValue();
+                    double doubleVal = cell.numericValue();
                     if (doubleVal == Math.floor(doubleVal) && !Double.isInfinite(doubleVal)) {
                         return String.valueOf((long) doubleVal);
                     }
                     return new DecimalFormat("#.########").format(doubleVal);
                 }
             case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
+                return String.valueOf(cell.booleanValue());
             default:
                 return "";
         }
     }
 
-    private static boolean isRowEmpty(Row row) {
+    private static boolean isRowEmpty(ExcelRow row) {
         if (row == null) return true;
-        for (int c = row.getFirstCellNum(); c < row.getLastCellNum(); c++) {
-            Cell cell = row.getCell(c);
-            if (cell != null && cell.getCellType() != CellType.BLANK && !getCellValueAsString(cell).isBlank()) {
+        for (ExcelCell cell : row) {
+            if (cell.type() != CellType.BLANK && !getCellValueAsString(cell).isBlank()) {
                 return false;
             }
         }
@@ -15,6 +15,7 @@ import com.financeos.domain.account.Account;
 import com.financeos.domain.account.AccountRepository;
 import com.financeos.domain.account.AccountType;
 import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
 import com.financeos.domain.holding.HoldingRepository;
 import com.financeos.domain.instrument.*;
 import com.financeos.domain.investment.InvestmentTransaction;
@@ -34,6 +35,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -422,6 +424,7 @@ public class ImportService {
         List<ImportCommitResponse.FailedCommitItem> failedList = new ArrayList<>();
         List<ImportCommitResponse.SkippedCommitItem> skippedItems = new ArrayList<>();
         Set<UUID> touchedInstrumentIds = new HashSet<>();
+        LocalDate earliestTouchedDate = null;
 
         for (ImportCommitRequest.CommitRowDto rowDto : rows) {
             String scripName = extractScrip(rowDto);
@@ -540,6 +543,7 @@ public class ImportService {
                     dividendRepository.save(dividend);
                     committed++;
                     touchedInstrumentIds.add(finalInstrument.getId());
+                    earliestTouchedDate = earlier(earliestTouchedDate, rowData.tradeDate());
 
                 } else {
                     // Trade (BUY / SELL). See preview(): Zerodha rows dedupe on trade_id
@@ -589,6 +593,7 @@ public class ImportService {
                     transactionRepository.save(txn);
                     committed++;
                     touchedInstrumentIds.add(finalInstrument.getId());
+                    earliestTouchedDate = earlier(earliestTouchedDate, rowData.tradeDate());
                 }
 
             } catch (Exception e) {
@@ -601,6 +606,8 @@ public class ImportService {
         // so the UI reflects them without a manual price refresh (handled by PriceRefreshEventListener).
         if (!touchedInstrumentIds.isEmpty()) {
             eventPublisher.publishEvent(new PriceRefreshEvent(touchedInstrumentIds));
+            eventPublisher.publishEvent(HoldingLedgerChangedEvent.forInstruments(
+                    brokerAccountId, touchedInstrumentIds, earliestTouchedDate != null ? earliestTouchedDate : LocalDate.now()));
         }
 
         Map<String, Long> skipReasonsMap = skippedItems.stream()
@@ -647,4 +654,8 @@ public class ImportService {
             txn.setOtherCharges(charges.otherCharges());
         }
     }
+
+    private static LocalDate earlier(LocalDate current, LocalDate candidate) {
+        return current == null || (candidate != null && candidate.isBefore(current)) ? candidate : current;
+    }
 }
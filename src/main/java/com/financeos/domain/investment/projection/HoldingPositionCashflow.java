@@ -0,0 +1,52 @@
+package com.financeos.domain.investment.projection;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "holding_position_cashflows")
+@Getter
+@Setter
+@NoArgsConstructor
+@Filter(name = "userFilter", condition = "user_id = :userId")
+public class HoldingPositionCashflow {
+
+    /** POSITION: holding XIRR flows; TRADE: raw trade flows for the portfolio XIRR; DIVIDEND: both. */
+    public enum Kind { POSITION, TRADE, DIVIDEND }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 36)
+    private UUID id;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "holding_id", nullable = false, length = 36)
+    private UUID holdingId;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "user_id", length = 36)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private int seq;
+
+    @Column(name = "flow_date", nullable = false)
+    private LocalDate flowDate;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+}
@@ -0,0 +1,25 @@
+package com.financeos.domain.investment.projection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HoldingPositionCashflowRepository extends JpaRepository<HoldingPositionCashflow, UUID> {
+
+    List<HoldingPositionCashflow> findByHoldingIdInOrderBySeqAsc(Collection<UUID> holdingIds);
+
+    @Modifying
+    @Query("DELETE FROM HoldingPositionCashflow f WHERE f.holdingId = :holdingId")
+    void deleteByHoldingId(@Param("holdingId") UUID holdingId);
+
+    @Modifying
+    @Query("DELETE FROM HoldingPositionCashflow f WHERE f.holdingId = :holdingId AND f.kind = :kind")
+    void deleteByHoldingIdAndKind(@Param("holdingId") UUID holdingId, @Param("kind") HoldingPositionCashflow.Kind kind);
+}
@@ -0,0 +1,27 @@
+package com.financeos.domain.investment.projection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HoldingPositionLotRepository extends JpaRepository<HoldingPositionLot, UUID> {
+
+    List<HoldingPositionLot> findByHoldingIdInOrderBySeqAsc(Collection<UUID> holdingIds);
+
+    List<HoldingPositionLot> findByHoldingIdInAndKindOrderBySeqAsc(Collection<UUID> holdingIds, HoldingPositionLot.Kind kind);
+
+    @Modifying
+    @Query("DELETE FROM HoldingPositionLot l WHERE l.holdingId = :holdingId")
+    void deleteByHoldingId(@Param("holdingId") UUID holdingId);
+
+    @Modifying
+    @Query("DELETE FROM HoldingPositionLot l WHERE l.holdingId = :holdingId AND l.kind = :kind")
+    void deleteByHoldingIdAndKind(@Param("holdingId") UUID holdingId, @Param("kind") HoldingPositionLot.Kind kind);
+}
@@ -0,0 +1,92 @@
+package com.financeos.domain.investment.projection;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Materialized ledger totals of one holding. A row is servable while {@code staleFrom} is null,
+ * dividends are current and {@code validUntil} has not passed; writes only flip those markers
+ * (bumping {@code version}) and the projector rebuilds the row afterwards.
+ */
+@Entity
+@Table(name = "holding_position")
+@Getter
+@Setter
+@NoArgsConstructor
+@Filter(name = "userFilter", condition = "user_id = :userId")
+public class HoldingPositionProjection {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "holding_id", length = 36)
+    private UUID holdingId;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "user_id", length = 36)
+    private UUID userId;
+
+    @Column(name = "open_qty", nullable = false)
+    private BigDecimal openQty;
+
+    @Column(name = "open_cost", nullable = false)
+    private BigDecimal openCost;
+
+    @Column(nullable = false)
+    private BigDecimal realized;
+
+    @Column(name = "intraday_realized", nullable = false)
+    private BigDecimal intradayRealized;
+
+    @Column(name = "total_charges", nullable = false)
+    private BigDecimal totalCharges;
+
+    @Column(nullable = false)
+    private BigDecimal dividends;
+
+    @Column(name = "merged_into_name")
+    private String mergedIntoName;
+
+    @Column(name = "merged_into_date")
+    private LocalDate mergedIntoDate;
+
+    @Column(nullable = false)
+    private boolean seeded;
+
+    @Column(name = "last_event_date")
+    private LocalDate lastEventDate;
+
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    @Column(name = "stale_from")
+    private LocalDate staleFrom;
+
+    @Column(name = "dividends_stale", nullable = false)
+    private boolean dividendsStale;
+
+    @Version
+    private Long version;
+
+    @Column(name = "rebuilt_at", nullable = false)
+    private Instant rebuiltAt;
+
+    public HoldingPositionProjection(UUID holdingId, UUID userId) {
+        this.holdingId = holdingId;
+        this.userId = userId;
+    }
+
+    /** Whether reads may serve this row as of {@code today} without replaying the holding. */
+    public boolean isFresh(LocalDate today) {
+        return staleFrom == null && !dividendsStale && (validUntil == null || validUntil.isAfter(today));
+    }
+}
@@ -0,0 +1,78 @@
+package com.financeos.domain.investment.projection;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HoldingPositionProjectionRepository extends JpaRepository<HoldingPositionProjection, UUID> {
+
+    List<HoldingPositionProjection> findByHoldingIdIn(Collection<UUID> holdingIds);
+
+    @Query("SELECT h.id FROM Holding h WHERE h.instrument.id IN :instrumentIds " +
+            "AND (:brokerAccountId IS NULL OR h.brokerAccount.id = :brokerAccountId)")
+    List<UUID> findHoldingIdsOfInstruments(@Param("instrumentIds") Collection<UUID> instrumentIds,
+                                           @Param("brokerAccountId") UUID brokerAccountId);
+
+    /**
+     * Inserts a stale, never-built row for each holding that has none, so the stale marks that follow
+     * always land on a row. A rebuild inserting the same row concurrently either committed first (the
+     * hint makes Oracle skip the duplicate instead of failing the write) or fails on the key itself.
+     */
+    @Modifying
+    @Query(value = "INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(holding_position, pk_holding_position) */ " +
+                   "INTO holding_position (holding_id, user_id, open_qty, open_cost, realized, intraday_realized, " +
+                   "total_charges, dividends, seeded, stale_from, dividends_stale, version, rebuilt_at) " +
+                   "SELECT h.id, h.user_id, 0, 0, 0, 0, 0, 0, 0, CURRENT_DATE, 0, 0, CURRENT_TIMESTAMP " +
+                   "FROM holdings h WHERE h.id IN :holdingIds " +
+                   "AND NOT EXISTS (SELECT 1 FROM holding_position p WHERE p.holding_id = h.id)", nativeQuery = true)
+    int insertMissingRows(@Param("holdingIds") Collection<String> holdingIds);
+
+    /**
+     * Pulls {@code staleFrom} back to {@code from} (never forward) and bumps the version so a rebuild
+     * that read the old inputs fails its optimistic check instead of clearing the marker.
+     */
+    @Modifying
+    @Query("UPDATE HoldingPositionProjection p SET " +
+            "p.staleFrom = CASE WHEN p.staleFrom IS NULL OR p.staleFrom > :from THEN :from ELSE p.staleFrom END, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.holdingId IN :holdingIds")
+    int markLedgerStale(@Param("holdingIds") Collection<UUID> holdingIds, @Param("from") LocalDate from);
+
+    @Modifying
+    @Query("UPDATE HoldingPositionProjection p SET " +
+            "p.staleFrom = CASE WHEN p.staleFrom IS NULL OR p.staleFrom > :from THEN :from ELSE p.staleFrom END, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.holdingId IN (SELECT h.id FROM Holding h WHERE h.instrument.id IN :instrumentIds " +
+            "AND (:brokerAccountId IS NULL OR h.brokerAccount.id = :brokerAccountId))")
+    int markInstrumentsLedgerStale(@Param("instrumentIds") Collection<UUID> instrumentIds,
+                                   @Param("brokerAccountId") UUID brokerAccountId,
+                                   @Param("from") LocalDate from);
+
+    @Modifying
+    @Query("UPDATE HoldingPositionProjection p SET p.dividendsStale = true, p.version = p.version + 1 " +
+            "WHERE p.holdingId IN :holdingIds")
+    int markDividendsStale(@Param("holdingIds") Collection<UUID> holdingIds);
+
+    /** Forces a full replay: a row is only resumed when {@code staleFrom} is after its last replayed event. */
+    @Modifying
+    @Query("UPDATE HoldingPositionProjection p SET p.staleFrom = COALESCE(p.lastEventDate, CURRENT_DATE), " +
+            "p.version = p.version + 1 WHERE p.holdingId IN :holdingIds")
+    int markForFullReplay(@Param("holdingIds") Collection<UUID> holdingIds);
+
+    /** Holdings with no servable row: never projected, marked stale, or past {@code validUntil}. */
+    @Query("SELECT new com.financeos.domain.investment.projection.PendingRebuild(h.id, u.id) " +
+            "FROM Holding h LEFT JOIN h.user u WHERE NOT EXISTS (" +
+            "SELECT p.holdingId FROM HoldingPositionProjection p WHERE p.holdingId = h.id " +
+            "AND p.staleFrom IS NULL AND p.dividendsStale = false " +
+            "AND (p.validUntil IS NULL OR p.validUntil > :today)) ORDER BY h.id")
+    List<PendingRebuild> findHoldingsNeedingRebuild(@Param("today") LocalDate today, Pageable pageable);
+}
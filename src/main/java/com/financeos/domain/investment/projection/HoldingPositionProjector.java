@@ -0,0 +1,239 @@
+package com.financeos.domain.investment.projection;
+
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
+import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.instrument.corporateaction.CorporateAction;
+import com.financeos.domain.instrument.corporateaction.CorporateActionRepository;
+import com.financeos.domain.investment.HoldingLedger;
+import com.financeos.domain.investment.InvestmentService;
+import com.financeos.domain.investment.returncalc.XirrCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Maintains the holding_position projection. Writes mark rows stale inside their own transaction,
+ * creating a placeholder row for a holding never projected ({@link #onLedgerChanged}); {@link #rebuild} later brings one holding up to date, resuming from
+ * the stored ledger when the change lies after everything already replayed and replaying the
+ * holding in full otherwise. {@link #verify} compares every servable row with a full replay.
+ */
+@Service
+public class HoldingPositionProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingPositionProjector.class);
+    private static final int MAX_REPORTED_MISMATCHES = 50;
+    private static final int IN_LIST_LIMIT = 1000;
+
+    private final HoldingPositionProjectionRepository projectionRepository;
+    private final HoldingPositionStore store;
+    private final HoldingRepository holdingRepository;
+    private final CorporateActionRepository corporateActionRepository;
+    private final InvestmentService investmentService;
+
+    public HoldingPositionProjector(HoldingPositionProjectionRepository projectionRepository,
+                                    HoldingPositionStore store,
+                                    HoldingRepository holdingRepository,
+                                    CorporateActionRepository corporateActionRepository,
+                                    InvestmentService investmentService) {
+        this.projectionRepository = projectionRepository;
+        this.store = store;
+        this.holdingRepository = holdingRepository;
+        this.corporateActionRepository = corporateActionRepository;
+        this.investmentService = investmentService;
+    }
+
+    // Synchronous on purpose: the stale marker commits (or rolls back) with the write itself.
+    @EventListener
+    @Transactional
+    public void onLedgerChanged(HoldingLedgerChangedEvent event) {
+        if (event.dividendsOnly()) {
+            if (!event.holdingIds().isEmpty()) {
+                insertMissingRows(event.holdingIds());
+                projectionRepository.markDividendsStale(event.holdingIds());
+            }
+            return;
+        }
+        LocalDate from = event.affectedFrom();
+        if (!event.holdingIds().isEmpty()) {
+            insertMissingRows(event.holdingIds());
+            projectionRepository.markLedgerStale(event.holdingIds(), from);
+        } else if (!event.instrumentIds().isEmpty()) {
+            markInstrumentsStale(event.instrumentIds(), event.brokerAccountId(), from);
+        }
+        if (event.instrumentIds().isEmpty()) {
+            return;
+        }
+        // Demerger/merger targets seed their lots from this instrument's lots as of the ex-date, and
+        // cash-in-lieu is apportioned across every broker's holding of it.
+        for (CorporateAction ca : corporateActionRepository.findByInstrumentIdInOrderByExDateAsc(event.instrumentIds())) {
+            if (ca.getTargetInstrument() != null && !ca.getExDate().isBefore(from)) {
+                markInstrumentsStale(Set.of(ca.getTargetInstrument().getId()), null, ca.getExDate());
+            }
+        }
+    }
+
+    private void markInstrumentsStale(Set<UUID> instrumentIds, UUID brokerAccountId, LocalDate from) {
+        insertMissingRows(projectionRepository.findHoldingIdsOfInstruments(instrumentIds, brokerAccountId));
+        projectionRepository.markInstrumentsLedgerStale(instrumentIds, brokerAccountId, from);
+    }
+
+    /**
+     * A holding with no row yet would make the marks a no-op, and a rebuild already replaying the
+     * pre-write inputs would then insert its row as fresh. Writes therefore create the row first.
+     */
+    private void insertMissingRows(Collection<UUID> holdingIds) {
+        List<String> ids = holdingIds.stream().map(UUID::toString).toList();
+        // Oracle rejects IN lists longer than 1000 (ORA-01795).
+        for (int i = 0; i < ids.size(); i += IN_LIST_LIMIT) {
+            projectionRepository.insertMissingRows(ids.subList(i, Math.min(i + IN_LIST_LIMIT, ids.size())));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<PendingRebuild> pendingRebuilds(int limit) {
+        return projectionRepository.findHoldingsNeedingRebuild(LocalDate.now(), PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> holdingUserIds() {
+        return holdingRepository.findDistinctHoldingUserIds();
+    }
+
+    /**
+     * Brings one holding's row up to date. Returns false when it was already servable. Fails with an
+     * optimistic-lock error if a write re-marked the row meanwhile; the next pass picks it up again.
+     * Run as the holding's owner: seeds and cash-in-lieu look at the user's other holdings.
+     */
+    @Transactional
+    public boolean rebuild(UUID holdingId) {
+        Holding holding = holdingRepository.findById(holdingId).orElse(null);
+        if (holding == null) {
+            return false;
+        }
+        HoldingPositionProjection row = projectionRepository.findById(holdingId).orElse(null);
+        if (row != null && row.isFresh(LocalDate.now())) {
+            return false;
+        }
+
+        LocalDate resumeFrom = resumeFrom(row);
+        HoldingLedger ledger;
+        HoldingPositionStore.Kept kept = null;
+        if (resumeFrom != null) {
+            HoldingLedger base = store.load(row);
+            kept = HoldingPositionStore.Kept.of(base);
+            ledger = investmentService.resumeLedger(holding, base, resumeFrom);
+        } else {
+            ledger = investmentService.replayLedger(holding);
+        }
+        store.write(holding, row, ledger, kept);
+        log.debug("Rebuilt holding position {} ({})", holdingId, resumeFrom != null ? "from " + resumeFrom : "full replay");
+        return true;
+    }
+
+    /**
+     * The date a stale row can be resumed from, or null when the holding needs a full replay: no row
+     * yet, lots seeded by other instruments' corporate actions, or a change at or before the last
+     * replayed event (a same-day trade regroups that day's intraday split).
+     */
+    static LocalDate resumeFrom(HoldingPositionProjection row) {
+        if (row == null || row.isSeeded() || row.getLastEventDate() == null) {
+            return null;
+        }
+        LocalDate from = row.getStaleFrom() != null ? row.getStaleFrom() : row.getLastEventDate().plusDays(1);
+        return from.isAfter(row.getLastEventDate()) ? from : null;
+    }
+
+    /**
+     * Replays the current user's holdings in full and compares each with its servable row. Mismatching
+     * rows are marked for a full rebuild rather than overwritten here, so the normal rebuild path
+     * repairs them.
+     */
+    @Transactional
+    public ProjectionVerificationResult verify(BiConsumer<Integer, Integer> progress) {
+        List<Holding> holdings = holdingRepository.findAllWithDetails();
+        List<UUID> ids = holdings.stream().map(Holding::getId).toList();
+        Map<UUID, HoldingLedger> stored = store.freshLedgers(ids, true);
+        Map<UUID, HoldingLedger> replayed = investmentService.replayLedgers(holdings);
+
+        int checked = 0;
+        int pending = 0;
+        List<UUID> mismatched = new ArrayList<>();
+        for (int i = 0; i < holdings.size(); i++) {
+            UUID id = holdings.get(i).getId();
+            HoldingLedger projection = stored.get(id);
+            HoldingLedger replay = replayed.get(id);
+            if (projection == null || replay == null) {
+                pending++;
+            } else {
+                checked++;
+                List<String> diffs = differences(projection, replay);
+                if (!diffs.isEmpty()) {
+                    log.warn("Holding position projection mismatch for {}: {}", id, diffs);
+                    mismatched.add(id);
+                }
+            }
+            progress.accept(i + 1, holdings.size());
+        }
+        if (!mismatched.isEmpty()) {
+            projectionRepository.markForFullReplay(mismatched);
+        }
+        return new ProjectionVerificationResult(checked, pending, mismatched.size(),
+                mismatched.subList(0, Math.min(mismatched.size(), MAX_REPORTED_MISMATCHES)));
+    }
+
+    /**
+     * Field-level differences between a stored and a replayed ledger. Cashflows are compared as
+     * count and total: a resumed replay appends a day's flows after older fold flows, so order differs.
+     */
+    static List<String> differences(HoldingLedger stored, HoldingLedger replay) {
+        List<String> diffs = new ArrayList<>();
+        compare(diffs, "openQty", stored.openQty(), replay.openQty());
+        compare(diffs, "openCost", stored.openCost(), replay.openCost());
+        compare(diffs, "realized", stored.realized(), replay.realized());
+        compare(diffs, "intradayRealized", stored.intradayRealized(), replay.intradayRealized());
+        compare(diffs, "totalCharges", stored.totalCharges(), replay.totalCharges());
+        compare(diffs, "dividends", stored.dividends(), replay.dividends());
+        if (stored.openLots().size() != replay.openLots().size()) {
+            diffs.add("openLots " + stored.openLots().size() + " != " + replay.openLots().size());
+        }
+        if (stored.closedLots().size() != replay.closedLots().size()) {
+            diffs.add("closedLots " + stored.closedLots().size() + " != " + replay.closedLots().size());
+        }
+        compareFlows(diffs, "cashflows", stored.cashflows(), replay.cashflows());
+        compareFlows(diffs, "tradeFlows", stored.tradeFlows(), replay.tradeFlows());
+        compareFlows(diffs, "dividendFlows", stored.dividendFlows(), replay.dividendFlows());
+        if (!Objects.equals(stored.mergedIntoName(), replay.mergedIntoName())
+                || !Objects.equals(stored.mergedIntoDate(), replay.mergedIntoDate())) {
+            diffs.add("mergedInto");
+        }
+        if (!Objects.equals(stored.lastEventDate(), replay.lastEventDate())) {
+            diffs.add("lastEventDate " + stored.lastEventDate() + " != " + replay.lastEventDate());
+        }
+        return diffs;
+    }
+
+    private static void compare(List<String> diffs, String field, BigDecimal stored, BigDecimal replay) {
+        if (stored.compareTo(replay) != 0) {
+            diffs.add(field + " " + stored.toPlainString() + " != " + replay.toPlainString());
+        }
+    }
+
+    private static void compareFlows(List<String> diffs, String field,
+                                     List<XirrCalculator.Cashflow> stored, List<XirrCalculator.Cashflow> replay) {
+        BigDecimal storedTotal = stored.stream().map(XirrCalculator.Cashflow::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal replayTotal = replay.stream().map(XirrCalculator.Cashflow::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (stored.size() != replay.size() || storedTotal.compareTo(replayTotal) != 0) {
+            diffs.add(field + " " + stored.size() + "/" + storedTotal.toPlainString()
+                    + " != " + replay.size() + "/" + replayTotal.toPlainString());
+        }
+    }
+}
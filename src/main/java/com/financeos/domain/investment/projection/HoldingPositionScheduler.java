@@ -0,0 +1,74 @@
+package com.financeos.domain.investment.projection;
+
+import com.financeos.core.security.UserContextHelper;
+import com.financeos.domain.job.Job;
+import com.financeos.domain.job.JobService;
+import com.financeos.domain.job.JobTrigger;
+import com.financeos.domain.job.JobType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Keeps the holding_position projection current: a short fixed-delay pass rebuilds rows that writes
+ * marked stale (or that were never built), and a nightly job verifies the rows against full replays.
+ */
+@Component
+@ConditionalOnProperty(name = "investments.projection.enabled", havingValue = "true", matchIfMissing = true)
+public class HoldingPositionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingPositionScheduler.class);
+
+    private final HoldingPositionProjector projector;
+    private final JobService jobService;
+
+    @Value("${investments.projection.batch-size:200}")
+    private int batchSize;
+
+    @Value("${investments.projection.zone:Asia/Kolkata}")
+    private String zone;
+
+    public HoldingPositionScheduler(HoldingPositionProjector projector, JobService jobService) {
+        this.projector = projector;
+        this.jobService = jobService;
+    }
+
+    @Scheduled(fixedDelayString = "${investments.projection.catch-up-delay-ms:15000}",
+            initialDelayString = "${investments.projection.catch-up-delay-ms:15000}")
+    public void catchUp() {
+        List<PendingRebuild> pending = projector.pendingRebuilds(batchSize);
+        int rebuilt = 0;
+        for (PendingRebuild p : pending) {
+            try {
+                if (UserContextHelper.callAs(p.userId(), () -> projector.rebuild(p.holdingId()))) {
+                    rebuilt++;
+                }
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // A write re-marked the row mid-rebuild, or created it while this pass was replaying a
+                // never-built holding; the next pass rebuilds it from the new inputs.
+                log.debug("Holding position {} changed during rebuild, retrying next pass", p.holdingId());
+            } catch (Exception e) {
+                log.warn("Failed to rebuild holding position {}: {}", p.holdingId(), e.getMessage());
+            }
+        }
+        if (rebuilt > 0) {
+            log.info("Rebuilt {} holding position projection rows ({} pending in batch)", rebuilt, pending.size());
+        }
+    }
+
+    @Scheduled(cron = "${investments.projection.verify-cron:0 15 4 * * *}", zone = "${investments.projection.zone:Asia/Kolkata}")
+    public void enqueueVerification() {
+        String dedupKey = "cron-" + LocalDate.now(ZoneId.of(zone));
+        Job job = jobService.enqueue(null, JobType.POSITION_PROJECTION_VERIFY, JobTrigger.CRON, null, null, dedupKey);
+        log.info("Enqueued holding position verification job: jobId={}, dedupKey={}", job.getId(), dedupKey);
+    }
+}
@@ -0,0 +1,215 @@
+package com.financeos.domain.investment.projection;
+
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.investment.HoldingLedger;
+import com.financeos.domain.investment.InvestmentService;
+import com.financeos.domain.investment.returncalc.XirrCalculator;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Reads and writes the holding_position projection as {@link HoldingLedger}s. Reads return only
+ * servable rows; callers replay whatever is missing.
+ */
+@Component
+public class HoldingPositionStore {
+
+    // Oracle rejects IN lists longer than 1000 (ORA-01795).
+    private static final int IN_LIST_LIMIT = 1000;
+
+    private final HoldingPositionProjectionRepository projectionRepository;
+    private final HoldingPositionLotRepository lotRepository;
+    private final HoldingPositionCashflowRepository cashflowRepository;
+
+    public HoldingPositionStore(HoldingPositionProjectionRepository projectionRepository,
+                                HoldingPositionLotRepository lotRepository,
+                                HoldingPositionCashflowRepository cashflowRepository) {
+        this.projectionRepository = projectionRepository;
+        this.lotRepository = lotRepository;
+        this.cashflowRepository = cashflowRepository;
+    }
+
+    /** How much of a restored ledger is already persisted, so a resumed replay appends only the rest. */
+    public record Kept(int closedLots, int positionFlows, int tradeFlows) {
+        public static Kept of(HoldingLedger ledger) {
+            return new Kept(ledger.closedLots().size(), ledger.cashflows().size(), ledger.tradeFlows().size());
+        }
+    }
+
+    /**
+     * Servable ledgers among {@code holdingIds} in three selects; closed lots are only read when
+     * {@code withClosedLots} (realized-lot listings).
+     */
+    public Map<UUID, HoldingLedger> freshLedgers(Collection<UUID> holdingIds, boolean withClosedLots) {
+        if (holdingIds.isEmpty()) {
+            return Map.of();
+        }
+        LocalDate today = LocalDate.now();
+        Map<UUID, HoldingPositionProjection> rows = new HashMap<>();
+        for (HoldingPositionProjection row : inChunks(holdingIds, projectionRepository::findByHoldingIdIn)) {
+            if (row.isFresh(today)) {
+                rows.put(row.getHoldingId(), row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        List<HoldingPositionLot> lots = withClosedLots
+                ? inChunks(rows.keySet(), lotRepository::findByHoldingIdInOrderBySeqAsc)
+                : inChunks(rows.keySet(), ids -> lotRepository.findByHoldingIdInAndKindOrderBySeqAsc(ids, HoldingPositionLot.Kind.OPEN));
+        List<HoldingPositionCashflow> flows = inChunks(rows.keySet(), cashflowRepository::findByHoldingIdInOrderBySeqAsc);
+        return assemble(rows.values(), lots, flows);
+    }
+
+    /** The full persisted ledger behind {@code row}, as the base of a resumed replay. */
+    public HoldingLedger load(HoldingPositionProjection row) {
+        Set<UUID> ids = Set.of(row.getHoldingId());
+        return assemble(List.of(row), lotRepository.findByHoldingIdInOrderBySeqAsc(ids),
+                cashflowRepository.findByHoldingIdInOrderBySeqAsc(ids)).get(row.getHoldingId());
+    }
+
+    /**
+     * Persists {@code ledger} for {@code holding} and clears the stale markers. With {@code kept}
+     * (a resumed replay) only lots and flows beyond the kept prefix are inserted; open lots and
+     * dividends are always rewritten. {@code row} is the managed projection row, or null for a
+     * holding projected for the first time.
+     */
+    public void write(Holding holding, HoldingPositionProjection row, HoldingLedger ledger, Kept kept) {
+        UUID holdingId = holding.getId();
+        UUID userId = holding.getUser() != null ? holding.getUser().getId() : null;
+        if (row == null) {
+            row = new HoldingPositionProjection(holdingId, userId);
+        }
+
+        if (kept == null) {
+            lotRepository.deleteByHoldingId(holdingId);
+            cashflowRepository.deleteByHoldingId(holdingId);
+            kept = new Kept(0, 0, 0);
+        } else {
+            lotRepository.deleteByHoldingIdAndKind(holdingId, HoldingPositionLot.Kind.OPEN);
+            cashflowRepository.deleteByHoldingIdAndKind(holdingId, HoldingPositionCashflow.Kind.DIVIDEND);
+        }
+
+        row.setOpenQty(ledger.openQty());
+        row.setOpenCost(ledger.openCost());
+        row.setRealized(ledger.realized());
+        row.setIntradayRealized(ledger.intradayRealized());
+        row.setTotalCharges(ledger.totalCharges());
+        row.setDividends(ledger.dividends());
+        row.setMergedIntoName(ledger.mergedIntoName());
+        row.setMergedIntoDate(ledger.mergedIntoDate());
+        row.setSeeded(ledger.seeded());
+        row.setLastEventDate(ledger.lastEventDate());
+        row.setValidUntil(ledger.validUntil());
+        row.setStaleFrom(null);
+        row.setDividendsStale(false);
+        row.setRebuiltAt(Instant.now());
+        projectionRepository.save(row);
+
+        List<HoldingPositionLot> lots = new ArrayList<>();
+        int seq = 0;
+        for (InvestmentService.Lot open : ledger.openLots()) {
+            HoldingPositionLot lot = newLot(holdingId, userId, HoldingPositionLot.Kind.OPEN, seq++);
+            lot.setBuyDate(open.buyDate);
+            lot.setQuantity(open.remainingQty);
+            lot.setCostPerUnit(open.costPerUnit);
+            lots.add(lot);
+        }
+        List<HoldingLedger.ClosedLot> closed = ledger.closedLots();
+        for (int i = kept.closedLots(); i < closed.size(); i++) {
+            HoldingLedger.ClosedLot c = closed.get(i);
+            HoldingPositionLot lot = newLot(holdingId, userId, HoldingPositionLot.Kind.CLOSED, i);
+            lot.setBuyDate(c.buyDate());
+            lot.setSellDate(c.sellDate());
+            lot.setQuantity(c.quantity());
+            lot.setBuyValue(c.buyValue());
+            lot.setSellValue(c.sellValue());
+            lots.add(lot);
+        }
+        lotRepository.saveAll(lots);
+
+        List<HoldingPositionCashflow> flows = new ArrayList<>();
+        addFlows(flows, holdingId, userId, HoldingPositionCashflow.Kind.POSITION, ledger.cashflows(), kept.positionFlows());
+        addFlows(flows, holdingId, userId, HoldingPositionCashflow.Kind.TRADE, ledger.tradeFlows(), kept.tradeFlows());
+        addFlows(flows, holdingId, userId, HoldingPositionCashflow.Kind.DIVIDEND, ledger.dividendFlows(), 0);
+        cashflowRepository.saveAll(flows);
+    }
+
+    private static Map<UUID, HoldingLedger> assemble(Collection<HoldingPositionProjection> rows,
+                                                     List<HoldingPositionLot> lots,
+                                                     List<HoldingPositionCashflow> flows) {
+        Map<UUID, List<InvestmentService.Lot>> openByHolding = new HashMap<>();
+        Map<UUID, List<HoldingLedger.ClosedLot>> closedByHolding = new HashMap<>();
+        for (HoldingPositionLot lot : lots) {
+            if (lot.getKind() == HoldingPositionLot.Kind.OPEN) {
+                openByHolding.computeIfAbsent(lot.getHoldingId(), k -> new ArrayList<>())
+                        .add(new InvestmentService.Lot(lot.getQuantity(), lot.getCostPerUnit(), lot.getBuyDate()));
+            } else {
+                closedByHolding.computeIfAbsent(lot.getHoldingId(), k -> new ArrayList<>())
+                        .add(new HoldingLedger.ClosedLot(lot.getBuyDate(), lot.getSellDate(), lot.getQuantity(),
+                                lot.getBuyValue(), lot.getSellValue()));
+            }
+        }
+        Map<UUID, Map<HoldingPositionCashflow.Kind, List<XirrCalculator.Cashflow>>> flowsByHolding = new HashMap<>();
+        for (HoldingPositionCashflow flow : flows) {
+            flowsByHolding.computeIfAbsent(flow.getHoldingId(), k -> new EnumMap<>(HoldingPositionCashflow.Kind.class))
+                    .computeIfAbsent(flow.getKind(), k -> new ArrayList<>())
+                    .add(new XirrCalculator.Cashflow(flow.getFlowDate(), flow.getAmount()));
+        }
+
+        Map<UUID, HoldingLedger> ledgers = new HashMap<>();
+        for (HoldingPositionProjection row : rows) {
+            UUID id = row.getHoldingId();
+            Map<HoldingPositionCashflow.Kind, List<XirrCalculator.Cashflow>> byKind = flowsByHolding.getOrDefault(id, Map.of());
+            ledgers.put(id, HoldingLedger.restore(
+                    openByHolding.getOrDefault(id, List.of()),
+                    closedByHolding.getOrDefault(id, List.of()),
+                    byKind.getOrDefault(HoldingPositionCashflow.Kind.POSITION, List.of()),
+                    byKind.getOrDefault(HoldingPositionCashflow.Kind.TRADE, List.of()),
+                    byKind.getOrDefault(HoldingPositionCashflow.Kind.DIVIDEND, List.of()),
+                    row.getRealized(), row.getIntradayRealized(), row.getTotalCharges(), row.getDividends(),
+                    row.getMergedIntoName(), row.getMergedIntoDate(), row.isSeeded(),
+                    row.getLastEventDate(), row.getValidUntil()));
+        }
+        return ledgers;
+    }
+
+    private static HoldingPositionLot newLot(UUID holdingId, UUID userId, HoldingPositionLot.Kind kind, int seq) {
+        HoldingPositionLot lot = new HoldingPositionLot();
+        lot.setHoldingId(holdingId);
+        lot.setUserId(userId);
+        lot.setKind(kind);
+        lot.setSeq(seq);
+        return lot;
+    }
+
+    private static void addFlows(List<HoldingPositionCashflow> out, UUID holdingId, UUID userId,
+                                 HoldingPositionCashflow.Kind kind, List<XirrCalculator.Cashflow> flows, int from) {
+        for (int i = from; i < flows.size(); i++) {
+            HoldingPositionCashflow flow = new HoldingPositionCashflow();
+            flow.setHoldingId(holdingId);
+            flow.setUserId(userId);
+            flow.setKind(kind);
+            flow.setSeq(i);
+            flow.setFlowDate(flows.get(i).date());
+            flow.setAmount(flows.get(i).amount());
+            out.add(flow);
+        }
+    }
+
+    private static <T> List<T> inChunks(Collection<UUID> ids, Function<List<UUID>, List<T>> query) {
+        List<UUID> all = new ArrayList<>(ids);
+        if (all.size() <= IN_LIST_LIMIT) {
+            return query.apply(all);
+        }
+        List<T> rows = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_LIST_LIMIT) {
+            rows.addAll(query.apply(all.subList(from, Math.min(from + IN_LIST_LIMIT, all.size()))));
+        }
+        return rows;
+    }
+}
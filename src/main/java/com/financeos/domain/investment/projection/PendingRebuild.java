@@ -0,0 +1,7 @@
+package com.financeos.domain.investment.projection;
+
+import java.util.UUID;
+
+/** A holding whose projection row needs rebuilding, with the owner to rebuild it as. */
+public record PendingRebuild(UUID holdingId, UUID userId) {
+}
@@ -0,0 +1,11 @@
+package com.financeos.domain.investment.projection;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of comparing the holding_position projection against a full replay. {@code pending}
+ * holdings had no servable row to compare; mismatched rows are queued for a full rebuild.
+ */
+public record ProjectionVerificationResult(int checked, int pending, int mismatched, List<UUID> mismatchedHoldingIds) {
+}
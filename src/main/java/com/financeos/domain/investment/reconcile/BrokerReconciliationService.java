@@ -14,6 +14,7 @@ import com.financeos.domain.account.Account;
 import com.financeos.domain.account.AccountRepository;
 import com.financeos.domain.account.AccountType;
 import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
 import com.financeos.domain.holding.HoldingRepository;
 import com.financeos.domain.instrument.*;
 import com.financeos.domain.instrument.price.PriceRefreshEvent;
@@ -752,6 +753,9 @@ public class BrokerReconciliationService {
         List<ImportCommitResponse.FailedCommitItem> failedList = new ArrayList<>();
         List<ImportCommitResponse.SkippedCommitItem> skippedItems = new ArrayList<>();
         Set<UUID> touchedInstrumentIds = new HashSet<>();
+        // Classifications regroup a day's FIFO split, so their instruments' ledgers change too.
+        Set<UUID> ledgerInstrumentIds = new HashSet<>();
+        LocalDate earliestLedgerDate = null;
 
         for (ReconcileCommitRequest.CommitExecutionDto execDto : request.executions()) {
             if (execDto.skip()) {
@@ -857,6 +861,8 @@ public class BrokerReconciliationService {
                 transactionRepository.save(txn);
                 committed++;
                 touchedInstrumentIds.add(finalInstrument.getId());
+                ledgerInstrumentIds.add(finalInstrument.getId());
+                earliestLedgerDate = earlier(earliestLedgerDate, execDto.tradeDate());
 
             } catch (Exception e) {
                 log.error("Error committing reconciled execution row " + execDto.rowIndex(), e);
@@ -894,6 +900,8 @@ public class BrokerReconciliationService {
                                         cDto.intradaySellValue()
                                 );
                                 classificationRepository.save(classification);
+                                ledgerInstrumentIds.add(instrument.getId());
+                                earliestLedgerDate = earlier(earliestLedgerDate, cDto.tradeDate());
                             }
                         }
                     }
@@ -923,10 +931,18 @@ public class BrokerReconciliationService {
         if (!touchedInstrumentIds.isEmpty()) {
             eventPublisher.publishEvent(new PriceRefreshEvent(touchedInstrumentIds));
         }
+        if (!ledgerInstrumentIds.isEmpty()) {
+            eventPublisher.publishEvent(HoldingLedgerChangedEvent.forInstruments(
+                    brokerAccount.getId(), ledgerInstrumentIds, earliestLedgerDate != null ? earliestLedgerDate : LocalDate.now()));
+        }
 
         return new ImportCommitResponse(committed, skipped, failedList, skippedItems);
     }
 
+    private static LocalDate earlier(LocalDate current, LocalDate candidate) {
+        return current == null || (candidate != null && candidate.isBefore(current)) ? candidate : current;
+    }
+
     private List<InternalExecution> dedupeExecutions(List<InternalExecution> rawExecs) {
         Set<TupleKey> seen = new HashSet<>();
         List<InternalExecution> out = new ArrayList<>();
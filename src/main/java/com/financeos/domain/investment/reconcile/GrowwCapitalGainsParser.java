@@ -1,6 +1,8 @@
 package com.financeos.domain.investment.reconcile;
 
-import org.apache.poi.ss.usermodel.*;
+import com.financeos.core.excel.ExcelCell;
+import com.financeos.core.excel.ExcelRow;
+import com.financeos.core.excel.ExcelRowReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -34,15 +36,15 @@ public class GrowwCapitalGainsParser {
     public List<GrowwCapitalGainsExit> parse(InputStream inputStream) {
         List<GrowwCapitalGainsExit> exits = new ArrayList<>();
         long startTimeMs = com.financeos.core.observability.ParseLogger.started(log, "GrowwCapitalGainsParser", 0, "groww-cg.xlsx");
-        try (Workbook workbook = WorkbookFactory.create(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
+        try (ExcelRowReader workbook = ExcelRowReader.open(inputStream, null)) {
+            Iterable<ExcelRow> sheet = workbook.sheet(0);
             String currentBucket = null;
             Map<String, Integer> headerMap = null;
 
-            for (Row row : sheet) {
+            for (ExcelRow row : sheet) {
                 if (row == null) continue;
                 List<String> rawCellStrs = new ArrayList<>();
-                for (Cell cell : row) {
+                for (ExcelCell cell : row) {
                     rawCellStrs.add(getCellValueAsString(cell).trim());
                 }
 
@@ -128,34 +130,30 @@ public class GrowwCapitalGainsParser {
         return list.stream().anyMatch(s -> s.equalsIgnoreCase(val));
     }
 
-    private String getCellByHeader(Row row, Map<String, Integer> headerMap, String headerName) {
+    private String getCellByHeader(ExcelRow row, Map<String, Integer> headerMap, String headerName) {
         Integer colIdx = headerMap.get(headerName.toLowerCase());
-        if (colIdx == null || colIdx >= row.getLastCellNum()) return null;
-        Cell cell = row.getCell(colIdx);
+        if (colIdx == null || colIdx >= row.lastCellNum()) return null;
+        ExcelCell cell = row.cell(colIdx);
         return getCellValueAsString(cell);
     }
 
-    private String getCellValueAsString(Cell cell) {
+    private String getCellValueAsString(ExcelCell cell) {
         if (cell == null) return "";
-        CellType type = cell.getCellType();
-        if (type == CellType.FORMULA) {
-            type = cell.getCachedFormulaResultType();
-        }
-        switch (type) {
+        switch (cell.type()) {
             case STRING:
-                return cell.getStringCellValue();
+                return cell.stringValue();
             case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toLocalDate().toString();
+                if (cell.isDateFormatted()) {
+                    return cell.localDateTimeValue().toLocalDate().toString();
                 } else {
-                    double doubleVal = cell.getNumericCellValue();
+                    double doubleVal = cell.numericValue();
                     if (doubleVal == Math.floor(doubleVal) && !Double.isInfinite(doubleVal)) {
                         return String.valueOf((long) doubleVal);
                     }
                     return String.valueOf(doubleVal);
                 }
             case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
+                return String.valueOf(cell.booleanValue());
             default:
                 return "";
         }
@@ -1,7 +1,9 @@
 package com.financeos.domain.investment.reconcile;
 
 import com.financeos.api.investment.dto.ItemizedChargesDto;
-import org.apache.poi.ss.usermodel.*;
+import com.financeos.core.excel.ExcelCell;
+import com.financeos.core.excel.ExcelRow;
+import com.financeos.core.excel.ExcelRowReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -35,12 +37,11 @@ public class ZerodhaTaxPnlParser {
     public List<TaxPnlExit> parse(InputStream inputStream) {
         List<TaxPnlExit> exits = new ArrayList<>();
         long startTimeMs = com.financeos.core.observability.ParseLogger.started(log, "ZerodhaTaxPnlParser", 0, "zerodha-pnl.xlsx");
-        try (Workbook workbook = WorkbookFactory.create(inputStream)) {
-            Sheet sheet = null;
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet s = workbook.getSheetAt(i);
-                if (s.getSheetName().toLowerCase().startsWith("tradewise exits")) {
-                    sheet = s;
+        try (ExcelRowReader workbook = ExcelRowReader.open(inputStream, null)) {
+            Iterable<ExcelRow> sheet = null;
+            for (int i = 0; i < workbook.sheetNames().size(); i++) {
+                if (workbook.sheetNames().get(i).toLowerCase().startsWith("tradewise exits")) {
+                    sheet = workbook.sheet(i);
                     break;
                 }
             }
@@ -52,10 +53,10 @@ public class ZerodhaTaxPnlParser {
             String currentBucket = null;
             Map<String, Integer> headerMap = null;
 
-            for (Row row : sheet) {
+            for (ExcelRow row : sheet) {
                 if (row == null) continue;
                 List<String> cellStrs = new ArrayList<>();
-                for (Cell cell : row) {
+                for (ExcelCell cell : row) {
                     String val = getCellValueAsString(cell).trim();
                     if (!val.isBlank()) {
                         cellStrs.add(val);
@@ -71,7 +72,7 @@ public class ZerodhaTaxPnlParser {
                 }
 
                 // Check header row. Map each column header to its ABSOLUTE column index
-                // (cell.getColumnIndex()), NOT its position in a compacted list — Zerodha's
+                // (cell.column()), NOT its position in a compacted list — Zerodha's
                 // Tradewise Exits sheet has a leading blank column A, and the POI cell iterator
                 // skips physically-absent cells, so a compacted index would be off-by-one and
                 // every data lookup via row.getCell(absoluteIndex) would read the wrong column.
@@ -80,10 +81,10 @@ public class ZerodhaTaxPnlParser {
                 boolean hasIsin = containsIgnoreCase(cellStrs, "isin");
                 if (currentBucket != null && hasSymbol && (hasIsin || isFnoBucket)) {
                     headerMap = new HashMap<>();
-                    for (Cell cell : row) {
+                    for (ExcelCell cell : row) {
                         String colName = getCellValueAsString(cell).trim().toLowerCase();
                         if (!colName.isBlank()) {
-                            headerMap.put(colName, cell.getColumnIndex());
+                            headerMap.put(colName, cell.column());
                         }
                     }
                     continue;
@@ -185,34 +186,30 @@ public class ZerodhaTaxPnlParser {
         return list.stream().anyMatch(s -> s.equalsIgnoreCase(value));
     }
 
-    private String getCellByHeader(Row row, Map<String, Integer> headerMap, String headerName) {
+    private String getCellByHeader(ExcelRow row, Map<String, Integer> headerMap, String headerName) {
         Integer colIdx = headerMap.get(headerName.toLowerCase());
-        if (colIdx == null || colIdx >= row.getLastCellNum()) return null;
-        Cell cell = row.getCell(colIdx);
+        if (colIdx == null || colIdx >= row.lastCellNum()) return null;
+        ExcelCell cell = row.cell(colIdx);
         return getCellValueAsString(cell);
     }
 
-    private String getCellValueAsString(Cell cell) {
+    private String getCellValueAsString(ExcelCell cell) {
         if (cell == null) return "";
-        CellType type = cell.getCellType();
-        if (type == CellType.FORMULA) {
-            type = cell.getCachedFormulaResultType();
-        }
-        switch (type) {
+        switch (cell.type()) {
             case STRING:
-                return cell.getStringCellValue();
+                return cell.stringValue();
             case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toLocalDate().toString();
+                if (cell.isDateFormatted()) {
+                    return cell.localDateTimeValue().toLocalDate().toString();
                 } else {
-                    double doubleVal = cell.getNumericCellValue();
+                    double doubleVal = cell.numericValue();
                     if (doubleVal == Math.floor(doubleVal) && !Double.isInfinite(doubleVal)) {
                         return String.valueOf((long) doubleVal);
                     }
                     return String.valueOf(doubleVal);
                 }
             case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
+                return String.valueOf(cell.booleanValue());
             default:
                 return "";
         }
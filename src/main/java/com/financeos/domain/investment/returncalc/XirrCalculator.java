@@ -2,9 +2,16 @@ package com.financeos.domain.investment.returncalc;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Annualized internal rate of return over dated cashflows (Act/365). Cashflows are packed once into
+ * primitive amount / year-fraction arrays; the solver runs Newton from 10% and falls back to Brent's
+ * method on [-99.99%, 1000%] when Newton leaves the domain or stalls. {@link Batch} packs many series
+ * into shared arrays so group rates (portfolio, broker, instrument type) reuse their members' flows.
+ */
 public class XirrCalculator {
 
     public record Cashflow(
@@ -12,136 +19,258 @@ public class XirrCalculator {
             BigDecimal amount
     ) {}
 
+    private static final double MIN_RATE = -0.9999;
+    private static final double MAX_RATE = 10.0; // 1000%
+    private static final double INITIAL_GUESS = 0.10;
+    private static final double F_TOLERANCE = 1e-7;
+    private static final double RATE_TOLERANCE = 1e-7;
+    private static final int MAX_ITERATIONS = 100;
+    private static final double DAYS_PER_YEAR = 365.0;
+
     public static Double calculateXirr(List<Cashflow> cashflows) {
         if (cashflows == null || cashflows.size() < 2) {
             return null;
         }
+        Batch batch = new Batch(cashflows.size());
+        return batch.solve(batch.add(cashflows));
+    }
 
-        boolean hasPositive = false;
-        boolean hasNegative = false;
-        for (Cashflow c : cashflows) {
-            if (c.amount() != null) {
-                if (c.amount().compareTo(BigDecimal.ZERO) > 0) {
-                    hasPositive = true;
-                } else if (c.amount().compareTo(BigDecimal.ZERO) < 0) {
-                    hasNegative = true;
-                }
-            }
+    /**
+     * Series of cashflows packed into one pair of primitive arrays. {@link #add} appends a series;
+     * {@link #group} defines a series over existing series plus extra flows (e.g. a terminal market
+     * value) without copying them. Null and zero amounts are dropped on entry.
+     */
+    public static final class Batch {
+        private double[] amounts;
+        private long[] epochDays;
+        private int size;
+        // Per series: [start0, end0, start1, end1, ...] ranges into the packed arrays.
+        private final List<int[]> ranges = new ArrayList<>();
+        private double[] scratchAmounts = new double[0];
+        private double[] scratchYears = new double[0];
+
+        public Batch() {
+            this(64);
         }
 
-        if (!hasPositive || !hasNegative) {
-            return null;
+        public Batch(int expectedCashflows) {
+            int capacity = Math.max(expectedCashflows, 8);
+            amounts = new double[capacity];
+            epochDays = new long[capacity];
         }
 
-        LocalDate startDate = cashflows.get(0).date();
-        for (Cashflow c : cashflows) {
-            if (c.date().isBefore(startDate)) {
-                startDate = c.date();
+        /** Appends the concatenation of {@code parts} as one series and returns its index. */
+        @SafeVarargs
+        public final int add(List<Cashflow>... parts) {
+            int start = size;
+            for (List<Cashflow> part : parts) {
+                append(part);
             }
+            ranges.add(new int[]{start, size});
+            return ranges.size() - 1;
         }
 
-        double rate = 0.10; // 10% initial guess
-        int maxIter = 100;
-        double tol = 1e-7;
-
-        for (int i = 0; i < maxIter; i++) {
-            if (rate <= -0.9999) {
-                break;
+        /** A series made of {@code members}' flows followed by {@code extra}; returns its index. */
+        public int group(int[] members, List<Cashflow> extra) {
+            int length = 2;
+            for (int member : members) {
+                length += ranges.get(member).length;
+            }
+            int[] r = new int[length];
+            int n = 0;
+            for (int member : members) {
+                int[] m = ranges.get(member);
+                System.arraycopy(m, 0, r, n, m.length);
+                n += m.length;
             }
+            r[n++] = size;
+            append(extra);
+            r[n++] = size;
+            ranges.add(r);
+            return ranges.size() - 1;
+        }
 
-            double fValue = 0.0;
-            double fDerivative = 0.0;
-            boolean invalidStep = false;
+        /** Rate of one series as a fraction (0.12 = 12%), or null when it has no root in range. */
+        public Double solve(int series) {
+            int[] r = ranges.get(series);
+            int n = 0;
+            long origin = Long.MAX_VALUE;
+            for (int k = 0; k < r.length; k += 2) {
+                n += r[k + 1] - r[k];
+                for (int i = r[k]; i < r[k + 1]; i++) {
+                    origin = Math.min(origin, epochDays[i]);
+                }
+            }
+            if (n < 2) {
+                return null;
+            }
+            if (scratchAmounts.length < n) {
+                scratchAmounts = new double[n];
+                scratchYears = new double[n];
+            }
+            int j = 0;
+            for (int k = 0; k < r.length; k += 2) {
+                for (int i = r[k]; i < r[k + 1]; i++) {
+                    scratchAmounts[j] = amounts[i];
+                    scratchYears[j] = (epochDays[i] - origin) / DAYS_PER_YEAR;
+                    j++;
+                }
+            }
+            return XirrCalculator.solve(scratchAmounts, scratchYears, n);
+        }
 
+        private void append(List<Cashflow> cashflows) {
+            if (cashflows == null) {
+                return;
+            }
+            if (size + cashflows.size() > amounts.length) {
+                int capacity = Math.max(amounts.length * 2, size + cashflows.size());
+                amounts = Arrays.copyOf(amounts, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+            }
             for (Cashflow c : cashflows) {
-                if (c.amount() == null || c.amount().compareTo(BigDecimal.ZERO) == 0) {
+                if (c.amount() == null || c.amount().signum() == 0) {
                     continue;
                 }
-                double days = ChronoUnit.DAYS.between(startDate, c.date());
-                double years = days / 365.0;
-                double amount = c.amount().doubleValue();
-
-                double denom = Math.pow(1.0 + rate, years);
-                if (Double.isNaN(denom) || Double.isInfinite(denom) || denom == 0.0) {
-                    invalidStep = true;
-                    break;
-                }
-
-                fValue += amount / denom;
-                fDerivative -= years * amount / (denom * (1.0 + rate));
+                amounts[size] = c.amount().doubleValue();
+                epochDays[size] = c.date().toEpochDay();
+                size++;
             }
+        }
+    }
 
-            if (invalidStep) {
+    /** Root of sum(a[i] * (1 + r)^-y[i]) over the first {@code n} flows. */
+    static Double solve(double[] a, double[] y, int n) {
+        boolean hasPositive = false;
+        boolean hasNegative = false;
+        for (int i = 0; i < n; i++) {
+            hasPositive |= a[i] > 0;
+            hasNegative |= a[i] < 0;
+        }
+        if (!hasPositive || !hasNegative) {
+            return null;
+        }
+
+        double rate = INITIAL_GUESS;
+        for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+            // (1 + r)^-y as exp(-y * ln(1 + r)): one exp per flow instead of a pow.
+            double logBase = Math.log1p(rate);
+            double f = 0.0;
+            double dfTimesBase = 0.0;
+            for (int i = 0; i < n; i++) {
+                double pv = a[i] * Math.exp(-y[i] * logBase);
+                f += pv;
+                dfTimesBase -= y[i] * pv;
+            }
+            double df = dfTimesBase / (1.0 + rate);
+            if (!Double.isFinite(f) || !Double.isFinite(df)) {
                 break;
             }
-
-            if (Math.abs(fValue) < tol) {
+            if (Math.abs(f) < F_TOLERANCE) {
                 return rate;
             }
-
-            if (Math.abs(fDerivative) < 1e-12) {
+            if (Math.abs(df) < 1e-12) {
                 break;
             }
-
-            double newRate = rate - fValue / fDerivative;
-            if (Double.isNaN(newRate) || Double.isInfinite(newRate) || newRate <= -0.9999) {
+            double next = rate - f / df;
+            if (!Double.isFinite(next) || next <= MIN_RATE) {
                 break;
             }
-
-            if (Math.abs(newRate - rate) < tol) {
-                return newRate;
+            if (Math.abs(next - rate) < RATE_TOLERANCE) {
+                return next;
             }
-
-            rate = newRate;
+            rate = next;
         }
-
-        // Fallback to Bisection search
-        return calculateBisection(cashflows, startDate);
+        return brent(a, y, n);
     }
 
-    private static Double calculateBisection(List<Cashflow> cashflows, LocalDate startDate) {
-        double low = -0.9999;
-        double high = 10.0; // 1000%
-        double tol = 1e-6;
-
-        double fLow = evaluateF(cashflows, startDate, low);
-        double fHigh = evaluateF(cashflows, startDate, high);
-
-        if (fLow * fHigh > 0) {
+    /** Brent's method (inverse quadratic / secant steps guarded by bisection) on [MIN_RATE, MAX_RATE]. */
+    private static Double brent(double[] amounts, double[] years, int n) {
+        double lo = MIN_RATE;
+        double hi = MAX_RATE;
+        double fLo = npv(amounts, years, n, lo);
+        double fHi = npv(amounts, years, n, hi);
+        if (!Double.isFinite(fLo) || !Double.isFinite(fHi) || fLo * fHi > 0) {
             return null;
         }
+        if (fLo == 0) {
+            return lo;
+        }
+        if (fHi == 0) {
+            return hi;
+        }
 
-        double mid = 0.0;
-        for (int i = 0; i < 100; i++) {
-            mid = (low + high) / 2.0;
-            double fMid = evaluateF(cashflows, startDate, mid);
-
-            if (Math.abs(fMid) < tol || (high - low) / 2.0 < tol) {
-                return mid;
+        // b is the best estimate, a the previous one, c the bracket end opposite b.
+        double a = lo;
+        double fa = fLo;
+        double b = hi;
+        double fb = fHi;
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+        for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+            if (fb * fc > 0) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
             }
-
-            if (fLow * fMid < 0) {
-                high = mid;
-                fHigh = fMid;
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tol = 2 * Math.ulp(b) + 0.5 * RATE_TOLERANCE;
+            double m = 0.5 * (c - b);
+            if (Math.abs(m) <= tol || Math.abs(fb) < F_TOLERANCE) {
+                return b;
+            }
+            if (Math.abs(e) >= tol && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2 * m * s;
+                    q = 1 - s;
+                } else {
+                    double qa = fa / fc;
+                    double r = fb / fc;
+                    p = s * (2 * m * qa * (qa - r) - (b - a) * (r - 1));
+                    q = (qa - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2 * p < Math.min(3 * m * q - Math.abs(tol * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = m;
+                    e = m;
+                }
             } else {
-                low = mid;
-                fLow = fMid;
+                d = m;
+                e = m;
             }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tol ? d : Math.copySign(tol, m);
+            fb = npv(amounts, years, n, b);
         }
-
-        return mid;
+        return b;
     }
 
-    private static double evaluateF(List<Cashflow> cashflows, LocalDate startDate, double rate) {
+    private static double npv(double[] amounts, double[] years, int n, double rate) {
+        double logBase = Math.log1p(rate);
         double sum = 0.0;
-        for (Cashflow c : cashflows) {
-            if (c.amount() == null || c.amount().compareTo(BigDecimal.ZERO) == 0) {
-                continue;
-            }
-            double days = ChronoUnit.DAYS.between(startDate, c.date());
-            double years = days / 365.0;
-            double amount = c.amount().doubleValue();
-            sum += amount / Math.pow(1.0 + rate, years);
+        for (int i = 0; i < n; i++) {
+            sum += amounts[i] * Math.exp(-years[i] * logBase);
         }
         return sum;
     }
@@ -0,0 +1,35 @@
+package com.financeos.domain.job;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Content-addressed storage for job artifact bytes. Blobs are keyed by the lowercase hex SHA-256
+ * of their content, so storing the same upload twice keeps one copy; {@link JobArtifact} rows
+ * only reference the hash. Blobs are never deleted by reference, only swept once no artifact row
+ * points at them.
+ */
+public interface ArtifactStore {
+
+    record StoredBlob(String sha256, long sizeBytes) {
+    }
+
+    /** Streams {@code content} into the store (closing it) and returns its hash and size. */
+    StoredBlob put(InputStream content) throws IOException;
+
+    /** Opens a stored blob for streaming reads. */
+    ReadableByteChannel open(String sha256) throws IOException;
+
+    /** Maps a stored blob read-only, without copying it onto the heap. */
+    ByteBuffer map(String sha256) throws IOException;
+
+    /**
+     * Deletes blobs not in {@code referenced} and last written before {@code cutoff}; the cutoff
+     * keeps blobs whose artifact row hasn't committed yet. Returns the number deleted.
+     */
+    int sweep(Set<String> referenced, Instant cutoff) throws IOException;
+}
@@ -30,6 +30,11 @@ public class Job {
     @Column(name = "user_id", length = 36)
     private UUID userId;
 
+    /** Set on sub-jobs spawned by a running job; the parent waits for all of them. */
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "parent_id", length = 36)
+    private UUID parentId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 40)
     private JobType type;
@@ -65,6 +70,9 @@ public class Job {
     @Column(name = "progress_note", length = 255)
     private String progressNote;
 
+    @Column(length = 4000)
+    private String checkpoint;
+
     @Column(name = "cancel_requested", nullable = false)
     private boolean cancelRequested = false;
 
@@ -74,6 +82,12 @@ public class Job {
     @Column(name = "dedup_key", length = 200)
     private String dedupKey;
 
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -108,6 +122,8 @@ public class Job {
     public void setId(UUID id) { this.id = id; }
     public UUID getUserId() { return userId; }
     public void setUserId(UUID userId) { this.userId = userId; }
+    public UUID getParentId() { return parentId; }
+    public void setParentId(UUID parentId) { this.parentId = parentId; }
     public JobType getType() { return type; }
     public void setType(JobType type) { this.type = type; }
     public JobStatus getStatus() { return status; }
@@ -128,12 +144,18 @@ public class Job {
     public void setProgressTotal(Integer progressTotal) { this.progressTotal = progressTotal; }
     public String getProgressNote() { return progressNote; }
     public void setProgressNote(String progressNote) { this.progressNote = progressNote; }
+    public String getCheckpoint() { return checkpoint; }
+    public void setCheckpoint(String checkpoint) { this.checkpoint = checkpoint; }
     public boolean isCancelRequested() { return cancelRequested; }
     public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
     public int getAttempt() { return attempt; }
     public void setAttempt(int attempt) { this.attempt = attempt; }
     public String getDedupKey() { return dedupKey; }
     public void setDedupKey(String dedupKey) { this.dedupKey = dedupKey; }
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+    public Instant getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public Instant getStartedAt() { return startedAt; }
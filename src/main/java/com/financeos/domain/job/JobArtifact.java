@@ -37,9 +37,17 @@ public class JobArtifact {
     @Column(name = "size_bytes", nullable = false)
     private long sizeBytes;
 
+    /**
+     * Key of the content in the {@link ArtifactStore}; identical uploads share one blob. Null only
+     * for rows staged before the store existed, whose bytes are still in {@link #legacyData}.
+     */
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    /** Pre-store BLOB content, moved into the store by {@link LegacyArtifactMigrator}. */
     @Lob
-    @Column(nullable = false)
-    private byte[] data;
+    @Column(name = "data")
+    private byte[] legacyData;
 
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
@@ -64,8 +72,10 @@ public class JobArtifact {
     public void setContentType(String contentType) { this.contentType = contentType; }
     public long getSizeBytes() { return sizeBytes; }
     public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
-    public byte[] getData() { return data; }
-    public void setData(byte[] data) { this.data = data; }
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    public byte[] getLegacyData() { return legacyData; }
+    public void setLegacyData(byte[] legacyData) { this.legacyData = legacyData; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 }
@@ -1,13 +1,21 @@
 package com.financeos.domain.job;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface JobArtifactRepository extends JpaRepository<JobArtifact, UUID> {
     List<JobArtifact> findByJobId(UUID jobId);
     void deleteByJobId(UUID jobId);
+
+    @Query("select distinct a.sha256 from JobArtifact a where a.sha256 is not null")
+    Set<String> findReferencedSha256();
+
+    @Query("select a.id from JobArtifact a where a.sha256 is null")
+    List<UUID> findLegacyIds();
 }
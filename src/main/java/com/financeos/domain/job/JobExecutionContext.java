@@ -10,17 +10,21 @@ public class JobExecutionContext {
     private final UUID jobId;
     private final UUID userId;
     private final String payloadJson;
+    private final String checkpointJson;
     private final JobService jobService;
     private final ObjectMapper objectMapper;
-
-    private long lastProgressMs = 0;
-    private long lastCancelCheckMs = 0;
-    private boolean lastCancelCheckResult = false;
+    private boolean spawned;
 
     public JobExecutionContext(UUID jobId, UUID userId, String payloadJson, JobService jobService, ObjectMapper objectMapper) {
+        this(jobId, userId, payloadJson, null, jobService, objectMapper);
+    }
+
+    public JobExecutionContext(UUID jobId, UUID userId, String payloadJson, String checkpointJson,
+                               JobService jobService, ObjectMapper objectMapper) {
         this.jobId = jobId;
         this.userId = userId;
         this.payloadJson = payloadJson;
+        this.checkpointJson = checkpointJson;
         this.jobService = jobService;
         this.objectMapper = objectMapper;
     }
@@ -44,29 +48,84 @@ public class JobExecutionContext {
         }
     }
 
+    /** The checkpoint this run resumes from (carried over by a retry), or null for a fresh start. */
+    public <T> T checkpoint(Class<T> type) {
+        if (checkpointJson == null || checkpointJson.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(checkpointJson, type);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize job checkpoint", e);
+        }
+    }
+
+    /**
+     * Records a resume point. Call it inside the transaction that commits the work it covers, so
+     * the checkpoint never runs ahead of (or behind) the data. Returns false when nothing was
+     * written because this node no longer holds the job's lease; the caller should stop.
+     */
+    public boolean saveCheckpoint(Object state) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(state);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize job checkpoint", e);
+        }
+        return jobService.saveCheckpoint(jobId, json);
+    }
+
     public List<JobArtifact> artifacts() {
         return jobService.getArtifacts(jobId);
     }
 
+    public byte[] readArtifact(JobArtifact artifact) {
+        return jobService.readArtifact(artifact);
+    }
+
+    /**
+     * Spawns a sub-job; see {@link JobService#spawnChild}. Once this run returns, the job waits
+     * for its sub-jobs and runs again with {@link #children()} filled when all of them succeeded.
+     */
+    public Job spawn(JobType type, Object payload, List<JobArtifact> artifacts) {
+        spawned = true;
+        return jobService.spawnChild(jobId, type, payload, artifacts);
+    }
+
+    /** Whether this run spawned sub-jobs, i.e. the job should wait rather than succeed. */
+    public boolean hasSpawned() {
+        return spawned;
+    }
+
+    /** Sub-jobs spawned by earlier runs of this job, oldest first; empty on a first run. */
+    public List<Job> children() {
+        return jobService.getChildren(jobId);
+    }
+
+    /** A (sub-)job's stored result. */
+    public <T> T result(Job job, Class<T> type) {
+        if (job.getResult() == null || job.getResult().isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(job.getResult(), type);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize job result", e);
+        }
+    }
+
+    /** Cheap enough to call per item: progress is buffered in memory and flushed on a timer. */
     public void progress(int current, int total, String note) {
-        long now = System.currentTimeMillis();
-        if (current == total || (now - lastProgressMs >= 500)) {
-            lastProgressMs = now;
-            String sanitizedNote = note;
-            if (sanitizedNote != null && sanitizedNote.length() > 255) {
-                sanitizedNote = sanitizedNote.substring(0, 255);
-            }
-            jobService.updateProgress(jobId, current, total, sanitizedNote);
+        String sanitizedNote = note;
+        if (sanitizedNote != null && sanitizedNote.length() > 255) {
+            sanitizedNote = sanitizedNote.substring(0, 255);
         }
+        jobService.updateProgress(jobId, current, total, sanitizedNote);
     }
 
+    /** Throws once a stop was signalled; an in-memory check for jobs run by this node's worker. */
     public void checkCancelled() {
-        long now = System.currentTimeMillis();
-        if (now - lastCancelCheckMs >= 500) {
-            lastCancelCheckMs = now;
-            lastCancelCheckResult = jobService.isCancelRequested(jobId);
-        }
-        if (lastCancelCheckResult) {
+        if (jobService.shouldStop(jobId)) {
             throw new JobCancelledException("Job execution cancelled");
         }
     }
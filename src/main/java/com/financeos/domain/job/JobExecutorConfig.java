@@ -1,38 +1,54 @@
 package com.financeos.domain.job;
 
 import com.financeos.core.observability.MdcTaskDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class JobExecutorConfig {
 
-    @Value("${jobs.worker.concurrency:2}")
-    private int concurrency;
-
-    @Value("${jobs.worker.queue-capacity:100}")
-    private int queueCapacity;
+    private static final Logger log = LoggerFactory.getLogger(JobExecutorConfig.class);
 
     @Value("${jobs.worker.shutdown-grace-seconds:60}")
     private int shutdownGraceSeconds;
 
-    @Bean(name = "jobExecutor")
-    public Executor jobExecutor() {
+    /**
+     * Deprecated: the queue of the single job executor that predates lanes. Still honoured as the
+     * queue capacity of lanes without their own {@code jobs.lanes.<type>.queue-capacity}.
+     */
+    @Value("${jobs.worker.queue-capacity:#{null}}")
+    private Integer legacyQueueCapacity;
+
+    @Bean
+    public JobLanes jobLanes(JobLaneProperties properties,
+                             @Qualifier("jobDispatchExecutor") Executor jobDispatchExecutor) {
+        if (legacyQueueCapacity != null) {
+            log.warn("jobs.worker.queue-capacity is deprecated; set jobs.lanes.<type>.queue-capacity instead. " +
+                     "Using {} for lanes that don't set one", legacyQueueCapacity);
+            properties.setDefaultQueueCapacity(legacyQueueCapacity);
+        }
+        return JobLanes.create(properties, shutdownGraceSeconds, jobDispatchExecutor);
+    }
+
+    @Bean(name = "jobDispatchExecutor")
+    public ThreadPoolTaskExecutor jobDispatchExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(concurrency);
-        executor.setMaxPoolSize(concurrency);
-        executor.setQueueCapacity(queueCapacity);
-        executor.setThreadNamePrefix("job-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        // One poll running and one queued is enough: a poll claims everything pending, so
+        // further pokes in the meantime are coalesced into the queued one.
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setThreadNamePrefix("job-dispatch-");
         executor.setTaskDecorator(new MdcTaskDecorator());
-        // Graceful drain on deploy/shutdown: give running jobs up to the grace
-        // period to finish before the JVM exits. Jobs still running after that
-        // are killed and swept to FAILED/INTERRUPTED by JobJanitor on next boot.
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(shutdownGraceSeconds);
         executor.initialize();
         return executor;
     }
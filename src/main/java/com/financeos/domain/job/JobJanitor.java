@@ -9,6 +9,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -17,34 +18,62 @@ import java.util.List;
 public class JobJanitor {
 
     private static final Logger log = LoggerFactory.getLogger(JobJanitor.class);
+    private static final Duration ARTIFACT_SWEEP_GRACE = Duration.ofHours(1);
 
     private final JobRepository jobRepository;
     private final JobArtifactRepository artifactRepository;
+    private final ArtifactStore artifactStore;
+    private final JobService jobService;
     private final int retentionDays;
     private final int failedArtifactDays;
+    private final int maxAttempts;
 
     public JobJanitor(JobRepository jobRepository,
                       JobArtifactRepository artifactRepository,
+                      ArtifactStore artifactStore,
+                      JobService jobService,
                       @Value("${jobs.retention.days:30}") int retentionDays,
-                      @Value("${jobs.retention.failed-artifact-days:7}") int failedArtifactDays) {
+                      @Value("${jobs.retention.failed-artifact-days:7}") int failedArtifactDays,
+                      @Value("${jobs.worker.max-attempts:3}") int maxAttempts) {
         this.jobRepository = jobRepository;
         this.artifactRepository = artifactRepository;
+        this.artifactStore = artifactStore;
+        this.jobService = jobService;
         this.retentionDays = retentionDays;
         this.failedArtifactDays = failedArtifactDays;
+        this.maxAttempts = maxAttempts;
     }
 
     @EventListener(ApplicationReadyEvent.class)
     @Transactional
-    public void markInterruptedOnStartup() {
-        int count = jobRepository.markInterrupted(
-                JobStatus.RUNNING,
-                JobStatus.FAILED,
-                "INTERRUPTED",
-                "Interrupted by server restart",
-                Instant.now()
-        );
-        if (count > 0) {
-            log.info("Startup sweep marked {} stale RUNNING job(s) as FAILED/INTERRUPTED", count);
+    public void sweepExpiredLeasesOnStartup() {
+        sweep();
+    }
+
+    /**
+     * Re-queues RUNNING jobs whose lease lapsed because their node died or stopped heartbeating;
+     * jobs that already used {@code jobs.worker.max-attempts} claims are failed as INTERRUPTED
+     * instead, so a job that keeps taking its node down doesn't cycle forever. Jobs other nodes
+     * are still heartbeating are left alone.
+     */
+    @Scheduled(fixedDelayString = "${jobs.worker.lease-sweep-ms:30000}")
+    @Transactional
+    public void sweepExpiredLeases() {
+        sweep();
+    }
+
+    private void sweep() {
+        Instant now = Instant.now();
+        int failed = jobRepository.failExpiredLeases(now, maxAttempts,
+                "INTERRUPTED", "Worker lease expired after " + maxAttempts + " attempt(s)");
+        int requeued = jobRepository.requeueExpiredLeases(now, maxAttempts);
+        if (failed > 0 || requeued > 0) {
+            log.info("Lease sweep re-queued {} and failed {} RUNNING job(s) with an expired lease", requeued, failed);
+        }
+        // Sub-jobs failed above bypass JobService, so their waiting parents are settled here.
+        int settled = jobService.settleWaitingParents();
+        if (settled > 0) {
+            log.info("Lease sweep settled {} WAITING parent job(s) whose sub-jobs had all ended", settled);
         }
     }
 
@@ -66,5 +95,19 @@ public class JobJanitor {
         if (deletedJobs > 0) {
             log.info("JobJanitor retention purge deleted {} job(s) older than {} days", deletedJobs, retentionDays);
         }
+
+        sweepArtifactStore();
+    }
+
+    /**
+     * Deletes stored blobs no artifact row references any more. Only blobs untouched for an hour
+     * are considered, so an upload whose enqueue transaction hasn't committed yet survives.
+     */
+    private void sweepArtifactStore() {
+        try {
+            artifactStore.sweep(artifactRepository.findReferencedSha256(), Instant.now().minus(ARTIFACT_SWEEP_GRACE));
+        } catch (IOException e) {
+            log.warn("JobJanitor artifact store sweep failed: {}", e.getMessage());
+        }
     }
 }
@@ -0,0 +1,47 @@
+package com.financeos.domain.job;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-JobType execution lanes, keyed by job name ({@link JobWorker#getJobName}), e.g.
+ * {@code jobs.lanes.statement-ingest.concurrency}. Types without an entry get the defaults below.
+ */
+@Component
+@ConfigurationProperties(prefix = "jobs")
+@Getter
+@Setter
+public class JobLaneProperties {
+
+    private Map<String, Lane> lanes = new HashMap<>();
+
+    /**
+     * Queue capacity of lanes that don't set their own. The deprecated
+     * {@code jobs.worker.queue-capacity}, when still configured, overrides it (see {@link JobExecutorConfig}).
+     */
+    private int defaultQueueCapacity = 20;
+
+    @Getter
+    @Setter
+    public static class Lane {
+        /** Jobs of this type running at once on one node. */
+        private int concurrency = 1;
+        /** Claimed jobs the lane's executor may hold waiting for a thread; unset takes the default. */
+        private Integer queueCapacity;
+        /** Lower runs first when free slots are filled. */
+        private int priority = 5;
+    }
+
+    public Lane lane(JobType type) {
+        return lanes.getOrDefault(JobWorker.getJobName(type), new Lane());
+    }
+
+    public int queueCapacity(Lane lane) {
+        return lane.getQueueCapacity() != null ? lane.getQueueCapacity() : defaultQueueCapacity;
+    }
+}
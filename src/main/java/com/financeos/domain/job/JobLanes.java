@@ -0,0 +1,168 @@
+package com.financeos.domain.job;
+
+import com.financeos.core.observability.MdcTaskDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One execution lane per {@link JobType}: its own thread pool, concurrency cap and priority, so
+ * long ingests can't occupy the threads a quick price refresh or rule apply needs.
+ */
+public class JobLanes implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLanes.class);
+
+    public static final class Lane {
+        private final JobType type;
+        private final String name;
+        private final int concurrency;
+        private final int priority;
+        private final Executor executor;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+
+        Lane(JobType type, int concurrency, int priority, Executor executor) {
+            this.type = type;
+            this.name = JobWorker.getJobName(type);
+            this.concurrency = concurrency;
+            this.priority = priority;
+            this.executor = executor;
+        }
+
+        public JobType type() {
+            return type;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int priority() {
+            return priority;
+        }
+
+        public Executor executor() {
+            return executor;
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        public int freeSlots() {
+            return concurrency - inFlight.get();
+        }
+
+        void started() {
+            inFlight.incrementAndGet();
+        }
+
+        void finished() {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private final Map<JobType, Lane> lanes = new EnumMap<>(JobType.class);
+    private final List<Lane> byPriority;
+    private final Executor dispatcher;
+    private final Duration shutdownGrace;
+
+    JobLanes(List<Lane> lanes, Executor dispatcher) {
+        this(lanes, dispatcher, Duration.ZERO);
+    }
+
+    JobLanes(List<Lane> lanes, Executor dispatcher, Duration shutdownGrace) {
+        for (Lane lane : lanes) {
+            this.lanes.put(lane.type(), lane);
+        }
+        this.byPriority = lanes.stream()
+                .sorted(Comparator.comparingInt(Lane::priority).thenComparing(Lane::name))
+                .toList();
+        this.dispatcher = dispatcher;
+        this.shutdownGrace = shutdownGrace;
+    }
+
+    /** Lanes with their own bounded pools, shut down gracefully with the context. */
+    public static JobLanes create(JobLaneProperties properties, int shutdownGraceSeconds, Executor dispatcher) {
+        List<Lane> lanes = new ArrayList<>();
+        for (JobType type : JobType.values()) {
+            JobLaneProperties.Lane settings = properties.lane(type);
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(settings.getConcurrency());
+            executor.setMaxPoolSize(settings.getConcurrency());
+            executor.setQueueCapacity(properties.queueCapacity(settings));
+            executor.setThreadNamePrefix("job-" + JobWorker.getJobName(type) + "-");
+            executor.setTaskDecorator(new MdcTaskDecorator());
+            executor.initialize();
+            lanes.add(new Lane(type, settings.getConcurrency(), settings.getPriority(), executor));
+        }
+        return new JobLanes(lanes, dispatcher, Duration.ofSeconds(shutdownGraceSeconds));
+    }
+
+    /** Every type with the same cap and priority, running on {@code executor}. */
+    static JobLanes uniform(Executor executor, int concurrency) {
+        List<Lane> lanes = new ArrayList<>();
+        for (JobType type : JobType.values()) {
+            lanes.add(new Lane(type, concurrency, 5, executor));
+        }
+        return new JobLanes(lanes, executor);
+    }
+
+    public Lane lane(JobType type) {
+        return lanes.get(type);
+    }
+
+    /** Lanes in the order free slots are filled: priority, then name. */
+    public List<Lane> byPriority() {
+        return byPriority;
+    }
+
+    /** Runs out-of-band polls (pokes after enqueue), off the lanes' own threads. */
+    public Executor dispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Graceful drain on deploy/shutdown: every lane stops taking work at once, then running jobs
+     * get one shared grace period to finish, however many lanes are busy. Jobs still running
+     * after that are killed with the JVM; their leases lapse and JobJanitor re-queues them.
+     */
+    @Override
+    public void destroy() {
+        List<ThreadPoolExecutor> pools = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            if (lane.executor() instanceof ThreadPoolTaskExecutor pool) {
+                ThreadPoolExecutor executor = pool.getThreadPoolExecutor();
+                executor.shutdown();
+                pools.add(executor);
+            }
+        }
+        long deadline = System.nanoTime() + shutdownGrace.toNanos();
+        int unfinished = 0;
+        for (ThreadPoolExecutor pool : pools) {
+            try {
+                if (!pool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    unfinished += pool.getActiveCount();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (unfinished > 0) {
+            log.warn("{} job(s) still running after the {}s shutdown grace period", unfinished, shutdownGrace.toSeconds());
+        }
+    }
+}
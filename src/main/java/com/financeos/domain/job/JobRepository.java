@@ -1,8 +1,10 @@
 package com.financeos.domain.job;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,7 +17,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface JobRepository extends JpaRepository<Job, UUID> {
+public interface JobRepository extends JpaRepository<Job, UUID>, JobRepositoryCustom {
 
     Page<Job> findByUserId(UUID userId, Pageable pageable);
 
@@ -29,28 +31,91 @@ public interface JobRepository extends JpaRepository<Job, UUID> {
 
     Optional<Job> findByIdAndUserId(UUID id, UUID userId);
 
+    List<Job> findByParentIdOrderByCreatedAtAsc(UUID parentId);
+
+    /** Serializes sub-job completions against their parent, so exactly one of them wakes it. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from Job j where j.id = :id")
+    Optional<Job> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select p.id from Job p where p.status = 'WAITING' and not exists " +
+           "(select c.id from Job c where c.parentId = p.id and c.status in ('PENDING', 'RUNNING', 'WAITING'))")
+    List<UUID> findSettledWaitingParentIds();
+
     @Query("select j from Job j where (:userId is null and j.userId is null or j.userId = :userId) and j.type = :type and j.dedupKey = :dedupKey and j.status in :statuses")
     Optional<Job> findActiveDuplicate(@Param("userId") UUID userId, @Param("type") JobType type, @Param("dedupKey") String dedupKey, @Param("statuses") Collection<JobStatus> statuses);
 
-    List<Job> findByStatusOrderByCreatedAtAsc(JobStatus status, Pageable limit);
+    @Query("select distinct j.type from Job j where j.status = 'PENDING'")
+    List<JobType> findPendingTypes();
+
+    @Modifying
+    @Query("update Job j set j.status = 'RUNNING', j.startedAt = :now, j.attempt = j.attempt + 1, " +
+           "j.leaseOwner = :owner, j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now " +
+           "where j.id in :ids and j.status = 'PENDING'")
+    int claimLeased(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                    @Param("now") Instant now, @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    List<Job> findByIdInAndLeaseOwnerOrderByCreatedAtAsc(Collection<UUID> ids, String leaseOwner);
 
     @Modifying
-    @Query("update Job j set j.status = 'RUNNING', j.startedAt = :startedAt, j.attempt = j.attempt + 1 where j.id = :id and j.status = 'PENDING'")
-    int claim(@Param("id") UUID id, @Param("startedAt") Instant startedAt);
+    @Query("update Job j set j.leaseExpiresAt = :leaseExpiresAt " +
+           "where j.id in :ids and j.leaseOwner = :owner and j.status = 'RUNNING'")
+    int renewLeases(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                    @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    @Query("select j.id from Job j where j.id in :ids and j.leaseOwner = :owner and j.status = 'RUNNING'")
+    List<UUID> findLeasedIds(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    /**
+     * Puts RUNNING jobs whose lease lapsed (their node died or stalled) back in the queue. A null
+     * lease is a job claimed before leases existed.
+     */
+    @Modifying
+    @Query("update Job j set j.status = 'PENDING', j.leaseOwner = null, j.leaseExpiresAt = null, j.updatedAt = :now " +
+           "where j.status = 'RUNNING' and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now) " +
+           "and j.attempt < :maxAttempts")
+    int requeueExpiredLeases(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("update Job j set j.status = 'FAILED', j.errorCode = :errorCode, j.errorMessage = :errorMessage, " +
+           "j.finishedAt = :now, j.leaseOwner = null, j.leaseExpiresAt = null, j.updatedAt = :now " +
+           "where j.status = 'RUNNING' and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now) " +
+           "and j.attempt >= :maxAttempts")
+    int failExpiredLeases(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts,
+                          @Param("errorCode") String errorCode, @Param("errorMessage") String errorMessage);
 
     @Modifying
     @Query("update Job j set j.status = :toStatus, j.startedAt = :startedAt, j.attempt = j.attempt + 1 where j.id = :id and j.status = :fromStatus")
     int claim(@Param("id") UUID id, @Param("fromStatus") JobStatus fromStatus, @Param("toStatus") JobStatus toStatus, @Param("startedAt") Instant startedAt);
 
+    @Query("select j.id from Job j where j.id in :ids and (j.cancelRequested = true or j.status <> 'RUNNING' " +
+           "or j.leaseOwner is null or j.leaseOwner <> :owner)")
+    List<UUID> findStopRequestedIds(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    /** Fenced on the lease: a late flush from a node that lost the job, or after it ended, writes nothing. */
+    @Modifying
+    @Query("update Job j set j.progressCurrent = :current, j.progressTotal = :total, j.progressNote = :note, " +
+           "j.updatedAt = :updatedAt where j.id = :id and j.leaseOwner = :owner and j.status = 'RUNNING'")
+    int updateProgress(@Param("id") UUID id, @Param("owner") String owner, @Param("current") int current,
+                       @Param("total") int total, @Param("note") String note, @Param("updatedAt") Instant updatedAt);
+
+    /** Fenced on the lease like {@link #updateProgress}; returns 0 once this node no longer runs the job. */
     @Modifying
-    @Query("update Job j set j.status = :toStatus, j.errorCode = :errorCode, j.errorMessage = :errorMessage, j.finishedAt = :finishedAt where j.status = :fromStatus")
-    int markInterrupted(@Param("fromStatus") JobStatus fromStatus, @Param("toStatus") JobStatus toStatus, @Param("errorCode") String errorCode, @Param("errorMessage") String errorMessage, @Param("finishedAt") Instant finishedAt);
+    @Query("update Job j set j.checkpoint = :checkpoint, j.updatedAt = :updatedAt " +
+           "where j.id = :id and j.leaseOwner = :owner and j.status = 'RUNNING'")
+    int updateCheckpoint(@Param("id") UUID id, @Param("owner") String owner, @Param("checkpoint") String checkpoint,
+                         @Param("updatedAt") Instant updatedAt);
 
     @Modifying
     @Query("delete from JobArtifact a where a.jobId in (select j.id from Job j where j.status = 'FAILED' and j.finishedAt < :cutoff)")
     int deleteFailedJobArtifactsOlderThan(@Param("cutoff") Instant cutoff);
 
+    /**
+     * Deletes top-level jobs that ended before the cutoff. Sub-jobs are never purged on their own:
+     * a CHILD_FAILED parent is retried through its failed children, so they go with the parent
+     * (fk_jobs_parent cascades).
+     */
     @Modifying
-    @Query("delete from Job j where j.status in :statuses and j.finishedAt < :cutoff")
+    @Query("delete from Job j where j.parentId is null and j.status in :statuses and j.finishedAt < :cutoff")
     int deleteTerminalJobsOlderThan(@Param("statuses") Collection<JobStatus> statuses, @Param("cutoff") Instant cutoff);
 }
@@ -0,0 +1,16 @@
+package com.financeos.domain.job;
+
+import java.util.List;
+
+/**
+ * Fragment interface for job queries that need cursor control Spring Data queries don't expose.
+ */
+public interface JobRepositoryCustom {
+
+    /**
+     * Locks up to {@code limit} of the oldest PENDING jobs of a type, skipping rows another node
+     * already holds, and returns their ids. The locks last until the calling transaction ends, so
+     * the caller must claim the returned jobs in the same transaction.
+     */
+    List<String> lockPendingIds(String type, int limit);
+}
@@ -0,0 +1,35 @@
+package com.financeos.domain.job;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public class JobRepositoryCustomImpl implements JobRepositoryCustom {
+
+    /*
+     * No row limit in SQL: ROWNUM (or FETCH FIRST) would pick the oldest rows before SKIP LOCKED
+     * applies, so a node racing another would get the rows already held and come back empty.
+     * Oracle locks rows as they are fetched instead, so the limit is applied to the cursor.
+     */
+    private static final String LOCK_PENDING_SQL =
+            "SELECT id FROM jobs WHERE status = 'PENDING' AND type = :type ORDER BY created_at FOR UPDATE SKIP LOCKED";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> lockPendingIds(String type, int limit) {
+        try (Stream<String> ids = entityManager.createNativeQuery(LOCK_PENDING_SQL)
+                .setParameter("type", type)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, limit)
+                .getResultStream()) {
+            return ids.limit(limit).toList();
+        }
+    }
+}
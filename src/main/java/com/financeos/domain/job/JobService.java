@@ -5,6 +5,7 @@ import com.financeos.core.exception.ResourceNotFoundException;
 import com.financeos.core.exception.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -12,36 +13,77 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class JobService {
 
     private static final Logger log = LoggerFactory.getLogger(JobService.class);
+    static final String CHILD_FAILED = "CHILD_FAILED";
 
     private final JobRepository jobRepository;
     private final JobArtifactRepository artifactRepository;
+    private final ArtifactStore artifactStore;
+    private final JobSignals signals;
     private final ObjectMapper objectMapper;
     private JobWorker jobWorker;
+    private final String nodeId;
+    private final Duration leaseDuration;
 
     public JobService(JobRepository jobRepository,
                       JobArtifactRepository artifactRepository,
+                      ArtifactStore artifactStore,
+                      JobSignals signals,
                       ObjectMapper objectMapper,
-                      @Lazy JobWorker jobWorker) {
+                      @Lazy JobWorker jobWorker,
+                      @Value("${jobs.worker.node-id:}") String nodeId,
+                      @Value("${jobs.worker.lease-seconds:60}") long leaseSeconds) {
         this.jobRepository = jobRepository;
         this.artifactRepository = artifactRepository;
+        this.artifactStore = artifactStore;
+        this.signals = signals;
         this.objectMapper = objectMapper;
         this.jobWorker = jobWorker;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /** Lease owner stamped on the jobs this instance claims. */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Unique per process, so a restarted node never mistakes its predecessor's leases for its own.
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String suffix = ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        return host.substring(0, Math.min(host.length(), 100 - suffix.length())) + suffix;
     }
 
     @Transactional
     public Job enqueue(UUID userId, JobType type, JobTrigger trigger, Object payload, List<StagedFile> files, String dedupKey) {
         if (dedupKey != null && !dedupKey.isBlank()) {
             Optional<Job> existing = jobRepository.findActiveDuplicate(
-                    userId, type, dedupKey, List.of(JobStatus.PENDING, JobStatus.RUNNING));
+                    userId, type, dedupKey, List.of(JobStatus.PENDING, JobStatus.RUNNING, JobStatus.WAITING));
             if (existing.isPresent()) {
                 return existing.get();
             }
@@ -68,58 +110,123 @@ public class JobService {
 
         if (files != null && !files.isEmpty()) {
             for (StagedFile file : files) {
+                ArtifactStore.StoredBlob blob = stage(file);
                 JobArtifact artifact = new JobArtifact();
                 artifact.setJobId(savedJob.getId());
                 artifact.setFilename(file.filename());
                 artifact.setContentType(file.contentType());
-                artifact.setSizeBytes(file.bytes() != null ? file.bytes().length : 0);
-                artifact.setData(file.bytes() != null ? file.bytes() : new byte[0]);
+                artifact.setSizeBytes(blob.sizeBytes());
+                artifact.setSha256(blob.sha256());
                 artifactRepository.save(artifact);
             }
         }
 
+        afterCommit(() -> {
+            if (jobWorker != null) {
+                jobWorker.poke();
+            }
+        });
+
+        return savedJob;
+    }
+
+    private static void afterCommit(Runnable action) {
         if (TransactionSynchronizationManager.isSynchronizationActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    if (jobWorker != null) {
-                        jobWorker.poke();
-                    }
+                    action.run();
                 }
             });
         } else {
-            if (jobWorker != null) {
-                jobWorker.poke();
-            }
+            action.run();
         }
+    }
 
-        return savedJob;
+    private ArtifactStore.StoredBlob stage(StagedFile file) {
+        try {
+            InputStream content = file.content() != null ? file.content().getInputStream() : InputStream.nullInputStream();
+            return artifactStore.put(content);
+        } catch (IOException e) {
+            throw new ValidationException("Failed to stage uploaded file: " + file.filename());
+        }
     }
 
+    /** Types with at least one PENDING job, so a poll only claims from lanes that have work. */
+    @Transactional(readOnly = true)
+    public Set<JobType> pendingTypes() {
+        return new HashSet<>(jobRepository.findPendingTypes());
+    }
+
+    /**
+     * Claims up to {@code limit} of the oldest PENDING jobs of a type for this node in one
+     * locking round-trip: rows another node is claiming at the same moment are skipped rather
+     * than waited on, and each claimed job gets this node as lease owner and a fresh lease expiry.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public boolean claim(UUID jobId) {
-        return jobRepository.claim(jobId, Instant.now()) == 1;
+    public List<Job> claimBatch(JobType type, int limit) {
+        List<UUID> ids = jobRepository.lockPendingIds(type.name(), limit).stream()
+                .map(UUID::fromString)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Instant now = Instant.now();
+        jobRepository.claimLeased(ids, nodeId, now, now.plus(leaseDuration));
+        return jobRepository.findByIdInAndLeaseOwnerOrderByCreatedAtAsc(ids, nodeId);
+    }
+
+    /**
+     * Heartbeat: extends this node's leases on the given running jobs and returns the ids whose
+     * lease it still holds. A job missing from the result was re-queued after its lease lapsed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Set<UUID> renewLeases(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return Set.of();
+        }
+        jobRepository.renewLeases(jobIds, nodeId, Instant.now().plus(leaseDuration));
+        return new HashSet<>(jobRepository.findLeasedIds(jobIds, nodeId));
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void succeed(UUID jobId, String resultJson) {
         Job job = jobRepository.findById(jobId).orElse(null);
-        if (job == null) {
+        if (job == null || !holdsLease(job, "SUCCEEDED")) {
             return;
         }
+        releaseLease(job);
         job.setStatus(JobStatus.SUCCEEDED);
         job.setResult(resultJson);
         job.setFinishedAt(Instant.now());
         jobRepository.save(job);
         artifactRepository.deleteByJobId(jobId);
+        onChildFinished(job);
+    }
+
+    /**
+     * Ends the run of a job that spawned sub-jobs: it releases its lease and WAITs for them.
+     * Whichever of this and the last child's completion comes second re-queues it (or fails it).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void awaitChildren(UUID jobId, String resultJson) {
+        Job job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (job == null || !holdsLease(job, "WAITING")) {
+            return;
+        }
+        releaseLease(job);
+        job.setStatus(JobStatus.WAITING);
+        job.setResult(resultJson);
+        settle(job);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void fail(UUID jobId, String errorCode, String errorMessage) {
         Job job = jobRepository.findById(jobId).orElse(null);
-        if (job == null) {
+        if (job == null || !holdsLease(job, "FAILED")) {
             return;
         }
+        releaseLease(job);
         job.setStatus(JobStatus.FAILED);
         job.setErrorCode(errorCode);
         if (errorMessage != null && errorMessage.length() > 2000) {
@@ -129,30 +236,171 @@ public class JobService {
         }
         job.setFinishedAt(Instant.now());
         jobRepository.save(job);
+        cancelChildren(job);
+        onChildFinished(job);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void markCancelled(UUID jobId) {
         Job job = jobRepository.findById(jobId).orElse(null);
-        if (job == null) {
+        if (job == null || !holdsLease(job, "CANCELLED")) {
             return;
         }
+        releaseLease(job);
         job.setStatus(JobStatus.CANCELLED);
         job.setFinishedAt(Instant.now());
         jobRepository.save(job);
         artifactRepository.deleteByJobId(jobId);
+        cancelChildren(job);
+        onChildFinished(job);
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void updateProgress(UUID jobId, int current, int total, String note) {
-        Job job = jobRepository.findById(jobId).orElse(null);
-        if (job == null) {
+    /**
+     * Creates a sub-job of a running job, carrying its own payload and (shared, not copied) file
+     * artifacts. Sub-jobs are claimed like any other job, so they run in parallel across lanes
+     * and nodes. A handler that spawned returns as usual; its job then waits for the sub-jobs
+     * and runs again, with {@link JobExecutionContext#children()} filled, once all of them
+     * succeeded. If any fails or is cancelled the parent fails with CHILD_FAILED instead, and
+     * retrying the failed sub-jobs puts it back to waiting.
+     */
+    @Transactional
+    public Job spawnChild(UUID parentId, JobType type, Object payload, List<JobArtifact> artifacts) {
+        Job parent = jobRepository.findById(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job", parentId));
+
+        Job child = new Job();
+        child.setParentId(parentId);
+        child.setUserId(parent.getUserId());
+        child.setType(type);
+        child.setStatus(JobStatus.PENDING);
+        child.setTriggerSource(parent.getTriggerSource());
+        child.setAttempt(0);
+        child.setCancelRequested(false);
+        if (payload != null) {
+            try {
+                child.setPayload(objectMapper.writeValueAsString(payload));
+            } catch (Exception e) {
+                throw new ValidationException("Failed to serialize job payload: " + e.getMessage());
+            }
+        }
+        Job saved = jobRepository.save(child);
+        copyArtifacts(artifacts != null ? artifacts : List.of(), saved.getId());
+
+        afterCommit(() -> {
+            if (jobWorker != null) {
+                jobWorker.poke();
+            }
+        });
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Job> getChildren(UUID parentId) {
+        return jobRepository.findByParentIdOrderByCreatedAtAsc(parentId);
+    }
+
+    /**
+     * Wakes WAITING parents whose sub-jobs all ended without going through succeed/fail here,
+     * e.g. a child failed by the lease sweep. Returns how many were settled.
+     */
+    @Transactional
+    public int settleWaitingParents() {
+        int settled = 0;
+        for (UUID parentId : jobRepository.findSettledWaitingParentIds()) {
+            Job parent = jobRepository.findByIdForUpdate(parentId).orElse(null);
+            if (parent != null && parent.getStatus() == JobStatus.WAITING) {
+                settle(parent);
+                settled++;
+            }
+        }
+        return settled;
+    }
+
+    private void onChildFinished(Job child) {
+        if (child.getParentId() == null) {
             return;
         }
-        job.setProgressCurrent(current);
-        job.setProgressTotal(total);
-        job.setProgressNote(note);
-        jobRepository.save(job);
+        jobRepository.findByIdForUpdate(child.getParentId())
+                .filter(parent -> parent.getStatus() == JobStatus.WAITING)
+                .ifPresent(this::settle);
+    }
+
+    // Rolls the children's states up into the parent's progress, and once none is active either
+    // re-queues the parent to join (all succeeded) or fails it. Caller holds the parent's row lock.
+    private void settle(Job parent) {
+        List<Job> children = jobRepository.findByParentIdOrderByCreatedAtAsc(parent.getId());
+        long active = children.stream().filter(c -> !c.getStatus().isTerminal()).count();
+        long unsuccessful = children.stream()
+                .filter(c -> c.getStatus() == JobStatus.FAILED || c.getStatus() == JobStatus.CANCELLED)
+                .count();
+        int done = (int) (children.size() - active);
+        parent.setProgressCurrent(done);
+        parent.setProgressTotal(children.size());
+        parent.setProgressNote(done + " of " + children.size() + " sub-jobs done"
+                + (unsuccessful > 0 ? ", " + unsuccessful + " failed" : ""));
+
+        if (active > 0) {
+            jobRepository.save(parent);
+            return;
+        }
+        if (unsuccessful == 0) {
+            parent.setStatus(JobStatus.PENDING);
+            // The join is a fresh run: claims count attempts, and the spawning run already used one.
+            parent.setAttempt(0);
+            jobRepository.save(parent);
+            afterCommit(() -> {
+                if (jobWorker != null) {
+                    jobWorker.poke();
+                }
+            });
+        } else {
+            parent.setStatus(JobStatus.FAILED);
+            parent.setErrorCode(CHILD_FAILED);
+            parent.setErrorMessage(unsuccessful + " of " + children.size() + " sub-jobs failed or were cancelled");
+            parent.setFinishedAt(Instant.now());
+            jobRepository.save(parent);
+            onChildFinished(parent);
+        }
+    }
+
+    // A parent that ends without joining (failed or cancelled run) takes its unfinished sub-jobs with it.
+    private void cancelChildren(Job parent) {
+        for (Job child : jobRepository.findByParentIdOrderByCreatedAtAsc(parent.getId())) {
+            if (!child.getStatus().isTerminal()) {
+                cancel(child);
+            }
+        }
+    }
+
+    private void copyArtifacts(List<JobArtifact> artifacts, UUID jobId) {
+        for (JobArtifact a : artifacts) {
+            JobArtifact copy = new JobArtifact();
+            copy.setJobId(jobId);
+            copy.setFilename(a.getFilename());
+            copy.setContentType(a.getContentType());
+            copy.setSizeBytes(a.getSizeBytes());
+            copy.setSha256(a.getSha256());
+            copy.setLegacyData(a.getSha256() == null ? a.getLegacyData() : null);
+            artifactRepository.save(copy);
+        }
+    }
+
+    /** Buffers progress in memory; {@link JobSignals} writes the latest value per job on its flush timer. */
+    public void updateProgress(UUID jobId, int current, int total, String note) {
+        signals.progress(jobId, nodeId, current, total, note);
+    }
+
+    /**
+     * Stores a handler's resume point. Joins the caller's transaction, so a chunked handler can
+     * commit the checkpoint atomically with the chunk it describes. Fenced on the lease: returns
+     * false, writing nothing, once this node lost the job or it ended.
+     */
+    @Transactional
+    public boolean saveCheckpoint(UUID jobId, String checkpointJson) {
+        if (checkpointJson != null && checkpointJson.length() > 4000) {
+            throw new ValidationException("Job checkpoint exceeds 4000 characters");
+        }
+        return jobRepository.updateCheckpoint(jobId, nodeId, checkpointJson, Instant.now()) > 0;
     }
 
     @Transactional(readOnly = true)
@@ -162,11 +410,95 @@ public class JobService {
                 .orElse(false);
     }
 
+    /**
+     * Whether a running handler should stop: the user asked to cancel, or this node lost the
+     * lease and the job may already be running elsewhere. For a job running on this node that's
+     * the in-memory signal (fed by local cancels, heartbeats and {@link #findStopRequested});
+     * otherwise the jobs row is read.
+     */
+    public boolean shouldStop(UUID jobId) {
+        if (signals.isRunning(jobId)) {
+            return signals.isStopped(jobId);
+        }
+        return jobRepository.findById(jobId)
+                .map(job -> job.isCancelRequested()
+                        || job.getStatus() != JobStatus.RUNNING
+                        || !nodeId.equals(job.getLeaseOwner()))
+                .orElse(true);
+    }
+
+    /**
+     * Of the given jobs, those whose row says to stop: cancel requested (possibly on another
+     * node), no longer RUNNING, or leased to someone else. One query for all of a node's jobs.
+     */
+    @Transactional(readOnly = true)
+    public Set<UUID> findStopRequested(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jobRepository.findStopRequestedIds(jobIds, nodeId));
+    }
+
+    // Terminal transitions are fenced on the lease: once it lapsed and the job was re-queued,
+    // the new owner's outcome is the one that counts.
+    private boolean holdsLease(Job job, String transition) {
+        if (job.getStatus() == JobStatus.RUNNING && nodeId.equals(job.getLeaseOwner())) {
+            return true;
+        }
+        log.warn("Dropping {} transition for job {}: lease held by {} (status {}), not {}",
+                transition, job.getId(), job.getLeaseOwner(), job.getStatus(), nodeId);
+        return false;
+    }
+
+    private static void releaseLease(Job job) {
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+    }
+
     @Transactional(readOnly = true)
     public List<JobArtifact> getArtifacts(UUID jobId) {
         return artifactRepository.findByJobId(jobId);
     }
 
+    /**
+     * Streams an artifact's content from the artifact store, or from its pre-store BLOB when
+     * {@link LegacyArtifactMigrator} hasn't moved it yet.
+     */
+    public ReadableByteChannel openArtifact(JobArtifact artifact) throws IOException {
+        if (artifact.getSha256() == null) {
+            byte[] legacy = artifact.getLegacyData() != null ? artifact.getLegacyData() : new byte[0];
+            return Channels.newChannel(new ByteArrayInputStream(legacy));
+        }
+        return artifactStore.open(artifact.getSha256());
+    }
+
+    /**
+     * Copies one pre-store artifact's BLOB into the artifact store and clears it. Returns false
+     * when the row is gone or was already moved (e.g. by another instance).
+     */
+    @Transactional
+    public boolean moveLegacyArtifact(UUID artifactId) throws IOException {
+        JobArtifact artifact = artifactRepository.findById(artifactId).orElse(null);
+        if (artifact == null || artifact.getSha256() != null) {
+            return false;
+        }
+        byte[] legacy = artifact.getLegacyData() != null ? artifact.getLegacyData() : new byte[0];
+        ArtifactStore.StoredBlob blob = artifactStore.put(new ByteArrayInputStream(legacy));
+        artifact.setSha256(blob.sha256());
+        artifact.setLegacyData(null);
+        artifactRepository.save(artifact);
+        return true;
+    }
+
+    /** Reads an artifact's content onto the heap, for consumers that need the whole file at once. */
+    public byte[] readArtifact(JobArtifact artifact) {
+        try (InputStream in = Channels.newInputStream(openArtifact(artifact))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read artifact " + artifact.getFilename(), e);
+        }
+    }
+
     @Transactional
     public Job requestCancel(UUID userId, UUID jobId) {
         if (userId == null) {
@@ -181,18 +513,30 @@ public class JobService {
             throw new ResourceNotFoundException("Job", jobId);
         }
 
-        if (job.getStatus() == JobStatus.PENDING) {
-            job.setStatus(JobStatus.CANCELLED);
-            job.setFinishedAt(Instant.now());
-            jobRepository.save(job);
-            artifactRepository.deleteByJobId(jobId);
-            return job;
-        } else if (job.getStatus() == JobStatus.RUNNING) {
-            job.setCancelRequested(true);
-            return jobRepository.save(job);
-        } else {
+        if (job.getStatus().isTerminal()) {
             throw new ValidationException("Cannot cancel job in terminal status: " + job.getStatus());
         }
+        Job cancelled = cancel(job);
+        onChildFinished(cancelled);
+        return cancelled;
+    }
+
+    // Cancels a job and, for a parent, its unfinished sub-jobs.
+    private Job cancel(Job job) {
+        UUID jobId = job.getId();
+        cancelChildren(job);
+        if (job.getStatus() == JobStatus.RUNNING) {
+            job.setCancelRequested(true);
+            Job saved = jobRepository.save(job);
+            // Reaches the handler at once if it runs here; other nodes pick the flag up from the row.
+            afterCommit(() -> signals.stop(jobId));
+            return saved;
+        }
+        job.setStatus(JobStatus.CANCELLED);
+        job.setFinishedAt(Instant.now());
+        jobRepository.save(job);
+        artifactRepository.deleteByJobId(jobId);
+        return job;
     }
 
     @Transactional
@@ -213,6 +557,20 @@ public class JobService {
             throw new ValidationException("Only FAILED or CANCELLED jobs can be retried.");
         }
 
+        // Pipelines retry in place: a failed sub-job re-runs under its parent, and retrying a
+        // parent that failed on its sub-jobs re-runs just those.
+        if (orig.getParentId() != null) {
+            return retryChild(orig);
+        }
+        if (CHILD_FAILED.equals(orig.getErrorCode())) {
+            for (Job child : jobRepository.findByParentIdOrderByCreatedAtAsc(jobId)) {
+                if (child.getStatus() == JobStatus.FAILED || child.getStatus() == JobStatus.CANCELLED) {
+                    retryChild(child);
+                }
+            }
+            return jobRepository.findById(jobId).orElse(orig);
+        }
+
         List<JobArtifact> origArtifacts = artifactRepository.findByJobId(jobId);
         if (orig.getType() == JobType.STATEMENT_INGEST && origArtifacts.isEmpty()) {
             throw new ValidationException("Statement ingest artifacts expired, please re-upload.");
@@ -224,37 +582,59 @@ public class JobService {
         newJob.setStatus(JobStatus.PENDING);
         newJob.setTriggerSource(JobTrigger.USER);
         newJob.setPayload(orig.getPayload());
+        // A cancelled or failed chunked job resumes from its last committed chunk.
+        newJob.setCheckpoint(orig.getCheckpoint());
         newJob.setDedupKey(null);
         newJob.setAttempt(0);
         newJob.setCancelRequested(false);
 
         Job savedJob = jobRepository.save(newJob);
+        copyArtifacts(origArtifacts, savedJob.getId());
 
-        for (JobArtifact a : origArtifacts) {
-            JobArtifact newArtifact = new JobArtifact();
-            newArtifact.setJobId(savedJob.getId());
-            newArtifact.setFilename(a.getFilename());
-            newArtifact.setContentType(a.getContentType());
-            newArtifact.setSizeBytes(a.getSizeBytes());
-            newArtifact.setData(a.getData());
-            artifactRepository.save(newArtifact);
-        }
-
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    if (jobWorker != null) {
-                        jobWorker.poke();
-                    }
-                }
-            });
-        } else {
+        afterCommit(() -> {
             if (jobWorker != null) {
                 jobWorker.poke();
             }
-        }
+        });
 
         return savedJob;
     }
+
+    private Job retryChild(Job child) {
+        if (child.getType() == JobType.STATEMENT_INGEST && artifactRepository.findByJobId(child.getId()).isEmpty()) {
+            throw new ValidationException("Statement ingest artifacts expired, please re-upload.");
+        }
+        Job parent = jobRepository.findByIdForUpdate(child.getParentId()).orElse(null);
+        if (parent == null || !(parent.getStatus() == JobStatus.WAITING
+                || (parent.getStatus() == JobStatus.FAILED && CHILD_FAILED.equals(parent.getErrorCode())))) {
+            throw new ValidationException("Sub-job can only be retried while its parent waits on it or failed because of it.");
+        }
+
+        child.setStatus(JobStatus.PENDING);
+        child.setAttempt(0);
+        child.setCancelRequested(false);
+        child.setErrorCode(null);
+        child.setErrorMessage(null);
+        child.setResult(null);
+        child.setStartedAt(null);
+        child.setFinishedAt(null);
+        releaseLease(child);
+        Job saved = jobRepository.save(child);
+
+        if (parent.getStatus() == JobStatus.FAILED) {
+            parent.setStatus(JobStatus.WAITING);
+            parent.setAttempt(0);
+            parent.setErrorCode(null);
+            parent.setErrorMessage(null);
+            parent.setFinishedAt(null);
+            jobRepository.save(parent);
+        }
+
+        afterCommit(() -> {
+            if (jobWorker != null) {
+                jobWorker.poke();
+            }
+        });
+        return saved;
+    }
 }
@@ -0,0 +1,126 @@
+package com.financeos.domain.job;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory progress and stop channel per job running on this node. Handlers report progress as
+ * often as they like; only the latest value per job is kept and written on the flush timer (and
+ * before the run's terminal transition), so a chatty handler costs one UPDATE per flush instead of
+ * one transaction per call. Writes carry the reporting node's lease owner and only land on a
+ * RUNNING job it still holds. Stop requests (a cancel on this node, or a lost lease) are delivered to the running
+ * handler straight away; the jobs table stays the durable record that other nodes poll.
+ */
+@Component
+public class JobSignals {
+
+    private final JobRepository jobRepository;
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+
+    public JobSignals(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    record Progress(String owner, int current, int total, String note) {
+    }
+
+    private static final class Channel {
+        volatile boolean running;
+        volatile boolean stopped;
+        final AtomicReference<Progress> pending = new AtomicReference<>();
+    }
+
+    /** Starts the channel for a job this node is about to run. */
+    public void open(UUID jobId) {
+        channels.compute(jobId, (id, channel) -> {
+            Channel open = channel != null ? channel : new Channel();
+            open.running = true;
+            open.stopped = false;
+            return open;
+        });
+    }
+
+    /** Ends a run, writing whatever progress it reported since the last flush. */
+    @Transactional
+    public void close(UUID jobId) {
+        Channel channel = channels.remove(jobId);
+        if (channel != null) {
+            write(jobId, channel.pending.getAndSet(null));
+        }
+    }
+
+    public boolean isRunning(UUID jobId) {
+        Channel channel = channels.get(jobId);
+        return channel != null && channel.running;
+    }
+
+    /** Jobs with an open channel, i.e. running on this node. */
+    public Set<UUID> runningJobs() {
+        return channels.entrySet().stream()
+                .filter(e -> e.getValue().running)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Records progress, replacing any value not yet flushed. Progress for a job not running here
+     * is buffered the same way and written by the next flush.
+     */
+    public void progress(UUID jobId, String owner, int current, int total, String note) {
+        Progress progress = new Progress(owner, current, total, note);
+        channels.compute(jobId, (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel();
+            target.pending.set(progress);
+            return target;
+        });
+    }
+
+    /** Tells a job running on this node to stop at its next checkCancelled. No-op elsewhere. */
+    public void stop(UUID jobId) {
+        Channel channel = channels.get(jobId);
+        if (channel != null && channel.running) {
+            channel.stopped = true;
+        }
+    }
+
+    public boolean isStopped(UUID jobId) {
+        Channel channel = channels.get(jobId);
+        return channel != null && channel.stopped;
+    }
+
+    /** Writes the job's unflushed progress now; the worker calls this before ending the run. */
+    @Transactional
+    public void flush(UUID jobId) {
+        Channel channel = channels.get(jobId);
+        if (channel != null) {
+            write(jobId, channel.pending.getAndSet(null));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.worker.progress-flush-ms:1000}")
+    @Transactional
+    public void flush() {
+        for (Map.Entry<UUID, Channel> entry : channels.entrySet()) {
+            write(entry.getKey(), entry.getValue().pending.getAndSet(null));
+            // Drop buffers of jobs not running here once written; a concurrent progress() call
+            // either lands before this (and is kept) or recreates the entry.
+            channels.computeIfPresent(entry.getKey(),
+                    (id, channel) -> channel.running || channel.pending.get() != null ? channel : null);
+        }
+    }
+
+    private void write(UUID jobId, Progress progress) {
+        if (progress != null) {
+            jobRepository.updateProgress(jobId, progress.owner(), progress.current(), progress.total(), progress.note(), Instant.now());
+        }
+    }
+}
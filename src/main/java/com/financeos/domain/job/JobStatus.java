@@ -3,6 +3,8 @@ package com.financeos.domain.job;
 public enum JobStatus {
     PENDING,
     RUNNING,
+    /** Ran, spawned sub-jobs and waits for them; re-queued to join once they all succeed. */
+    WAITING,
     SUCCEEDED,
     FAILED,
     CANCELLED;
@@ -6,5 +6,6 @@ public enum JobType {
     PRICE_REFRESH,
     INVESTMENT_IMPORT_COMMIT,
     BROKER_RECONCILE_COMMIT,
-    RULE_APPLY
+    RULE_APPLY,
+    POSITION_PROJECTION_VERIFY
 }
@@ -9,15 +9,14 @@ import net.logstash.logback.argument.StructuredArguments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,28 +25,29 @@ public class JobWorker {
 
     private static final Logger log = LoggerFactory.getLogger(JobWorker.class);
 
-    private final JobRepository jobRepository;
     private final JobService jobService;
     private final JobHandlerRegistry handlerRegistry;
     private final ObservabilityMetrics observabilityMetrics;
-    private final Executor jobExecutor;
+    private final JobLanes lanes;
+    private final JobSignals signals;
     private final ObjectMapper objectMapper;
     private final int concurrency;
 
     private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final Set<UUID> leasedJobs = ConcurrentHashMap.newKeySet();
 
-    public JobWorker(JobRepository jobRepository,
-                     JobService jobService,
+    public JobWorker(JobService jobService,
                      JobHandlerRegistry handlerRegistry,
                      ObservabilityMetrics observabilityMetrics,
-                     @Qualifier("jobExecutor") Executor jobExecutor,
+                     JobLanes lanes,
+                     JobSignals signals,
                      ObjectMapper objectMapper,
                      @Value("${jobs.worker.concurrency:2}") int concurrency) {
-        this.jobRepository = jobRepository;
         this.jobService = jobService;
         this.handlerRegistry = handlerRegistry;
         this.observabilityMetrics = observabilityMetrics;
-        this.jobExecutor = jobExecutor;
+        this.lanes = lanes;
+        this.signals = signals;
         this.objectMapper = objectMapper;
         this.concurrency = concurrency;
     }
@@ -57,7 +57,7 @@ public class JobWorker {
     }
 
     public void poke() {
-        jobExecutor.execute(this::pollInternal);
+        lanes.dispatcher().execute(this::pollInternal);
     }
 
     @Scheduled(fixedDelayString = "${jobs.worker.poll-delay-ms:2000}")
@@ -65,36 +65,95 @@ public class JobWorker {
         pollInternal();
     }
 
+    /**
+     * Fills free slots lane by lane in priority order, oldest job first within a lane, bounded by
+     * each lane's cap and by the node-wide {@code jobs.worker.concurrency}.
+     */
     private synchronized void pollInternal() {
         int availableSlots = concurrency - inFlight.get();
         if (availableSlots <= 0) {
             return;
         }
 
-        List<Job> pendingJobs = jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.PENDING, PageRequest.of(0, availableSlots));
-        for (Job job : pendingJobs) {
-            boolean claimed = jobService.claim(job.getId());
-            if (claimed) {
-                inFlight.incrementAndGet();
-                final UUID jobId = job.getId();
-                final UUID userId = job.getUserId();
-                final JobType type = job.getType();
-                final JobTrigger trigger = job.getTriggerSource();
-                final String payload = job.getPayload();
-
-                try {
-                    jobExecutor.execute(() -> runJob(jobId, userId, type, trigger, payload));
-                } catch (RejectedExecutionException e) {
-                    inFlight.decrementAndGet();
-                    jobService.fail(jobId, "EXECUTOR_REJECTED", "Worker queue full; job not executed");
-                    log.error("Job execution rejected by executor: jobId={}", jobId, e);
-                    break;
-                }
+        Set<JobType> pendingTypes = jobService.pendingTypes();
+        for (JobLanes.Lane lane : lanes.byPriority()) {
+            if (availableSlots <= 0) {
+                break;
+            }
+            int slots = Math.min(availableSlots, lane.freeSlots());
+            if (slots <= 0 || !pendingTypes.contains(lane.type())) {
+                continue;
+            }
+            for (Job job : jobService.claimBatch(lane.type(), slots)) {
+                dispatch(lane, job);
+                availableSlots--;
             }
         }
     }
 
-    private void runJob(UUID jobId, UUID userId, JobType type, JobTrigger trigger, String payload) {
+    private void dispatch(JobLanes.Lane lane, Job job) {
+        inFlight.incrementAndGet();
+        lane.started();
+        final UUID jobId = job.getId();
+        final UUID userId = job.getUserId();
+        final JobType type = job.getType();
+        final JobTrigger trigger = job.getTriggerSource();
+        final String payload = job.getPayload();
+        final String checkpoint = job.getCheckpoint();
+        leasedJobs.add(jobId);
+        signals.open(jobId);
+        if (job.getCreatedAt() != null && job.getStartedAt() != null) {
+            observabilityMetrics.recordJobQueueWait(lane.name(), Duration.between(job.getCreatedAt(), job.getStartedAt()));
+        }
+
+        try {
+            lane.executor().execute(() -> runJob(lane, jobId, userId, type, trigger, payload, checkpoint));
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            lane.finished();
+            leasedJobs.remove(jobId);
+            signals.close(jobId);
+            jobService.fail(jobId, "EXECUTOR_REJECTED", "Worker queue full; job not executed");
+            log.error("Job execution rejected by executor: jobId={}, lane={}", jobId, lane.name(), e);
+        }
+    }
+
+    /**
+     * Renews the leases of the jobs this node is running, well inside the lease duration. A lease
+     * that could not be renewed has lapsed and the job was re-queued; its handler is signalled to
+     * stop at the next checkCancelled and its outcome is discarded.
+     */
+    @Scheduled(fixedDelayString = "${jobs.worker.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (leasedJobs.isEmpty()) {
+            return;
+        }
+        Set<UUID> running = Set.copyOf(leasedJobs);
+        Set<UUID> renewed = jobService.renewLeases(running);
+        for (UUID jobId : running) {
+            if (!renewed.contains(jobId) && leasedJobs.contains(jobId)) {
+                log.warn("Lost lease on running job: jobId={}, node={}", jobId, jobService.getNodeId());
+                signals.stop(jobId);
+            }
+        }
+    }
+
+    /**
+     * Delivers stops recorded only in the jobs table, e.g. a cancel requested through another
+     * node, to the handlers running here. One query per interval covers all of them.
+     */
+    @Scheduled(fixedDelayString = "${jobs.worker.stop-poll-ms:2000}")
+    public void pollStopSignals() {
+        if (leasedJobs.isEmpty()) {
+            return;
+        }
+        for (UUID jobId : jobService.findStopRequested(Set.copyOf(leasedJobs))) {
+            signals.stop(jobId);
+        }
+    }
+
+    private void runJob(JobLanes.Lane lane, UUID jobId, UUID userId, JobType type, JobTrigger trigger,
+                        String payload, String checkpoint) {
         String shortJobId = jobId.toString().substring(0, 8);
         String jobName = getJobName(type);
 
@@ -120,9 +179,16 @@ public class JobWorker {
             long startMs = System.currentTimeMillis();
             try {
                 JobHandler handler = handlerRegistry.get(type);
-                JobExecutionContext execCtx = new JobExecutionContext(jobId, userId, payload, jobService, objectMapper);
+                JobExecutionContext execCtx = new JobExecutionContext(jobId, userId, payload, checkpoint, jobService, objectMapper);
                 Object result = handler.execute(execCtx);
                 String resultJson = objectMapper.writeValueAsString(result);
+                // Progress lands only while the job is RUNNING, so write it before the transition.
+                signals.flush(jobId);
+                if (execCtx.hasSpawned()) {
+                    jobService.awaitChildren(jobId, resultJson);
+                    log.info("Job waiting on sub-jobs: jobName={}, jobRunId={}", jobName, shortJobId);
+                    return;
+                }
                 jobService.succeed(jobId, resultJson);
 
                 long durationMs = System.currentTimeMillis() - startMs;
@@ -134,12 +200,14 @@ public class JobWorker {
                         StructuredArguments.keyValue("jobRunId", shortJobId),
                         StructuredArguments.keyValue("durationMs", durationMs));
             } catch (JobCancelledException e) {
+                signals.flush(jobId);
                 jobService.markCancelled(jobId);
                 log.info("Job completed-with-cancel: jobName={}, jobRunId={}", jobName, shortJobId);
             } catch (Exception e) {
                 long durationMs = System.currentTimeMillis() - startMs;
                 String errorCode = e.getClass().getSimpleName();
                 String errorMessage = e.getMessage() != null ? e.getMessage() : e.toString();
+                signals.flush(jobId);
                 jobService.fail(jobId, errorCode, errorMessage);
                 observabilityMetrics.recordJobFailure(jobName);
 
@@ -150,9 +218,14 @@ public class JobWorker {
                         StructuredArguments.keyValue("durationMs", durationMs),
                         StructuredArguments.keyValue("errorClass", e.getClass().getName()),
                         e);
+            } finally {
+                observabilityMetrics.recordJobRunTime(lane.name(), Duration.ofMillis(System.currentTimeMillis() - startMs));
             }
         } finally {
             inFlight.decrementAndGet();
+            lane.finished();
+            leasedJobs.remove(jobId);
+            signals.close(jobId);
             UserContext.clear();
             MDC.remove("userId");
         }
@@ -169,6 +242,7 @@ public class JobWorker {
             case INVESTMENT_IMPORT_COMMIT: return "investment-import-commit";
             case BROKER_RECONCILE_COMMIT: return "broker-reconcile-commit";
             case RULE_APPLY: return "rule-apply";
+            case POSITION_PROJECTION_VERIFY: return "position-projection-verify";
             default: return type.name().toLowerCase().replace('_', '-');
         }
     }
@@ -0,0 +1,51 @@
+package com.financeos.domain.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves artifacts staged before the content-addressed store (V70) out of their BLOB column and
+ * into the {@link ArtifactStore}, one row per transaction, on startup. Rows it can't move keep
+ * their BLOB, which {@link JobService#openArtifact} still reads, and are retried on the next start.
+ */
+@Component
+public class LegacyArtifactMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyArtifactMigrator.class);
+
+    private final JobArtifactRepository artifactRepository;
+    private final JobService jobService;
+
+    public LegacyArtifactMigrator(JobArtifactRepository artifactRepository, JobService jobService) {
+        this.artifactRepository = artifactRepository;
+        this.jobService = jobService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        List<UUID> ids = artifactRepository.findLegacyIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        int moved = 0;
+        int failed = 0;
+        for (UUID id : ids) {
+            try {
+                if (jobService.moveLegacyArtifact(id)) {
+                    moved++;
+                }
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                log.warn("Could not move legacy job artifact {} into the artifact store: {}", id, e.getMessage());
+            }
+        }
+        log.info("Moved {} legacy job artifact(s) into the artifact store; {} left in the database", moved, failed);
+    }
+}
@@ -0,0 +1,147 @@
+package com.financeos.domain.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link ArtifactStore} on the local filesystem: {@code <dir>/<first two hex chars>/<sha256>}.
+ * Uploads stream through a direct buffer into a temp file while being hashed, then are renamed
+ * into place, so content never sits in the heap and a reader never sees a partial blob. With
+ * several app instances the directory must be shared between them.
+ */
+@Component
+public class LocalArtifactStore implements ArtifactStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalArtifactStore.class);
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path staging;
+
+    public LocalArtifactStore(@Value("${jobs.artifacts.dir:${java.io.tmpdir}/financeos-artifacts}") String dir) {
+        this.root = Path.of(dir).toAbsolutePath();
+        this.staging = root.resolve("tmp");
+        try {
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create artifact store directory " + staging, e);
+        }
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(staging, "upload-", ".part");
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    size += out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        Path target = blobPath(sha256);
+        if (Files.exists(target)) {
+            // Identical content already stored: keep one copy, and refresh its mtime so a sweep
+            // racing this upload's commit doesn't take it.
+            Files.delete(temp);
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return new StoredBlob(sha256, size);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(temp);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new StoredBlob(sha256, size);
+    }
+
+    @Override
+    public ReadableByteChannel open(String sha256) throws IOException {
+        return FileChannel.open(blobPath(sha256), StandardOpenOption.READ);
+    }
+
+    @Override
+    public ByteBuffer map(String sha256) throws IOException {
+        try (FileChannel channel = FileChannel.open(blobPath(sha256), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Override
+    public int sweep(Set<String> referenced, Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(file) || !Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                boolean abandonedUpload = file.getParent().equals(staging);
+                if (abandonedUpload || !referenced.contains(file.getFileName().toString())) {
+                    if (Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                }
+            }
+        }
+        if (deleted > 0) {
+            log.info("Artifact store sweep deleted {} unreferenced blob(s) under {}", deleted, root);
+        }
+        return deleted;
+    }
+
+    private Path blobPath(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hex digest: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,3 +1,6 @@
 package com.financeos.domain.job;
 
-public record StagedFile(String filename, String contentType, byte[] bytes) {}
+import org.springframework.core.io.InputStreamSource;
+
+/** An upload handed to {@link JobService#enqueue}; its content is streamed into the {@link ArtifactStore}. */
+public record StagedFile(String filename, String contentType, InputStreamSource content) {}
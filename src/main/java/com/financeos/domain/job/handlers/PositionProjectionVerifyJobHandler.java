@@ -0,0 +1,55 @@
+package com.financeos.domain.job.handlers;
+
+import com.financeos.core.security.UserContextHelper;
+import com.financeos.domain.investment.projection.HoldingPositionProjector;
+import com.financeos.domain.investment.projection.ProjectionVerificationResult;
+import com.financeos.domain.job.JobExecutionContext;
+import com.financeos.domain.job.JobHandler;
+import com.financeos.domain.job.JobType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares the holding_position projection with full ledger replays, one user at a time (the replay
+ * must only see that user's holdings). Mismatched rows are queued for a full rebuild.
+ */
+@Component
+public class PositionProjectionVerifyJobHandler implements JobHandler {
+
+    private final HoldingPositionProjector projector;
+
+    public PositionProjectionVerifyJobHandler(HoldingPositionProjector projector) {
+        this.projector = projector;
+    }
+
+    @Override
+    public JobType type() {
+        return JobType.POSITION_PROJECTION_VERIFY;
+    }
+
+    @Override
+    public Object execute(JobExecutionContext ctx) throws Exception {
+        List<UUID> userIds = ctx.getUserId() != null ? List.of(ctx.getUserId()) : projector.holdingUserIds();
+        int checked = 0;
+        int pending = 0;
+        int mismatched = 0;
+        List<UUID> mismatchedIds = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            ctx.checkCancelled();
+            String note = "Verifying holding positions (user " + (i + 1) + "/" + userIds.size() + ")";
+            ProjectionVerificationResult r = UserContextHelper.callAs(userIds.get(i), () ->
+                    projector.verify((done, total) -> {
+                        ctx.checkCancelled();
+                        ctx.progress(done, total, note);
+                    }));
+            checked += r.checked();
+            pending += r.pending();
+            mismatched += r.mismatched();
+            mismatchedIds.addAll(r.mismatchedHoldingIds());
+        }
+        return new ProjectionVerificationResult(checked, pending, mismatched, mismatchedIds);
+    }
+}
@@ -6,21 +6,31 @@ import com.financeos.core.exception.ValidationException;
 import com.financeos.domain.categorization.CategoryRule;
 import com.financeos.domain.categorization.CategoryRuleRepository;
 import com.financeos.domain.categorization.RuleMatchService;
+import com.financeos.domain.job.JobCancelledException;
 import com.financeos.domain.job.JobExecutionContext;
 import com.financeos.domain.job.JobHandler;
 import com.financeos.domain.job.JobType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Applies a rule to selected transactions, or streams over all of the user's candidates: each
+ * keyset chunk is matched, applied and committed together with the job checkpoint, so a
+ * cancelled or failed run that is retried resumes after its last committed chunk.
+ */
 @Component
 public class RuleApplyJobHandler implements JobHandler {
 
     private final CategoryRuleRepository categoryRuleRepository;
     private final RuleMatchService ruleMatchService;
+    private final int chunkSize;
 
     public RuleApplyJobHandler(CategoryRuleRepository categoryRuleRepository,
-                               RuleMatchService ruleMatchService) {
+                               RuleMatchService ruleMatchService,
+                               @Value("${jobs.rule-apply.chunk-size:500}") int chunkSize) {
         this.categoryRuleRepository = categoryRuleRepository;
         this.ruleMatchService = ruleMatchService;
+        this.chunkSize = chunkSize;
     }
 
     @Override
@@ -40,11 +50,28 @@ public class RuleApplyJobHandler implements JobHandler {
 
         ctx.checkCancelled();
 
-        boolean all = Boolean.TRUE.equals(payload.all());
-        int applied = all
-                ? ruleMatchService.applyToAllMatches(rule.getId())
-                : ruleMatchService.applyToTransactions(rule.getId(), payload.transactionIds());
+        if (!Boolean.TRUE.equals(payload.all())) {
+            return new ApplyRuleResponse(ruleMatchService.applyToTransactions(rule.getId(), payload.transactionIds()));
+        }
 
-        return new ApplyRuleResponse(applied);
+        RuleMatchService.ApplyCursor cursor = ctx.checkpoint(RuleMatchService.ApplyCursor.class);
+        if (cursor == null) {
+            cursor = RuleMatchService.ApplyCursor.start();
+        }
+        int total = (int) Math.min(Integer.MAX_VALUE, ruleMatchService.countApplyCandidates(rule.getUser().getId()));
+        while (!cursor.done()) {
+            ctx.checkCancelled();
+            // A checkpoint that didn't land means the lease moved on: throwing rolls the chunk back
+            // with it, and the new owner resumes from the last committed checkpoint.
+            cursor = ruleMatchService.applyNextChunk(rule.getId(), cursor, chunkSize, next -> {
+                if (!ctx.saveCheckpoint(next)) {
+                    throw new JobCancelledException("Job lease lost; checkpoint not saved");
+                }
+            });
+            // Candidates can appear mid-run; never report past 100%.
+            int scanned = Math.min(cursor.scanned(), total);
+            ctx.progress(cursor.done() ? total : scanned, total, "Applied to " + cursor.applied() + " transaction(s)");
+        }
+        return new ApplyRuleResponse(cursor.applied());
     }
 }
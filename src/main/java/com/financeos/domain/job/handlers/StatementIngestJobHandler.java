@@ -6,8 +6,17 @@ import com.financeos.domain.ingestion.UploadedFile;
 import com.financeos.domain.job.*;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * Ingests uploaded statements. A multi-file upload fans out into one sub-job per file, so files
+ * are parsed and written in parallel across workers; their duplicate checks and writes take turns
+ * on the account's row lock, so overlapping statements still flag each other. Categorization
+ * depends on every file: once all sub-jobs succeeded the parent runs again, categorizes the new
+ * transactions of all files in one batch and merges the per-file results.
+ */
 @Component
 public class StatementIngestJobHandler implements JobHandler {
 
@@ -25,11 +34,50 @@ public class StatementIngestJobHandler implements JobHandler {
     @Override
     public Object execute(JobExecutionContext ctx) throws Exception {
         StatementIngestPayload payload = ctx.payload(StatementIngestPayload.class);
+        List<Job> children = ctx.children();
+        if (!children.isEmpty()) {
+            FileIngestionResult merged = merge(ctx, children);
+            ctx.progress(0, 1, "Categorizing");
+            fileIngestionService.categorizeStatements(merged.fileDetails().stream()
+                    .map(FileIngestionResult.FileSummary::statementId)
+                    .filter(Objects::nonNull)
+                    .toList());
+            ctx.progress(1, 1, "Completed");
+            return merged;
+        }
+
         List<JobArtifact> artifacts = ctx.artifacts();
+        if (artifacts.size() > 1) {
+            StatementIngestPayload childPayload = new StatementIngestPayload(payload.accountId(), true);
+            for (JobArtifact artifact : artifacts) {
+                ctx.spawn(JobType.STATEMENT_INGEST, childPayload, List.of(artifact));
+            }
+            return null;
+        }
+
         List<UploadedFile> files = artifacts.stream()
-                .map(a -> new UploadedFile(a.getFilename(), a.getContentType(), a.getData()))
+                // Content is read per file as ingestion reaches it, so only one upload is on the heap at a time.
+                .map(a -> new UploadedFile(a.getFilename(), a.getContentType(), () -> ctx.readArtifact(a)))
                 .toList();
 
-        return fileIngestionService.ingest(payload.accountId(), files, ctx);
+        return fileIngestionService.ingest(payload.accountId(), files, ctx, !payload.deferCategorization());
+    }
+
+    private static FileIngestionResult merge(JobExecutionContext ctx, List<Job> children) {
+        int filesProcessed = 0;
+        int totalCreated = 0;
+        int totalDuplicatesFound = 0;
+        List<FileIngestionResult.FileSummary> fileDetails = new ArrayList<>();
+        for (Job child : children) {
+            FileIngestionResult result = ctx.result(child, FileIngestionResult.class);
+            if (result == null) {
+                continue;
+            }
+            filesProcessed += result.filesProcessed();
+            totalCreated += result.totalCreated();
+            totalDuplicatesFound += result.totalDuplicatesFound();
+            fileDetails.addAll(result.fileDetails());
+        }
+        return new FileIngestionResult(filesProcessed, totalCreated, totalDuplicatesFound, fileDetails);
     }
 }
@@ -2,4 +2,13 @@ package com.financeos.domain.job.handlers;
 
 import java.util.UUID;
 
-public record StatementIngestPayload(UUID accountId) {}
+/**
+ * @param deferCategorization set on the per-file sub-jobs of an upload: they store transactions
+ *                            uncategorized and the parent categorizes all files at once
+ */
+public record StatementIngestPayload(UUID accountId, boolean deferCategorization) {
+
+    public StatementIngestPayload(UUID accountId) {
+        this(accountId, false);
+    }
+}
@@ -1,5 +1,6 @@
 package com.financeos.domain.report.datasource;
 
+import com.financeos.domain.report.engine.ReportFrame;
 import com.financeos.domain.report.engine.ReportQueryBuilder;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +12,15 @@ public interface ComputedReportDatasource extends ReportDatasource {
      */
     List<Map<String, Object>> rows();
 
+    /**
+     * Columnar view of {@link #rows()} consumed by the in-memory executor. The default adapts the
+     * map rows; datasources producing large row counts should build the frame directly and derive
+     * {@code rows()} from it instead.
+     */
+    default ReportFrame frame() {
+        return ReportFrame.fromRows(fields(), rows());
+    }
+
     @Override
     default ReportQueryBuilder queryBuilder() {
         return null;
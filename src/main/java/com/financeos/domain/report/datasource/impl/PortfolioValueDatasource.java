@@ -2,11 +2,15 @@ package com.financeos.domain.report.datasource.impl;
 
 import com.financeos.domain.holding.Holding;
 import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.holding.HoldingValueSeriesCache;
 import com.financeos.domain.instrument.InstrumentPrice;
 import com.financeos.domain.instrument.InstrumentPriceRepository;
 import com.financeos.domain.instrument.InstrumentType;
+import com.financeos.domain.instrument.corporateaction.CorporateAction;
+import com.financeos.domain.instrument.corporateaction.CorporateActionRepository;
 import com.financeos.domain.investment.InvestmentService;
-import com.financeos.domain.investment.InvestmentService.Lot;
+import com.financeos.domain.investment.InvestmentService.OpenLotTotals;
+import com.financeos.domain.investment.InvestmentTransaction;
 import com.financeos.domain.investment.InvestmentTransactionRepository;
 import com.financeos.domain.report.ReportType;
 import com.financeos.domain.report.datasource.Aggregation;
@@ -14,6 +18,7 @@ import com.financeos.domain.report.datasource.ComputedReportDatasource;
 import com.financeos.domain.report.datasource.DatasourceCatalog.FieldDef;
 import com.financeos.domain.report.datasource.FieldRole;
 import com.financeos.domain.report.datasource.FieldType;
+import com.financeos.domain.report.engine.ReportFrame;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -21,16 +26,22 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Computed report datasource generating month-end portfolio valuation series.
  *
  * <p>Caveats:
  * <ul>
- *   <li>Month-end snapshot series computed on the fly.</li>
+ *   <li>Month-end snapshot series computed per holding in one forward sweep of its lot timeline,
+ *       cached in {@link HoldingValueSeriesCache} until its transactions, corporate actions or
+ *       prices change, and emitted as a columnar {@link ReportFrame}.</li>
  *   <li>Prices carry forward: uses the latest stored price on or before date d.</li>
  *   <li>Fallback when no price exists: uses the holding's average cost basis at date d.</li>
  *   <li>Quantities apply corporate actions up to each valuation date, including CA-seeded shares
@@ -47,21 +58,24 @@ public class PortfolioValueDatasource implements ComputedReportDatasource {
     private final HoldingRepository holdingRepository;
     private final InvestmentTransactionRepository transactionRepository;
     private final InstrumentPriceRepository priceRepository;
-    private final com.financeos.domain.instrument.corporateaction.CorporateActionRepository corporateActionRepository;
+    private final CorporateActionRepository corporateActionRepository;
     private final InvestmentService investmentService;
+    private final HoldingValueSeriesCache seriesCache;
     private final List<FieldDef> fields;
 
     public PortfolioValueDatasource(
             HoldingRepository holdingRepository,
             InvestmentTransactionRepository transactionRepository,
             InstrumentPriceRepository priceRepository,
-            com.financeos.domain.instrument.corporateaction.CorporateActionRepository corporateActionRepository,
-            InvestmentService investmentService) {
+            CorporateActionRepository corporateActionRepository,
+            InvestmentService investmentService,
+            HoldingValueSeriesCache seriesCache) {
         this.holdingRepository = holdingRepository;
         this.transactionRepository = transactionRepository;
         this.priceRepository = priceRepository;
         this.corporateActionRepository = corporateActionRepository;
         this.investmentService = investmentService;
+        this.seriesCache = seriesCache;
         this.fields = buildCatalog();
     }
 
@@ -82,53 +96,162 @@ public class PortfolioValueDatasource implements ComputedReportDatasource {
 
     @Override
     public List<Map<String, Object>> rows() {
-        List<Holding> holdings = holdingRepository.findAllWithDetails();
-        if (holdings.isEmpty()) {
-            return List.of();
+        return frame().toRows();
+    }
+
+    @Override
+    public ReportFrame frame() {
+        // Taken before any input is read, so a series computed from inputs changed meanwhile isn't cached.
+        long generation = seriesCache.beginRead();
+        List<Holding> holdings;
+        LocalDate today = LocalDate.now();
+        List<HoldingValueSeriesCache.Series> seriesByHolding;
+        try {
+            holdings = holdingRepository.findAllWithDetails();
+            if (holdings.isEmpty()) {
+                return ReportFrame.empty();
+            }
+            seriesByHolding = new ArrayList<>(holdings.size());
+            List<Holding> misses = new ArrayList<>();
+            for (Holding holding : holdings) {
+                HoldingValueSeriesCache.Series cached = seriesCache.get(holding.getId(), today);
+                seriesByHolding.add(cached);
+                if (cached == null) {
+                    misses.add(holding);
+                }
+            }
+            if (!misses.isEmpty()) {
+                Map<UUID, HoldingValueSeriesCache.Series> computed = computeSeries(misses, today);
+                for (int i = 0; i < holdings.size(); i++) {
+                    if (seriesByHolding.get(i) == null) {
+                        HoldingValueSeriesCache.Series series = computed.get(holdings.get(i).getId());
+                        seriesByHolding.set(i, series);
+                        seriesCache.put(holdings.get(i).getId(), series, generation);
+                    }
+                }
+            }
+        } finally {
+            seriesCache.endRead(generation);
         }
 
+        // Merge the per-holding series date-major (all holdings for a date, then the next date),
+        // matching the row order of the original per-date evaluation. Every series sits on the
+        // same month-end grid, so each holding's cursor advances at most once per date.
+        int totalRows = 0;
+        long firstDay = Long.MAX_VALUE;
+        for (HoldingValueSeriesCache.Series series : seriesByHolding) {
+            totalRows += series.size();
+            if (series.size() > 0) {
+                firstDay = Math.min(firstDay, series.epochDays()[0]);
+            }
+        }
+        if (totalRows == 0) {
+            return ReportFrame.empty();
+        }
+
+        ReportFrame.Builder frame = ReportFrame.builder(totalRows);
+        ReportFrame.DictionaryColumnBuilder idCol = frame.dictionaryColumn("id");
+        ReportFrame.DateColumnBuilder valueDateCol = frame.dateColumn("valueDate");
+        ReportFrame.DecimalColumnBuilder valueCol = frame.decimalColumn("value", 2);
+        ReportFrame.DictionaryColumnBuilder brokerCol = frame.dictionaryColumn("broker");
+        ReportFrame.DictionaryColumnBuilder instrumentTypeCol = frame.dictionaryColumn("instrumentType");
+        ReportFrame.DictionaryColumnBuilder instrumentCol = frame.dictionaryColumn("instrument");
+        int[] cursor = new int[holdings.size()];
+        int rowIdx = 0;
+
+        for (LocalDate d : valuationDates(LocalDate.ofEpochDay(firstDay), today)) {
+            long day = d.toEpochDay();
+            for (int h = 0; h < holdings.size(); h++) {
+                HoldingValueSeriesCache.Series series = seriesByHolding.get(h);
+                int at = cursor[h];
+                if (at < series.size() && series.epochDays()[at] == day) {
+                    Holding holding = holdings.get(h);
+                    idCol.add(holding.getId() + "_" + rowIdx++);
+                    valueDateCol.addEpochDay(day);
+                    valueCol.addUnscaled(series.unscaledValues()[at]);
+                    brokerCol.add(holding.getBrokerAccount().getName());
+                    instrumentTypeCol.add(holding.getInstrument().getType().name());
+                    instrumentCol.add(holding.getInstrument().getName());
+                    cursor[h] = at + 1;
+                }
+            }
+        }
+
+        return frame.build();
+    }
+
+    /**
+     * Valuation series for holdings missing from the cache. Each holding's inputs are fetched
+     * once and its lot timeline replayed in a single forward sweep over its own month-ends
+     * (holdings with no activity before a date contribute no row for it anyway).
+     */
+    private Map<UUID, HoldingValueSeriesCache.Series> computeSeries(List<Holding> holdings, LocalDate today) {
         // Preload price history for all involved instruments in ONE query
-        List<java.util.UUID> instrumentIds = holdings.stream()
+        List<UUID> instrumentIds = holdings.stream()
                 .map(h -> h.getInstrument().getId())
                 .distinct()
                 .toList();
         List<InstrumentPrice> allPrices = priceRepository.findByInstrumentIdInOrderByAsOfAsc(instrumentIds);
-        Map<java.util.UUID, List<InstrumentPrice>> priceMap = new LinkedHashMap<>();
+        Map<UUID, List<InstrumentPrice>> priceMap = new LinkedHashMap<>();
         for (InstrumentPrice p : allPrices) {
+            if (p.getAsOf() == null) {
+                continue;
+            }
             priceMap.computeIfAbsent(p.getInstrument().getId(), k -> new ArrayList<>()).add(p);
         }
 
-        // Prefetch each holding's inputs once — the per-date lot builds below reuse them instead
-        // of re-querying per (holding × month). Seed lots cover shares that arrived via a
-        // demerger/merger corporate action rather than a buy transaction.
-        Map<java.util.UUID, List<com.financeos.domain.investment.InvestmentTransaction>> txnsByHolding = new LinkedHashMap<>();
-        Map<java.util.UUID, List<com.financeos.domain.instrument.corporateaction.CorporateAction>> casByHolding = new LinkedHashMap<>();
-        Map<java.util.UUID, List<InvestmentService.SeedLot>> seedsByHolding = new LinkedHashMap<>();
-        LocalDate earliestDate = null;
-        for (Holding h : holdings) {
-            var txns = transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(h.getId());
-            txnsByHolding.put(h.getId(), txns);
-            casByHolding.put(h.getId(),
-                    corporateActionRepository.findByInstrumentIdOrderByExDateAsc(h.getInstrument().getId()));
-            List<InvestmentService.SeedLot> seeds = investmentService.seedLotsFor(h);
-            seedsByHolding.put(h.getId(), seeds);
-            if (!txns.isEmpty()) {
-                LocalDate d = txns.get(0).getTradeDate();
-                if (earliestDate == null || d.isBefore(earliestDate)) {
-                    earliestDate = d;
-                }
+        Map<UUID, HoldingValueSeriesCache.Series> result = new HashMap<>();
+        for (Holding holding : holdings) {
+            UUID instrumentId = holding.getInstrument().getId();
+            List<InvestmentTransaction> txns = transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
+            List<CorporateAction> corpActions = corporateActionRepository.findByInstrumentIdOrderByExDateAsc(instrumentId);
+            // Seed lots cover shares that arrived via a demerger/merger corporate action rather
+            // than a buy transaction; the parent instruments' changes must invalidate this series too.
+            List<InvestmentService.SeedLot> seeds = investmentService.seedLotsFor(holding);
+            Set<UUID> dependsOn = new HashSet<>();
+            dependsOn.add(instrumentId);
+            for (CorporateAction ca : corporateActionRepository.findByTargetInstrumentIdOrderByExDateAsc(instrumentId)) {
+                dependsOn.add(ca.getInstrument().getId());
             }
+
+            LocalDate earliestDate = txns.isEmpty() ? null : txns.get(0).getTradeDate();
             for (InvestmentService.SeedLot seed : seeds) {
                 if (earliestDate == null || seed.date().isBefore(earliestDate)) {
                     earliestDate = seed.date();
                 }
             }
+            if (earliestDate == null) {
+                result.put(holding.getId(), new HoldingValueSeriesCache.Series(today, dependsOn, new long[0], new long[0]));
+                continue;
+            }
+
+            List<OpenLotTotals> totals = investmentService.openLotTotalsAsOf(
+                    holding, valuationDates(earliestDate, today), txns, corpActions, seeds);
+            List<InstrumentPrice> prices = priceMap.getOrDefault(instrumentId, List.of());
+            long[] epochDays = new long[totals.size()];
+            long[] values = new long[totals.size()];
+            int n = 0;
+            int priceIdx = 0;
+            BigDecimal price = null;
+            for (OpenLotTotals t : totals) {
+                // Prices are ascending, so the carried-forward price advances with the dates.
+                while (priceIdx < prices.size() && !prices.get(priceIdx).getAsOf().isAfter(t.date())) {
+                    price = prices.get(priceIdx++).getClose();
+                }
+                if (t.quantity().compareTo(BigDecimal.ZERO) > 0) {
+                    BigDecimal val = price != null ? t.quantity().multiply(price) : t.cost();
+                    epochDays[n] = t.date().toEpochDay();
+                    values[n++] = val.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                }
+            }
+            result.put(holding.getId(), new HoldingValueSeriesCache.Series(today, dependsOn,
+                    Arrays.copyOf(epochDays, n), Arrays.copyOf(values, n)));
         }
-        if (earliestDate == null) {
-            return List.of();
-        }
+        return result;
+    }
 
-        LocalDate today = LocalDate.now();
+    /** Month-ends from the month of {@code earliestDate} up to the previous month, then today. */
+    private static List<LocalDate> valuationDates(LocalDate earliestDate, LocalDate today) {
         List<LocalDate> valueDates = new ArrayList<>();
         LocalDate currentMonthEnd = earliestDate.withDayOfMonth(1).plusMonths(1).minusDays(1);
         while (currentMonthEnd.isBefore(today.withDayOfMonth(1))) {
@@ -136,55 +259,7 @@ public class PortfolioValueDatasource implements ComputedReportDatasource {
             currentMonthEnd = currentMonthEnd.plusMonths(1).withDayOfMonth(1).plusMonths(1).minusDays(1);
         }
         valueDates.add(today);
-
-        List<Map<String, Object>> rows = new ArrayList<>();
-        int rowIdx = 0;
-
-        for (LocalDate d : valueDates) {
-            for (Holding holding : holdings) {
-                List<Lot> openLots = investmentService.buildOpenLotsBeforeDate(holding, d, false, null,
-                        txnsByHolding.get(holding.getId()), casByHolding.get(holding.getId()),
-                        seedsByHolding.get(holding.getId()));
-                BigDecimal totalQty = BigDecimal.ZERO;
-                BigDecimal totalCost = BigDecimal.ZERO;
-                for (Lot lot : openLots) {
-                    totalQty = totalQty.add(lot.remainingQty);
-                    totalCost = totalCost.add(lot.remainingQty.multiply(lot.costPerUnit));
-                }
-
-                if (totalQty.compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal price = findLatestPriceOnOrBefore(priceMap.get(holding.getInstrument().getId()), d);
-                    BigDecimal val = price != null ? totalQty.multiply(price) : totalCost;
-
-                    Map<String, Object> map = new LinkedHashMap<>();
-                    map.put("id", holding.getId() + "_" + rowIdx++);
-                    map.put("valueDate", d);
-                    map.put("value", val.setScale(2, RoundingMode.HALF_UP));
-                    map.put("broker", holding.getBrokerAccount().getName());
-                    map.put("instrumentType", holding.getInstrument().getType().name());
-                    map.put("instrument", holding.getInstrument().getName());
-
-                    rows.add(map);
-                }
-            }
-        }
-
-        return rows;
-    }
-
-    private BigDecimal findLatestPriceOnOrBefore(List<InstrumentPrice> prices, LocalDate date) {
-        if (prices == null || prices.isEmpty()) {
-            return null;
-        }
-        BigDecimal lastPrice = null;
-        for (InstrumentPrice p : prices) {
-            if (p.getAsOf() != null && !p.getAsOf().isAfter(date)) {
-                lastPrice = p.getClose();
-            } else if (p.getAsOf() != null && p.getAsOf().isAfter(date)) {
-                break;
-            }
-        }
-        return lastPrice;
+        return valueDates;
     }
 
     private List<FieldDef> buildCatalog() {
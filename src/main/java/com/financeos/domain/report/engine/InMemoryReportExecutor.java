@@ -21,24 +21,30 @@ import com.financeos.domain.report.definition.TableDefinition;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
+/**
+ * Executes KPI, chart and table reports for {@link ComputedReportDatasource}s over their
+ * {@link ReportFrame}. Filters compact a selection vector of row indices column by column, and
+ * grouping maps each dimension to dense int codes so aggregation runs over primitive arrays.
+ */
 @Component
 public class InMemoryReportExecutor {
 
     private static final int DEFAULT_PAGE_SIZE = 50;
     private static final int MAX_PAGE_SIZE = 1000;
+    /** Key spaces up to this size are indexed through a flat int array instead of a hash map. */
+    private static final int DIRECT_INDEX_LIMIT = 1 << 20;
 
     private final DateRangeResolver dateRangeResolver;
 
@@ -51,25 +57,24 @@ public class InMemoryReportExecutor {
     // ------------------------------------------------------------------
 
     public KpiData execute(KpiDefinition def, ReportDatasource datasource, Map<String, Object> unusedParams) {
-        ComputedReportDatasource computedDs = (ComputedReportDatasource) datasource;
-        List<Map<String, Object>> allRows = computedDs.rows() != null ? computedDs.rows() : List.of();
-        List<Map<String, Object>> filteredRows = filterRows(allRows, def.filters(), computedDs);
+        ReportFrame frame = frameOf(datasource);
+        int[] selection = select(frame, def.filters(), datasource);
 
-        BigDecimal val = calculateAggregate(filteredRows, def.measure(), def.aggregation());
+        BigDecimal val = aggregate(frame, selection, def.measure(), def.aggregation());
 
         FilterClause dateFilter = dateRangeResolver.findDateFilter(datasource, def.filters());
         DateRange effRange = dateRangeResolver.effectiveRange(dateFilter);
         KpiData.DateRangeView effRangeView = effRange.bounded()
                 ? new KpiData.DateRangeView(effRange.from(), effRange.to())
                 : null;
-        KpiData.Meta meta = new KpiData.Meta(filteredRows.size(), effRangeView);
+        KpiData.Meta meta = new KpiData.Meta(selection.length, effRangeView);
 
         KpiData.Comparison comparison = null;
         if (def.comparison() != null && def.comparison().enabled() && dateFilter != null && effRange.bounded()) {
             DateRange prevRange = dateRangeResolver.previousPeriod(dateFilter.operator(), effRange);
             if (prevRange.bounded()) {
-                List<Map<String, Object>> prevRows = filterRowsForDateRange(allRows, dateFilter, prevRange, def.filters(), computedDs);
-                BigDecimal prevVal = calculateAggregate(prevRows, def.measure(), def.aggregation());
+                int[] prevSelection = selectForDateRange(frame, dateFilter, prevRange, def.filters(), datasource);
+                BigDecimal prevVal = aggregate(frame, prevSelection, def.measure(), def.aggregation());
                 KpiData.DateRangeView prevRangeView = new KpiData.DateRangeView(prevRange.from(), prevRange.to());
 
                 if (prevVal != null) {
@@ -104,44 +109,50 @@ public class InMemoryReportExecutor {
     // ------------------------------------------------------------------
 
     public ChartData execute(ChartDefinition def, ReportDatasource datasource, Map<String, Object> unusedParams) {
-        ComputedReportDatasource computedDs = (ComputedReportDatasource) datasource;
-        List<Map<String, Object>> allRows = computedDs.rows() != null ? computedDs.rows() : List.of();
-        List<Map<String, Object>> filteredRows = filterRows(allRows, def.filters(), computedDs);
+        ReportFrame frame = frameOf(datasource);
+        int[] selection = select(frame, def.filters(), datasource);
 
         DimensionRef dim = def.dimension();
         DimensionRef seriesDim = def.series();
         MeasureRef measure = def.measure();
         FieldDef dimFieldDef = datasource.field(dim.field());
 
-        Map<DimensionKey, List<Map<String, Object>>> groups = new LinkedHashMap<>();
-        Set<Object> rawSeriesKeys = new HashSet<>();
-
-        for (Map<String, Object> row : filteredRows) {
-            Object dimRaw = row.get(dim.field());
-            if (dimRaw == null) continue;
-
-            Object dimGroupVal = processDimensionValue(dimRaw, dimFieldDef, dim.granularity());
-            Object seriesGroupVal = seriesDim != null ? row.get(seriesDim.field()) : null;
-            if (seriesDim != null && seriesGroupVal != null) {
-                rawSeriesKeys.add(seriesGroupVal);
+        DimensionCodes dimCodes = encodeDimension(frame, selection, dim.field(), dimFieldDef, dim.granularity());
+        // The series axis groups on the raw value (no date bucketing), like the row-map engine did.
+        DimensionCodes seriesCodes = seriesDim != null
+                ? encodeDimension(frame, selection, seriesDim.field(), null, null)
+                : DimensionCodes.constant(selection.length);
+
+        int seriesCard = seriesCodes.cardinality();
+        int cells = cellCount(dimCodes.cardinality(), seriesCard);
+        ReportFrame.DecimalColumn measureCol = measureColumn(frame, measure.field());
+        MeasureAccumulator acc = new MeasureAccumulator(cells);
+        boolean[] dimSeen = new boolean[dimCodes.cardinality()];
+        boolean[] seriesSeen = new boolean[seriesCard];
+
+        int[] dc = dimCodes.codes();
+        int[] sc = seriesCodes.codes();
+        for (int i = 0; i < selection.length; i++) {
+            int d = dc[i];
+            if (d == dimCodes.nullCode()) continue;
+            int s = sc[i];
+            dimSeen[d] = true;
+            seriesSeen[s] = true;
+            if (measureCol != null) {
+                acc.add(d * seriesCard + s, measureCol, selection[i]);
             }
-
-            DimensionKey key = new DimensionKey(dimGroupVal, seriesGroupVal);
-            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
         }
+        int scale = measureCol != null ? measureCol.scale() : 0;
 
-        List<Object> sortedDimVals = groups.keySet().stream()
-                .map(DimensionKey::dimVal)
-                .distinct()
-                .sorted(comparatorFor(dimFieldDef))
-                .toList();
+        Comparator<Object> valueOrder = comparatorFor(dimFieldDef);
+        List<Integer> sortedDims = seenCodes(dimSeen, dimCodes.nullCode());
+        sortedDims.sort((a, b) -> valueOrder.compare(dimCodes.value(a), dimCodes.value(b)));
 
-        List<Object> sortedSeriesVals = rawSeriesKeys.stream()
-                .sorted()
-                .toList();
+        List<Integer> sortedSeries = seenCodes(seriesSeen, seriesCodes.nullCode());
+        sortedSeries.sort((a, b) -> valueOrder.compare(seriesCodes.value(a), seriesCodes.value(b)));
 
-        List<String> categories = sortedDimVals.stream()
-                .map(v -> formatDimensionLabel(v, dimFieldDef, dim.granularity()))
+        List<String> categories = sortedDims.stream()
+                .map(d -> formatDimensionLabel(dimCodes.value(d), dimFieldDef, dim.granularity()))
                 .toList();
 
         // Mirror the SQL pivot's missing-cell rule: additive aggregations fill with 0,
@@ -151,23 +162,17 @@ public class InMemoryReportExecutor {
         List<ChartData.Series> seriesList = new ArrayList<>();
         if (seriesDim == null) {
             List<BigDecimal> data = new ArrayList<>();
-            for (Object dimVal : sortedDimVals) {
-                List<Map<String, Object>> groupRows = groups.get(new DimensionKey(dimVal, null));
-                BigDecimal aggVal = groupRows != null
-                        ? calculateAggregate(groupRows, measure.field(), measure.aggregation())
-                        : null;
+            for (int d : sortedDims) {
+                BigDecimal aggVal = acc.result(d * seriesCard, measure.aggregation(), scale);
                 data.add(aggVal != null ? aggVal : missing);
             }
             seriesList.add(new ChartData.Series(measure.field(), data));
         } else {
-            for (Object seriesVal : sortedSeriesVals) {
-                String seriesName = String.valueOf(seriesVal);
+            for (int s : sortedSeries) {
+                String seriesName = String.valueOf(seriesCodes.value(s));
                 List<BigDecimal> data = new ArrayList<>();
-                for (Object dimVal : sortedDimVals) {
-                    List<Map<String, Object>> groupRows = groups.get(new DimensionKey(dimVal, seriesVal));
-                    BigDecimal aggVal = groupRows != null
-                            ? calculateAggregate(groupRows, measure.field(), measure.aggregation())
-                            : null;
+                for (int d : sortedDims) {
+                    BigDecimal aggVal = acc.result(d * seriesCard + s, measure.aggregation(), scale);
                     data.add(aggVal != null ? aggVal : missing);
                 }
                 seriesList.add(new ChartData.Series(seriesName, data));
@@ -179,7 +184,7 @@ public class InMemoryReportExecutor {
         ChartData.DateRangeView dateRangeView = effRange.bounded()
                 ? new ChartData.DateRangeView(effRange.from(), effRange.to())
                 : null;
-        ChartData.Meta meta = new ChartData.Meta(filteredRows.size(), dateRangeView);
+        ChartData.Meta meta = new ChartData.Meta(selection.length, dateRangeView);
         ChartData.MeasureView measureView = new ChartData.MeasureView(measure.field(), measure.aggregation().json());
 
         return new ChartData("CHART", def.chartType().json(), dim.field(), categories, seriesList, measureView, meta);
@@ -212,42 +217,43 @@ public class InMemoryReportExecutor {
     }
 
     private TableData executeRawTable(RawTableDefinition def, ReportDatasource datasource, Integer page, Integer size) {
-        ComputedReportDatasource computedDs = (ComputedReportDatasource) datasource;
-        List<Map<String, Object>> allRows = computedDs.rows() != null ? computedDs.rows() : List.of();
-        List<Map<String, Object>> filteredRows = filterRows(allRows, def.filters(), computedDs);
+        ReportFrame frame = frameOf(datasource);
+        int[] selection = select(frame, def.filters(), datasource);
 
-        List<IndexedRow> indexedRows = new ArrayList<>();
-        for (int i = 0; i < filteredRows.size(); i++) {
-            indexedRows.add(new IndexedRow(i, filteredRows.get(i)));
+        // Positions into the filtered selection; the position doubles as the stable tie-break and id fallback.
+        Integer[] order = new Integer[selection.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
         }
 
         List<SortClause> sort = def.sort() != null && !def.sort().isEmpty()
                 ? def.sort()
                 : defaultSort(datasource);
         if (!sort.isEmpty()) {
-            indexedRows.sort((a, b) -> {
-                for (SortClause sc : sort) {
-                    Object valA = a.row.get(sc.key());
-                    Object valB = b.row.get(sc.key());
-                    int cmp = compareValues(valA, valB);
+            List<long[]> keys = new ArrayList<>(sort.size());
+            for (SortClause sc : sort) {
+                keys.add(sortKeys(frame.column(sc.key()), frame.rowCount()));
+            }
+            Arrays.sort(order, (a, b) -> {
+                for (int k = 0; k < keys.size(); k++) {
+                    long[] key = keys.get(k);
+                    int cmp = Long.compare(key[selection[a]], key[selection[b]]);
                     if (cmp != 0) {
-                        return sc.direction() == SortDirection.DESC ? -cmp : cmp;
+                        return sort.get(k).direction() == SortDirection.DESC ? -cmp : cmp;
                     }
                 }
-                return Integer.compare(a.index, b.index);
+                return Integer.compare(a, b);
             });
         }
 
         // Page numbers are 0-based, matching the SQL path and the client's pager.
         int pSize = size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
         int pNum = page != null ? Math.max(0, page) : 0;
-        int totalRows = indexedRows.size();
+        int totalRows = order.length;
         int totalPages = totalRows == 0 ? 1 : (int) Math.ceil((double) totalRows / pSize);
-        int fromIdx = pNum * pSize;
+        int fromIdx = (int) Math.min((long) pNum * pSize, totalRows);
         int toIdx = Math.min(fromIdx + pSize, totalRows);
 
-        List<IndexedRow> pageRows = fromIdx < totalRows ? indexedRows.subList(fromIdx, toIdx) : List.of();
-
         List<TableData.Column> columns = def.columns().stream().map(colName -> {
             FieldDef f = datasource.field(colName);
             String label = f != null ? f.label() : colName;
@@ -256,13 +262,18 @@ public class InMemoryReportExecutor {
             return new TableData.Column(colName, label, type, format);
         }).toList();
 
+        // Only the requested page is boxed back into row maps.
+        ReportFrame.Column idCol = frame.column("id");
         List<Map<String, Object>> data = new ArrayList<>();
-        for (IndexedRow ir : pageRows) {
+        for (int i = fromIdx; i < toIdx; i++) {
+            int pos = order[i];
+            int row = selection[pos];
             Map<String, Object> map = new LinkedHashMap<>();
-            Object idVal = ir.row.get("id");
-            map.put("id", idVal != null ? String.valueOf(idVal) : String.valueOf(ir.index));
+            Object idVal = idCol != null ? idCol.value(row) : null;
+            map.put("id", idVal != null ? String.valueOf(idVal) : String.valueOf(pos));
             for (String colName : def.columns()) {
-                map.put(colName, ir.row.get(colName));
+                ReportFrame.Column col = frame.column(colName);
+                map.put(colName, col != null ? col.value(row) : null);
             }
             data.add(map);
         }
@@ -272,44 +283,41 @@ public class InMemoryReportExecutor {
     }
 
     private PivotTableData executeAggregatedTable(AggregatedTableDefinition def, ReportDatasource datasource, Integer page, Integer size) {
-        ComputedReportDatasource computedDs = (ComputedReportDatasource) datasource;
-        List<Map<String, Object>> allRows = computedDs.rows() != null ? computedDs.rows() : List.of();
-        List<Map<String, Object>> filteredRows = filterRows(allRows, def.filters(), computedDs);
+        ReportFrame frame = frameOf(datasource);
+        int[] selection = select(frame, def.filters(), datasource);
 
         List<DimensionRef> rowDims = def.rows() != null ? def.rows() : List.of();
         List<DimensionRef> colDims = def.columns() != null ? def.columns() : List.of();
         List<MeasureRef> measures = def.measures() != null ? def.measures() : List.of();
 
-        Map<MultiDimensionKey, List<Map<String, Object>>> cellGroups = new LinkedHashMap<>();
-        Set<List<Object>> rawRowKeys = new LinkedHashSet<>();
-        Set<List<Object>> rawColKeys = new LinkedHashSet<>();
+        TupleGroups rowGroups = groupTuples(frame, selection, rowDims, datasource);
+        TupleGroups colGroups = groupTuples(frame, selection, colDims, datasource);
+        int colCount = colGroups.size();
+        int cellTotal = cellCount(rowGroups.size(), colCount);
 
-        for (Map<String, Object> row : filteredRows) {
-            List<Object> rKeys = new ArrayList<>();
-            for (DimensionRef rDim : rowDims) {
-                FieldDef f = datasource.field(rDim.field());
-                Object raw = row.get(rDim.field());
-                rKeys.add(processDimensionValue(raw, f, rDim.granularity()));
-            }
-            rawRowKeys.add(rKeys);
+        boolean[] present = new boolean[cellTotal];
+        int[] rowOf = rowGroups.groupOf();
+        int[] colOf = colGroups.groupOf();
+        for (int i = 0; i < selection.length; i++) {
+            present[rowOf[i] * colCount + colOf[i]] = true;
+        }
 
-            List<Object> cKeys = new ArrayList<>();
-            for (DimensionRef cDim : colDims) {
-                FieldDef f = datasource.field(cDim.field());
-                Object raw = row.get(cDim.field());
-                cKeys.add(processDimensionValue(raw, f, cDim.granularity()));
+        MeasureAccumulator[] accs = new MeasureAccumulator[measures.size()];
+        int[] scales = new int[measures.size()];
+        for (int m = 0; m < measures.size(); m++) {
+            ReportFrame.DecimalColumn col = measureColumn(frame, measures.get(m).field());
+            MeasureAccumulator acc = new MeasureAccumulator(cellTotal);
+            if (col != null) {
+                for (int i = 0; i < selection.length; i++) {
+                    acc.add(rowOf[i] * colCount + colOf[i], col, selection[i]);
+                }
+                scales[m] = col.scale();
             }
-            rawColKeys.add(cKeys);
-
-            MultiDimensionKey key = new MultiDimensionKey(rKeys, cKeys);
-            cellGroups.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            accs[m] = acc;
         }
 
-        List<List<Object>> sortedRowKeys = new ArrayList<>(rawRowKeys);
-        sortedRowKeys.sort((a, b) -> compareDimensionLists(a, b, rowDims, datasource));
-
-        List<List<Object>> sortedColKeys = new ArrayList<>(rawColKeys);
-        sortedColKeys.sort((a, b) -> compareDimensionLists(a, b, colDims, datasource));
+        List<Integer> sortedRowKeys = rowGroups.sortedGroups((a, b) -> compareDimensionLists(a, b, rowDims, datasource));
+        List<Integer> sortedColKeys = colGroups.sortedGroups((a, b) -> compareDimensionLists(a, b, colDims, datasource));
 
         List<PivotTableData.DimensionInfo> rowDimInfo = rowDims.stream().map(d -> {
             FieldDef f = datasource.field(d.field());
@@ -334,7 +342,8 @@ public class InMemoryReportExecutor {
         if (colDims.isEmpty()) {
             columnHeaders.add(new PivotTableData.ColumnHeader("", Map.of()));
         } else {
-            for (List<Object> cKeys : sortedColKeys) {
+            for (int c : sortedColKeys) {
+                List<Object> cKeys = colGroups.values(c);
                 Map<String, String> colVals = new LinkedHashMap<>();
                 List<String> cParts = new ArrayList<>();
                 for (int i = 0; i < colDims.size(); i++) {
@@ -350,8 +359,8 @@ public class InMemoryReportExecutor {
         }
 
         List<PivotTableData.Row> pivotRows = new ArrayList<>();
-        int rowIndex = 0;
-        for (List<Object> rKeys : sortedRowKeys) {
+        for (int r : sortedRowKeys) {
+            List<Object> rKeys = rowGroups.values(r);
             Map<String, String> rHeaderVals = new LinkedHashMap<>();
             List<String> rParts = new ArrayList<>();
             for (int i = 0; i < rowDims.size(); i++) {
@@ -365,30 +374,11 @@ public class InMemoryReportExecutor {
 
             Map<String, Map<String, Object>> cells = new LinkedHashMap<>();
             if (colDims.isEmpty()) {
-                List<Map<String, Object>> gRows = cellGroups.get(new MultiDimensionKey(rKeys, List.of()));
-                Map<String, Object> measureVals = new LinkedHashMap<>();
-                if (gRows != null) {
-                    for (MeasureRef m : measures) {
-                        String mKey = m.field() + "_" + m.aggregation().json();
-                        BigDecimal aggVal = calculateAggregate(gRows, m.field(), m.aggregation());
-                        measureVals.put(mKey, aggVal);
-                    }
-                }
-                cells.put("", measureVals);
+                cells.put("", measureValues(r * colCount, present, measures, accs, scales));
             } else {
                 for (int cIdx = 0; cIdx < sortedColKeys.size(); cIdx++) {
-                    List<Object> cKeys = sortedColKeys.get(cIdx);
-                    PivotTableData.ColumnHeader colHeader = columnHeaders.get(cIdx);
-                    List<Map<String, Object>> gRows = cellGroups.get(new MultiDimensionKey(rKeys, cKeys));
-                    Map<String, Object> measureVals = new LinkedHashMap<>();
-                    if (gRows != null) {
-                        for (MeasureRef m : measures) {
-                            String mKey = m.field() + "_" + m.aggregation().json();
-                            BigDecimal aggVal = calculateAggregate(gRows, m.field(), m.aggregation());
-                            measureVals.put(mKey, aggVal);
-                        }
-                    }
-                    cells.put(colHeader.key(), measureVals);
+                    int cell = r * colCount + sortedColKeys.get(cIdx);
+                    cells.put(columnHeaders.get(cIdx).key(), measureValues(cell, present, measures, accs, scales));
                 }
             }
 
@@ -409,41 +399,219 @@ public class InMemoryReportExecutor {
         return new PivotTableData("TABLE", "aggregated", rowDimInfo, colDimInfo, measureInfos, columnHeaders, pageRows, pageObj);
     }
 
+    private Map<String, Object> measureValues(int cell, boolean[] present, List<MeasureRef> measures,
+                                              MeasureAccumulator[] accs, int[] scales) {
+        Map<String, Object> measureVals = new LinkedHashMap<>();
+        if (present[cell]) {
+            for (int m = 0; m < measures.size(); m++) {
+                MeasureRef ref = measures.get(m);
+                String mKey = ref.field() + "_" + ref.aggregation().json();
+                measureVals.put(mKey, accs[m].result(cell, ref.aggregation(), scales[m]));
+            }
+        }
+        return measureVals;
+    }
+
     // ------------------------------------------------------------------
     // FILTERING ENGINE
     // ------------------------------------------------------------------
 
-    private List<Map<String, Object>> filterRows(List<Map<String, Object>> rows, List<FilterClause> filters, ComputedReportDatasource ds) {
-        if (filters == null || filters.isEmpty()) {
-            return rows;
+    private static ReportFrame frameOf(ReportDatasource datasource) {
+        ReportFrame frame = ((ComputedReportDatasource) datasource).frame();
+        return frame != null ? frame : ReportFrame.empty();
+    }
+
+    /** Row indices of {@code frame} passing every filter, in frame order. */
+    private int[] select(ReportFrame frame, List<FilterClause> filters, ReportDatasource ds) {
+        int[] sel = allRows(frame);
+        int n = sel.length;
+        if (filters != null) {
+            for (FilterClause f : filters) {
+                n = applyFilter(frame, sel, n, f, ds.field(f.field()));
+            }
         }
-        return rows.stream()
-                .filter(row -> matchesFilters(row, filters, ds))
-                .toList();
+        return n == sel.length ? sel : Arrays.copyOf(sel, n);
     }
 
-    private List<Map<String, Object>> filterRowsForDateRange(List<Map<String, Object>> rows, FilterClause dateFilter, DateRange range, List<FilterClause> allFilters, ComputedReportDatasource ds) {
-        return rows.stream()
-                .filter(row -> {
-                    if (!matchesFilters(row, allFilters.stream().filter(f -> f != dateFilter).toList(), ds)) {
-                        return false;
-                    }
-                    Object val = row.get(dateFilter.field());
-                    LocalDate d = ResultValues.toLocalDate(val);
-                    return range.contains(d);
-                })
-                .toList();
+    private int[] selectForDateRange(ReportFrame frame, FilterClause dateFilter, DateRange range, List<FilterClause> allFilters, ReportDatasource ds) {
+        int[] sel = allRows(frame);
+        int n = sel.length;
+        for (FilterClause f : allFilters) {
+            if (f != dateFilter) {
+                n = applyFilter(frame, sel, n, f, ds.field(f.field()));
+            }
+        }
+        // DateRange.contains keeps rows without a date, so only dated rows are range-checked.
+        ReportFrame.Column col = frame.column(dateFilter.field());
+        if (col instanceof ReportFrame.DateColumn dateCol) {
+            long[] days = dateCol.epochDays();
+            long lo = range.from() != null ? range.from().toEpochDay() : Long.MIN_VALUE;
+            long hi = range.to() != null ? range.to().toEpochDay() : Long.MAX_VALUE;
+            int out = 0;
+            for (int i = 0; i < n; i++) {
+                long d = days[sel[i]];
+                if (d == ReportFrame.NULL || (d >= lo && d <= hi)) {
+                    sel[out++] = sel[i];
+                }
+            }
+            n = out;
+        } else if (col != null) {
+            int out = 0;
+            for (int i = 0; i < n; i++) {
+                if (range.contains(ResultValues.toLocalDate(col.value(sel[i])))) {
+                    sel[out++] = sel[i];
+                }
+            }
+            n = out;
+        }
+        return n == sel.length ? sel : Arrays.copyOf(sel, n);
+    }
+
+    private static int[] allRows(ReportFrame frame) {
+        int[] sel = new int[frame.rowCount()];
+        for (int i = 0; i < sel.length; i++) {
+            sel[i] = i;
+        }
+        return sel;
+    }
+
+    /**
+     * Compacts {@code sel[0..n)} in place to the rows matching {@code f} and returns the new length.
+     * Typed columns compile the clause once (per dictionary entry, or into an inclusive primitive
+     * range); anything else falls back to the boxed per-value matchers.
+     */
+    private int applyFilter(ReportFrame frame, int[] sel, int n, FilterClause f, FieldDef fieldDef) {
+        ReportFrame.Column col = frame.column(f.field());
+        if (col == null) {
+            // Every matcher rejects null values.
+            return 0;
+        }
+        FieldType type = fieldDef != null ? fieldDef.type() : FieldType.STRING;
+        String op = f.operator();
+        int out = 0;
+
+        if ((type == FieldType.STRING || type == FieldType.ENUM) && col instanceof ReportFrame.DictionaryColumn dictCol) {
+            String[] dict = dictCol.dictionary();
+            boolean[] accept = new boolean[dict.length];
+            for (int c = 0; c < dict.length; c++) {
+                accept[c] = type == FieldType.STRING
+                        ? matchesStringFilter(dict[c], op, f.value())
+                        : matchesEnumFilter(dict[c], op, f.value());
+            }
+            int[] codes = dictCol.codes();
+            for (int i = 0; i < n; i++) {
+                int code = codes[sel[i]];
+                if (code >= 0 && accept[code]) {
+                    sel[out++] = sel[i];
+                }
+            }
+            return out;
+        }
+        if (type == FieldType.NUMBER && col instanceof ReportFrame.DecimalColumn decCol && decCol.unscaled() != null) {
+            return filterRange(decCol.unscaled(), sel, n, numberRange(op, f.value(), decCol.scale()));
+        }
+        if (type == FieldType.DATE && col instanceof ReportFrame.DateColumn dateCol) {
+            return filterRange(dateCol.epochDays(), sel, n, dateRange(op, f.value()));
+        }
+        if (type == FieldType.BOOLEAN && col instanceof ReportFrame.BooleanColumn boolCol) {
+            JsonNode node = f.value();
+            if (node == null) {
+                return 0;
+            }
+            byte target = node.asBoolean() ? (byte) 1 : (byte) 0;
+            byte[] values = boolCol.values();
+            for (int i = 0; i < n; i++) {
+                if (values[sel[i]] == target) {
+                    sel[out++] = sel[i];
+                }
+            }
+            return out;
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (matchesFilter(col.value(sel[i]), f, fieldDef)) {
+                sel[out++] = sel[i];
+            }
+        }
+        return out;
     }
 
-    private boolean matchesFilters(Map<String, Object> row, List<FilterClause> filters, ComputedReportDatasource ds) {
-        for (FilterClause f : filters) {
-            FieldDef fieldDef = ds.field(f.field());
-            Object rowVal = row.get(f.field());
-            if (!matchesFilter(rowVal, f, fieldDef)) {
-                return false;
+    private static int filterRange(long[] values, int[] sel, int n, LongRange range) {
+        long lo = range.lo();
+        long hi = range.hi();
+        int out = 0;
+        for (int i = 0; i < n; i++) {
+            long v = values[sel[i]];
+            // NULL is Long.MIN_VALUE and every range starts above it.
+            if (v >= lo && v <= hi) {
+                sel[out++] = sel[i];
+            }
+        }
+        return out;
+    }
+
+    /** Compiles a number clause into an inclusive range of unscaled values at {@code scale}. */
+    private static LongRange numberRange(String op, JsonNode node, int scale) {
+        return switch (op) {
+            case "equals" -> {
+                if (node == null) yield LongRange.NONE;
+                BigDecimal target = new BigDecimal(node.asText());
+                // A target with more precision than the column can never be equal to a stored value.
+                if (target.stripTrailingZeros().scale() > scale) yield LongRange.NONE;
+                long v = unscaledBound(target, scale, RoundingMode.UNNECESSARY);
+                yield LongRange.of(v, v);
+            }
+            case "greater_than" -> node == null ? LongRange.NONE
+                    : LongRange.above(unscaledBound(new BigDecimal(node.asText()), scale, RoundingMode.FLOOR));
+            case "less_than" -> node == null ? LongRange.NONE
+                    : LongRange.below(unscaledBound(new BigDecimal(node.asText()), scale, RoundingMode.CEILING));
+            case "between" -> {
+                if (node != null && node.has("from") && node.has("to")) {
+                    long from = unscaledBound(new BigDecimal(node.get("from").asText()), scale, RoundingMode.CEILING);
+                    long to = unscaledBound(new BigDecimal(node.get("to").asText()), scale, RoundingMode.FLOOR);
+                    yield LongRange.of(from, to);
+                }
+                yield LongRange.NONE;
+            }
+            default -> LongRange.ALL;
+        };
+    }
+
+    /** Compiles a date clause into an inclusive range of epoch days. */
+    private LongRange dateRange(String op, JsonNode node) {
+        return switch (op) {
+            case "is" -> {
+                if (node == null) yield LongRange.NONE;
+                long d = LocalDate.parse(node.asText()).toEpochDay();
+                yield LongRange.of(d, d);
+            }
+            case "after" -> node == null ? LongRange.NONE
+                    : LongRange.above(LocalDate.parse(node.asText()).toEpochDay());
+            case "before" -> node == null ? LongRange.NONE
+                    : LongRange.below(LocalDate.parse(node.asText()).toEpochDay());
+            case "between" -> {
+                if (node != null && node.has("from") && node.has("to")) {
+                    yield LongRange.of(LocalDate.parse(node.get("from").asText()).toEpochDay(),
+                            LocalDate.parse(node.get("to").asText()).toEpochDay());
+                }
+                yield LongRange.NONE;
+            }
+            default -> {
+                DateRange range = dateRangeResolver.resolveRelative(op, node);
+                if (!range.bounded()) yield LongRange.ALL;
+                yield LongRange.of(range.from() != null ? range.from().toEpochDay() : LongRange.MIN,
+                        range.to() != null ? range.to().toEpochDay() : Long.MAX_VALUE);
             }
+        };
+    }
+
+    /** {@code value} in units of {@code 10^-scale}, rounded by {@code mode} and clamped to the non-null long range. */
+    private static long unscaledBound(BigDecimal value, int scale, RoundingMode mode) {
+        BigInteger unscaled = value.setScale(scale, mode).unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            return unscaled.signum() > 0 ? Long.MAX_VALUE : LongRange.MIN;
         }
-        return true;
+        return Math.max(unscaled.longValue(), LongRange.MIN);
     }
 
     private boolean matchesFilter(Object rowVal, FilterClause f, FieldDef fieldDef) {
@@ -555,30 +723,285 @@ public class InMemoryReportExecutor {
     // AGGREGATION & HELPER MATH
     // ------------------------------------------------------------------
 
-    private BigDecimal calculateAggregate(List<Map<String, Object>> rows, String field, Aggregation agg) {
-        List<BigDecimal> values = new ArrayList<>();
-        for (Map<String, Object> r : rows) {
-            BigDecimal b = ResultValues.toBigDecimal(r.get(field));
-            if (b != null) {
-                values.add(b);
+    private BigDecimal aggregate(ReportFrame frame, int[] selection, String field, Aggregation agg) {
+        ReportFrame.DecimalColumn col = measureColumn(frame, field);
+        MeasureAccumulator acc = new MeasureAccumulator(1);
+        if (col != null) {
+            for (int row : selection) {
+                acc.add(0, col, row);
             }
         }
+        return acc.result(0, agg, col != null ? col.scale() : 0);
+    }
+
+    /** The measure as a decimal column, or null when the frame has no such column (every value null). */
+    private static ReportFrame.DecimalColumn measureColumn(ReportFrame frame, String field) {
+        ReportFrame.Column col = frame.column(field);
+        return col != null ? ReportFrame.asDecimal(col, frame.rowCount()) : null;
+    }
 
-        if (values.isEmpty()) {
-            // SUM/COUNT of nothing is 0 (mirrors the SQL executors' null coercion); others stay null.
-            return (agg == Aggregation.COUNT || agg == Aggregation.SUM) ? BigDecimal.ZERO : null;
+    private static int cellCount(int rows, int cols) {
+        try {
+            return Math.multiplyExact(rows, cols);
+        } catch (ArithmeticException e) {
+            throw new ValidationException("Report has too many dimension combinations to aggregate");
         }
+    }
 
-        return switch (agg) {
-            case SUM -> values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-            case AVG -> {
-                BigDecimal sum = values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-                yield sum.divide(BigDecimal.valueOf(values.size()), 4, RoundingMode.HALF_UP);
+    private static List<Integer> seenCodes(boolean[] seen, int nullCode) {
+        List<Integer> codes = new ArrayList<>();
+        for (int c = 0; c < seen.length; c++) {
+            if (seen[c] && c != nullCode) {
+                codes.add(c);
             }
-            case COUNT -> BigDecimal.valueOf(values.size());
-            case MIN -> Collections.min(values);
-            case MAX -> Collections.max(values);
-        };
+        }
+        return codes;
+    }
+
+    /**
+     * Dense per-row codes for one dimension over {@code selection}, assigned in first-seen order.
+     * Dictionary columns remap their codes through an array; date columns bucket each distinct
+     * epoch day once; other columns go through the boxed {@link #processDimensionValue} path.
+     */
+    private DimensionCodes encodeDimension(ReportFrame frame, int[] selection, String field, FieldDef fieldDef, Granularity granularity) {
+        ReportFrame.Column col = frame.column(field);
+        if (col == null) {
+            return DimensionCodes.constant(selection.length);
+        }
+        int[] codes = new int[selection.length];
+        List<Object> values = new ArrayList<>();
+        int nullCode = -1;
+
+        if (col instanceof ReportFrame.DictionaryColumn dictCol) {
+            int[] source = dictCol.codes();
+            String[] dict = dictCol.dictionary();
+            int[] remap = new int[dict.length + 1];
+            Arrays.fill(remap, -1);
+            for (int i = 0; i < selection.length; i++) {
+                int slot = source[selection[i]] + 1;
+                int code = remap[slot];
+                if (code < 0) {
+                    code = remap[slot] = values.size();
+                    values.add(slot == 0 ? null : dict[slot - 1]);
+                    if (slot == 0) nullCode = code;
+                }
+                codes[i] = code;
+            }
+            return new DimensionCodes(codes, values, nullCode);
+        }
+
+        if (col instanceof ReportFrame.DateColumn dateCol) {
+            FieldType type = fieldDef != null ? fieldDef.type() : FieldType.STRING;
+            Granularity g = type != FieldType.DATE ? Granularity.DAY
+                    : (granularity != null ? granularity : Granularity.MONTH);
+            long[] days = dateCol.epochDays();
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int row : selection) {
+                long d = days[row];
+                if (d != ReportFrame.NULL) {
+                    min = Math.min(min, d);
+                    max = Math.max(max, d);
+                }
+            }
+            boolean direct = max >= min && max - min < DIRECT_INDEX_LIMIT;
+            int[] dayCodes = null;
+            if (direct) {
+                dayCodes = new int[(int) (max - min + 1)];
+                Arrays.fill(dayCodes, -1);
+            }
+            Map<Long, Integer> dayCodeMap = direct ? null : new HashMap<>();
+            Map<LocalDate, Integer> bucketCodes = new HashMap<>();
+            for (int i = 0; i < selection.length; i++) {
+                long d = days[selection[i]];
+                if (d == ReportFrame.NULL) {
+                    if (nullCode < 0) {
+                        nullCode = values.size();
+                        values.add(null);
+                    }
+                    codes[i] = nullCode;
+                    continue;
+                }
+                int code;
+                if (direct) {
+                    int slot = (int) (d - min);
+                    code = dayCodes[slot];
+                    if (code < 0) {
+                        code = dayCodes[slot] = bucketCode(d, g, bucketCodes, values);
+                    }
+                } else {
+                    code = dayCodeMap.computeIfAbsent(d, day -> bucketCode(day, g, bucketCodes, values));
+                }
+                codes[i] = code;
+            }
+            return new DimensionCodes(codes, values, nullCode);
+        }
+
+        Map<Object, Integer> index = new HashMap<>();
+        for (int i = 0; i < selection.length; i++) {
+            Object v = processDimensionValue(col.value(selection[i]), fieldDef, granularity);
+            Integer code = index.get(v);
+            if (code == null) {
+                code = values.size();
+                values.add(v);
+                index.put(v, code);
+                if (v == null) nullCode = code;
+            }
+            codes[i] = code;
+        }
+        return new DimensionCodes(codes, values, nullCode);
+    }
+
+    private int bucketCode(long epochDay, Granularity g, Map<LocalDate, Integer> bucketCodes, List<Object> values) {
+        LocalDate bucket = bucketStart(LocalDate.ofEpochDay(epochDay), g);
+        return bucketCodes.computeIfAbsent(bucket, b -> {
+            values.add(b);
+            return values.size() - 1;
+        });
+    }
+
+    /** Groups {@code selection} by the tuple of {@code dims} values; no dims means one group. */
+    private TupleGroups groupTuples(ReportFrame frame, int[] selection, List<DimensionRef> dims, ReportDatasource ds) {
+        DimensionCodes[] encoded = new DimensionCodes[dims.size()];
+        long[] strides = new long[dims.size()];
+        long space = 1;
+        for (int i = 0; i < dims.size(); i++) {
+            DimensionRef dim = dims.get(i);
+            encoded[i] = encodeDimension(frame, selection, dim.field(), ds.field(dim.field()), dim.granularity());
+            strides[i] = space;
+            try {
+                space = Math.multiplyExact(space, Math.max(1, encoded[i].cardinality()));
+            } catch (ArithmeticException e) {
+                throw new ValidationException("Report has too many dimension combinations to aggregate");
+            }
+        }
+
+        boolean direct = space <= DIRECT_INDEX_LIMIT;
+        int[] keyToGroup = null;
+        if (direct) {
+            keyToGroup = new int[(int) space];
+            Arrays.fill(keyToGroup, -1);
+        }
+        Map<Long, Integer> keyMap = direct ? null : new HashMap<>();
+        int[] groupOf = new int[selection.length];
+        List<int[]> tuples = new ArrayList<>();
+        for (int i = 0; i < selection.length; i++) {
+            long key = 0;
+            for (int d = 0; d < encoded.length; d++) {
+                key += encoded[d].codes()[i] * strides[d];
+            }
+            int group;
+            if (direct) {
+                group = keyToGroup[(int) key];
+                if (group < 0) {
+                    group = keyToGroup[(int) key] = newTuple(tuples, encoded, i);
+                }
+            } else {
+                Integer g = keyMap.get(key);
+                if (g == null) {
+                    g = newTuple(tuples, encoded, i);
+                    keyMap.put(key, g);
+                }
+                group = g;
+            }
+            groupOf[i] = group;
+        }
+        return new TupleGroups(groupOf, tuples, encoded);
+    }
+
+    private static int newTuple(List<int[]> tuples, DimensionCodes[] encoded, int position) {
+        int[] tuple = new int[encoded.length];
+        for (int d = 0; d < encoded.length; d++) {
+            tuple[d] = encoded[d].codes()[position];
+        }
+        tuples.add(tuple);
+        return tuples.size() - 1;
+    }
+
+    /**
+     * Per-row ordering keys for a raw-table sort column: numbers and dates by value, strings by
+     * dictionary rank, booleans false &lt; true. Nulls map to {@link ReportFrame#NULL} so they sort first.
+     * Strings that parse as numbers compare numerically and sort ahead of the rest, which compare
+     * lexicographically.
+     */
+    private static long[] sortKeys(ReportFrame.Column col, int rowCount) {
+        if (col instanceof ReportFrame.DecimalColumn dc) {
+            if (dc.unscaled() != null) {
+                return dc.unscaled();
+            }
+            BigDecimal[] wide = dc.wide();
+            long[] rank = ranks(wide, Comparator.naturalOrder());
+            long[] keys = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                keys[i] = wide[i] != null ? rank[i] : ReportFrame.NULL;
+            }
+            return keys;
+        }
+        if (col instanceof ReportFrame.DateColumn dc) {
+            return dc.epochDays();
+        }
+        long[] keys = new long[rowCount];
+        if (col instanceof ReportFrame.DictionaryColumn dictCol) {
+            String[] dict = dictCol.dictionary();
+            BigDecimal[] numbers = new BigDecimal[dict.length];
+            for (int c = 0; c < dict.length; c++) {
+                numbers[c] = parseNumber(dict[c]);
+            }
+            Integer[] entries = new Integer[dict.length];
+            for (int c = 0; c < dict.length; c++) {
+                entries[c] = c;
+            }
+            long[] rank = ranks(entries, (a, b) -> {
+                if (numbers[a] != null && numbers[b] != null) return numbers[a].compareTo(numbers[b]);
+                if (numbers[a] != null) return -1;
+                if (numbers[b] != null) return 1;
+                return dict[a].compareTo(dict[b]);
+            });
+            int[] codes = dictCol.codes();
+            for (int i = 0; i < rowCount; i++) {
+                keys[i] = codes[i] >= 0 ? rank[codes[i]] : ReportFrame.NULL;
+            }
+        } else if (col instanceof ReportFrame.BooleanColumn bc) {
+            byte[] values = bc.values();
+            for (int i = 0; i < rowCount; i++) {
+                keys[i] = values[i] >= 0 ? values[i] : ReportFrame.NULL;
+            }
+        } else {
+            Arrays.fill(keys, ReportFrame.NULL);
+        }
+        return keys;
+    }
+
+    /**
+     * Dense rank of each non-null element under {@code order}: equal elements share a rank, so they
+     * fall through to the next sort clause. Null elements get rank 0 and must be masked by the caller.
+     */
+    private static <T> long[] ranks(T[] values, Comparator<? super T> order) {
+        Integer[] byValue = new Integer[values.length];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                byValue[n++] = i;
+            }
+        }
+        Arrays.sort(byValue, 0, n, (a, b) -> order.compare(values[a], values[b]));
+        long[] rank = new long[values.length];
+        long r = 0;
+        for (int k = 0; k < n; k++) {
+            if (k > 0 && order.compare(values[byValue[k - 1]], values[byValue[k]]) != 0) {
+                r++;
+            }
+            rank[byValue[k]] = r;
+        }
+        return rank;
+    }
+
+    private static BigDecimal parseNumber(String s) {
+        try {
+            return new BigDecimal(s.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     private Object processDimensionValue(Object rawVal, FieldDef fieldDef, Granularity granularity) {
@@ -587,19 +1010,22 @@ public class InMemoryReportExecutor {
         if (type == FieldType.DATE) {
             LocalDate date = ResultValues.toLocalDate(rawVal);
             if (date == null) return null;
-            if (granularity == null) granularity = Granularity.MONTH;
-            return switch (granularity) {
-                case DAY -> date;
-                case WEEK -> date.minusDays(date.getDayOfWeek().getValue() - 1L);
-                case MONTH -> date.withDayOfMonth(1);
-                case QUARTER -> date.withMonth(((date.getMonthValue() - 1) / 3) * 3 + 1).withDayOfMonth(1);
-                case YEAR -> date.withDayOfYear(1);
-                case FY -> dateRangeResolver.fiscalYearStart(date);
-            };
+            return bucketStart(date, granularity != null ? granularity : Granularity.MONTH);
         }
         return rawVal;
     }
 
+    private LocalDate bucketStart(LocalDate date, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.minusDays(date.getDayOfWeek().getValue() - 1L);
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> date.withMonth(((date.getMonthValue() - 1) / 3) * 3 + 1).withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+            case FY -> dateRangeResolver.fiscalYearStart(date);
+        };
+    }
+
     private String formatDimensionLabel(Object val, FieldDef fieldDef, Granularity granularity) {
         if (val == null) return "(none)";
         FieldType type = fieldDef != null ? fieldDef.type() : FieldType.STRING;
@@ -623,21 +1049,6 @@ public class InMemoryReportExecutor {
         };
     }
 
-    private int compareValues(Object a, Object b) {
-        if (a == null && b == null) return 0;
-        if (a == null) return -1;
-        if (b == null) return 1;
-        BigDecimal bdA = ResultValues.toBigDecimal(a);
-        BigDecimal bdB = ResultValues.toBigDecimal(b);
-        if (bdA != null && bdB != null) {
-            return bdA.compareTo(bdB);
-        }
-        if (a instanceof Comparable cA && b instanceof Comparable cB) {
-            return cA.compareTo(cB);
-        }
-        return String.valueOf(a).compareTo(String.valueOf(b));
-    }
-
     private int compareDimensionLists(List<Object> listA, List<Object> listB, List<DimensionRef> dims, ReportDatasource ds) {
         for (int i = 0; i < dims.size(); i++) {
             FieldDef f = ds.field(dims.get(i).field());
@@ -661,7 +1072,161 @@ public class InMemoryReportExecutor {
                 .orElse(List.of());
     }
 
-    private record IndexedRow(int index, Map<String, Object> row) {}
-    private record DimensionKey(Object dimVal, Object seriesVal) {}
-    private record MultiDimensionKey(List<Object> rowKeys, List<Object> colKeys) {}
+    /** Inclusive range over a primitive column; {@link #MIN} sits just above the NULL marker. */
+    private record LongRange(long lo, long hi) {
+        static final long MIN = ReportFrame.NULL + 1;
+        static final LongRange ALL = new LongRange(MIN, Long.MAX_VALUE);
+        static final LongRange NONE = new LongRange(1, 0);
+
+        static LongRange of(long lo, long hi) {
+            return new LongRange(Math.max(lo, MIN), hi);
+        }
+
+        /** Values strictly greater than {@code bound}. */
+        static LongRange above(long bound) {
+            return bound == Long.MAX_VALUE ? NONE : of(bound + 1, Long.MAX_VALUE);
+        }
+
+        /** Values strictly less than {@code bound}. */
+        static LongRange below(long bound) {
+            return bound <= MIN ? NONE : of(MIN, bound - 1);
+        }
+    }
+
+    /** Dense codes per selected row plus the value behind each code ({@code nullCode} is -1 if no nulls). */
+    private record DimensionCodes(int[] codes, List<Object> values, int nullCode) {
+        static DimensionCodes constant(int size) {
+            List<Object> values = new ArrayList<>();
+            values.add(null);
+            return new DimensionCodes(new int[size], values, 0);
+        }
+
+        int cardinality() {
+            return values.size();
+        }
+
+        Object value(int code) {
+            return values.get(code);
+        }
+    }
+
+    /** Dense tuple groups: the group of each selected row and the per-dimension codes of each group. */
+    private record TupleGroups(int[] groupOf, List<int[]> tuples, DimensionCodes[] dims) {
+        int size() {
+            return tuples.size();
+        }
+
+        List<Object> values(int group) {
+            int[] tuple = tuples.get(group);
+            List<Object> vals = new ArrayList<>(tuple.length);
+            for (int d = 0; d < tuple.length; d++) {
+                vals.add(dims[d].value(tuple[d]));
+            }
+            return vals;
+        }
+
+        List<Integer> sortedGroups(Comparator<List<Object>> order) {
+            List<List<Object>> keys = new ArrayList<>(tuples.size());
+            List<Integer> groups = new ArrayList<>(tuples.size());
+            for (int g = 0; g < tuples.size(); g++) {
+                keys.add(values(g));
+                groups.add(g);
+            }
+            groups.sort((a, b) -> order.compare(keys.get(a), keys.get(b)));
+            return groups;
+        }
+    }
+
+    /**
+     * Per-group SUM/COUNT/MIN/MAX over unscaled longs. A group whose sum would overflow a long
+     * continues in {@link BigInteger}.
+     */
+    private static final class MeasureAccumulator {
+        private final long[] sum;
+        private final long[] count;
+        private final long[] min;
+        private final long[] max;
+        private BigInteger[] wide;
+        private BigDecimal[] wideMin;
+        private BigDecimal[] wideMax;
+
+        MeasureAccumulator(int groups) {
+            this.sum = new long[groups];
+            this.count = new long[groups];
+            this.min = new long[groups];
+            this.max = new long[groups];
+            Arrays.fill(min, Long.MAX_VALUE);
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        /** Adds row {@code row} of {@code col} to group {@code g}; null cells are skipped. */
+        void add(int g, ReportFrame.DecimalColumn col, int row) {
+            long[] unscaled = col.unscaled();
+            if (unscaled != null) {
+                long v = unscaled[row];
+                if (v != ReportFrame.NULL) {
+                    add(g, v);
+                }
+                return;
+            }
+            BigDecimal v = col.wide()[row];
+            if (v != null) {
+                addWide(g, v);
+            }
+        }
+
+        void add(int g, long v) {
+            count[g]++;
+            if (v < min[g]) min[g] = v;
+            if (v > max[g]) max[g] = v;
+            if (wide != null && wide[g] != null) {
+                wide[g] = wide[g].add(BigInteger.valueOf(v));
+                return;
+            }
+            long s = sum[g] + v;
+            if (((sum[g] ^ s) & (v ^ s)) < 0) {
+                if (wide == null) {
+                    wide = new BigInteger[sum.length];
+                }
+                wide[g] = BigInteger.valueOf(sum[g]).add(BigInteger.valueOf(v));
+            } else {
+                sum[g] = s;
+            }
+        }
+
+        /** Adds a value already at the column scale that does not fit a {@code long}. */
+        private void addWide(int g, BigDecimal v) {
+            count[g]++;
+            if (wideMin == null) {
+                wideMin = new BigDecimal[sum.length];
+                wideMax = new BigDecimal[sum.length];
+            }
+            if (wideMin[g] == null || v.compareTo(wideMin[g]) < 0) wideMin[g] = v;
+            if (wideMax[g] == null || v.compareTo(wideMax[g]) > 0) wideMax[g] = v;
+            if (wide == null) {
+                wide = new BigInteger[sum.length];
+            }
+            wide[g] = (wide[g] != null ? wide[g] : BigInteger.valueOf(sum[g])).add(v.unscaledValue());
+        }
+
+        BigDecimal result(int g, Aggregation agg, int scale) {
+            if (count[g] == 0) {
+                // SUM/COUNT of nothing is 0 (mirrors the SQL executors' null coercion); others stay null.
+                return (agg == Aggregation.COUNT || agg == Aggregation.SUM) ? BigDecimal.ZERO : null;
+            }
+            return switch (agg) {
+                case SUM -> total(g, scale);
+                case AVG -> total(g, scale).divide(BigDecimal.valueOf(count[g]), 4, RoundingMode.HALF_UP);
+                case COUNT -> BigDecimal.valueOf(count[g]);
+                case MIN -> wideMin != null ? wideMin[g] : BigDecimal.valueOf(min[g], scale);
+                case MAX -> wideMax != null ? wideMax[g] : BigDecimal.valueOf(max[g], scale);
+            };
+        }
+
+        private BigDecimal total(int g, int scale) {
+            return wide != null && wide[g] != null
+                    ? new BigDecimal(wide[g], scale)
+                    : BigDecimal.valueOf(sum[g], scale);
+        }
+    }
 }
@@ -0,0 +1,556 @@
+package com.financeos.domain.report.engine;
+
+import com.financeos.domain.report.datasource.DatasourceCatalog.FieldDef;
+import com.financeos.domain.report.datasource.FieldType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columnar, primitive-backed row store emitted by computed datasources.
+ *
+ * <p>Column encodings:
+ * <ul>
+ *   <li>{@link DictionaryColumn} — strings/enums as {@code int} codes into a per-column dictionary
+ *       ({@code -1} = null), so filters evaluate once per distinct value.</li>
+ *   <li>{@link DateColumn} — {@code long} epoch days.</li>
+ *   <li>{@link DecimalColumn} — numbers/money as {@code long} unscaled values at a fixed column scale,
+ *       falling back to {@code BigDecimal} cells when a value does not fit a {@code long}.</li>
+ *   <li>{@link BooleanColumn} — {@code byte} 0/1 ({@code -1} = null).</li>
+ * </ul>
+ * Date and {@code long}-backed decimal columns use {@link #NULL} as their null marker. Frames are
+ * immutable once built; the backing arrays are exposed to the engine package only.
+ */
+public final class ReportFrame {
+
+    /** Null marker for {@link DateColumn} and {@link DecimalColumn} cells. */
+    public static final long NULL = Long.MIN_VALUE;
+
+    private static final ReportFrame EMPTY = new ReportFrame(0, Map.of());
+
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    private ReportFrame(int rowCount, Map<String, Column> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    public static ReportFrame empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /** The column named {@code name}, or null when the frame does not carry it. */
+    public Column column(String name) {
+        return name != null ? columns.get(name) : null;
+    }
+
+    public Set<String> columnNames() {
+        return columns.keySet();
+    }
+
+    /**
+     * Materializes one row in the legacy map shape (catalog field name → boxed value). Every column is
+     * present; null cells map to null values, as the datasources' own row maps carried them.
+     */
+    public Map<String, Object> row(int index) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Column> e : columns.entrySet()) {
+            map.put(e.getKey(), e.getValue().value(index));
+        }
+        return map;
+    }
+
+    /** Materializes every row; intended for callers still on the map-based contract. */
+    public List<Map<String, Object>> toRows() {
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(row(i));
+        }
+        return rows;
+    }
+
+    /**
+     * Adapts map rows into a frame, encoding each catalog field by its {@link FieldType}. Keys not in
+     * the catalog (e.g. {@code id}) become dictionary columns. Number columns take the widest scale
+     * seen in the data, so every value is kept exactly.
+     */
+    public static ReportFrame fromRows(List<FieldDef> fields, List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, FieldType> types = new LinkedHashMap<>();
+        if (fields != null) {
+            for (FieldDef f : fields) {
+                types.put(f.name(), f.type());
+            }
+        }
+        Set<String> extraKeys = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            for (String key : row.keySet()) {
+                if (!types.containsKey(key)) {
+                    extraKeys.add(key);
+                }
+            }
+        }
+
+        Builder b = builder(rows.size());
+        for (Map.Entry<String, FieldType> e : types.entrySet()) {
+            String name = e.getKey();
+            switch (e.getValue()) {
+                case NUMBER -> {
+                    DecimalColumnBuilder col = b.decimalColumn(name, inferScale(rows, name));
+                    for (Map<String, Object> row : rows) {
+                        col.add(ResultValues.toBigDecimal(row.get(name)));
+                    }
+                }
+                case DATE -> {
+                    DateColumnBuilder col = b.dateColumn(name);
+                    for (Map<String, Object> row : rows) {
+                        col.add(ResultValues.toLocalDate(row.get(name)));
+                    }
+                }
+                case BOOLEAN -> {
+                    BooleanColumnBuilder col = b.booleanColumn(name);
+                    for (Map<String, Object> row : rows) {
+                        col.add(ResultValues.toBoolean(row.get(name)));
+                    }
+                }
+                case STRING, ENUM -> addDictionary(b, name, rows);
+            }
+        }
+        for (String name : extraKeys) {
+            addDictionary(b, name, rows);
+        }
+        return b.build();
+    }
+
+    private static void addDictionary(Builder b, String name, List<Map<String, Object>> rows) {
+        DictionaryColumnBuilder col = b.dictionaryColumn(name);
+        for (Map<String, Object> row : rows) {
+            Object v = row.get(name);
+            col.add(v != null ? String.valueOf(v) : null);
+        }
+    }
+
+    private static int inferScale(List<Map<String, Object>> rows, String name) {
+        int scale = 0;
+        for (Map<String, Object> row : rows) {
+            BigDecimal v = ResultValues.toBigDecimal(row.get(name));
+            if (v != null && v.scale() > scale) {
+                scale = v.scale();
+            }
+        }
+        return scale;
+    }
+
+    // ------------------------------------------------------------------
+    // COLUMNS
+    // ------------------------------------------------------------------
+
+    public sealed interface Column permits DictionaryColumn, DateColumn, DecimalColumn, BooleanColumn {
+        /** Boxed value for row {@code index} in the legacy row-map representation. */
+        Object value(int index);
+
+        boolean isNull(int index);
+    }
+
+    public static final class DictionaryColumn implements Column {
+        private final int[] codes;
+        private final String[] dictionary;
+
+        private DictionaryColumn(int[] codes, String[] dictionary) {
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        int[] codes() {
+            return codes;
+        }
+
+        String[] dictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public Object value(int index) {
+            int code = codes[index];
+            return code >= 0 ? dictionary[code] : null;
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return codes[index] < 0;
+        }
+    }
+
+    public static final class DateColumn implements Column {
+        private final long[] epochDays;
+
+        private DateColumn(long[] epochDays) {
+            this.epochDays = epochDays;
+        }
+
+        long[] epochDays() {
+            return epochDays;
+        }
+
+        @Override
+        public Object value(int index) {
+            long d = epochDays[index];
+            return d != NULL ? LocalDate.ofEpochDay(d) : null;
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return epochDays[index] == NULL;
+        }
+    }
+
+    /**
+     * Backed by {@code long} unscaled values, or by {@code BigDecimal} cells at the column scale when
+     * one of its values does not fit a {@code long}; exactly one of {@link #unscaled()} and
+     * {@link #wide()} is non-null.
+     */
+    public static final class DecimalColumn implements Column {
+        private final long[] unscaled;
+        private final BigDecimal[] wide;
+        private final int scale;
+
+        private DecimalColumn(long[] unscaled, BigDecimal[] wide, int scale) {
+            this.unscaled = unscaled;
+            this.wide = wide;
+            this.scale = scale;
+        }
+
+        /** Unscaled values with {@link #NULL} for null cells, or null when the column is {@link #wide()}. */
+        long[] unscaled() {
+            return unscaled;
+        }
+
+        /** Values at the column scale with null cells as null, or null when the column fits {@link #unscaled()}. */
+        BigDecimal[] wide() {
+            return wide;
+        }
+
+        public int scale() {
+            return scale;
+        }
+
+        @Override
+        public Object value(int index) {
+            if (wide != null) {
+                return wide[index];
+            }
+            long v = unscaled[index];
+            return v != NULL ? BigDecimal.valueOf(v, scale) : null;
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return wide != null ? wide[index] == null : unscaled[index] == NULL;
+        }
+    }
+
+    public static final class BooleanColumn implements Column {
+        private final byte[] values;
+
+        private BooleanColumn(byte[] values) {
+            this.values = values;
+        }
+
+        byte[] values() {
+            return values;
+        }
+
+        @Override
+        public Object value(int index) {
+            byte v = values[index];
+            return v < 0 ? null : v == 1;
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return values[index] < 0;
+        }
+    }
+
+    /**
+     * Reads any column as numbers, mirroring the row-map engine's {@code toBigDecimal} coercion.
+     * Decimal columns are returned as-is; others are converted value by value at the widest scale
+     * among them, so no value is rounded.
+     */
+    static DecimalColumn asDecimal(Column column, int rowCount) {
+        if (column instanceof DecimalColumn dc) {
+            return dc;
+        }
+        BigDecimal[] values = new BigDecimal[rowCount];
+        int scale = 0;
+        for (int i = 0; i < rowCount; i++) {
+            BigDecimal v = column != null ? ResultValues.toBigDecimal(column.value(i)) : null;
+            values[i] = v;
+            if (v != null && v.scale() > scale) {
+                scale = v.scale();
+            }
+        }
+        DecimalColumnBuilder col = new DecimalColumnBuilder(Math.max(rowCount, 1), scale);
+        for (BigDecimal v : values) {
+            col.add(v);
+        }
+        return (DecimalColumn) col.build();
+    }
+
+    // ------------------------------------------------------------------
+    // BUILDER
+    // ------------------------------------------------------------------
+
+    /**
+     * Declares typed columns, then appends one value per column per row. Every column must receive
+     * the same number of values before {@link #build()}.
+     */
+    public static final class Builder {
+        private final int initialCapacity;
+        private final Map<String, ColumnBuilder> columns = new LinkedHashMap<>();
+
+        private Builder(int expectedRows) {
+            this.initialCapacity = Math.max(expectedRows, 16);
+        }
+
+        public DictionaryColumnBuilder dictionaryColumn(String name) {
+            return register(name, new DictionaryColumnBuilder(initialCapacity));
+        }
+
+        public DateColumnBuilder dateColumn(String name) {
+            return register(name, new DateColumnBuilder(initialCapacity));
+        }
+
+        public DecimalColumnBuilder decimalColumn(String name, int scale) {
+            if (scale < 0) {
+                throw new IllegalArgumentException("Decimal column scale must be >= 0: " + name);
+            }
+            return register(name, new DecimalColumnBuilder(initialCapacity, scale));
+        }
+
+        public BooleanColumnBuilder booleanColumn(String name) {
+            return register(name, new BooleanColumnBuilder(initialCapacity));
+        }
+
+        private <T extends ColumnBuilder> T register(String name, T column) {
+            if (columns.putIfAbsent(name, column) != null) {
+                throw new IllegalStateException("Duplicate report frame column: " + name);
+            }
+            return column;
+        }
+
+        public ReportFrame build() {
+            int rows = -1;
+            Map<String, Column> built = new LinkedHashMap<>();
+            for (Map.Entry<String, ColumnBuilder> e : columns.entrySet()) {
+                int size = e.getValue().size();
+                if (rows < 0) {
+                    rows = size;
+                } else if (size != rows) {
+                    throw new IllegalStateException("Report frame column '" + e.getKey() + "' has "
+                            + size + " values, expected " + rows);
+                }
+                built.put(e.getKey(), e.getValue().build());
+            }
+            return rows <= 0 ? EMPTY : new ReportFrame(rows, built);
+        }
+    }
+
+    private abstract static sealed class ColumnBuilder
+            permits DictionaryColumnBuilder, DateColumnBuilder, DecimalColumnBuilder, BooleanColumnBuilder {
+        abstract int size();
+
+        abstract Column build();
+    }
+
+    public static final class DictionaryColumnBuilder extends ColumnBuilder {
+        private int[] codes;
+        private int size;
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+
+        private DictionaryColumnBuilder(int capacity) {
+            this.codes = new int[capacity];
+        }
+
+        public DictionaryColumnBuilder add(String value) {
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            int code = -1;
+            if (value != null) {
+                code = index.computeIfAbsent(value, v -> {
+                    dictionary.add(v);
+                    return dictionary.size() - 1;
+                });
+            }
+            codes[size++] = code;
+            return this;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Column build() {
+            return new DictionaryColumn(Arrays.copyOf(codes, size), dictionary.toArray(String[]::new));
+        }
+    }
+
+    public static final class DateColumnBuilder extends ColumnBuilder {
+        private long[] days;
+        private int size;
+
+        private DateColumnBuilder(int capacity) {
+            this.days = new long[capacity];
+        }
+
+        public DateColumnBuilder add(LocalDate value) {
+            return addEpochDay(value != null ? value.toEpochDay() : NULL);
+        }
+
+        public DateColumnBuilder addEpochDay(long epochDay) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+            }
+            days[size++] = epochDay;
+            return this;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Column build() {
+            return new DateColumn(Arrays.copyOf(days, size));
+        }
+    }
+
+    /**
+     * Stores unscaled {@code long}s until a value does not fit one (or collides with {@link #NULL}),
+     * then switches the whole column to {@code BigDecimal} cells.
+     */
+    public static final class DecimalColumnBuilder extends ColumnBuilder {
+        private long[] values;
+        private BigDecimal[] wide;
+        private int size;
+        private final int scale;
+
+        private DecimalColumnBuilder(int capacity, int scale) {
+            this.values = new long[capacity];
+            this.scale = scale;
+        }
+
+        /** Appends {@code value} rounded HALF_UP to the column scale. */
+        public DecimalColumnBuilder add(BigDecimal value) {
+            if (value == null) {
+                return addUnscaled(NULL);
+            }
+            BigDecimal scaled = value.setScale(scale, RoundingMode.HALF_UP);
+            if (wide == null) {
+                BigInteger unscaled = scaled.unscaledValue();
+                if (unscaled.bitLength() < 64 && unscaled.longValue() != NULL) {
+                    return addUnscaled(unscaled.longValue());
+                }
+                widen();
+            }
+            return addWide(scaled);
+        }
+
+        /** Appends a value already expressed in units of {@code 10^-scale}; {@link #NULL} appends a null. */
+        public DecimalColumnBuilder addUnscaled(long unscaled) {
+            if (wide != null) {
+                return addWide(unscaled != NULL ? BigDecimal.valueOf(unscaled, scale) : null);
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = unscaled;
+            return this;
+        }
+
+        private DecimalColumnBuilder addWide(BigDecimal value) {
+            if (size == wide.length) {
+                wide = Arrays.copyOf(wide, size * 2);
+            }
+            wide[size++] = value;
+            return this;
+        }
+
+        private void widen() {
+            wide = new BigDecimal[values.length];
+            for (int i = 0; i < size; i++) {
+                wide[i] = values[i] != NULL ? BigDecimal.valueOf(values[i], scale) : null;
+            }
+            values = null;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Column build() {
+            return wide != null
+                    ? new DecimalColumn(null, Arrays.copyOf(wide, size), scale)
+                    : new DecimalColumn(Arrays.copyOf(values, size), null, scale);
+        }
+    }
+
+    public static final class BooleanColumnBuilder extends ColumnBuilder {
+        private byte[] values;
+        private int size;
+
+        private BooleanColumnBuilder(int capacity) {
+            this.values = new byte[capacity];
+        }
+
+        public BooleanColumnBuilder add(Boolean value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value == null ? (byte) -1 : (value ? (byte) 1 : (byte) 0);
+            return this;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Column build() {
+            return new BooleanColumn(Arrays.copyOf(values, size));
+        }
+    }
+}
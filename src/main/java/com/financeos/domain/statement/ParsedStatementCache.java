@@ -0,0 +1,144 @@
+package com.financeos.domain.statement;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.statement.parser.ParsedStatement;
+import com.financeos.statement.parser.StatementParseEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent cache of {@link StatementParseEngine} results, so the same file arriving again
+ * (re-upload, Gmail reconcile retry, retried ingest job) skips the extract / row collection /
+ * balance oracle pipeline. Entries are keyed by the SHA-256 of the file and are only served for
+ * the current {@link StatementParseEngine#PARSER_VERSION}; a parse under a newer version
+ * overwrites the row, and the nightly purge drops other versions and entries unused for
+ * {@code statements.parse-cache.retention-days}.
+ *
+ * <p>For a password-protected file the key also covers the password, so a hit needs the same
+ * password that opened the file. Only successful parses are cached. The payload is Java
+ * serialization of the parser's result classes (no serialVersionUIDs, so a structural change
+ * makes old payloads unreadable, which counts as a miss).
+ *
+ * <p>Both operations run in their own transaction: callers such as the reconcile run are
+ * transactional, and a failed cache write must not roll them back.
+ */
+@Service
+public class ParsedStatementCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ParsedStatementCache.class);
+
+    private static final String CACHE_NAME = "parsed-statement";
+    private static final Duration TOUCH_INTERVAL = Duration.ofDays(1);
+
+    private static final ObjectInputFilter PAYLOAD_FILTER = ObjectInputFilter.Config.createFilter(
+            "com.financeos.statement.parser.*;java.lang.*;java.util.*;java.time.*;!*");
+
+    private final ParsedStatementCacheRepository repository;
+    private final ObservabilityMetrics metrics;
+    private final int retentionDays;
+
+    public ParsedStatementCache(ParsedStatementCacheRepository repository,
+                                ObservabilityMetrics metrics,
+                                @Value("${statements.parse-cache.retention-days:90}") int retentionDays) {
+        this.repository = repository;
+        this.metrics = metrics;
+        this.retentionDays = retentionDays;
+    }
+
+    public static String key(byte[] bytes, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes);
+            if (password != null) {
+                digest.update((byte) 0);
+                digest.update(password.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The cached parse for the key under the current parser version, or null. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ParsedStatement find(String key) {
+        ParsedStatementCacheEntry entry = repository.findById(key)
+                .filter(e -> e.getParserVersion() == StatementParseEngine.PARSER_VERSION)
+                .orElse(null);
+        ParsedStatement parsed = entry != null ? decode(entry.getPayload()) : null;
+        metrics.recordCacheAccess(CACHE_NAME, parsed != null);
+        if (parsed == null) {
+            return null;
+        }
+        Instant now = Instant.now();
+        if (entry.getLastUsedAt().isBefore(now.minus(TOUCH_INTERVAL))) {
+            repository.touch(key, now);
+        }
+        return parsed;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void put(String key, ParsedStatement parsed) {
+        ParsedStatementCacheEntry entry = repository.findById(key).orElseGet(ParsedStatementCacheEntry::new);
+        Instant now = Instant.now();
+        entry.setSha256(key);
+        entry.setParserVersion(StatementParseEngine.PARSER_VERSION);
+        entry.setPayload(encode(parsed));
+        entry.setCreatedAt(now);
+        entry.setLastUsedAt(now);
+        repository.save(entry);
+    }
+
+    @Scheduled(cron = "${statements.parse-cache.purge-cron:0 45 3 * * *}", zone = "${statements.parse-cache.zone:Asia/Kolkata}")
+    @Transactional
+    public void purge() {
+        int deleted = repository.deleteStale(StatementParseEngine.PARSER_VERSION,
+                Instant.now().minus(Duration.ofDays(retentionDays)));
+        if (deleted > 0) {
+            log.info("Parsed-statement cache purge deleted {} entr(ies) from other parser versions or unused for {} days",
+                    deleted, retentionDays);
+        }
+    }
+
+    static byte[] encode(ParsedStatement parsed) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(buffer))) {
+            out.writeObject(parsed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /** Null when the payload can't be read back, e.g. written by an older shape of the classes. */
+    static ParsedStatement decode(byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            in.setObjectInputFilter(PAYLOAD_FILTER);
+            return in.readObject() instanceof ParsedStatement parsed ? parsed : null;
+        } catch (IOException | ClassNotFoundException e) {
+            log.debug("Unreadable parsed-statement cache payload: {}", e.getMessage());
+            return null;
+        }
+    }
+}
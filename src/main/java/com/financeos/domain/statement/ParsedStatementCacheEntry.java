@@ -0,0 +1,46 @@
+package com.financeos.domain.statement;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** One cached parse result; see {@link ParsedStatementCache}. */
+@Entity
+@Table(name = "parsed_statement_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ParsedStatementCacheEntry {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "parser_version", nullable = false)
+    private int parserVersion;
+
+    /** GZIP-compressed Java serialization of the ParsedStatement. */
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_used_at", nullable = false)
+    private Instant lastUsedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (lastUsedAt == null) {
+            lastUsedAt = now;
+        }
+    }
+}
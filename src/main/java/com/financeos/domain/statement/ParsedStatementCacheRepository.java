@@ -0,0 +1,21 @@
+package com.financeos.domain.statement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ParsedStatementCacheRepository extends JpaRepository<ParsedStatementCacheEntry, String> {
+
+    @Modifying
+    @Query("UPDATE ParsedStatementCacheEntry e SET e.lastUsedAt = :now WHERE e.sha256 = :sha256")
+    int touch(@Param("sha256") String sha256, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM ParsedStatementCacheEntry e WHERE e.parserVersion <> :parserVersion OR e.lastUsedAt < :cutoff")
+    int deleteStale(@Param("parserVersion") int parserVersion, @Param("cutoff") Instant cutoff);
+}
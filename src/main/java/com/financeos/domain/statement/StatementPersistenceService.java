@@ -101,6 +101,11 @@ public class StatementPersistenceService {
     public record TxnLink(UUID transactionId, int lineIndex, BigDecimal balanceAfter, Boolean chainValid) {
     }
 
+    /** Ids of the transactions linked to the statements. */
+    public List<UUID> transactionIds(List<UUID> statementIds) {
+        return statementIds.isEmpty() ? List.of() : statementTransactionRepository.findTransactionIdsByStatementIds(statementIds);
+    }
+
     @Transactional
     public void linkTransactions(UUID statementId, List<TxnLink> links) {
         List<StatementTransaction> rows = links.stream()
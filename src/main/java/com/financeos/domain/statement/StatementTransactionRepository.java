@@ -20,5 +20,8 @@ public interface StatementTransactionRepository extends JpaRepository<StatementT
            "ORDER BY st.lineIndex ASC")
     List<StatementLineProjection> findLinesByStatementId(@Param("statementId") UUID statementId);
     List<StatementTransaction> findByIdTransactionId(UUID transactionId);
+
+    @Query("SELECT st.id.transactionId FROM StatementTransaction st WHERE st.id.statementId IN :statementIds")
+    List<UUID> findTransactionIdsByStatementIds(@Param("statementIds") List<UUID> statementIds);
 }
 
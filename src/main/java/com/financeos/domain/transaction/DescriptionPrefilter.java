@@ -0,0 +1,45 @@
+package com.financeos.domain.transaction;
+
+import java.util.List;
+
+/**
+ * A predicate on sourced_description that Oracle can evaluate, used to narrow category-rule
+ * match candidates before the exact Java matcher runs. It must accept every description the
+ * rule it was derived from accepts; accepting more is fine, since the caller re-verifies.
+ * <p>
+ * The "key" forms compare against the upper-cased, whitespace-trimmed description — the
+ * expression indexed by idx_transactions_desc_key — so they are index range scans.
+ */
+public record DescriptionPrefilter(Kind kind, List<String> values) {
+
+    public enum Kind {
+        /** Upper-cased description contains every value. */
+        CONTAINS_ALL,
+        /** Description key starts with the (single) value. */
+        KEY_STARTS_WITH,
+        /** Description key equals the (single) value. */
+        KEY_EQUALS,
+        /** Trimmed description matches the (single) POSIX regex, case-insensitively. */
+        REGEX
+    }
+
+    public DescriptionPrefilter {
+        values = List.copyOf(values);
+    }
+
+    public static DescriptionPrefilter containsAll(List<String> upperCased) {
+        return new DescriptionPrefilter(Kind.CONTAINS_ALL, upperCased);
+    }
+
+    public static DescriptionPrefilter keyStartsWith(String upperCasedPrefix) {
+        return new DescriptionPrefilter(Kind.KEY_STARTS_WITH, List.of(upperCasedPrefix));
+    }
+
+    public static DescriptionPrefilter keyEquals(String upperCasedKey) {
+        return new DescriptionPrefilter(Kind.KEY_EQUALS, List.of(upperCasedKey));
+    }
+
+    public static DescriptionPrefilter regex(String pattern) {
+        return new DescriptionPrefilter(Kind.REGEX, List.of(pattern));
+    }
+}
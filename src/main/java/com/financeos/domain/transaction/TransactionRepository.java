@@ -76,7 +76,8 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
     /**
      * Candidates for category-rule matching: only ingested transactions (rules never match
      * manual descriptions) that aren't manually reviewed. Lightweight projection because the
-     * rule predicate runs in Java — MERCHANT_KEY normalization and REGEX can't be pushed to SQL.
+     * rule predicate runs in Java. Previews narrow this in SQL where the pattern allows, via
+     * {@link TransactionRepositoryCustom#findRuleMatchCandidatesPrefiltered}.
      */
     @Query("SELECT t.id AS id, t.sourcedDescription AS sourcedDescription FROM Transaction t " +
            "WHERE t.user.id = :userId AND t.sourcedDescription IS NOT NULL " +
@@ -86,6 +87,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
             @Param("userId") UUID userId,
             @Param("excludedReviewType") ReviewType excludedReviewType);
 
+    /**
+     * One keyset page of {@link #findRuleMatchCandidates} in id order, strictly after
+     * {@code afterId} (pass the nil UUID for the first page). Lets a rule apply stream the
+     * candidate set in bounded chunks and resume from the last id it committed.
+     */
+    @Query("SELECT t.id AS id, t.sourcedDescription AS sourcedDescription FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.sourcedDescription IS NOT NULL " +
+           "AND (t.reviewType IS NULL OR t.reviewType <> :excludedReviewType) " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<RuleMatchCandidate> findRuleMatchCandidatesAfter(
+            @Param("userId") UUID userId,
+            @Param("excludedReviewType") ReviewType excludedReviewType,
+            @Param("afterId") UUID afterId,
+            Pageable limit);
+
+    @Query("SELECT COUNT(t) FROM Transaction t " +
+           "WHERE t.user.id = :userId AND t.sourcedDescription IS NOT NULL " +
+           "AND (t.reviewType IS NULL OR t.reviewType <> :excludedReviewType)")
+    long countRuleMatchCandidates(
+            @Param("userId") UUID userId,
+            @Param("excludedReviewType") ReviewType excludedReviewType);
+
     @Query("SELECT COALESCE(SUM(CASE WHEN t.type = com.financeos.domain.transaction.TransactionType.CREDIT THEN t.amount ELSE -t.amount END), 0) FROM Transaction t WHERE t.account.id = :accountId")
     java.math.BigDecimal findTotalTransactionSumByAccountId(@Param("accountId") UUID accountId);
 
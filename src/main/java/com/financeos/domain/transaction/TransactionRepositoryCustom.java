@@ -3,6 +3,7 @@ package com.financeos.domain.transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -18,4 +19,15 @@ public interface TransactionRepositoryCustom {
             TransactionSearchCriteria criteria,
             Pageable pageable
     );
+
+    /**
+     * Rule-match candidates (as {@link TransactionRepository#findRuleMatchCandidates}, same
+     * order) narrowed in SQL by {@code prefilter}. The result may still contain rows the rule
+     * doesn't match; callers verify each one with the Java matcher.
+     */
+    List<TransactionRepository.RuleMatchCandidate> findRuleMatchCandidatesPrefiltered(
+            UUID userId,
+            ReviewType excludedReviewType,
+            DescriptionPrefilter prefilter
+    );
 }
@@ -17,6 +17,35 @@ import java.util.*;
 @Repository
 public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
 
+    private static final String TRIMMED_DESCRIPTION_SQL =
+            "REGEXP_REPLACE(sourced_description, '^[[:space:][:cntrl:]]+|[[:space:][:cntrl:]]+$', '')";
+
+    /**
+     * Upper-cased, trimmed sourced_description, cut to 1000 characters to fit an index key
+     * (rule patterns are at most 255, so comparisons against it are unaffected). Must stay
+     * textually identical to the idx_transactions_desc_key expression (V67) for Oracle to use
+     * the index.
+     */
+    private static final String DESCRIPTION_KEY_SQL = "SUBSTR(UPPER(" + TRIMMED_DESCRIPTION_SQL + "), 1, 1000)";
+
+    /**
+     * True for a description with a character outside ASCII: TRANSLATE marks every ASCII character
+     * (bound as :ascii) with '#' and what survives dropping the marks is the rest. Java's
+     * toUpperCase folds some such characters into several (ß to SS, the ﬁ ligature to FI) where
+     * Oracle's UPPER keeps one, so these rows bypass the prefilter and RuleMatcher decides.
+     */
+    private static final String NON_ASCII_DESCRIPTION_SQL =
+            "LENGTH(REPLACE(TRANSLATE(sourced_description, :ascii, :asciiMarks), '#', '')) > 0";
+
+    private static final String ASCII_CHARS;
+    static {
+        StringBuilder ascii = new StringBuilder();
+        for (char c = 1; c < 0x80; c++) {
+            ascii.append(c);
+        }
+        ASCII_CHARS = ascii.toString();
+    }
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -78,6 +107,83 @@ public class TransactionRepositoryCustomImpl implements TransactionRepositoryCus
         return new PageImpl<>(projections, pageable, total);
     }
 
+    @Override
+    public List<TransactionRepository.RuleMatchCandidate> findRuleMatchCandidatesPrefiltered(
+            UUID userId,
+            ReviewType excludedReviewType,
+            DescriptionPrefilter prefilter) {
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId.toString());
+        params.put("excludedReviewType", excludedReviewType.name());
+
+        StringBuilder sql = new StringBuilder("""
+            SELECT id, sourced_description FROM transactions
+            WHERE user_id = :userId AND sourced_description IS NOT NULL
+              AND (review_type IS NULL OR review_type <> :excludedReviewType)
+            """);
+        List<String> values = prefilter.values();
+        List<String> conditions = new ArrayList<>();
+        switch (prefilter.kind()) {
+            case CONTAINS_ALL -> {
+                for (int i = 0; i < values.size(); i++) {
+                    conditions.add("UPPER(sourced_description) LIKE :p" + i + " ESCAPE '\\'");
+                    params.put("p" + i, "%" + escapeLike(values.get(i)) + "%");
+                }
+            }
+            case KEY_STARTS_WITH -> {
+                conditions.add(DESCRIPTION_KEY_SQL + " LIKE :p0 ESCAPE '\\'");
+                params.put("p0", escapeLike(values.get(0)) + "%");
+            }
+            case KEY_EQUALS -> {
+                conditions.add(DESCRIPTION_KEY_SQL + " = :p0");
+                params.put("p0", values.get(0));
+            }
+            case REGEX -> {
+                conditions.add("REGEXP_LIKE(" + TRIMMED_DESCRIPTION_SQL + ", :p0, 'i')");
+                params.put("p0", values.get(0));
+            }
+        }
+        if (conditions.isEmpty()) {
+            conditions.add("1 = 1");
+        }
+        sql.append("  AND ((").append(String.join(" AND ", conditions)).append(")\n")
+                .append("       OR ").append(NON_ASCII_DESCRIPTION_SQL).append(")\n");
+        params.put("ascii", ASCII_CHARS);
+        params.put("asciiMarks", "#".repeat(ASCII_CHARS.length()));
+        sql.append("ORDER BY transaction_date DESC, created_at DESC");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+
+        List<?> rows = query.getResultList();
+        List<TransactionRepository.RuleMatchCandidate> candidates = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] array = (Object[]) row;
+            UUID id = array[0] instanceof UUID uuid ? uuid : UUID.fromString(array[0].toString());
+            candidates.add(new RuleMatchCandidateImpl(id, (String) array[1]));
+        }
+        return candidates;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record RuleMatchCandidateImpl(UUID id, String sourcedDescription)
+            implements TransactionRepository.RuleMatchCandidate {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getSourcedDescription() {
+            return sourcedDescription;
+        }
+    }
+
     private static class TransactionBalanceProjectionImpl implements TransactionRepository.TransactionBalanceProjection {
         private final UUID id;
         private final BigDecimal balance;
@@ -4,6 +4,10 @@ import com.google.api.client.auth.oauth2.BearerToken;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.BasicAuthentication;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -18,6 +22,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * Gmail API client wrapper.
@@ -108,6 +113,35 @@ public class GmailApiClient {
                 .execute();
     }
 
+    /**
+     * Get the given headers of several messages (format=metadata, no bodies) in batch requests of
+     * at most {@code batchSize}. Each message's outcome goes to exactly one of the callbacks.
+     */
+    public void getMessageMetadata(Gmail service, List<String> messageIds, List<String> headerNames, int batchSize,
+                                   BiConsumer<String, Message> onMessage,
+                                   BiConsumer<String, GoogleJsonError> onError) throws IOException {
+        for (int from = 0; from < messageIds.size(); from += batchSize) {
+            BatchRequest batch = service.batch();
+            for (String messageId : messageIds.subList(from, Math.min(messageIds.size(), from + batchSize))) {
+                service.users().messages().get("me", messageId)
+                        .setFormat("metadata")
+                        .setMetadataHeaders(headerNames)
+                        .queue(batch, new JsonBatchCallback<Message>() {
+                            @Override
+                            public void onSuccess(Message message, HttpHeaders responseHeaders) {
+                                onMessage.accept(messageId, message);
+                            }
+
+                            @Override
+                            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                                onError.accept(messageId, error);
+                            }
+                        });
+            }
+            batch.execute();
+        }
+    }
+
     /**
      * Get attachment by ID.
      */
@@ -1,13 +1,22 @@
 package com.financeos.gmail.domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface GmailProcessedMessageRepository extends JpaRepository<GmailProcessedMessage, UUID> {
     Optional<GmailProcessedMessage> findByConnectionIdAndGmailMessageId(UUID connectionId, String gmailMessageId);
     boolean existsByConnectionIdAndGmailMessageId(UUID connectionId, String gmailMessageId);
+
+    @Query("SELECT m.gmailMessageId FROM GmailProcessedMessage m "
+            + "WHERE m.connection.id = :connectionId AND m.gmailMessageId IN :gmailMessageIds")
+    Set<String> findProcessedMessageIds(@Param("connectionId") UUID connectionId,
+                                        @Param("gmailMessageIds") Collection<String> gmailMessageIds);
 }
@@ -4,17 +4,42 @@ import com.financeos.gmail.client.GmailApiClient;
 import com.financeos.gmail.domain.GmailConnection;
 import com.financeos.gmail.history.SyncStateService;
 import com.financeos.gmail.internal.*;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.gmail.Gmail;
-import com.google.api.services.gmail.model.*;
+import com.google.api.services.gmail.model.History;
+import com.google.api.services.gmail.model.HistoryMessageAdded;
+import com.google.api.services.gmail.model.ListHistoryResponse;
+import com.google.api.services.gmail.model.ListMessagesResponse;
+import com.google.api.services.gmail.model.Message;
+import com.google.api.services.gmail.model.MessagePart;
+import com.google.api.services.gmail.model.MessagePartBody;
+import com.google.api.services.gmail.model.MessagePartHeader;
+import com.google.api.services.gmail.model.Profile;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 /**
  * Gmail Engine - Pure fetch engine.
@@ -22,14 +47,32 @@ import java.util.List;
  * Returns raw, uninterpreted data only.
  */
 @Component
-public class GmailEngine {
+public class GmailEngine implements DisposableBean {
+
+    private static final List<String> METADATA_HEADERS = List.of("From", "Subject");
+    private static final Set<String> RATE_LIMIT_REASONS = Set.of("rateLimitExceeded", "userRateLimitExceeded");
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
 
     private final GmailApiClient gmailApiClient;
     private final SyncStateService syncStateService;
+    private final GmailFetchProperties properties;
+    private final ExecutorService fetchPool;
 
-    public GmailEngine(GmailApiClient gmailApiClient, SyncStateService syncStateService) {
+    public GmailEngine(GmailApiClient gmailApiClient, SyncStateService syncStateService, GmailFetchProperties properties) {
         this.gmailApiClient = gmailApiClient;
         this.syncStateService = syncStateService;
+        this.properties = properties;
+        int concurrency = Math.max(1, properties.getConcurrency());
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                concurrency, concurrency, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "gmail-fetch-" + THREAD_SEQ.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.fetchPool = pool;
     }
 
     /**
@@ -54,7 +97,7 @@ public class GmailEngine {
             GmailSyncState currentState = syncStateService.getSyncState(connection.getId());
 
             // Fetch messages
-            List<GmailMessage> messages = fetchMessages(service, request, currentState);
+            FetchedMessages fetched = fetchMessages(service, request, currentState);
 
             // Update sync state
             String newHistoryId = extractHistoryId(service, currentState);
@@ -62,9 +105,12 @@ public class GmailEngine {
 
             GmailSyncState nextState = new GmailSyncState(newHistoryId, lastSyncedAt);
 
-            return new GmailFetchResult(messages, nextState);
+            return new GmailFetchResult(fetched.messages(), nextState, fetched.filteredOut());
 
         } catch (IOException e) {
+            if (e instanceof GoogleJsonResponseException gje && isRateLimited(gje.getStatusCode(), gje.getDetails())) {
+                throw new GmailEngineException(GmailError.RATE_LIMIT, "Rate limit exceeded", e);
+            }
             // Check for specific error types
             String errorMsg = e.getMessage();
             if (errorMsg != null) {
@@ -79,118 +125,260 @@ public class GmailEngine {
         }
     }
 
+    @Override
+    public void destroy() {
+        fetchPool.shutdownNow();
+    }
+
     /**
-     * Fetch messages based on request mode.
+     * Fetch messages based on request mode: list ids, narrow them by headers when the request
+     * has a filter, then download the survivors in full.
      */
-    private List<GmailMessage> fetchMessages(Gmail service, GmailFetchRequest request, GmailSyncState currentState) throws IOException {
-        List<GmailMessage> messages;
-
+    private FetchedMessages fetchMessages(Gmail service, GmailFetchRequest request, GmailSyncState currentState) throws IOException {
+        Integer maxMessages = request.maxMessages();
+        IdListing listing;
         if (currentState != null && request.mode() == FetchMode.PERIODIC) {
             // Incremental sync using historyId
-            messages = fetchIncremental(service, currentState.historyId(), request.maxMessages());
+            listing = new HistoryListing(service, currentState.historyId(), maxMessages);
         } else {
             // Full sync or manual fetch
-            messages = fetchFull(service, request, request.maxMessages());
+            listing = new QueryListing(service, buildQuery(request), maxMessages);
         }
 
-        return messages;
+        List<String> selected = new ArrayList<>();
+        int filteredOut = 0;
+        while (maxMessages == null || selected.size() < maxMessages) {
+            List<String> page = listing.next();
+            if (page == null) {
+                break;
+            }
+            List<String> kept = request.keep() != null ? filterByHeaders(service, page, request.keep()) : page;
+            filteredOut += page.size() - kept.size();
+            selected.addAll(kept);
+        }
+        if (maxMessages != null && selected.size() > maxMessages) {
+            selected = selected.subList(0, maxMessages);
+        }
+        return new FetchedMessages(downloadMessages(service, selected), filteredOut);
+    }
+
+    private record FetchedMessages(List<GmailMessage> messages, int filteredOut) {
+    }
+
+    /** Pages of message ids; null once exhausted. */
+    private interface IdListing {
+        List<String> next() throws IOException;
     }
 
     /**
-     * Fetch messages incrementally using history.
+     * Message ids added since a history id. A message can appear in several history records, so
+     * ids are de-duplicated across pages.
      */
-    private List<GmailMessage> fetchIncremental(Gmail service, String startHistoryId, Integer maxMessages) throws IOException {
-        List<GmailMessage> messages = new ArrayList<>();
-        String pageToken = null;
-        int fetched = 0;
-
-        BigInteger historyIdBigInt = new BigInteger(startHistoryId);
-        long maxResultsLong = maxMessages != null ? Math.min(maxMessages - fetched, 100L) : 100L;
-
-        do {
-            ListHistoryResponse historyResponse = gmailApiClient.getHistory(
-                    service,
-                    historyIdBigInt,
-                    pageToken,
-                    maxResultsLong
-            );
+    private final class HistoryListing implements IdListing {
+        private final Gmail service;
+        private final BigInteger startHistoryId;
+        private final Integer maxMessages;
+        private final Set<String> seen = new HashSet<>();
+        private String pageToken;
+        private boolean done;
+
+        HistoryListing(Gmail service, String startHistoryId, Integer maxMessages) {
+            this.service = service;
+            this.startHistoryId = new BigInteger(startHistoryId);
+            this.maxMessages = maxMessages;
+        }
+
+        @Override
+        public List<String> next() throws IOException {
+            if (done) {
+                return null;
+            }
+            long maxResults = maxMessages != null ? Math.min(maxMessages, 100L) : 100L;
+            ListHistoryResponse historyResponse = withBackoff(() ->
+                    gmailApiClient.getHistory(service, startHistoryId, pageToken, maxResults));
+            pageToken = historyResponse.getNextPageToken();
+            done = pageToken == null;
 
             List<History> historyList = historyResponse.getHistory();
             if (historyList == null) {
-                break;
+                done = true;
+                return null;
             }
-
+            List<String> ids = new ArrayList<>();
             for (History history : historyList) {
                 List<HistoryMessageAdded> addedMessages = history.getMessagesAdded();
                 if (addedMessages != null) {
                     for (HistoryMessageAdded added : addedMessages) {
-                        if (maxMessages != null && fetched >= maxMessages) {
-                            break;
-                        }
                         Message msg = added.getMessage();
-                        if (msg != null && msg.getId() != null) {
-                            GmailMessage gmailMessage = fetchMessageDetails(service, msg.getId());
-                            if (gmailMessage != null) {
-                                messages.add(gmailMessage);
-                                fetched++;
-                            }
+                        if (msg != null && msg.getId() != null && seen.add(msg.getId())) {
+                            ids.add(msg.getId());
                         }
                     }
                 }
             }
+            return ids;
+        }
+    }
 
-            pageToken = historyResponse.getNextPageToken();
-            maxResultsLong = maxMessages != null ? Math.min(maxMessages - fetched, 100L) : 100L;
-        } while (pageToken != null && (maxMessages == null || fetched < maxMessages));
+    /** Message ids matching a search query. */
+    private final class QueryListing implements IdListing {
+        private final Gmail service;
+        private final String query;
+        private final Integer maxMessages;
+        private String pageToken;
+        private boolean done;
+
+        QueryListing(Gmail service, String query, Integer maxMessages) {
+            this.service = service;
+            this.query = query;
+            this.maxMessages = maxMessages;
+        }
+
+        @Override
+        public List<String> next() throws IOException {
+            if (done) {
+                return null;
+            }
+            long maxResults = maxMessages != null ? Math.min(maxMessages, 100L) : 100L;
+            ListMessagesResponse listResponse = withBackoff(() ->
+                    gmailApiClient.listMessages(service, query, pageToken, maxResults));
+            pageToken = listResponse.getNextPageToken();
+            done = pageToken == null;
 
-        return messages;
+            List<Message> messageList = listResponse.getMessages();
+            if (messageList == null) {
+                done = true;
+                return null;
+            }
+            return messageList.stream().map(Message::getId).toList();
+        }
     }
 
     /**
-     * Fetch messages with time filter.
+     * Phase one: fetch only the headers of the given messages, in batch requests, and return the
+     * ids the filter keeps, in input order. The filter sees the whole page at once. Rate-limited
+     * items are re-requested after a backoff; messages deleted since listing are dropped.
      */
-    private List<GmailMessage> fetchFull(Gmail service, GmailFetchRequest request, Integer maxMessages) throws IOException {
-        List<GmailMessage> messages = new ArrayList<>();
-        String query = buildQuery(request);
-        String pageToken = null;
-        int fetched = 0;
-
-        do {
-            long maxResultsLong = maxMessages != null ? Math.min(maxMessages - fetched, 100L) : 100L;
-            ListMessagesResponse listResponse = gmailApiClient.listMessages(
-                    service,
-                    query,
-                    pageToken,
-                    maxResultsLong
-            );
+    private List<String> filterByHeaders(Gmail service, List<String> ids,
+                                         UnaryOperator<List<GmailMessageHeader>> keep) throws IOException {
+        Map<String, GmailMessageHeader> headers = new HashMap<>();
+        List<String> pending = ids;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            List<String> retry = new ArrayList<>();
+            List<GoogleJsonError> failures = new ArrayList<>();
+            gmailApiClient.getMessageMetadata(service, pending, METADATA_HEADERS, properties.getMetadataBatchSize(),
+                    (id, message) -> headers.put(id, toHeader(id, message)),
+                    (id, error) -> {
+                        if (isRetryable(error.getCode(), error)) {
+                            retry.add(id);
+                        } else if (error.getCode() != 404) {
+                            failures.add(error);
+                        }
+                    });
+            if (!failures.isEmpty()) {
+                GoogleJsonError first = failures.get(0);
+                // Status code leads the message so fetch() classifies it like any other IOException
+                throw new IOException(first.getCode() + " " + first.getMessage() + " (metadata fetch)");
+            }
+            if (!retry.isEmpty()) {
+                if (attempt >= properties.getMaxRetries()) {
+                    throw new IOException("429 rate limit exceeded fetching message metadata");
+                }
+                sleep(backoffDelay(attempt));
+            }
+            pending = retry;
+        }
 
-            List<Message> messageList = listResponse.getMessages();
-            if (messageList == null) {
-                break;
+        List<GmailMessageHeader> fetched = new ArrayList<>();
+        for (String id : ids) {
+            GmailMessageHeader header = headers.get(id);
+            if (header != null) {
+                fetched.add(header);
             }
+        }
+        Set<String> keptIds = new HashSet<>();
+        for (GmailMessageHeader header : keep.apply(fetched)) {
+            keptIds.add(header.messageId());
+        }
+        List<String> kept = new ArrayList<>();
+        for (GmailMessageHeader header : fetched) {
+            if (keptIds.contains(header.messageId())) {
+                kept.add(header.messageId());
+            }
+        }
+        return kept;
+    }
 
-            for (Message msg : messageList) {
-                if (maxMessages != null && fetched >= maxMessages) {
-                    break;
-                }
-                GmailMessage gmailMessage = fetchMessageDetails(service, msg.getId());
-                if (gmailMessage != null) {
-                    messages.add(gmailMessage);
-                    fetched++;
-                }
+    private GmailMessageHeader toHeader(String messageId, Message message) {
+        Long internalDate = message.getInternalDate();
+        String from = extractHeader(message, "From");
+        String subject = extractHeader(message, "Subject");
+        return new GmailMessageHeader(
+                messageId,
+                internalDate != null ? Instant.ofEpochMilli(internalDate) : Instant.now(),
+                from != null ? from : "",
+                subject != null ? subject : "");
+    }
+
+    /**
+     * Phase two: download the given messages in full on the shared fetch pool, at most
+     * {@code gmail.fetch.concurrency} at a time across all syncs. Order is preserved.
+     */
+    private List<GmailMessage> downloadMessages(Gmail service, List<String> ids) throws IOException {
+        List<GmailMessage> messages = new ArrayList<>(ids.size());
+        if (ids.size() <= 1 || properties.getConcurrency() <= 1) {
+            for (String id : ids) {
+                addIfPresent(messages, fetchMessageDetails(service, id));
             }
+            return messages;
+        }
 
-            pageToken = listResponse.getNextPageToken();
-        } while (pageToken != null && (maxMessages == null || fetched < maxMessages));
+        List<Future<GmailMessage>> futures = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            futures.add(fetchPool.submit(() -> fetchMessageDetails(service, id)));
+        }
+        try {
+            for (Future<GmailMessage> future : futures) {
+                addIfPresent(messages, future.get());
+            }
+            return messages;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching messages");
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
 
-        return messages;
+    private static void addIfPresent(List<GmailMessage> messages, GmailMessage message) {
+        if (message != null) {
+            messages.add(message);
+        }
     }
 
     /**
      * Fetch full message details including attachments.
      */
     private GmailMessage fetchMessageDetails(Gmail service, String messageId) throws IOException {
-        Message message = gmailApiClient.getMessage(service, messageId);
+        Message message;
+        try {
+            message = withBackoff(() -> gmailApiClient.getMessage(service, messageId));
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() == 404) {
+                // Deleted between listing and download
+                return null;
+            }
+            throw e;
+        }
         if (message == null) {
             return null;
         }
@@ -349,6 +537,60 @@ public class GmailEngine {
                 fromTime.atZone(java.time.ZoneId.of("UTC")).getDayOfMonth());
     }
 
+    @FunctionalInterface
+    private interface GmailCall<T> {
+        T execute() throws IOException;
+    }
+
+    /** Runs a single API call, retrying rate-limit and unavailable responses with backoff. */
+    private <T> T withBackoff(GmailCall<T> call) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return call.execute();
+            } catch (GoogleJsonResponseException e) {
+                if (attempt >= properties.getMaxRetries() || !isRetryable(e.getStatusCode(), e.getDetails())) {
+                    throw e;
+                }
+                sleep(backoffDelay(attempt));
+            }
+        }
+    }
+
+    /** Rate limits plus transient 500/503s. */
+    private static boolean isRetryable(int status, GoogleJsonError details) {
+        return status == 500 || status == 503 || isRateLimited(status, details);
+    }
+
+    /**
+     * 429s, and 403s whose reason is a rate limit (Gmail reports per-user quota that way). Other
+     * 403s are real permission errors.
+     */
+    private static boolean isRateLimited(int status, GoogleJsonError details) {
+        if (status == 429) {
+            return true;
+        }
+        if (status != 403 || details == null || details.getErrors() == null) {
+            return false;
+        }
+        return details.getErrors().stream().anyMatch(info -> RATE_LIMIT_REASONS.contains(info.getReason()));
+    }
+
+    /** Exponential backoff with full jitter. */
+    private long backoffDelay(int retryIndex) {
+        long exponential = properties.getBackoffBaseMs() * (1L << Math.min(retryIndex, 30));
+        long capped = Math.min(properties.getBackoffMaxMs(), exponential);
+        return ThreadLocalRandom.current().nextLong(0, capped + 1);
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during Gmail backoff");
+        }
+    }
+
     /**
      * Extract or generate historyId.
      */
@@ -0,0 +1,21 @@
+package com.financeos.gmail.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "gmail.fetch")
+@Getter
+@Setter
+public class GmailFetchProperties {
+    /** Message ids per METADATA batch request (Gmail caps a batch at 100, recommends at most 50). */
+    private int metadataBatchSize = 50;
+    /** Full-message downloads in flight at once, shared by all connections syncing. */
+    private int concurrency = 4;
+    /** Retries of a rate-limited or unavailable call before the fetch fails. */
+    private int maxRetries = 5;
+    private long backoffBaseMs = 500;
+    private long backoffMaxMs = 32_000;
+}
@@ -72,6 +72,7 @@ public class EmailClassifier {
             String reasoning = rootNode.path("reasoning").asText("");
 
             EmailType type = EmailType.valueOf(typeStr);
+            llmClient.accept(request, response);
             return EmailClassificationResult.success(type, confidence, reasoning);
 
         } catch (LlmException e) {
@@ -12,8 +12,10 @@ import com.financeos.gmail.internal.FetchMode;
 import com.financeos.gmail.internal.GmailFetchRequest;
 import com.financeos.gmail.internal.GmailFetchResult;
 import com.financeos.gmail.internal.GmailMessage;
+import com.financeos.gmail.internal.GmailMessageHeader;
 import com.financeos.gmail.ingest.gemini.GeminiExtractionResult;
 import com.financeos.gmail.ingest.gemini.GeminiExtractor;
+import com.financeos.gmail.ingest.template.AlertTemplateService;
 import com.financeos.gmail.reconcile.StatementReconciliationService;
 import com.financeos.gmail.reconcile.ReconSummary;
 import org.slf4j.Logger;
@@ -22,7 +24,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -45,6 +49,7 @@ public class GmailIngestionService {
     private final GmailIngestProperties ingestProperties;
     private final StatementReconciliationService statementReconciliationService;
     private final CategorizationService categorizationService;
+    private final AlertTemplateService alertTemplateService;
 
     public GmailIngestionService(GmailEngine gmailEngine,
                                  SyncStateService syncStateService,
@@ -55,7 +60,8 @@ public class GmailIngestionService {
                                  GmailProcessedMessageRepository processedMessageRepository,
                                  GmailIngestProperties ingestProperties,
                                  StatementReconciliationService statementReconciliationService,
-                                 CategorizationService categorizationService) {
+                                 CategorizationService categorizationService,
+                                 AlertTemplateService alertTemplateService) {
         this.gmailEngine = gmailEngine;
         this.syncStateService = syncStateService;
         this.gmailSenderRepository = gmailSenderRepository;
@@ -66,6 +72,7 @@ public class GmailIngestionService {
         this.ingestProperties = ingestProperties;
         this.statementReconciliationService = statementReconciliationService;
         this.categorizationService = categorizationService;
+        this.alertTemplateService = alertTemplateService;
     }
 
 
@@ -108,18 +115,21 @@ public class GmailIngestionService {
         String query = String.format("from:(%s) after:%d", senderQuery, epochSeconds);
         log.info("Starting Gmail sync for connection: {} using query: {}", connection.getEmail(), query);
 
-        // 3. Fetch from Gmail Engine
-        GmailFetchRequest fetchRequest = new GmailFetchRequest(FetchMode.MANUAL, null, 100, query);
+        // 3. Fetch from Gmail Engine. Headers come first; already-processed and non-allowlisted
+        // messages are dropped there, so only new allowlisted mail is downloaded in full.
+        GmailFetchRequest fetchRequest = new GmailFetchRequest(FetchMode.MANUAL, null, 100, query,
+                headers -> unprocessedAllowlisted(connection, senders, headers));
         GmailFetchResult fetchResult = gmailEngine.fetch(connection, fetchRequest);
         
-        int fetched = fetchResult.messages().size();
+        int fetched = fetchResult.messages().size() + fetchResult.filteredOut();
         int created = 0;
-        int skipped = 0;
+        int skipped = fetchResult.filteredOut();
         int failed = 0;
         int reconciled = 0;
         List<Transaction> createdTxns = new ArrayList<>();
 
-        // 4. Process each message
+        // 4. Screen each message: ledger, allowlist, and statement vs. alert routing
+        List<Candidate> candidates = new ArrayList<>();
         for (GmailMessage message : fetchResult.messages()) {
             try {
                 // Check if message is already in processed ledger. Every persisted entry is
@@ -143,7 +153,55 @@ public class GmailIngestionService {
                 // Route Statement vs. Alert by a zero-cost attachment heuristic instead of an LLM call.
                 // Statements arrive as PDF/Excel attachments; anything else is treated as a transaction
                 // alert, and the extractor itself filters out non-transactions (returns notTransaction()).
-                if (hasStatementAttachment(message)) {
+                candidates.add(new Candidate(message, sender, hasStatementAttachment(message)));
+            } catch (Exception e) {
+                log.warn("Failed to process message: " + message.messageId(), e);
+                failed++;
+            }
+        }
+
+        // 5. Parse alerts from known formats with learned sender templates; extract the rest (and
+        // sampled template hits, for verification) in batched LLM calls. Then process in fetch order.
+        Map<String, GeminiExtractionResult> extractions = new HashMap<>();
+        Map<String, AlertTemplateService.TemplateMatch> toVerify = new HashMap<>();
+        List<Candidate> toExtract = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.statement()) {
+                continue;
+            }
+            AlertTemplateService.TemplateMatch match = matchTemplate(candidate);
+            if (match != null && !match.verify()) {
+                extractions.put(candidate.message().messageId(), match.result());
+                continue;
+            }
+            if (match != null) {
+                toVerify.put(candidate.message().messageId(), match);
+            }
+            toExtract.add(candidate);
+        }
+        List<GeminiExtractionResult> alertResults = geminiExtractor.extractAll(
+                toExtract.stream().map(Candidate::message).toList());
+        for (int i = 0; i < toExtract.size(); i++) {
+            Candidate candidate = toExtract.get(i);
+            GeminiExtractionResult result = alertResults.get(i);
+            extractions.put(candidate.message().messageId(), result);
+            AlertTemplateService.TemplateMatch match = toVerify.get(candidate.message().messageId());
+            try {
+                if (match != null) {
+                    alertTemplateService.verify(match, result);
+                } else {
+                    alertTemplateService.learn(candidate.sender(), candidate.message(), result);
+                }
+            } catch (Exception e) {
+                log.warn("Alert template bookkeeping failed for message {}", candidate.message().messageId(), e);
+            }
+        }
+
+        for (Candidate candidate : candidates) {
+            GmailMessage message = candidate.message();
+            GmailSender sender = candidate.sender();
+            try {
+                if (candidate.statement()) {
                     ReconSummary recon = statementReconciliationService.reconcile(connection, message);
                     created += recon.created();
                     reconciled += recon.matched();
@@ -153,8 +211,8 @@ public class GmailIngestionService {
                     continue;
                 }
 
-                // TRANSACTION_ALERT purpose -> extract details via Gemini Flash
-                GeminiExtractionResult extractionResult = geminiExtractor.extract(message);
+                // TRANSACTION_ALERT purpose -> details extracted above
+                GeminiExtractionResult extractionResult = extractions.get(message.messageId());
                 if (!extractionResult.isSuccess()) {
                     log.warn("Extraction failed for message {}: {}", message.messageId(), extractionResult.failureReason());
                     failed++;
@@ -203,12 +261,25 @@ public class GmailIngestionService {
             categorizationService.batchCategorize(createdTxns);
         }
 
-        // 5. Advance watermark only after successful batch processing (durable cursor)
+        // 6. Advance watermark only after successful batch processing (durable cursor)
         syncStateService.saveSyncState(connection, fetchResult.nextState().historyId(), fetchResult.nextState().lastSyncedAt());
 
         return new SyncSummary(fetched, created, skipped, failed, reconciled);
     }
 
+    private record Candidate(GmailMessage message, GmailSender sender, boolean statement) {
+    }
+
+    /** A learned template's parse of the alert, or null on a miss; template trouble is never fatal. */
+    private AlertTemplateService.TemplateMatch matchTemplate(Candidate candidate) {
+        try {
+            return alertTemplateService.match(candidate.sender(), candidate.message());
+        } catch (Exception e) {
+            log.warn("Alert template lookup failed for message {}", candidate.message().messageId(), e);
+            return null;
+        }
+    }
+
     private static final Set<String> STATEMENT_ATTACHMENT_EXTENSIONS = Set.of(".pdf", ".xlsx", ".xls");
 
     /**
@@ -225,6 +296,25 @@ public class GmailIngestionService {
                 .anyMatch(name -> STATEMENT_ATTACHMENT_EXTENSIONS.stream().anyMatch(name::endsWith));
     }
 
+    /**
+     * Header filter for one listing page: drops non-allowlisted senders, then messages already in
+     * the processed ledger, looked up for the whole page in one query.
+     */
+    private List<GmailMessageHeader> unprocessedAllowlisted(GmailConnection connection, List<GmailSender> senders,
+                                                            List<GmailMessageHeader> headers) {
+        List<GmailMessageHeader> allowlisted = headers.stream()
+                .filter(header -> findMatchingSender(senders, extractEmailAddress(header.from())) != null)
+                .toList();
+        if (allowlisted.isEmpty()) {
+            return allowlisted;
+        }
+        Set<String> processed = processedMessageRepository.findProcessedMessageIds(connection.getId(),
+                allowlisted.stream().map(GmailMessageHeader::messageId).toList());
+        return allowlisted.stream()
+                .filter(header -> !processed.contains(header.messageId()))
+                .toList();
+    }
+
     private String extractEmailAddress(String fromHeader) {
         if (fromHeader == null) {
             return "";
@@ -23,7 +23,7 @@ import java.util.Locale;
  *   <li>US MDY slash: {@code M/d/yyyy} — tried last to avoid ambiguity with DMY</li>
  * </ol>
  */
-final class FlexibleDateParser {
+public final class FlexibleDateParser {
 
     private FlexibleDateParser() {}
 
@@ -74,7 +74,7 @@ final class FlexibleDateParser {
      * @return parsed LocalDate
      * @throws DateTimeParseException if no format matches
      */
-    static LocalDate parse(String text) {
+    public static LocalDate parse(String text) {
         if (text == null || text.isBlank()) {
             throw new DateTimeParseException("Date string is null or blank", "", 0);
         }
@@ -1,30 +1,75 @@
 package com.financeos.gmail.ingest.gemini;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.financeos.core.observability.MdcTaskDecorator;
 import com.financeos.gmail.internal.GmailMessage;
 import com.financeos.llm.LlmClient;
 import com.financeos.llm.LlmException;
 import com.financeos.llm.LlmRequest;
 import com.financeos.llm.LlmResponse;
+import com.financeos.llm.cache.LlmResponseCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
-public class GeminiExtractor {
+public class GeminiExtractor implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(GeminiExtractor.class);
+
+    private static final String TASK = "email-extract";
+
+    // Provider batch sizes are tuned for one-line categorization items; alert bodies are far
+    // longer, so a chunk is also capped by count and by prompt size.
+    static final int MAX_ALERTS_PER_CHUNK = 20;
+    static final int MAX_CHUNK_CHARS = 40_000;
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
     private final LlmClient llmClient;
     private final ObjectMapper objectMapper;
+    private final LlmResponseCache responseCache;
+    private final MdcTaskDecorator mdcTaskDecorator = new MdcTaskDecorator();
+    // Shared by all extractAll calls; each call bounds its own concurrency. Idle threads expire.
+    private final ExecutorService chunkPool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "alert-extract-" + THREAD_SEQ.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
 
     public GeminiExtractor(LlmClient llmClient, ObjectMapper objectMapper) {
+        this(llmClient, objectMapper, null);
+    }
+
+    @Autowired
+    public GeminiExtractor(LlmClient llmClient, ObjectMapper objectMapper, LlmResponseCache responseCache) {
         this.llmClient = llmClient;
         this.objectMapper = objectMapper.copy().registerModule(new JavaTimeModule());
+        this.responseCache = responseCache;
     }
 
     public GeminiExtractionResult extract(GmailMessage message) {
@@ -40,30 +85,7 @@ public class GeminiExtractor {
                     subject, bodyText
             );
 
-            // responseSchema in standard JSON Schema (lowercase types)
-            ObjectNode schema = objectMapper.createObjectNode();
-            schema.put("type", "object");
-
-            ObjectNode properties = schema.putObject("properties");
-            properties.putObject("isTransaction").put("type", "boolean");
-            properties.putObject("amount").put("type", "number");
-            properties.putObject("currency").put("type", "string");
-
-            ObjectNode direction = properties.putObject("direction");
-            direction.put("type", "string");
-            direction.putArray("enum").add("DEBIT").add("CREDIT");
-
-            ObjectNode date = properties.putObject("date");
-            date.put("type", "string");
-            date.put("description", "Format: YYYY-MM-DD");
-
-            properties.putObject("description").put("type", "string");
-            properties.putObject("accountLast4").put("type", "string");
-            properties.putObject("confidence").put("type", "number");
-
-            schema.putArray("required").add("isTransaction");
-
-            LlmRequest request = new LlmRequest("email-extract", prompt, schema, 0.0);
+            LlmRequest request = new LlmRequest(TASK, prompt, transactionSchema(), 0.0);
 
             log.info("Calling Gemini API for message ID: {}", message.messageId());
             LlmResponse response = llmClient.complete(request);
@@ -71,38 +93,313 @@ public class GeminiExtractor {
             log.debug("Gemini returned JSON text: {}", jsonText);
 
             ExtractedTransaction extracted = objectMapper.readValue(jsonText, ExtractedTransaction.class);
-            if (!extracted.isTransaction()) {
-                return GeminiExtractionResult.notTransaction();
+            GeminiExtractionResult result = toResult(extracted, message.messageId());
+            if (result.isSuccess()) {
+                llmClient.accept(request, response);
             }
+            return result;
 
-            if (extracted.amount() == null) {
-                log.warn("Extracted transaction is missing amount for message: {}", message.messageId());
-                return GeminiExtractionResult.failure("Missing required transaction field: amount");
-            }
+        } catch (LlmException e) {
+            log.error("Failed to extract transaction using Gemini", e);
+            return GeminiExtractionResult.failure(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to extract transaction using Gemini", e);
+            return GeminiExtractionResult.failure("Extraction error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Extracts many alerts with few LLM calls: alerts are packed into indexed prompts of at most
+     * the provider's batch size, and chunks run concurrently up to the provider's concurrency.
+     * A chunk whose output is malformed is split in half and retried; a single alert goes through
+     * {@link #extract}. Alerts the model leaves out of an otherwise good response are retried
+     * the same way. A chunk no provider answered (chain exhausted) fails as a whole. Alerts extracted before (identical subject and body) are answered from the
+     * response cache and left out of the prompts.
+     *
+     * @return one result per message, in input order
+     */
+    public List<GeminiExtractionResult> extractAll(List<GmailMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        GeminiExtractionResult[] results = new GeminiExtractionResult[messages.size()];
+        List<Integer> pending = serveCachedAlerts(messages, results);
+        if (pending.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        List<List<Integer>> chunks = chunk(messages, pending, Math.min(MAX_ALERTS_PER_CHUNK, llmClient.recommendedBatchSize(TASK)));
+        int concurrency = Math.min(chunks.size(), llmClient.recommendedConcurrency(TASK));
 
-            // Parse the raw date string using FlexibleDateParser (tolerates non-ISO formats)
-            LocalDate parsedDate;
-            if (extracted.date() == null || extracted.date().isBlank()) {
-                log.warn("Extracted transaction is missing date for message: {}", message.messageId());
-                return GeminiExtractionResult.failure("Missing required transaction field: date");
+        if (concurrency <= 1) {
+            for (List<Integer> chunk : chunks) {
+                extractChunk(messages, chunk, results);
             }
+        } else {
+            // `concurrency` workers drain the chunk queue, so this call never has more in flight.
+            Queue<List<Integer>> queue = new ConcurrentLinkedQueue<>(chunks);
+            Runnable worker = mdcTaskDecorator.decorate(() -> {
+                List<Integer> chunk;
+                while (!Thread.currentThread().isInterrupted() && (chunk = queue.poll()) != null) {
+                    extractChunk(messages, chunk, results);
+                }
+            });
+            List<Future<?>> futures = new ArrayList<>();
             try {
-                parsedDate = FlexibleDateParser.parse(extracted.date());
-            } catch (DateTimeParseException e) {
-                log.warn("Unable to parse date '{}' for message: {} — {}",
-                        extracted.date(), message.messageId(), e.getMessage());
-                return GeminiExtractionResult.failure(
-                        "Unparseable date: " + extracted.date());
+                for (int i = 0; i < concurrency; i++) {
+                    futures.add(chunkPool.submit(worker));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.error("Alert extraction chunk failed unexpectedly", e.getCause());
+            } finally {
+                futures.forEach(f -> f.cancel(true));
             }
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = GeminiExtractionResult.failure("Extraction did not complete");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void destroy() {
+        chunkPool.shutdownNow();
+    }
+
+    private List<List<Integer>> chunk(List<GmailMessage> messages, List<Integer> indices, int maxAlerts) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        int chars = 0;
+        for (int i : indices) {
+            int length = messages.get(i).getStrippedText().length();
+            if (!current.isEmpty() && (current.size() >= Math.max(1, maxAlerts) || chars + length > MAX_CHUNK_CHARS)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                chars = 0;
+            }
+            current.add(i);
+            chars += length;
+        }
+        chunks.add(current);
+        return chunks;
+    }
 
-            return GeminiExtractionResult.success(extracted, parsedDate);
+    private void extractChunk(List<GmailMessage> messages, List<Integer> indices, GeminiExtractionResult[] results) {
+        if (indices.size() == 1) {
+            int index = indices.get(0);
+            results[index] = extract(messages.get(index));
+            return;
+        }
 
+        Map<Integer, ExtractedTransaction> extracted;
+        try {
+            extracted = completeChunk(messages, indices);
         } catch (LlmException e) {
-            log.error("Failed to extract transaction using Gemini", e);
-            return GeminiExtractionResult.failure(e.getMessage());
+            if (e.getKind() != LlmException.Kind.BAD_OUTPUT) {
+                // No provider answered (e.g. the chain is exhausted); smaller prompts would fail the same way.
+                log.warn("Chunk of {} alerts failed extraction: {}", indices.size(), e.getMessage());
+                for (int index : indices) {
+                    results[index] = GeminiExtractionResult.failure(e.getMessage());
+                }
+                return;
+            }
+            extracted = Map.of();
+            log.warn("Chunk of {} alerts got malformed output, retrying in halves: {}", indices.size(), e.getMessage());
         } catch (Exception e) {
-            log.error("Failed to extract transaction using Gemini", e);
-            return GeminiExtractionResult.failure("Extraction error: " + e.getMessage());
+            extracted = Map.of();
+            log.warn("Chunk of {} alerts got malformed output, retrying in halves: {}", indices.size(), e.getMessage());
         }
+
+        List<Integer> missing = new ArrayList<>();
+        Map<String, LlmResponse> toCache = new HashMap<>();
+        for (int index : indices) {
+            ExtractedTransaction tx = extracted.get(index);
+            if (tx == null) {
+                missing.add(index);
+            } else {
+                results[index] = toResult(tx, messages.get(index).messageId());
+                if (results[index].isSuccess()) {
+                    cacheEntry(messages.get(index), tx, toCache);
+                }
+            }
+        }
+        if (responseCache != null) {
+            responseCache.putAll(TASK, toCache);
+        }
+        if (missing.size() == indices.size()) {
+            int mid = indices.size() / 2;
+            extractChunk(messages, indices.subList(0, mid), results);
+            extractChunk(messages, indices.subList(mid, indices.size()), results);
+        } else if (!missing.isEmpty()) {
+            log.warn("Batch response left out {} of {} alerts, retrying them", missing.size(), indices.size());
+            extractChunk(messages, missing, results);
+        }
+    }
+
+    private Map<Integer, ExtractedTransaction> completeChunk(List<GmailMessage> messages, List<Integer> indices) throws Exception {
+        StringBuilder promptBuilder = new StringBuilder();
+        promptBuilder.append("Extract transaction details from each of the following email alerts. ")
+                .append("The alerts are unrelated to each other. Return a JSON object with a 'results' array ")
+                .append("holding one entry per alert, with 'index' set to the alert's index.\n\n");
+        for (int index : indices) {
+            GmailMessage message = messages.get(index);
+            promptBuilder.append("=== Alert ").append(index).append(" ===\n")
+                    .append(itemText(message)).append("\n\n");
+        }
+
+        ObjectNode itemSchema = transactionSchema();
+        ((ObjectNode) itemSchema.get("properties")).putObject("index").put("type", "integer");
+        ((ArrayNode) itemSchema.get("required")).insert(0, "index");
+
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode resultsSchema = schema.putObject("properties").putObject("results");
+        resultsSchema.put("type", "array");
+        resultsSchema.set("items", itemSchema);
+        schema.putArray("required").add("results");
+
+        LlmRequest request = new LlmRequest(TASK, promptBuilder.toString(), schema, 0.0);
+
+        log.info("Calling LLM to extract batch of {} alerts", indices.size());
+        LlmResponse response = llmClient.complete(request);
+        String jsonText = response.jsonText();
+        log.debug("LLM returned JSON text: {}", jsonText);
+
+        JsonNode resultsNode = objectMapper.readTree(jsonText).get("results");
+        if (resultsNode == null || !resultsNode.isArray()) {
+            throw new IllegalStateException("Invalid response format, 'results' array is missing");
+        }
+
+        Set<Integer> requested = new HashSet<>(indices);
+        Map<Integer, ExtractedTransaction> extracted = new HashMap<>();
+        for (JsonNode node : resultsNode) {
+            JsonNode indexNode = node.get("index");
+            if (indexNode == null || !indexNode.canConvertToInt() || !requested.contains(indexNode.asInt())) {
+                continue;
+            }
+            ObjectNode fields = ((ObjectNode) node).deepCopy();
+            fields.remove("index");
+            extracted.putIfAbsent(indexNode.asInt(), objectMapper.treeToValue(fields, ExtractedTransaction.class));
+        }
+        return extracted;
+    }
+
+    /**
+     * Fills in the results of alerts whose extraction is cached and returns the indices of the
+     * rest. Only extractions that produced a usable result are ever cached.
+     */
+    private List<Integer> serveCachedAlerts(List<GmailMessage> messages, GeminiExtractionResult[] results) {
+        List<Integer> pending = new ArrayList<>();
+        if (responseCache == null || !responseCache.isEnabled()) {
+            for (int i = 0; i < messages.size(); i++) {
+                pending.add(i);
+            }
+            return pending;
+        }
+        List<String> keys = messages.stream().map(GeminiExtractor::itemKey).toList();
+        Map<String, LlmResponse> cached = responseCache.findAll(keys);
+        int hits = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            LlmResponse hit = cached.get(keys.get(i));
+            ExtractedTransaction tx = hit != null ? readCachedAlert(hit) : null;
+            if (tx == null) {
+                pending.add(i);
+                continue;
+            }
+            results[i] = toResult(tx, messages.get(i).messageId());
+            responseCache.recordSaved(TASK, itemText(messages.get(i)).length(), hit.jsonText().length());
+            hits++;
+        }
+        if (hits > 0) {
+            log.info("Extracted {} of {} alerts from the response cache", hits, messages.size());
+        }
+        return pending;
+    }
+
+    private void cacheEntry(GmailMessage message, ExtractedTransaction tx, Map<String, LlmResponse> entries) {
+        try {
+            entries.put(itemKey(message), new LlmResponse(objectMapper.writeValueAsString(tx), null, null));
+        } catch (JsonProcessingException e) {
+            log.debug("Could not cache extraction of message {}: {}", message.messageId(), e.getMessage());
+        }
+    }
+
+    private ExtractedTransaction readCachedAlert(LlmResponse cached) {
+        try {
+            return objectMapper.readValue(cached.jsonText(), ExtractedTransaction.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Unreadable cached alert extraction: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String itemKey(GmailMessage message) {
+        return LlmResponseCache.key(TASK, "alert", itemText(message));
+    }
+
+    /** The alert as it appears in a batch prompt. */
+    private static String itemText(GmailMessage message) {
+        return "Subject: " + message.subject() + "\nBody:\n" + message.getStrippedText();
+    }
+
+    /** responseSchema in standard JSON Schema (lowercase types) for one alert. */
+    private ObjectNode transactionSchema() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("isTransaction").put("type", "boolean");
+        properties.putObject("amount").put("type", "number");
+        properties.putObject("currency").put("type", "string");
+
+        ObjectNode direction = properties.putObject("direction");
+        direction.put("type", "string");
+        direction.putArray("enum").add("DEBIT").add("CREDIT");
+
+        ObjectNode date = properties.putObject("date");
+        date.put("type", "string");
+        date.put("description", "Format: YYYY-MM-DD");
+
+        properties.putObject("description").put("type", "string");
+        properties.putObject("accountLast4").put("type", "string");
+        properties.putObject("confidence").put("type", "number");
+
+        schema.putArray("required").add("isTransaction");
+        return schema;
+    }
+
+    private GeminiExtractionResult toResult(ExtractedTransaction extracted, String messageId) {
+        if (!extracted.isTransaction()) {
+            return GeminiExtractionResult.notTransaction();
+        }
+
+        if (extracted.amount() == null) {
+            log.warn("Extracted transaction is missing amount for message: {}", messageId);
+            return GeminiExtractionResult.failure("Missing required transaction field: amount");
+        }
+
+        // Parse the raw date string using FlexibleDateParser (tolerates non-ISO formats)
+        LocalDate parsedDate;
+        if (extracted.date() == null || extracted.date().isBlank()) {
+            log.warn("Extracted transaction is missing date for message: {}", messageId);
+            return GeminiExtractionResult.failure("Missing required transaction field: date");
+        }
+        try {
+            parsedDate = FlexibleDateParser.parse(extracted.date());
+        } catch (DateTimeParseException e) {
+            log.warn("Unable to parse date '{}' for message: {} — {}",
+                    extracted.date(), messageId, e.getMessage());
+            return GeminiExtractionResult.failure(
+                    "Unparseable date: " + extracted.date());
+        }
+
+        return GeminiExtractionResult.success(extracted, parsedDate);
     }
 }
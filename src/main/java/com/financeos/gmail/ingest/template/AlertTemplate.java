@@ -0,0 +1,81 @@
+package com.financeos.gmail.ingest.template;
+
+import com.financeos.domain.user.User;
+import com.financeos.gmail.ingest.GmailSender;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** A learned alert-extraction pattern for one sender; see {@link AlertTemplateService}. */
+@Entity
+@Table(name = "gmail_alert_templates")
+@Getter
+@Setter
+@NoArgsConstructor
+@Filter(name = "userFilter", condition = "user_id = :userId")
+public class AlertTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 36)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sender_id", nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private GmailSender sender;
+
+    @Column(name = "subject_shape", nullable = false)
+    private String subjectShape;
+
+    /** Regex over the whitespace-normalized body, with amount/date/last4/desc named groups. */
+    @Column(nullable = false, length = 4000)
+    private String pattern;
+
+    @Column(name = "pattern_hash", nullable = false, length = 64)
+    private String patternHash;
+
+    @Column(nullable = false, length = 10)
+    private String direction;
+
+    @Column(length = 10)
+    private String currency;
+
+    @Column
+    private Double confidence;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name = "verified_count", nullable = false)
+    private long verifiedCount;
+
+    @Column(nullable = false)
+    private Boolean enabled = true;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_hit_at")
+    private Instant lastHitAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.financeos.gmail.ingest.template;
+
+import com.financeos.gmail.ingest.gemini.FlexibleDateParser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Infers an extraction regex from one alert body and the fields the LLM extracted from it.
+ * Each field must occur exactly once in the body (the amount as a number, the date as a token
+ * {@link FlexibleDateParser} reads back to the same day, last4 as a standalone 4-digit run, the
+ * description case-insensitively); anything ambiguous or missing yields no template. The rest of
+ * the body becomes literal text, except that numbers match any number and whitespace any
+ * whitespace, so balances, reference numbers and times may vary between alerts.
+ * <p>
+ * Patterns run over the {@link #normalize normalized} body with {@code matches()}, so the whole
+ * alert must fit; a footer change is a miss, never a wrong parse.
+ */
+final class AlertTemplateLearner {
+
+    static final int MAX_PATTERN_LENGTH = 4000;
+
+    // Not the fraction of a larger number, but "Rs.500" is 500
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\d,])(?<!\\d\\.)\\d[\\d,]*(?:\\.\\d+)?");
+    private static final Pattern DATE_TOKEN = Pattern.compile(
+            "(?<![\\dA-Za-z])(?:\\d{4}-\\d{1,2}-\\d{1,2}|\\d{1,2}[-/]\\d{1,2}[-/]\\d{4}"
+                    + "|\\d{1,2}[- ][A-Za-z]{3,9}[- ]\\d{4})(?![\\dA-Za-z])");
+    private static final Pattern LITERAL_TOKEN = Pattern.compile("\\d[\\d,]*(?:\\.\\d+)?|\\s+");
+    private static final Pattern DATE_PART = Pattern.compile("\\d+|[A-Za-z]+");
+
+    private static final String ANY_NUMBER = "[\\d,]+(?:\\.\\d+)?";
+
+    private AlertTemplateLearner() {
+    }
+
+    private record Span(int start, int end, String group) {
+        boolean overlaps(Span other) {
+            return other != null && start < other.end && other.start < end;
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+    }
+
+    /** Subject with numbers collapsed, so alerts differing only in amounts share a shape. */
+    static String subjectShape(String subject) {
+        String shape = normalize(subject).toLowerCase(Locale.ROOT).replaceAll("\\d[\\d,.]*", "#");
+        return shape.length() > 255 ? shape.substring(0, 255) : shape;
+    }
+
+    static Optional<String> learn(String body, BigDecimal amount, LocalDate date, String last4, String description) {
+        if (amount == null || date == null || last4 == null || !last4.matches("\\d{4}")
+                || description == null || description.isBlank()) {
+            return Optional.empty();
+        }
+        String text = normalize(body);
+
+        Span dateSpan = unique(DATE_TOKEN.matcher(text), List.of(), token -> date.equals(parseDate(token)),
+                token -> "(?<date>" + dateShape(token) + ")");
+        Span amountSpan = unique(NUMBER.matcher(text), spans(dateSpan),
+                token -> new BigDecimal(token.replace(",", "")).compareTo(amount.abs()) == 0,
+                token -> "(?<amount>" + ANY_NUMBER + ")");
+        Span last4Span = unique(Pattern.compile("(?<!\\d)" + last4 + "(?!\\d)").matcher(text), spans(dateSpan, amountSpan),
+                token -> true, token -> "(?<last4>\\d{4})");
+        Span descSpan = unique(Pattern.compile(Pattern.quote(description.strip()), Pattern.CASE_INSENSITIVE).matcher(text),
+                spans(dateSpan, amountSpan, last4Span), token -> true, token -> "(?<desc>.+?)");
+        if (dateSpan == null || amountSpan == null || last4Span == null || descSpan == null) {
+            return Optional.empty();
+        }
+
+        List<Span> ordered = new ArrayList<>(List.of(dateSpan, amountSpan, last4Span, descSpan));
+        ordered.sort(Comparator.comparingInt(Span::start));
+        StringBuilder regex = new StringBuilder();
+        int pos = 0;
+        for (Span span : ordered) {
+            appendLiteral(regex, text.substring(pos, span.start()));
+            regex.append(span.group());
+            pos = span.end();
+        }
+        appendLiteral(regex, text.substring(pos));
+        return regex.length() <= MAX_PATTERN_LENGTH ? Optional.of(regex.toString()) : Optional.empty();
+    }
+
+    /**
+     * The only match accepted by {@code accept} that doesn't overlap {@code taken}, or null when
+     * there is none or more than one.
+     */
+    private static Span unique(Matcher matcher, List<Span> taken, Predicate<String> accept,
+                               Function<String, String> group) {
+        Span found = null;
+        while (matcher.find()) {
+            Span span = new Span(matcher.start(), matcher.end(), null);
+            if (taken.stream().anyMatch(span::overlaps) || !accept.test(matcher.group())) {
+                continue;
+            }
+            if (found != null) {
+                return null;
+            }
+            found = new Span(span.start(), span.end(), group.apply(matcher.group()));
+        }
+        return found;
+    }
+
+    private static List<Span> spans(Span... spans) {
+        List<Span> list = new ArrayList<>();
+        for (Span span : spans) {
+            if (span != null) {
+                list.add(span);
+            }
+        }
+        return list;
+    }
+
+    private static LocalDate parseDate(String token) {
+        try {
+            return FlexibleDateParser.parse(token);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /** "05-Jul-2026" → {@code \d+-[A-Za-z]+-\d+}. */
+    private static String dateShape(String token) {
+        StringBuilder shape = new StringBuilder();
+        Matcher part = DATE_PART.matcher(token);
+        int pos = 0;
+        while (part.find()) {
+            shape.append(quote(token.substring(pos, part.start())));
+            shape.append(Character.isDigit(part.group().charAt(0)) ? "\\d+" : "[A-Za-z]+");
+            pos = part.end();
+        }
+        shape.append(quote(token.substring(pos)));
+        return shape.toString();
+    }
+
+    private static void appendLiteral(StringBuilder regex, String literal) {
+        Matcher token = LITERAL_TOKEN.matcher(literal);
+        int pos = 0;
+        while (token.find()) {
+            regex.append(quote(literal.substring(pos, token.start())));
+            regex.append(Character.isWhitespace(token.group().charAt(0)) ? "\\s+" : ANY_NUMBER);
+            pos = token.end();
+        }
+        regex.append(quote(literal.substring(pos)));
+    }
+
+    private static String quote(String literal) {
+        return literal.isEmpty() ? "" : Pattern.quote(literal);
+    }
+}
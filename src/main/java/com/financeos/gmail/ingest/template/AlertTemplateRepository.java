@@ -0,0 +1,33 @@
+package com.financeos.gmail.ingest.template;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AlertTemplateRepository extends JpaRepository<AlertTemplate, UUID> {
+
+    List<AlertTemplate> findBySenderIdAndEnabledTrue(UUID senderId);
+
+    long countBySenderIdAndSubjectShape(UUID senderId, String subjectShape);
+
+    boolean existsBySenderIdAndPatternHash(UUID senderId, String patternHash);
+
+    @Modifying
+    @Query("UPDATE AlertTemplate t SET t.hitCount = t.hitCount + 1, t.lastHitAt = :now WHERE t.id = :id")
+    int recordHit(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE AlertTemplate t SET t.verifiedCount = t.verifiedCount + 1 WHERE t.id = :id")
+    int recordVerified(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE AlertTemplate t SET t.enabled = false WHERE t.id = :id")
+    int disable(@Param("id") UUID id);
+}
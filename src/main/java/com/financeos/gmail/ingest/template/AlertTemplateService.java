@@ -0,0 +1,255 @@
+package com.financeos.gmail.ingest.template;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.gmail.ingest.GmailSender;
+import com.financeos.gmail.ingest.gemini.ExtractedTransaction;
+import com.financeos.gmail.ingest.gemini.FlexibleDateParser;
+import com.financeos.gmail.ingest.gemini.GeminiExtractionResult;
+import com.financeos.gmail.internal.GmailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses transaction alerts from known senders without the LLM. After the LLM extracts an alert,
+ * {@link #learn} infers a pattern for the sender and subject shape ({@link AlertTemplateLearner});
+ * later alerts that {@link #match} one are parsed by regex. Every
+ * {@code gmail.alert-templates.verify-every}-th hit of a template is also sent to the LLM, and a
+ * template the LLM disagrees with is disabled for good.
+ *
+ * <p>Templates are cached per sender and reloaded every few minutes, so one learned or disabled
+ * on another instance is picked up without a restart. Lookups are counted as the
+ * "alert-template" cache; hits that skip the LLM as avoided LLM extractions.
+ */
+@Service
+public class AlertTemplateService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertTemplateService.class);
+
+    static final String CACHE_NAME = "alert-template";
+    private static final String LLM_TASK = "email-extract";
+    static final int MAX_TEMPLATES_PER_SHAPE = 10;
+    private static final Duration RELOAD_INTERVAL = Duration.ofMinutes(10);
+
+    private final AlertTemplateRepository repository;
+    private final ObservabilityMetrics metrics;
+    private final boolean enabled;
+    private final int verifyEvery;
+    private final ConcurrentHashMap<UUID, SenderTemplates> bySender = new ConcurrentHashMap<>();
+
+    public AlertTemplateService(AlertTemplateRepository repository,
+                                ObservabilityMetrics metrics,
+                                @Value("${gmail.alert-templates.enabled:true}") boolean enabled,
+                                @Value("${gmail.alert-templates.verify-every:25}") int verifyEvery) {
+        this.repository = repository;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.verifyEvery = verifyEvery;
+    }
+
+    /**
+     * A template hit. When {@code verify} is set the caller must still run the LLM and report
+     * its answer to {@link #verify}; {@code result} is then only the template's guess.
+     */
+    public record TemplateMatch(UUID templateId, GeminiExtractionResult result, boolean verify) {
+    }
+
+    private record SenderTemplates(List<CompiledTemplate> templates, Instant loadedAt) {
+    }
+
+    private static final class CompiledTemplate {
+        final UUID id;
+        final String subjectShape;
+        final Pattern pattern;
+        final String direction;
+        final String currency;
+        final double confidence;
+        final AtomicLong hits;
+        volatile boolean enabled = true;
+
+        CompiledTemplate(AlertTemplate entity) {
+            this.id = entity.getId();
+            this.subjectShape = entity.getSubjectShape();
+            this.pattern = Pattern.compile(entity.getPattern());
+            this.direction = entity.getDirection();
+            this.currency = entity.getCurrency();
+            this.confidence = entity.getConfidence() != null ? entity.getConfidence() : 0.0;
+            this.hits = new AtomicLong(entity.getHitCount());
+        }
+    }
+
+    @Transactional
+    public TemplateMatch match(GmailSender sender, GmailMessage message) {
+        if (!enabled) {
+            return null;
+        }
+        String shape = AlertTemplateLearner.subjectShape(message.subject());
+        String text = AlertTemplateLearner.normalize(message.getStrippedText());
+        for (CompiledTemplate template : templatesOf(sender.getId())) {
+            if (!template.enabled || !template.subjectShape.equals(shape)) {
+                continue;
+            }
+            GeminiExtractionResult result = apply(template.pattern, text, template.direction, template.currency,
+                    template.confidence);
+            if (result == null) {
+                continue;
+            }
+            long hits = template.hits.incrementAndGet();
+            repository.recordHit(template.id, Instant.now());
+            metrics.recordCacheAccess(CACHE_NAME, true);
+            boolean verify = verifyEvery > 0 && hits % verifyEvery == 0;
+            if (!verify) {
+                metrics.recordLlmCallAvoided(LLM_TASK);
+            }
+            return new TemplateMatch(template.id, result, verify);
+        }
+        metrics.recordCacheAccess(CACHE_NAME, false);
+        return null;
+    }
+
+    /** Checks a sampled hit against the LLM's extraction; a disagreement disables the template. */
+    @Transactional
+    public void verify(TemplateMatch match, GeminiExtractionResult llmResult) {
+        if (!llmResult.isSuccess()) {
+            // The LLM failed, not the template: inconclusive
+            return;
+        }
+        if (sameTransaction(match.result(), llmResult)) {
+            repository.recordVerified(match.templateId());
+            metrics.recordAlertTemplateVerification(true);
+            return;
+        }
+        log.warn("Alert template {} disagrees with the LLM (template: {} {} {} {}, llm: {} {} {} {}); disabling it",
+                match.templateId(),
+                match.result().amount(), match.result().direction(), match.result().date(), match.result().accountLast4(),
+                llmResult.amount(), llmResult.direction(), llmResult.date(), llmResult.accountLast4());
+        repository.disable(match.templateId());
+        metrics.recordAlertTemplateVerification(false);
+        bySender.values().forEach(cached -> cached.templates().stream()
+                .filter(t -> t.id.equals(match.templateId()))
+                .forEach(t -> t.enabled = false));
+    }
+
+    /**
+     * Learns a template from an alert the LLM extracted as a transaction. Best-effort: alerts
+     * whose fields can't be located unambiguously, or a sender/subject shape that already has
+     * {@value #MAX_TEMPLATES_PER_SHAPE} templates, are skipped.
+     */
+    @Transactional
+    public void learn(GmailSender sender, GmailMessage message, GeminiExtractionResult result) {
+        if (!enabled || !result.isSuccess() || !result.isTransaction() || result.direction() == null) {
+            return;
+        }
+        try {
+            String text = AlertTemplateLearner.normalize(message.getStrippedText());
+            Optional<String> pattern = AlertTemplateLearner.learn(text, result.amount(), result.date(),
+                    result.accountLast4(), result.description());
+            if (pattern.isEmpty()) {
+                return;
+            }
+            // The template must reproduce what the LLM read from the very alert it came from
+            GeminiExtractionResult replay = apply(Pattern.compile(pattern.get()), text, result.direction(),
+                    result.currency(), result.confidence());
+            if (replay == null || !sameTransaction(replay, result)) {
+                return;
+            }
+            // A known pattern, even a disabled one, is never learned again
+            String hash = sha256(pattern.get());
+            if (repository.existsBySenderIdAndPatternHash(sender.getId(), hash)) {
+                return;
+            }
+            String shape = AlertTemplateLearner.subjectShape(message.subject());
+            if (repository.countBySenderIdAndSubjectShape(sender.getId(), shape) >= MAX_TEMPLATES_PER_SHAPE) {
+                log.debug("Sender {} already has {} templates for subject shape '{}'", sender.getId(),
+                        MAX_TEMPLATES_PER_SHAPE, shape);
+                return;
+            }
+
+            AlertTemplate template = new AlertTemplate();
+            template.setUser(sender.getUser());
+            template.setSender(sender);
+            template.setSubjectShape(shape);
+            template.setPattern(pattern.get());
+            template.setPatternHash(hash);
+            template.setDirection(result.direction().toUpperCase(Locale.ROOT));
+            template.setCurrency(result.currency());
+            template.setConfidence(result.confidence());
+            repository.save(template);
+            bySender.remove(sender.getId());
+            log.info("Learned alert template for sender {} and subject shape '{}'", sender.getId(), shape);
+        } catch (RuntimeException e) {
+            log.debug("Could not learn alert template for message {}: {}", message.messageId(), e.getMessage());
+        }
+    }
+
+    private List<CompiledTemplate> templatesOf(UUID senderId) {
+        Instant now = Instant.now();
+        SenderTemplates cached = bySender.get(senderId);
+        if (cached == null || cached.loadedAt().isBefore(now.minus(RELOAD_INTERVAL))) {
+            List<CompiledTemplate> templates = repository.findBySenderIdAndEnabledTrue(senderId).stream()
+                    .map(CompiledTemplate::new)
+                    .toList();
+            cached = new SenderTemplates(templates, now);
+            bySender.put(senderId, cached);
+        }
+        return cached.templates();
+    }
+
+    /** The alert parsed by the pattern, or null when it doesn't match or a field won't parse. */
+    static GeminiExtractionResult apply(Pattern pattern, String normalizedText, String direction, String currency,
+                                        double confidence) {
+        Matcher m = pattern.matcher(normalizedText);
+        if (!m.matches()) {
+            return null;
+        }
+        try {
+            BigDecimal amount = new BigDecimal(m.group("amount").replace(",", ""));
+            String rawDate = m.group("date");
+            LocalDate date = FlexibleDateParser.parse(rawDate);
+            ExtractedTransaction tx = new ExtractedTransaction(true, amount, currency, direction, rawDate,
+                    m.group("desc").strip(), m.group("last4"), confidence);
+            return GeminiExtractionResult.success(tx, date);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /** Same amount, direction, date and account; descriptions may differ in case or wording. */
+    static boolean sameTransaction(GeminiExtractionResult a, GeminiExtractionResult b) {
+        return a.isTransaction() == b.isTransaction()
+                && a.amount() != null && b.amount() != null && a.amount().abs().compareTo(b.amount().abs()) == 0
+                && a.direction() != null && a.direction().equalsIgnoreCase(b.direction())
+                && Objects.equals(a.date(), b.date())
+                && Objects.equals(a.accountLast4(), b.accountLast4());
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.financeos.gmail.internal;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
+/**
+ * @param keep when set, messages are first fetched as headers only, one listing page at a time,
+ *             and just the headers the filter returns are downloaded in full; maxMessages then
+ *             counts kept messages
+ */
 public record GmailFetchRequest(
         FetchMode mode,
         Instant fromTime,
         Integer maxMessages,
-        String q
+        String q,
+        UnaryOperator<List<GmailMessageHeader>> keep
 ) {
     public GmailFetchRequest {
         if (maxMessages != null && maxMessages <= 0) {
@@ -14,7 +22,11 @@ public record GmailFetchRequest(
         }
     }
 
+    public GmailFetchRequest(FetchMode mode, Instant fromTime, Integer maxMessages, String q) {
+        this(mode, fromTime, maxMessages, q, null);
+    }
+
     public GmailFetchRequest(FetchMode mode, Instant fromTime, Integer maxMessages) {
-        this(mode, fromTime, maxMessages, null);
+        this(mode, fromTime, maxMessages, null, null);
     }
 }
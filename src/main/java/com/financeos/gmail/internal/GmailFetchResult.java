@@ -2,8 +2,16 @@ package com.financeos.gmail.internal;
 
 import java.util.List;
 
+/**
+ * @param filteredOut messages listed but dropped by the request's header filter before their
+ *                    full payload was fetched
+ */
 public record GmailFetchResult(
         List<GmailMessage> messages,
-        GmailSyncState nextState
-) {}
-
+        GmailSyncState nextState,
+        int filteredOut
+) {
+    public GmailFetchResult(List<GmailMessage> messages, GmailSyncState nextState) {
+        this(messages, nextState, 0);
+    }
+}
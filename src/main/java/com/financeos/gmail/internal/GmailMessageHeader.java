@@ -0,0 +1,14 @@
+package com.financeos.gmail.internal;
+
+import java.time.Instant;
+
+/**
+ * Headers of a message as returned by a METADATA fetch: enough to decide whether the full
+ * payload is worth downloading.
+ */
+public record GmailMessageHeader(
+        String messageId,
+        Instant internalDate,
+        String from,
+        String subject
+) {}
@@ -1,5 +1,6 @@
 package com.financeos.gmail.reconcile;
 
+import com.financeos.domain.statement.ParsedStatementCache;
 import com.financeos.domain.statement.StatementDraft;
 import com.financeos.domain.statement.StatementVerdict;
 import com.financeos.statement.parser.ParseInfo;
@@ -30,12 +31,18 @@ public class StatementParser {
             "payments_received", "total_purchases", "reward_points_balance", "reward_points_earned"
     );
 
+    private final ParsedStatementCache parseCache;
+
+    public StatementParser(ParsedStatementCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
     public StatementExtractionResult parse(byte[] bytes, String password) {
         int sizeBytes = bytes != null ? bytes.length : 0;
         long startTimeMs = com.financeos.core.observability.ParseLogger.started(log, "StatementParser", sizeBytes, "statement-file");
         ParsedStatement parsed;
         try {
-            parsed = StatementParseEngine.parse(bytes, password, null);
+            parsed = parseCached(bytes, password);
         } catch (StatementParseException e) {
             com.financeos.core.observability.ParseLogger.failed(log, "StatementParser", "extract-text", 1, "Statement parse failure: " + e.getMessage(), e);
             return StatementExtractionResult.failure(e.getMessage());
@@ -101,6 +108,31 @@ public class StatementParser {
         return StatementExtractionResult.success(lines, meta.accountNumber, periodStart, periodEnd, draft);
     }
 
+    /**
+     * Identical bytes (and password) parse identically, so a cached result for the current parser
+     * version stands in for the parse. The cache is best-effort: if it can't be read or written the
+     * file is simply parsed.
+     */
+    private ParsedStatement parseCached(byte[] bytes, String password) {
+        String key = ParsedStatementCache.key(bytes, password);
+        try {
+            ParsedStatement cached = parseCache.find(key);
+            if (cached != null) {
+                log.debug("Statement parse served from cache (key {})", key);
+                return cached;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Parsed-statement cache lookup failed: {}", e.getMessage());
+        }
+        ParsedStatement parsed = StatementParseEngine.parse(bytes, password, null);
+        try {
+            parseCache.put(key, parsed);
+        } catch (RuntimeException e) {
+            log.warn("Parsed-statement cache write failed: {}", e.getMessage());
+        }
+        return parsed;
+    }
+
     private static LinkedHashMap<String, Object> cardFields(Map<String, Object> summaryFields) {
         LinkedHashMap<String, Object> result = new LinkedHashMap<>();
         for (String key : CARD_FIELD_KEYS) {
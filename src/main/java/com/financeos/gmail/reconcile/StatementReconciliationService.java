@@ -1,5 +1,6 @@
 package com.financeos.gmail.reconcile;
 
+import com.financeos.core.excel.ExcelRowReader;
 import com.financeos.domain.account.Account;
 import com.financeos.domain.account.AccountRepository;
 import com.financeos.domain.statement.Statement;
@@ -20,16 +21,12 @@ import com.financeos.gmail.internal.GmailAttachment;
 import com.financeos.gmail.internal.GmailMessage;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
@@ -125,8 +122,7 @@ public class StatementReconciliationService {
                         // try next password
                     }
                 } else {
-                    try (InputStream is = new ByteArrayInputStream(chosenBytes);
-                         Workbook wb = WorkbookFactory.create(is, pwd)) {
+                    try (ExcelRowReader reader = ExcelRowReader.open(chosenBytes, pwd)) {
                         candidateAccount = acc;
                         correctPassword = pwd;
                         break;
@@ -355,10 +351,8 @@ public class StatementReconciliationService {
     }
 
     private boolean isExcelEncrypted(byte[] bytes) {
-        try (InputStream is = new ByteArrayInputStream(bytes)) {
-            try (Workbook workbook = WorkbookFactory.create(is)) {
-                return false;
-            }
+        try (ExcelRowReader reader = ExcelRowReader.open(bytes, null)) {
+            return false;
         } catch (org.apache.poi.EncryptedDocumentException e) {
             return true;
         } catch (Exception e) {
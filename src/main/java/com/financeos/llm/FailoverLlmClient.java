@@ -6,25 +6,54 @@ import com.financeos.llm.provider.LlmHttpSupport;
 import net.logstash.logback.argument.StructuredArguments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 public class FailoverLlmClient implements LlmClient {
 
     private static final Logger log = LoggerFactory.getLogger(FailoverLlmClient.class);
 
+    private static final int LATENCY_WINDOW_SIZE = 200;
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+    // Calls of a hedged request; bounded by callers x maxInFlight, idle threads expire
+    private static final ExecutorService HEDGE_POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "llm-hedge-" + THREAD_SEQ.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
     private final LlmProperties properties;
     private final Map<String, LlmProvider> providers;
     private final ObservabilityMetrics metrics;
     private final ConcurrentHashMap<String, CircuitState> circuitStates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, InFlightLimiter> inFlightLimiters = new ConcurrentHashMap<>();
 
     private static class CircuitState {
         final AtomicInteger consecutiveFailures = new AtomicInteger(0);
         final AtomicLong lastFailureTimestamp = new AtomicLong(0);
+        final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW_SIZE);
     }
 
     public FailoverLlmClient(LlmProperties properties, Map<String, LlmProvider> providers) {
@@ -71,7 +100,67 @@ public class FailoverLlmClient implements LlmClient {
             throw new IllegalArgumentException("LlmRequest cannot be null");
         }
         String task = request.task() != null ? request.task() : "";
+        List<String> eligibleChain = eligibleChainFor(task);
+
+        // Hedged calls may add failures from other threads
+        List<String> failureMessages = new CopyOnWriteArrayList<>();
+
+        long chainStartTime = System.currentTimeMillis();
+        List<String> candidates = candidatesOf(task, eligibleChain, failureMessages);
+
+        LlmResponse response = isHedgingEnabled() && candidates.size() > 1
+                ? completeHedged(task, request, candidates, failureMessages)
+                : completeSequential(task, request, candidates, failureMessages);
+        if (response != null) {
+            return response;
+        }
+        throw chainExhausted(task, eligibleChain, chainStartTime, failureMessages);
+    }
+
+    /**
+     * Walks the chain like {@link #complete} without blocking the caller: each provider is called
+     * through {@link LlmProvider#completeAsync}, with at most its configured {@code concurrency}
+     * calls in flight; calls beyond that queue until one finishes. Hedging applies to
+     * {@link #complete} only.
+     */
+    @Override
+    public CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+        if (request == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("LlmRequest cannot be null"));
+        }
+        String task = request.task() != null ? request.task() : "";
+        List<String> eligibleChain;
+        try {
+            eligibleChain = eligibleChainFor(task);
+        } catch (LlmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        List<String> failureMessages = new CopyOnWriteArrayList<>();
+        long chainStartTime = System.currentTimeMillis();
+        List<String> candidates = candidatesOf(task, eligibleChain, failureMessages);
+
+        return walkAsync(task, request, candidates, 0, failureMessages)
+                .thenApply(response -> {
+                    if (response == null) {
+                        throw chainExhausted(task, eligibleChain, chainStartTime, failureMessages);
+                    }
+                    return response;
+                });
+    }
+
+    private CompletableFuture<LlmResponse> walkAsync(String task, LlmRequest request, List<String> candidates,
+                                                     int index, List<String> failureMessages) {
+        if (index >= candidates.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return attemptProviderAsync(task, candidates.get(index), request, failureMessages, 1)
+                .thenCompose(response -> response != null
+                        ? CompletableFuture.completedFuture(response)
+                        : walkAsync(task, request, candidates, index + 1, failureMessages));
+    }
 
+    private List<String> eligibleChainFor(String task) {
         List<String> rawChain = resolveChain(task);
         if (rawChain.isEmpty()) {
             throw new LlmException(LlmException.Kind.FATAL, "none", null, null, "No LLM chain configured for task: " + task);
@@ -82,177 +171,410 @@ public class FailoverLlmClient implements LlmClient {
         if (eligibleChain.isEmpty()) {
             throw new LlmException(LlmException.Kind.FATAL, "none", null, null, "All providers in chain are skipped or have no API key for task: " + task);
         }
+        return eligibleChain;
+    }
 
+    /** The eligible providers to try, in order, minus open breakers (unless all are open). */
+    private List<String> candidatesOf(String task, List<String> eligibleChain, List<String> failureMessages) {
         boolean allOpen = eligibleChain.stream().allMatch(this::isCircuitOpen);
         boolean ignoreBreaker = allOpen;
 
-        List<String> failureMessages = new ArrayList<>();
-
-        int attemptsPerProvider = properties.getRetry().getAttemptsPerProvider();
-        long baseDelay = properties.getRetry().getBaseDelayMs();
-        long maxDelay = properties.getRetry().getMaxDelayMs();
-
-        long chainStartTime = System.currentTimeMillis();
+        List<String> candidates = new ArrayList<>();
         for (String providerId : eligibleChain) {
             if (!ignoreBreaker && isCircuitOpen(providerId)) {
                 log.info("Skipping provider {} for task {} because circuit breaker is open", providerId, task);
                 failureMessages.add(providerId + ": circuit breaker open");
                 continue;
             }
-
-            LlmProvider provider = providers.get(providerId);
-            if (provider == null) {
+            if (providers.get(providerId) == null) {
                 failureMessages.add(providerId + ": provider not found");
                 continue;
             }
+            candidates.add(providerId);
+        }
+        return candidates;
+    }
 
-            String model = getModel(providerId);
-            int promptChars = request.prompt() != null ? request.prompt().length() : 0;
-            int batchSize = batchSizeOf(providerId);
+    private LlmException chainExhausted(String task, List<String> eligibleChain, long chainStartTime,
+                                        List<String> failureMessages) {
+        long totalChainLatency = System.currentTimeMillis() - chainStartTime;
+        log.error("LLM chain exhausted: task={}, providersTried={}, totalLatencyMs={}",
+                task, eligibleChain, totalChainLatency,
+                StructuredArguments.keyValue("event", Events.LLM_CHAIN_EXHAUSTED),
+                StructuredArguments.keyValue("task", task),
+                StructuredArguments.keyValue("providersTried", String.join(",", eligibleChain)),
+                StructuredArguments.keyValue("totalLatencyMs", totalChainLatency),
+                StructuredArguments.keyValue("failureMessages", String.join("; ", failureMessages)));
 
-            for (int attempt = 1; attempt <= attemptsPerProvider; attempt++) {
-                long startTime = System.currentTimeMillis();
-                try {
-                    LlmResponse response = provider.complete(request);
-                    long latencyMs = System.currentTimeMillis() - startTime;
-                    int responseChars = response != null && response.jsonText() != null ? response.jsonText().length() : 0;
-
-                    log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome=success, latency={}ms",
-                            task, providerId, model, attempt, latencyMs,
-                            StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
-                            StructuredArguments.keyValue("task", task),
-                            StructuredArguments.keyValue("provider", providerId),
-                            StructuredArguments.keyValue("model", model),
-                            StructuredArguments.keyValue("attempt", attempt),
-                            StructuredArguments.keyValue("outcome", "success"),
-                            StructuredArguments.keyValue("latencyMs", latencyMs),
-                            StructuredArguments.keyValue("promptChars", promptChars),
-                            StructuredArguments.keyValue("responseChars", responseChars),
-                            StructuredArguments.keyValue("batchSize", batchSize),
-                            StructuredArguments.keyValue("errorClass", ""),
-                            StructuredArguments.keyValue("errorBody", ""));
-
-                    recordSuccess(providerId);
-                    if (metrics != null) {
-                        metrics.recordLlmAttempt(providerId, "success");
+        String chainMessage = "All providers failed for task '" + task + "': " + String.join("; ", failureMessages);
+        return new LlmException(LlmException.Kind.FATAL, "chain", null, null,
+                LlmHttpSupport.truncate(chainMessage, 1500));
+    }
+
+    private LlmResponse completeSequential(String task, LlmRequest request, List<String> candidates,
+                                           List<String> failureMessages) {
+        for (String providerId : candidates) {
+            LlmResponse response = attemptProvider(task, providerId, request, failureMessages, () -> false);
+            if (response != null) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks the chain like {@link #completeSequential}, but when the newest provider hasn't answered
+     * within its hedge delay, the next one is started alongside it (up to {@code maxInFlight}). A
+     * provider that fails hands over at once. The first response wins; the others are cancelled,
+     * and one still running past its own hedge delay counts as a failure for its circuit breaker.
+     */
+    private LlmResponse completeHedged(String task, LlmRequest request, List<String> candidates,
+                                       List<String> failureMessages) {
+        LlmProperties.HedgeProperties hedge = properties.getHedge();
+        int maxInFlight = Math.max(1, hedge.getMaxInFlight());
+        AtomicBoolean settled = new AtomicBoolean(false);
+        CompletionService<LlmResponse> completion = new ExecutorCompletionService<>(HEDGE_POOL);
+        Map<Future<LlmResponse>, InFlight> inFlight = new LinkedHashMap<>();
+        InFlight newest = null;
+        int next = 0;
+        try {
+            while (true) {
+                if (inFlight.isEmpty()) {
+                    if (next >= candidates.size()) {
+                        return null;
                     }
-                    return response;
-                } catch (LlmException e) {
-                    long latencyMs = System.currentTimeMillis() - startTime;
-                    String outcome = e.getStatusCode() != null ? String.valueOf(e.getStatusCode()) : e.getKind().name().toLowerCase();
-                    Integer httpStatus = e.getStatusCode();
-                    String errorClass = e.getClass().getName();
-                    String errorBody = e.getMessage() != null ? LlmHttpSupport.truncate(e.getMessage(), 300) : "";
-                    long retryAfterMs = e.getRetryAfterSeconds() != null ? e.getRetryAfterSeconds() * 1000L : 0;
-
-                    if (httpStatus != null) {
-                        log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome={}, latency={}ms",
-                                task, providerId, model, attempt, outcome, latencyMs,
-                                StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
-                                StructuredArguments.keyValue("task", task),
-                                StructuredArguments.keyValue("provider", providerId),
-                                StructuredArguments.keyValue("model", model),
-                                StructuredArguments.keyValue("attempt", attempt),
-                                StructuredArguments.keyValue("outcome", outcome),
-                                StructuredArguments.keyValue("latencyMs", latencyMs),
-                                StructuredArguments.keyValue("httpStatus", httpStatus),
-                                StructuredArguments.keyValue("promptChars", promptChars),
-                                StructuredArguments.keyValue("responseChars", 0),
-                                StructuredArguments.keyValue("batchSize", batchSize),
-                                StructuredArguments.keyValue("retryAfterMs", retryAfterMs),
-                                StructuredArguments.keyValue("errorClass", errorClass),
-                                StructuredArguments.keyValue("errorBody", errorBody));
-                    } else {
-                        log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome={}, latency={}ms",
-                                task, providerId, model, attempt, outcome, latencyMs,
-                                StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
+                    newest = launch(completion, inFlight, task, candidates.get(next++), request, failureMessages, settled);
+                }
+
+                Future<LlmResponse> done;
+                if (next < candidates.size() && inFlight.size() < maxInFlight) {
+                    long waitMs = newest.startedAt + newest.hedgeDelayMs - System.currentTimeMillis();
+                    done = waitMs > 0 ? completion.poll(waitMs, TimeUnit.MILLISECONDS) : null;
+                    if (done == null) {
+                        String hedgeId = candidates.get(next++);
+                        log.info("LLM hedge fired: task={}, slow provider={} after {}ms, hedge provider={}",
+                                task, newest.providerId, newest.hedgeDelayMs, hedgeId,
+                                StructuredArguments.keyValue("event", Events.LLM_HEDGE_FIRED),
                                 StructuredArguments.keyValue("task", task),
-                                StructuredArguments.keyValue("provider", providerId),
-                                StructuredArguments.keyValue("model", model),
-                                StructuredArguments.keyValue("attempt", attempt),
-                                StructuredArguments.keyValue("outcome", outcome),
-                                StructuredArguments.keyValue("latencyMs", latencyMs),
-                                StructuredArguments.keyValue("promptChars", promptChars),
-                                StructuredArguments.keyValue("responseChars", 0),
-                                StructuredArguments.keyValue("batchSize", batchSize),
-                                StructuredArguments.keyValue("retryAfterMs", retryAfterMs),
-                                StructuredArguments.keyValue("errorClass", errorClass),
-                                StructuredArguments.keyValue("errorBody", errorBody));
+                                StructuredArguments.keyValue("provider", newest.providerId),
+                                StructuredArguments.keyValue("hedgeProvider", hedgeId),
+                                StructuredArguments.keyValue("hedgeDelayMs", newest.hedgeDelayMs));
+                        if (metrics != null) {
+                            metrics.recordLlmHedge(hedgeId, "fired");
+                        }
+                        newest = launch(completion, inFlight, task, hedgeId, request, failureMessages, settled);
+                        newest.hedge = true;
+                        continue;
                     }
+                } else {
+                    done = completion.take();
+                }
 
-                    if (metrics != null) {
-                        metrics.recordLlmAttempt(providerId, outcome);
+                InFlight finished = inFlight.remove(done);
+                LlmResponse response = resultOf(done);
+                if (response != null) {
+                    settled.set(true);
+                    if (finished.hedge && metrics != null) {
+                        metrics.recordLlmHedge(finished.providerId, "won");
                     }
+                    return response;
+                }
+                if (inFlight.size() < maxInFlight && next < candidates.size() && !inFlight.isEmpty()) {
+                    // A provider gave up while another is still working: fail over without waiting
+                    newest = launch(completion, inFlight, task, candidates.get(next++), request, failureMessages, settled);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmException(LlmException.Kind.FATAL, "chain", null, null, "Interrupted while waiting for providers", e);
+        } finally {
+            settled.set(true);
+            long now = System.currentTimeMillis();
+            for (Map.Entry<Future<LlmResponse>, InFlight> loser : inFlight.entrySet()) {
+                loser.getKey().cancel(true);
+                InFlight call = loser.getValue();
+                long elapsedMs = now - call.startedAt;
+                if (elapsedMs >= call.hedgeDelayMs) {
+                    // Outpaced after overrunning its own delay: slow enough to count against it
+                    latencyWindow(call.providerId).record(elapsedMs);
+                    recordFailure(call.providerId);
+                    failureMessages.add(call.providerId + ": cancelled after " + elapsedMs + "ms");
+                }
+            }
+        }
+    }
 
-                    if (e.getKind() == LlmException.Kind.FATAL || e.getKind() == LlmException.Kind.BAD_OUTPUT) {
-                        recordFailure(providerId);
-                        failureMessages.add(providerId + ": " + (e.getMessage() != null ? e.getMessage() : e.getKind().name()));
-                        break;
-                    }
+    private static final class InFlight {
+        final String providerId;
+        final long startedAt;
+        final long hedgeDelayMs;
+        boolean hedge;
 
-                    // RETRYABLE
-                    if (attempt < attemptsPerProvider) {
-                        long delay = calculateBackoff(attempt - 1, baseDelay, maxDelay, e.getRetryAfterSeconds());
-                        try {
-                            Thread.sleep(delay);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new LlmException(LlmException.Kind.FATAL, providerId, null, null, "Interrupted during retry backoff", ie);
-                        }
-                    } else {
-                        recordFailure(providerId);
-                        failureMessages.add(providerId + ": " + (e.getMessage() != null ? e.getMessage() : e.getKind().name()));
-                    }
-                } catch (Exception e) {
-                    long latencyMs = System.currentTimeMillis() - startTime;
-                    String errorClass = e.getClass().getName();
-                    String errorBody = e.getMessage() != null ? LlmHttpSupport.truncate(e.getMessage(), 300) : "";
-
-                    log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome=error, latency={}ms",
-                            task, providerId, model, attempt, latencyMs,
-                            StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
-                            StructuredArguments.keyValue("task", task),
-                            StructuredArguments.keyValue("provider", providerId),
-                            StructuredArguments.keyValue("model", model),
-                            StructuredArguments.keyValue("attempt", attempt),
-                            StructuredArguments.keyValue("outcome", "error"),
-                            StructuredArguments.keyValue("latencyMs", latencyMs),
-                            StructuredArguments.keyValue("promptChars", promptChars),
-                            StructuredArguments.keyValue("responseChars", 0),
-                            StructuredArguments.keyValue("batchSize", batchSize),
-                            StructuredArguments.keyValue("errorClass", errorClass),
-                            StructuredArguments.keyValue("errorBody", errorBody));
-
-                    recordFailure(providerId);
-                    if (metrics != null) {
-                        metrics.recordLlmAttempt(providerId, "error");
+        InFlight(String providerId, long startedAt, long hedgeDelayMs) {
+            this.providerId = providerId;
+            this.startedAt = startedAt;
+            this.hedgeDelayMs = hedgeDelayMs;
+        }
+    }
+
+    private InFlight launch(CompletionService<LlmResponse> completion, Map<Future<LlmResponse>, InFlight> inFlight,
+                            String task, String providerId, LlmRequest request, List<String> failureMessages,
+                            AtomicBoolean settled) {
+        InFlight call = new InFlight(providerId, System.currentTimeMillis(), hedgeDelayMs(providerId));
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<LlmResponse> future = completion.submit(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return attemptProvider(task, providerId, request, failureMessages, settled::get);
+            } finally {
+                MDC.clear();
+            }
+        });
+        inFlight.put(future, call);
+        return call;
+    }
+
+    private static LlmResponse resultOf(Future<LlmResponse> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * How long to wait on a provider before hedging: the configured percentile of its recent
+     * latencies, bounded below by {@code minDelayMs} and above by the provider's timeout.
+     */
+    long hedgeDelayMs(String providerId) {
+        LlmProperties.HedgeProperties hedge = properties.getHedge();
+        long observed = latencyWindow(providerId).percentile(hedge.getPercentile(), hedge.getMinSamples());
+        long delay = observed >= 0 ? Math.max(hedge.getMinDelayMs(), observed) : hedge.getInitialDelayMs();
+        LlmProperties.ProviderProperties prop = properties.getProviders() != null
+                ? properties.getProviders().get(providerId) : null;
+        return prop != null ? Math.min(delay, prop.getTimeoutMs()) : delay;
+    }
+
+    private boolean isHedgingEnabled() {
+        return properties != null && properties.getHedge() != null && properties.getHedge().isEnabled();
+    }
+
+    /**
+     * One provider's attempts with retry and backoff. Returns null when the provider gave up (its
+     * failure is added to failureMessages) or when {@code cancelled} turns true mid-flight.
+     */
+    private LlmResponse attemptProvider(String task, String providerId, LlmRequest request,
+                                        List<String> failureMessages, BooleanSupplier cancelled) {
+        LlmProvider provider = providers.get(providerId);
+        int attemptsPerProvider = properties.getRetry().getAttemptsPerProvider();
+
+        for (int attempt = 1; attempt <= attemptsPerProvider; attempt++) {
+            long startTime = System.currentTimeMillis();
+            try {
+                LlmResponse response = provider.complete(request);
+                onAttemptSuccess(task, providerId, request, attempt, System.currentTimeMillis() - startTime, response);
+                return response;
+            } catch (Exception e) {
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+                long delay = onAttemptFailure(task, providerId, request, attempt, System.currentTimeMillis() - startTime,
+                        e, failureMessages);
+                if (delay < 0) {
+                    return null;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    if (cancelled.getAsBoolean()) {
+                        return null;
                     }
-                    failureMessages.add(providerId + ": " + e.getMessage());
-                    break;
+                    throw new LlmException(LlmException.Kind.FATAL, providerId, null, null, "Interrupted during retry backoff", ie);
                 }
             }
         }
+        return null;
+    }
 
-        long totalChainLatency = System.currentTimeMillis() - chainStartTime;
-        log.error("LLM chain exhausted: task={}, providersTried={}, totalLatencyMs={}",
-                task, eligibleChain, totalChainLatency,
-                StructuredArguments.keyValue("event", Events.LLM_CHAIN_EXHAUSTED),
+    /**
+     * {@link #attemptProvider} without blocking: the provider's {@code completeAsync} runs under its
+     * in-flight limit, and a retry is scheduled after the backoff instead of sleeping.
+     */
+    private CompletableFuture<LlmResponse> attemptProviderAsync(String task, String providerId, LlmRequest request,
+                                                                List<String> failureMessages, int attempt) {
+        LlmProvider provider = providers.get(providerId);
+        long[] startTime = new long[1];
+        return inFlightLimiter(providerId)
+                .submit(() -> {
+                    startTime[0] = System.currentTimeMillis();
+                    return provider.completeAsync(request);
+                })
+                .handle((response, error) -> {
+                    long latencyMs = System.currentTimeMillis() - startTime[0];
+                    if (error == null) {
+                        onAttemptSuccess(task, providerId, request, attempt, latencyMs, response);
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    Exception e = cause instanceof Exception ex ? ex : LlmHttpSupport.asLlmException(cause, providerId);
+                    long delay = onAttemptFailure(task, providerId, request, attempt, latencyMs, e, failureMessages);
+                    if (delay < 0) {
+                        return CompletableFuture.<LlmResponse>completedFuture(null);
+                    }
+                    Executor afterBackoff = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+                    return CompletableFuture.supplyAsync(() -> attempt + 1, afterBackoff)
+                            .thenCompose(next -> attemptProviderAsync(task, providerId, request, failureMessages, next));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private void onAttemptSuccess(String task, String providerId, LlmRequest request, int attempt, long latencyMs,
+                                  LlmResponse response) {
+        String model = getModel(providerId);
+        int promptChars = request.prompt() != null ? request.prompt().length() : 0;
+        int responseChars = response != null && response.jsonText() != null ? response.jsonText().length() : 0;
+
+        log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome=success, latency={}ms",
+                task, providerId, model, attempt, latencyMs,
+                StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
                 StructuredArguments.keyValue("task", task),
-                StructuredArguments.keyValue("providersTried", String.join(",", eligibleChain)),
-                StructuredArguments.keyValue("totalLatencyMs", totalChainLatency),
-                StructuredArguments.keyValue("failureMessages", String.join("; ", failureMessages)));
+                StructuredArguments.keyValue("provider", providerId),
+                StructuredArguments.keyValue("model", model),
+                StructuredArguments.keyValue("attempt", attempt),
+                StructuredArguments.keyValue("outcome", "success"),
+                StructuredArguments.keyValue("latencyMs", latencyMs),
+                StructuredArguments.keyValue("promptChars", promptChars),
+                StructuredArguments.keyValue("responseChars", responseChars),
+                StructuredArguments.keyValue("batchSize", batchSizeOf(providerId)),
+                StructuredArguments.keyValue("errorClass", ""),
+                StructuredArguments.keyValue("errorBody", ""));
+
+        recordSuccess(providerId, latencyMs);
+        if (metrics != null) {
+            metrics.recordLlmAttempt(providerId, "success");
+            metrics.recordLlmLatency(providerId, Duration.ofMillis(latencyMs));
+        }
+    }
 
-        String chainMessage = "All providers failed for task '" + task + "': " + String.join("; ", failureMessages);
-        throw new LlmException(LlmException.Kind.FATAL, "chain", null, null,
-                LlmHttpSupport.truncate(chainMessage, 1500));
+    /**
+     * Logs and records a failed attempt. Returns the backoff before the next attempt, or -1 when the
+     * provider is done (fatal or bad output, or retries exhausted); its failure message is then added.
+     */
+    private long onAttemptFailure(String task, String providerId, LlmRequest request, int attempt, long latencyMs,
+                                  Exception error, List<String> failureMessages) {
+        String model = getModel(providerId);
+        int promptChars = request.prompt() != null ? request.prompt().length() : 0;
+        int batchSize = batchSizeOf(providerId);
+        String errorClass = error.getClass().getName();
+        String errorBody = error.getMessage() != null ? LlmHttpSupport.truncate(error.getMessage(), 300) : "";
+
+        if (!(error instanceof LlmException e)) {
+            log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome=error, latency={}ms",
+                    task, providerId, model, attempt, latencyMs,
+                    StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
+                    StructuredArguments.keyValue("task", task),
+                    StructuredArguments.keyValue("provider", providerId),
+                    StructuredArguments.keyValue("model", model),
+                    StructuredArguments.keyValue("attempt", attempt),
+                    StructuredArguments.keyValue("outcome", "error"),
+                    StructuredArguments.keyValue("latencyMs", latencyMs),
+                    StructuredArguments.keyValue("promptChars", promptChars),
+                    StructuredArguments.keyValue("responseChars", 0),
+                    StructuredArguments.keyValue("batchSize", batchSize),
+                    StructuredArguments.keyValue("errorClass", errorClass),
+                    StructuredArguments.keyValue("errorBody", errorBody));
+
+            recordFailure(providerId);
+            if (metrics != null) {
+                metrics.recordLlmAttempt(providerId, "error");
+            }
+            failureMessages.add(providerId + ": " + error.getMessage());
+            return -1;
+        }
+
+        String outcome = e.getStatusCode() != null ? String.valueOf(e.getStatusCode()) : e.getKind().name().toLowerCase();
+        Integer httpStatus = e.getStatusCode();
+        long retryAfterMs = e.getRetryAfterSeconds() != null ? e.getRetryAfterSeconds() * 1000L : 0;
+
+        if (httpStatus != null) {
+            log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome={}, latency={}ms",
+                    task, providerId, model, attempt, outcome, latencyMs,
+                    StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
+                    StructuredArguments.keyValue("task", task),
+                    StructuredArguments.keyValue("provider", providerId),
+                    StructuredArguments.keyValue("model", model),
+                    StructuredArguments.keyValue("attempt", attempt),
+                    StructuredArguments.keyValue("outcome", outcome),
+                    StructuredArguments.keyValue("latencyMs", latencyMs),
+                    StructuredArguments.keyValue("httpStatus", httpStatus),
+                    StructuredArguments.keyValue("promptChars", promptChars),
+                    StructuredArguments.keyValue("responseChars", 0),
+                    StructuredArguments.keyValue("batchSize", batchSize),
+                    StructuredArguments.keyValue("retryAfterMs", retryAfterMs),
+                    StructuredArguments.keyValue("errorClass", errorClass),
+                    StructuredArguments.keyValue("errorBody", errorBody));
+        } else {
+            log.info("LLM attempt task={}, provider={}, model={}, attempt={}, outcome={}, latency={}ms",
+                    task, providerId, model, attempt, outcome, latencyMs,
+                    StructuredArguments.keyValue("event", Events.LLM_ATTEMPT),
+                    StructuredArguments.keyValue("task", task),
+                    StructuredArguments.keyValue("provider", providerId),
+                    StructuredArguments.keyValue("model", model),
+                    StructuredArguments.keyValue("attempt", attempt),
+                    StructuredArguments.keyValue("outcome", outcome),
+                    StructuredArguments.keyValue("latencyMs", latencyMs),
+                    StructuredArguments.keyValue("promptChars", promptChars),
+                    StructuredArguments.keyValue("responseChars", 0),
+                    StructuredArguments.keyValue("batchSize", batchSize),
+                    StructuredArguments.keyValue("retryAfterMs", retryAfterMs),
+                    StructuredArguments.keyValue("errorClass", errorClass),
+                    StructuredArguments.keyValue("errorBody", errorBody));
+        }
+
+        if (metrics != null) {
+            metrics.recordLlmAttempt(providerId, outcome);
+        }
+
+        // RETRYABLE with attempts left: back off and go again
+        if (e.getKind() == LlmException.Kind.RETRYABLE && attempt < properties.getRetry().getAttemptsPerProvider()) {
+            return calculateBackoff(attempt - 1, properties.getRetry().getBaseDelayMs(),
+                    properties.getRetry().getMaxDelayMs(), e.getRetryAfterSeconds());
+        }
+        recordFailure(providerId);
+        failureMessages.add(providerId + ": " + (e.getMessage() != null ? e.getMessage() : e.getKind().name()));
+        return -1;
     }
 
     @Override
     public int recommendedBatchSize(String task) {
+        String providerId = firstAvailableProvider(task);
+        return providerId != null ? batchSizeOf(providerId) : 50;
+    }
+
+    @Override
+    public int recommendedConcurrency(String task) {
+        String providerId = firstAvailableProvider(task);
+        if (providerId != null && properties != null && properties.getProviders() != null) {
+            LlmProperties.ProviderProperties prop = properties.getProviders().get(providerId);
+            if (prop != null) {
+                return Math.max(1, prop.getConcurrency());
+            }
+        }
+        return 1;
+    }
+
+    /** The provider complete() would try first for the task, or null. */
+    private String firstAvailableProvider(String task) {
         String t = task != null ? task : "";
         List<String> eligibleChain = buildEligibleChain(resolveChain(t));
         if (eligibleChain.isEmpty()) {
-            return 50;
+            return null;
         }
 
         boolean allOpen = eligibleChain.stream().allMatch(this::isCircuitOpen);
@@ -263,9 +585,9 @@ public class FailoverLlmClient implements LlmClient {
             if (providers.get(providerId) == null) {
                 continue;
             }
-            return batchSizeOf(providerId);
+            return providerId;
         }
-        return 50;
+        return null;
     }
 
     @Override
@@ -337,8 +659,21 @@ public class FailoverLlmClient implements LlmClient {
         return false;
     }
 
-    private void recordSuccess(String providerId) {
+    private InFlightLimiter inFlightLimiter(String providerId) {
+        return inFlightLimiters.computeIfAbsent(providerId, id -> {
+            LlmProperties.ProviderProperties prop = properties.getProviders() != null
+                    ? properties.getProviders().get(id) : null;
+            return new InFlightLimiter(prop != null ? prop.getConcurrency() : 1, ForkJoinPool.commonPool());
+        });
+    }
+
+    private LatencyWindow latencyWindow(String providerId) {
+        return circuitStates.computeIfAbsent(providerId, k -> new CircuitState()).latencies;
+    }
+
+    private void recordSuccess(String providerId, long latencyMs) {
         CircuitState state = circuitStates.computeIfAbsent(providerId, k -> new CircuitState());
+        state.latencies.record(latencyMs);
         int previousFailures = state.consecutiveFailures.getAndSet(0);
         state.lastFailureTimestamp.set(0);
         if (previousFailures >= 3) {
@@ -0,0 +1,76 @@
+package com.financeos.llm;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Caps the async calls in flight to one provider. Calls over the limit wait in FIFO order and
+ * start on the executor as earlier ones complete; nothing blocks a thread while waiting.
+ */
+final class InFlightLimiter {
+
+    private final int limit;
+    private final Executor executor;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    InFlightLimiter(int limit, Executor executor) {
+        this.limit = Math.max(1, limit);
+        this.executor = executor;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> started;
+            try {
+                started = call.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+        synchronized (this) {
+            if (inFlight >= limit) {
+                waiting.add(start);
+                return result;
+            }
+            inFlight++;
+        }
+        start.run();
+        return result;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        // The slot passes straight to the next waiter. It starts on the executor rather than the
+        // completing thread: a call that completes synchronously would otherwise start the next
+        // waiter from inside this one, nesting a frame per queued call.
+        try {
+            executor.execute(next);
+        } catch (RuntimeException e) {
+            next.run();
+        }
+    }
+}
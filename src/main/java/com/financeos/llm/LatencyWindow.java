@@ -0,0 +1,39 @@
+package com.financeos.llm;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of a provider's most recent calls, for percentile estimates. A fixed ring of samples
+ * rather than an all-time histogram, so the estimate follows a provider that gets slower or faster.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long latencyMs) {
+        samples[next] = Math.max(0, latencyMs);
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /** The given percentile (0..1) of the recorded latencies, or -1 with fewer than minSamples. */
+    synchronized long percentile(double percentile, int minSamples) {
+        if (count == 0 || count < minSamples) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(Math.min(1.0, Math.max(0.0, percentile)) * count) - 1;
+        return sorted[Math.max(0, rank)];
+    }
+}
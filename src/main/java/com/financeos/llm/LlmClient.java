@@ -1,8 +1,30 @@
 package com.financeos.llm;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface LlmClient {
     LlmResponse complete(LlmRequest request);
 
+    /**
+     * Non-blocking {@link #complete}, for callers that keep several requests in flight. The default
+     * runs the blocking call on the caller's thread.
+     */
+    default CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+        try {
+            return CompletableFuture.completedFuture(complete(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Tells the client the caller parsed and accepted {@code response} as the answer to
+     * {@code request}. A caching client stores only accepted answers, so a malformed or unusable
+     * one is never replayed. Callers that cache per item instead (batch prompts) don't call it.
+     */
+    default void accept(LlmRequest request, LlmResponse response) {
+    }
+
     default int recommendedBatchSize(String task) {
         return 50;
     }
@@ -10,4 +32,9 @@ public interface LlmClient {
     default int batchSizeOf(String providerId) {
         return 50;
     }
+
+    /** Requests for the task that may be in flight at once without tripping provider rate limits. */
+    default int recommendedConcurrency(String task) {
+        return 1;
+    }
 }
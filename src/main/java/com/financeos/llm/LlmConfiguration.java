@@ -1,6 +1,8 @@
 package com.financeos.llm;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeos.llm.cache.CachingLlmClient;
+import com.financeos.llm.cache.LlmResponseCache;
 import com.financeos.llm.provider.GeminiProvider;
 import com.financeos.llm.provider.OpenAiCompatProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -17,7 +19,8 @@ import com.financeos.core.observability.ObservabilityMetrics;
 public class LlmConfiguration {
 
     @Bean
-    public FailoverLlmClient llmClient(LlmProperties properties, ObjectMapper objectMapper, ObservabilityMetrics metrics) {
+    public LlmClient llmClient(LlmProperties properties, ObjectMapper objectMapper, ObservabilityMetrics metrics,
+                               LlmResponseCache responseCache) {
         Map<String, LlmProvider> providers = new HashMap<>();
         if (properties.getProviders() != null) {
             for (Map.Entry<String, LlmProperties.ProviderProperties> entry : properties.getProviders().entrySet()) {
@@ -33,6 +36,7 @@ public class LlmConfiguration {
                 }
             }
         }
-        return new FailoverLlmClient(properties, providers, metrics);
+        FailoverLlmClient failover = new FailoverLlmClient(properties, providers, metrics);
+        return responseCache.isEnabled() ? new CachingLlmClient(failover, responseCache) : failover;
     }
 }
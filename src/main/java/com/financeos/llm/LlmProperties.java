@@ -16,6 +16,8 @@ public class LlmProperties {
 
     private List<String> chain = new ArrayList<>();
     private RetryProperties retry = new RetryProperties();
+    private HedgeProperties hedge = new HedgeProperties();
+    private CacheProperties cache = new CacheProperties();
     private Map<String, ProviderProperties> providers = new HashMap<>();
     private Map<String, TaskProperties> tasks = new HashMap<>();
 
@@ -28,6 +30,42 @@ public class LlmProperties {
         private long cooldownMs = 60000L;
     }
 
+    /**
+     * Hedged requests: when a provider hasn't answered within a percentile of its recent latency,
+     * the same request also goes to the next provider in the chain and the first valid answer wins.
+     */
+    @Getter
+    @Setter
+    public static class HedgeProperties {
+        private boolean enabled = false;
+        /** Percentile (0..1) of a provider's recent latencies after which the next provider is tried. */
+        private double percentile = 0.95;
+        /** Successful calls a provider needs before its percentile is trusted. */
+        private int minSamples = 20;
+        /** Hedge delay while a provider has fewer than minSamples latencies. */
+        private long initialDelayMs = 10000L;
+        /** Lower bound for the hedge delay, so a fast provider's noise doesn't double every call. */
+        private long minDelayMs = 500L;
+        /** Providers working on one request at once. */
+        private int maxInFlight = 2;
+    }
+
+    /**
+     * Response cache: deterministic (temperature 0) requests are answered from earlier identical
+     * ones, and batch callers reuse answers for individual items.
+     */
+    @Getter
+    @Setter
+    public static class CacheProperties {
+        private boolean enabled = false;
+        /** How long a cached answer is served. */
+        private long ttlHours = 168L;
+        /** Entries kept in memory in front of the table, least recently used evicted first. */
+        private int memoryEntries = 2000;
+        /** Rows the purge leaves in the table, oldest deleted first. */
+        private long maxRows = 200_000L;
+    }
+
     @Getter
     @Setter
     public static class ProviderProperties {
@@ -40,6 +78,8 @@ public class LlmProperties {
         private boolean allowNoKey = false;
         private Map<String, String> headers = new HashMap<>();
         private int batchSize = 50;
+        /** Concurrent requests this provider's rate limits tolerate. */
+        private int concurrency = 2;
     }
 
     @Getter
@@ -1,6 +1,20 @@
 package com.financeos.llm;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface LlmProvider {
     String id();
     LlmResponse complete(LlmRequest request);
+
+    /**
+     * Non-blocking {@link #complete}: failures complete the future with an {@link LlmException}.
+     * The default runs the blocking call on the caller's thread.
+     */
+    default CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+        try {
+            return CompletableFuture.completedFuture(complete(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
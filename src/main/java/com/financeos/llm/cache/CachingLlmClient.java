@@ -0,0 +1,91 @@
+package com.financeos.llm.cache;
+
+import com.financeos.llm.LlmClient;
+import com.financeos.llm.LlmRequest;
+import com.financeos.llm.LlmResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers a request from the {@link LlmResponseCache} when the same task, schema and prompt were
+ * answered and {@linkplain #accept accepted} before, and otherwise passes it to the delegate. An
+ * answer is stored only once its caller accepts it, after validating it, so a malformed answer is
+ * never replayed for the TTL. Only deterministic requests (temperature 0) are cached; a caller
+ * asking for variety gets a fresh call.
+ */
+public class CachingLlmClient implements LlmClient {
+
+    private final LlmClient delegate;
+    private final LlmResponseCache cache;
+
+    public CachingLlmClient(LlmClient delegate, LlmResponseCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public LlmResponse complete(LlmRequest request) {
+        if (!cacheable(request)) {
+            return delegate.complete(request);
+        }
+        String key = keyOf(request);
+        LlmResponse cached = lookup(request, key);
+        if (cached != null) {
+            return cached;
+        }
+        return delegate.complete(request);
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+        if (!cacheable(request)) {
+            return delegate.completeAsync(request);
+        }
+        String key = keyOf(request);
+        LlmResponse cached = lookup(request, key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return delegate.completeAsync(request);
+    }
+
+    @Override
+    public void accept(LlmRequest request, LlmResponse response) {
+        if (cacheable(request)) {
+            cache.put(request.task(), keyOf(request), response);
+        }
+        delegate.accept(request, response);
+    }
+
+    @Override
+    public int recommendedBatchSize(String task) {
+        return delegate.recommendedBatchSize(task);
+    }
+
+    @Override
+    public int batchSizeOf(String providerId) {
+        return delegate.batchSizeOf(providerId);
+    }
+
+    @Override
+    public int recommendedConcurrency(String task) {
+        return delegate.recommendedConcurrency(task);
+    }
+
+    private boolean cacheable(LlmRequest request) {
+        return cache.isEnabled() && request.temperature() <= 0.0;
+    }
+
+    private static String keyOf(LlmRequest request) {
+        String schema = request.responseSchema() != null ? request.responseSchema().toString() : "";
+        return LlmResponseCache.key(request.task(), schema, request.prompt());
+    }
+
+    private LlmResponse lookup(LlmRequest request, String key) {
+        LlmResponse cached = cache.find(key);
+        if (cached != null) {
+            cache.recordSaved(request.task(), request.prompt().length(), cached.jsonText().length());
+        }
+        return cached;
+    }
+}
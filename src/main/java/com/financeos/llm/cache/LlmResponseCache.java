@@ -0,0 +1,209 @@
+package com.financeos.llm.cache;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.llm.LlmProperties;
+import com.financeos.llm.LlmResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content-addressed cache of LLM answers. A key is the SHA-256 of the task, a scope (the response
+ * schema for a whole request, or whatever else shapes an item's answer, such as the category list
+ * offered) and the whitespace-normalized prompt or item text, so only a request that would be sent
+ * verbatim again can hit. Entries are served for {@code llm.cache.ttl-hours}; the nightly purge
+ * drops expired rows and trims the table to {@code llm.cache.max-rows}.
+ *
+ * <p>The most recently used entries are also held in memory, so repeats within an instance don't
+ * touch the table. Entries are shared by all users: an answer is only a function of the text that
+ * produced it, and a hit needs that same text.
+ *
+ * <p>The cache is best-effort: a lookup that fails is a miss and a write that fails is dropped, so
+ * callers never see its errors. Lookups are counted as the "llm-response" cache, and the tokens a
+ * hit saved are recorded as {@code financeos.llm.tokens} of provider "cache", estimated from the
+ * text length.
+ */
+@Service
+public class LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    static final String CACHE_NAME = "llm-response";
+    private static final String SAVINGS_PROVIDER = "cache";
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final LlmResponseCacheRepository repository;
+    private final ObservabilityMetrics metrics;
+    private final LlmProperties.CacheProperties properties;
+    private final Map<String, Cached> memory;
+
+    private record Cached(LlmResponse response, Instant expiresAt) {
+    }
+
+    public LlmResponseCache(LlmResponseCacheRepository repository, ObservabilityMetrics metrics, LlmProperties properties) {
+        this.repository = repository;
+        this.metrics = metrics;
+        this.properties = properties.getCache();
+        int memoryEntries = Math.max(0, this.properties.getMemoryEntries());
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public static String key(String task, String scope, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(task).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(scope).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+    }
+
+    /** The cached answer for the key, or null. */
+    public LlmResponse find(String key) {
+        return findAll(List.of(key)).get(key);
+    }
+
+    /** The cached answers among the keys; keys without one are absent from the map. */
+    public Map<String, LlmResponse> findAll(Collection<String> keys) {
+        Map<String, LlmResponse> found = new HashMap<>();
+        if (!isEnabled() || keys.isEmpty()) {
+            return found;
+        }
+        Set<String> distinct = new LinkedHashSet<>(keys);
+        Instant now = Instant.now();
+        List<String> missing = new ArrayList<>();
+        synchronized (memory) {
+            for (String key : distinct) {
+                Cached cached = memory.get(key);
+                if (cached != null && cached.expiresAt().isAfter(now)) {
+                    found.put(key, cached.response());
+                } else {
+                    memory.remove(key);
+                    missing.add(key);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            try {
+                for (LlmResponseCacheEntry entry : repository.findByCacheKeyInAndExpiresAtAfter(missing, now)) {
+                    LlmResponse response = new LlmResponse(entry.getResponse(), entry.getProviderId(), entry.getModel());
+                    found.put(entry.getCacheKey(), response);
+                    remember(entry.getCacheKey(), response, entry.getExpiresAt());
+                }
+            } catch (RuntimeException e) {
+                log.warn("LLM response cache lookup failed: {}", e.getMessage());
+            }
+        }
+        for (String key : distinct) {
+            metrics.recordCacheAccess(CACHE_NAME, found.containsKey(key));
+        }
+        return found;
+    }
+
+    public void put(String task, String key, LlmResponse response) {
+        putAll(task, Map.of(key, response));
+    }
+
+    public void putAll(String task, Map<String, LlmResponse> responses) {
+        if (!isEnabled() || responses.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(Duration.ofHours(properties.getTtlHours()));
+        List<LlmResponseCacheEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, LlmResponse> e : responses.entrySet()) {
+            LlmResponse response = e.getValue();
+            if (response == null || response.jsonText() == null || isRemembered(e.getKey(), now)) {
+                // Already stored, e.g. an answer accepted again after being served from the cache
+                continue;
+            }
+            remember(e.getKey(), response, expiresAt);
+            LlmResponseCacheEntry entry = new LlmResponseCacheEntry();
+            entry.setCacheKey(e.getKey());
+            entry.setTask(task);
+            entry.setResponse(response.jsonText());
+            entry.setProviderId(response.providerId());
+            entry.setModel(response.model());
+            entry.setCreatedAt(now);
+            entry.setExpiresAt(expiresAt);
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            // A key whose row expired but wasn't purged yet would fail the INSERT, and the batch with it
+            repository.deleteExpiredIn(entries.stream().map(LlmResponseCacheEntry::getCacheKey).toList(), now);
+            repository.saveAll(entries);
+        } catch (RuntimeException e) {
+            // Typically another instance writing the same key first; the memory tier still has it
+            log.warn("LLM response cache write of {} entr(ies) failed: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    /** Records the tokens a cache hit saved, estimated from the prompt and answer text it stood in for. */
+    public void recordSaved(String task, long promptChars, long completionChars) {
+        log.debug("LLM response cache hit for task {} saved ~{} prompt and ~{} completion chars",
+                task, promptChars, completionChars);
+        metrics.recordLlmTokens(SAVINGS_PROVIDER, "prompt_saved", promptChars / CHARS_PER_TOKEN);
+        metrics.recordLlmTokens(SAVINGS_PROVIDER, "completion_saved", completionChars / CHARS_PER_TOKEN);
+    }
+
+    @Scheduled(cron = "${llm.cache.purge-cron:0 15 4 * * *}", zone = "${llm.cache.zone:Asia/Kolkata}")
+    @Transactional
+    public void purge() {
+        int expired = repository.deleteExpired(Instant.now());
+        long excess = repository.count() - properties.getMaxRows();
+        int trimmed = excess > 0 ? repository.deleteOldest(excess) : 0;
+        if (expired > 0 || trimmed > 0) {
+            log.info("LLM response cache purge deleted {} expired and {} excess entr(ies)", expired, trimmed);
+        }
+    }
+
+    private boolean isRemembered(String key, Instant now) {
+        synchronized (memory) {
+            Cached cached = memory.get(key);
+            return cached != null && cached.expiresAt().isAfter(now);
+        }
+    }
+
+    private void remember(String key, LlmResponse response, Instant expiresAt) {
+        synchronized (memory) {
+            memory.put(key, new Cached(response, expiresAt));
+        }
+    }
+}
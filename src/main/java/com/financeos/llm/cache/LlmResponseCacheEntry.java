@@ -0,0 +1,68 @@
+package com.financeos.llm.cache;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * One cached LLM answer; see {@link LlmResponseCache}. The key is assigned, so the entity reports
+ * itself new until stored or loaded: saving it is then a plain INSERT rather than a merge that
+ * first SELECTs the row.
+ */
+@Entity
+@Table(name = "llm_response_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LlmResponseCacheEntry implements Persistable<String> {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 64)
+    private String task;
+
+    /** The JSON text of the answer: the whole response, or one item of a batch response. */
+    @Lob
+    @Column(nullable = false)
+    private String response;
+
+    @Column(name = "provider_id", length = 64)
+    private String providerId;
+
+    @Column(length = 255)
+    private String model;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean stored;
+
+    @Override
+    public String getId() {
+        return cacheKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+}
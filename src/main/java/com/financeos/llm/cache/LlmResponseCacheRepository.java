@@ -0,0 +1,48 @@
+package com.financeos.llm.cache;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lookups and writes run in their own transaction: the cache is consulted from inside callers'
+ * transactions, and a failed cache access must not roll them back.
+ */
+@Repository
+public interface LlmResponseCacheRepository extends JpaRepository<LlmResponseCacheEntry, String> {
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    List<LlmResponseCacheEntry> findByCacheKeyInAndExpiresAtAfter(Collection<String> cacheKeys, Instant now);
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends LlmResponseCacheEntry> List<S> saveAll(Iterable<S> entries);
+
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    /**
+     * Deletes the expired rows among the keys, which keep their key until the nightly purge, so
+     * that storing a fresh answer under one is an INSERT again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.cacheKey IN :cacheKeys AND e.expiresAt <= :now")
+    int deleteExpiredIn(@Param("cacheKeys") Collection<String> cacheKeys, @Param("now") Instant now);
+
+    /** Deletes the {@code count} entries closest to expiry, i.e. the oldest. */
+    @Modifying
+    @Query(value = "DELETE FROM llm_response_cache WHERE cache_key IN (" +
+                   "SELECT cache_key FROM (SELECT cache_key FROM llm_response_cache ORDER BY expires_at) " +
+                   "WHERE ROWNUM <= :count)", nativeQuery = true)
+    int deleteOldest(@Param("count") long count);
+}
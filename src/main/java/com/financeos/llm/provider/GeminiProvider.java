@@ -16,6 +16,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 public class GeminiProvider implements LlmProvider {
 
@@ -40,6 +41,30 @@ public class GeminiProvider implements LlmProvider {
 
     @Override
     public LlmResponse complete(LlmRequest request) {
+        HttpRequest httpRequest = buildHttpRequest(request);
+        HttpResponse<String> response = LlmHttpSupport.executeAndHandleExceptions(
+                () -> httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString()), id);
+        return parseResponseBody(response.body(), response.statusCode(), LlmHttpSupport.parseRetryAfter(response), id, properties.getModel(), objectMapper);
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = buildHttpRequest(request);
+        } catch (LlmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw LlmHttpSupport.asLlmException(error, id);
+                    }
+                    return parseResponseBody(response.body(), response.statusCode(), LlmHttpSupport.parseRetryAfter(response), id, properties.getModel(), objectMapper);
+                });
+    }
+
+    private HttpRequest buildHttpRequest(LlmRequest request) {
         String apiKey = properties.getApiKey();
         if ((apiKey == null || apiKey.trim().isEmpty()) && !properties.isAllowNoKey()) {
             throw new LlmException(LlmException.Kind.FATAL, id, null, null, "API key is not configured for Gemini provider: " + id);
@@ -68,9 +93,7 @@ public class GeminiProvider implements LlmProvider {
 
         String modelName = properties.getModel() != null ? properties.getModel() : "gemini-2.5-flash-lite";
         log.info("Making API call to provider [{}], model [{}], task [{}]", id, modelName, request.task());
-        HttpResponse<String> response = LlmHttpSupport.executeAndHandleExceptions(
-                () -> httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString()), id);
-        return parseResponseBody(response.body(), response.statusCode(), LlmHttpSupport.parseRetryAfter(response), id, properties.getModel(), objectMapper);
+        return httpRequest;
     }
 
     public static String buildRequestBody(LlmRequest request, ObjectMapper objectMapper) throws Exception {
@@ -10,6 +10,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 public class LlmHttpSupport {
 
@@ -64,15 +67,32 @@ public class LlmHttpSupport {
     public static HttpResponse<String> executeAndHandleExceptions(HttpExecution execution, String providerId) {
         try {
             return execution.execute();
-        } catch (LlmException e) {
-            throw e;
-        } catch (IOException e) {
-            throw new LlmException(LlmException.Kind.RETRYABLE, providerId, null, null, "IO/Timeout error: " + e.getMessage(), e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new LlmException(LlmException.Kind.FATAL, providerId, null, null, "Request interrupted", e);
         } catch (Exception e) {
-            throw new LlmException(LlmException.Kind.FATAL, providerId, null, null, "Unexpected error: " + e.getMessage(), e);
+            throw asLlmException(e, providerId);
         }
     }
+
+    /**
+     * Classifies a failure the way {@link #executeAndHandleExceptions} does, for async calls:
+     * IO errors and timeouts are retryable, anything else is fatal. Completion wrappers are unwrapped.
+     */
+    public static LlmException asLlmException(Throwable error, String providerId) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof LlmException e) {
+            return e;
+        }
+        if (cause instanceof IOException) {
+            return new LlmException(LlmException.Kind.RETRYABLE, providerId, null, null, "IO/Timeout error: " + cause.getMessage(), cause);
+        }
+        if (cause instanceof CancellationException) {
+            return new LlmException(LlmException.Kind.FATAL, providerId, null, null, "Request cancelled", cause);
+        }
+        return new LlmException(LlmException.Kind.FATAL, providerId, null, null, "Unexpected error: " + cause.getMessage(), cause);
+    }
 }
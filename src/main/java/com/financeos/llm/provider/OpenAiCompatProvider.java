@@ -17,6 +17,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -44,6 +45,30 @@ public class OpenAiCompatProvider implements LlmProvider {
 
     @Override
     public LlmResponse complete(LlmRequest request) {
+        HttpRequest httpRequest = buildHttpRequest(request);
+        HttpResponse<String> response = LlmHttpSupport.executeAndHandleExceptions(
+                () -> httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString()), id);
+        return parseResponseBody(response.body(), response.statusCode(), LlmHttpSupport.parseRetryAfter(response), id, properties.getModel(), objectMapper);
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = buildHttpRequest(request);
+        } catch (LlmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw LlmHttpSupport.asLlmException(error, id);
+                    }
+                    return parseResponseBody(response.body(), response.statusCode(), LlmHttpSupport.parseRetryAfter(response), id, properties.getModel(), objectMapper);
+                });
+    }
+
+    private HttpRequest buildHttpRequest(LlmRequest request) {
         String apiKey = properties.getApiKey();
         if ((apiKey == null || apiKey.trim().isEmpty()) && !properties.isAllowNoKey()) {
             throw new LlmException(LlmException.Kind.FATAL, id, null, null, "API key is not configured for OpenAI provider: " + id);
@@ -82,9 +107,7 @@ public class OpenAiCompatProvider implements LlmProvider {
 
         String modelName = properties.getModel() != null ? properties.getModel() : "unknown";
         log.info("Making API call to provider [{}], model [{}], task [{}]", id, modelName, request.task());
-        HttpResponse<String> response = LlmHttpSupport.executeAndHandleExceptions(
-                () -> httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofString()), id);
-        return parseResponseBody(response.body(), response.statusCode(), LlmHttpSupport.parseRetryAfter(response), id, properties.getModel(), objectMapper);
+        return requestBuilder.build();
     }
 
     public static String buildRequestBody(LlmRequest request, LlmProperties.ProviderProperties properties, ObjectMapper objectMapper) throws Exception {
@@ -1,13 +1,11 @@
 package com.financeos.statement.parser;
 
-import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.SignStyle;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.TextStyle;
-import java.time.temporal.ChronoField;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -27,66 +25,178 @@ final class Dates {
             "%d%b%Y", "%d%b%y", "%d%B%Y", "%Y/%m/%d",
             "%d%b", "%d%B", "%d %b", "%d-%b", "%d/%b");
 
-    private static final Map<String, DateTimeFormatter> FORMATTERS;
+    /** Short and full English month names, in month order. */
+    private static final String[] SHORT_MONTHS = monthNames(TextStyle.SHORT);
+    private static final String[] FULL_MONTHS = monthNames(TextStyle.FULL);
+
+    private static final int LITERAL = 1 << 16;
+
+    /**
+     * Each format compiled to the ops {@link #scan} walks: a directive letter ('d', 'm', 'Y',
+     * 'y', 'b', 'B') or {@code LITERAL | c} for a literal character.
+     */
+    private static final Map<String, int[]> PATTERNS;
 
     static {
-        Map<String, DateTimeFormatter> m = new LinkedHashMap<>();
+        Map<String, int[]> m = new LinkedHashMap<>();
         for (String fmtId : DATE_FORMATS) {
-            m.put(fmtId, buildFormatter(fmtId));
+            m.put(fmtId, compile(fmtId));
+        }
+        PATTERNS = Collections.unmodifiableMap(m);
+    }
+
+    private static String[] monthNames(TextStyle style) {
+        String[] names = new String[12];
+        for (Month month : Month.values()) {
+            names[month.ordinal()] = month.getDisplayName(style, Locale.ENGLISH);
         }
-        FORMATTERS = Collections.unmodifiableMap(m);
+        return names;
     }
 
-    private static DateTimeFormatter buildFormatter(String fmtId) {
-        DateTimeFormatterBuilder b = new DateTimeFormatterBuilder().parseCaseInsensitive();
+    private static int[] compile(String fmtId) {
+        int[] ops = new int[fmtId.length()];
+        int n = 0;
         int i = 0;
         while (i < fmtId.length()) {
             char c = fmtId.charAt(i);
             if (c == '%' && i + 1 < fmtId.length()) {
                 char spec = fmtId.charAt(i + 1);
-                switch (spec) {
-                    case 'd' -> b.appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE);
-                    case 'm' -> b.appendValue(ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE);
-                    case 'Y' -> b.appendValue(ChronoField.YEAR, 4);
-                    case 'y' -> b.appendValueReduced(ChronoField.YEAR, 2, 2, 2000);
-                    case 'b' -> b.appendText(ChronoField.MONTH_OF_YEAR, TextStyle.SHORT);
-                    case 'B' -> b.appendText(ChronoField.MONTH_OF_YEAR, TextStyle.FULL);
-                    default -> throw new IllegalStateException("unsupported format directive %" + spec);
+                if ("dmYybB".indexOf(spec) < 0) {
+                    throw new IllegalStateException("unsupported format directive %" + spec);
                 }
+                ops[n++] = spec;
                 i += 2;
             } else {
-                b.appendLiteral(c);
+                ops[n++] = LITERAL | c;
                 i++;
             }
         }
-        // Yearless formats resolve to year 1900, same as Python strptime; downstream
-        // logic detects year==1900 and injects the statement-period year.
-        if (!fmtId.contains("%Y") && !fmtId.contains("%y")) {
-            b.parseDefaulting(ChronoField.YEAR, 1900);
-        }
-        return b.toFormatter(Locale.ENGLISH);
+        return Arrays.copyOf(ops, n);
     }
 
-    static LocalDate parse(String text, String fmtId) {
-        DateTimeFormatter fmt = FORMATTERS.get(fmtId);
-        if (fmt == null) {
-            return null;
+    /**
+     * Parses {@code text} in the given strptime-style format, or returns null. Called for every
+     * candidate span and format, so it never throws: a mismatch is just a null.
+     */
+    static LocalDate parse(CharSequence text, String fmtId) {
+        int[] ops = PATTERNS.get(fmtId);
+        return ops == null || text == null ? null : scan(text, ops);
+    }
+
+    /**
+     * Accepts exactly what the equivalent strict, case-insensitive {@code DateTimeFormatter}
+     * accepts: %d/%m take one or two digits, %Y four, %y two (20yy), %b/%B the short/full
+     * English month name, and the whole text must be consumed. Resolution is SMART: day 29-31
+     * beyond the month end clamps to the last day. Yearless formats resolve to year 1900, same
+     * as Python strptime; downstream logic detects year==1900 and injects the statement-period
+     * year.
+     */
+    private static LocalDate scan(CharSequence text, int[] ops) {
+        int len = text.length();
+        int pos = 0;
+        int day = 0;
+        int month = 0;
+        int year = 1900;
+        for (int op : ops) {
+            switch (op) {
+                case 'd', 'm' -> {
+                    int v = digit(text, pos, len);
+                    if (v < 0) {
+                        return null;
+                    }
+                    pos++;
+                    int next = digit(text, pos, len);
+                    if (next >= 0) {
+                        v = v * 10 + next;
+                        pos++;
+                    }
+                    if (op == 'd') {
+                        day = v;
+                    } else {
+                        month = v;
+                    }
+                }
+                case 'Y', 'y' -> {
+                    int width = op == 'Y' ? 4 : 2;
+                    int v = 0;
+                    for (int k = 0; k < width; k++) {
+                        int dg = digit(text, pos++, len);
+                        if (dg < 0) {
+                            return null;
+                        }
+                        v = v * 10 + dg;
+                    }
+                    year = op == 'Y' ? v : 2000 + v;
+                }
+                case 'b', 'B' -> {
+                    String[] names = op == 'b' ? SHORT_MONTHS : FULL_MONTHS;
+                    int matched = -1;
+                    for (int k = 0; k < names.length; k++) {
+                        if (regionMatches(text, pos, len, names[k])
+                                && (matched < 0 || names[k].length() > names[matched].length())) {
+                            matched = k;
+                        }
+                    }
+                    if (matched < 0) {
+                        return null;
+                    }
+                    month = matched + 1;
+                    pos += names[matched].length();
+                }
+                default -> {
+                    if (pos >= len || !charEquals(text.charAt(pos), (char) (op & ~LITERAL))) {
+                        return null;
+                    }
+                    pos++;
+                }
+            }
         }
-        try {
-            return LocalDate.from(fmt.parse(text));
-        } catch (DateTimeException e) {
+        if (pos != len || day < 1 || day > 31 || month < 1 || month > 12) {
             return null;
         }
+        return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+    }
+
+    private static int digit(CharSequence text, int pos, int len) {
+        if (pos >= len) {
+            return -1;
+        }
+        int v = text.charAt(pos) - '0';
+        return v >= 0 && v <= 9 ? v : -1;
+    }
+
+    private static boolean regionMatches(CharSequence text, int pos, int len, String name) {
+        if (len - pos < name.length()) {
+            return false;
+        }
+        for (int k = 0; k < name.length(); k++) {
+            if (!charEquals(text.charAt(pos + k), name.charAt(k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same folding as DateTimeFormatter's case-insensitive parsing.
+    private static boolean charEquals(char a, char b) {
+        return a == b
+                || Character.toUpperCase(a) == Character.toUpperCase(b)
+                || Character.toLowerCase(a) == Character.toLowerCase(b);
     }
 
+    /**
+     * The first date-shaped span of up to three words starting among the first three words, as
+     * RowCollector anchors a row on. Spans are probed through a {@link Span} view over the words,
+     * so nothing is built until one matches.
+     */
     static DateAnchor dateAnchor(List<Word> words) {
         int maxStart = 3, maxSpan = 3;
         int n = words.size();
+        Span cand = new Span(words, Math.min(n, maxStart + maxSpan - 1));
         for (int start = 0; start < Math.min(maxStart, n); start++) {
             for (int span = Math.min(maxSpan, n - start); span >= 1; span--) {
-                String cand = joinNorm(words, start, span);
-                if (Tokens.isDateToken(cand)) {
-                    return new DateAnchor(start, span, cand);
+                if (isDateShape(cand.of(start, span))) {
+                    return new DateAnchor(start, span, cand.toString());
                 }
             }
         }
@@ -96,15 +206,12 @@ final class Dates {
     static List<LocalDate> findDatesInWords(List<Word> words, List<String> fmtIds) {
         List<LocalDate> found = new ArrayList<>();
         int n = words.size();
+        Span cand = new Span(words, n);
         int i = 0;
         while (i < n) {
             int consumed = 0;
-            for (int span : new int[]{3, 2, 1}) {
-                if (i + span > n) {
-                    continue;
-                }
-                String cand = joinNorm(words, i, span);
-                if (!Tokens.isDateToken(cand)) {
+            for (int span = Math.min(3, n - i); span >= 1 && consumed == 0; span--) {
+                if (!isDateShape(cand.of(i, span))) {
                     continue;
                 }
                 for (String fmtId : fmtIds) {
@@ -115,9 +222,6 @@ final class Dates {
                         break;
                     }
                 }
-                if (consumed != 0) {
-                    break;
-                }
             }
             i += consumed != 0 ? consumed : 1;
         }
@@ -152,14 +256,169 @@ final class Dates {
         return best;
     }
 
-    private static String joinNorm(List<Word> words, int start, int span) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = start; i < start + span; i++) {
-            if (i > start) {
-                sb.append(' ');
+    private static final int DIGITS = 1 << 16;
+    private static final int LETTERS = 2 << 16;
+    private static final int MAX_RUNS = 5;
+
+    /**
+     * Same answer as {@link Tokens#isDateToken} without the regex. The text is split into
+     * maximal runs of ASCII digits and ASCII letters, every other character being a run of its
+     * own, and each alternative of the pattern is a fixed sequence of at most five such runs.
+     */
+    static boolean isDateShape(CharSequence text) {
+        int len = text.length();
+        int[] runs = new int[MAX_RUNS];
+        int count = 0;
+        int pos = 0;
+        while (pos < len) {
+            if (count == MAX_RUNS) {
+                return false;
+            }
+            char c = text.charAt(pos);
+            int kind = kindOf(c);
+            int end = pos + 1;
+            if (kind != 0) {
+                while (end < len && kindOf(text.charAt(end)) == kind) {
+                    end++;
+                }
+            }
+            runs[count++] = kind != 0 ? kind | Math.min(end - pos, 0xFF) : c;
+            pos = end;
+        }
+        return switch (count) {
+            // dd Mon, ddMon
+            case 2 -> run(runs[0], DIGITS, 1, 2) && run(runs[1], LETTERS, 3, 9);
+            // ddMonyyyy, dd Mon
+            case 3 -> run(runs[0], DIGITS, 1, 2)
+                    && (run(runs[1], LETTERS, 3, 9) && run(runs[2], DIGITS, 2, 4)
+                    || isSpace(runs[1]) && run(runs[2], LETTERS, 3, 9));
+            // dd/mm/yyyy, dd-Mon-yyyy, Mon dd yyyy, yyyy-mm-dd
+            case 5 -> run(runs[0], DIGITS, 1, 2) && sep(runs[1], "/-.") && run(runs[2], DIGITS, 1, 2)
+                    && sep(runs[3], "/-.") && run(runs[4], DIGITS, 2, 4)
+                    || run(runs[0], DIGITS, 1, 2) && sep(runs[1], "/-. ") && run(runs[2], LETTERS, 3, 9)
+                    && sep(runs[3], "/-. ") && run(runs[4], DIGITS, 2, 4)
+                    || run(runs[0], LETTERS, 3, 9) && runs[1] == ' ' && run(runs[2], DIGITS, 1, 2)
+                    && runs[3] == ' ' && run(runs[4], DIGITS, 2, 4)
+                    || run(runs[0], DIGITS, 4, 4) && sep(runs[1], "/-") && run(runs[2], DIGITS, 2, 2)
+                    && sep(runs[3], "/-") && run(runs[4], DIGITS, 2, 2);
+            default -> false;
+        };
+    }
+
+    private static int kindOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return DIGITS;
+        }
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') ? LETTERS : 0;
+    }
+
+    private static boolean run(int run, int kind, int min, int max) {
+        int length = run & 0xFF;
+        return (run & ~0xFF) == kind && length >= min && length <= max;
+    }
+
+    private static boolean sep(int run, String chars) {
+        return run < DIGITS && chars.indexOf(run) >= 0;
+    }
+
+    // The regex's \s
+    private static boolean isSpace(int run) {
+        return run == ' ' || run == '\t' || run == '\n' || run == 0x0B || run == '\f' || run == '\r';
+    }
+
+    /**
+     * A window of consecutive words read as {@link Tokens#norm} of each, joined by single
+     * spaces, without building that string. The norm bounds of each word are worked out once,
+     * so moving the window is free.
+     */
+    private static final class Span implements CharSequence {
+        private final List<Word> words;
+        private final int[] from;
+        private final int[] to;
+        private int start;
+        private int span;
+        private int length;
+
+        Span(List<Word> words, int limit) {
+            this.words = words;
+            this.from = new int[limit];
+            this.to = new int[limit];
+            for (int i = 0; i < limit; i++) {
+                String t = words.get(i).text();
+                int a = 0, b = t.length();
+                while (a < b && Character.isWhitespace(t.charAt(a))) {
+                    a++;
+                }
+                while (b > a && Character.isWhitespace(t.charAt(b - 1))) {
+                    b--;
+                }
+                while (a < b && t.charAt(a) == '|') {
+                    a++;
+                }
+                while (b > a && t.charAt(b - 1) == '|') {
+                    b--;
+                }
+                while (b > a && ",;:".indexOf(t.charAt(b - 1)) >= 0) {
+                    b--;
+                }
+                while (a < b && Character.isWhitespace(t.charAt(a))) {
+                    a++;
+                }
+                while (b > a && Character.isWhitespace(t.charAt(b - 1))) {
+                    b--;
+                }
+                from[i] = a;
+                to[i] = b;
+            }
+        }
+
+        Span of(int start, int span) {
+            this.start = start;
+            this.span = span;
+            int len = span - 1;
+            for (int i = start; i < start + span; i++) {
+                len += to[i] - from[i];
+            }
+            this.length = len;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            int remaining = index;
+            for (int i = start; i < start + span; i++) {
+                int wordLength = to[i] - from[i];
+                if (remaining < wordLength) {
+                    return words.get(i).text().charAt(from[i] + remaining);
+                }
+                if (remaining == wordLength && i + 1 < start + span) {
+                    return ' ';
+                }
+                remaining -= wordLength + 1;
+            }
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int startIndex, int endIndex) {
+            return toString().subSequence(startIndex, endIndex);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = start; i < start + span; i++) {
+                if (i > start) {
+                    sb.append(' ');
+                }
+                sb.append(words.get(i).text(), from[i], to[i]);
             }
-            sb.append(Tokens.norm(words.get(i).text()));
+            return sb.toString();
         }
-        return sb.toString();
     }
 }
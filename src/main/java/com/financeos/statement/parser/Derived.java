@@ -1,9 +1,10 @@
 package com.financeos.statement.parser;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
-public class Derived {
+public class Derived implements Serializable {
     public int transactionCount;
     public int debitCount;
     public int creditCount;
@@ -1,18 +1,14 @@
 package com.financeos.statement.parser;
 
+import com.financeos.core.excel.ExcelCell;
+import com.financeos.core.excel.ExcelRow;
+import com.financeos.core.excel.ExcelRowReader;
 import org.apache.poi.EncryptedDocumentException;
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -25,26 +21,28 @@ class ExcelGridExtractor implements WordSource {
     private static final double TOKEN_WIDTH = 90.0;
     private static final double ROW_HEIGHT = 10.0;
 
+    // Rows are streamed sheet by sheet (see ExcelRowReader), so a large export never exists as
+    // a workbook DOM; formula cells contribute their cached values.
     @Override
     public List<Line> extract(byte[] bytes, String password) {
-        Workbook workbook = load(bytes, password);
+        ExcelRowReader reader = load(bytes, password);
 
         List<Line> lines = new ArrayList<>();
         try {
             DataFormatter formatter = new DataFormatter();
-            FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
-            for (int si = 0; si < workbook.getNumberOfSheets(); si++) {
-                Sheet sheet = workbook.getSheetAt(si);
-                for (Row row : sheet) {
-                    List<Word> words = rowWords(row, si, formatter, evaluator);
+            for (int si = 0; si < reader.sheetNames().size(); si++) {
+                for (ExcelRow row : reader.sheet(si)) {
+                    List<Word> words = rowWords(row, si, formatter);
                     if (!words.isEmpty()) {
                         lines.add(new Line(words));
                     }
                 }
             }
+        } catch (UncheckedIOException e) {
+            throw new StatementParseException("ERROR: failed to read Excel file.", e);
         } finally {
             try {
-                workbook.close();
+                reader.close();
             } catch (IOException ignored) {
             }
         }
@@ -52,11 +50,9 @@ class ExcelGridExtractor implements WordSource {
         return WordSource.stripRepeatedFurniture(lines);
     }
 
-    private static Workbook load(byte[] bytes, String password) {
+    private static ExcelRowReader load(byte[] bytes, String password) {
         try {
-            return (password != null && !password.isBlank())
-                    ? WorkbookFactory.create(new ByteArrayInputStream(bytes), password)
-                    : WorkbookFactory.create(new ByteArrayInputStream(bytes));
+            return ExcelRowReader.open(bytes, (password != null && !password.isBlank()) ? password : null);
         } catch (EncryptedDocumentException e) {
             throw new StatementParseException(
                     "ERROR: Excel is password-protected and the password is missing or wrong.", e);
@@ -73,13 +69,11 @@ class ExcelGridExtractor implements WordSource {
     private static final Pattern GROUPED_INT = Pattern.compile(
             "^(\\(?(?:[₹$€£]|Rs\\.?|INR)?\\s?)(-?\\d{1,3}(?:,\\d{2,3})+)([)\\-]?)$");
 
-    private static String cellText(Cell cell, DataFormatter formatter, FormulaEvaluator evaluator) {
-        CellType type = cell.getCellType() == CellType.FORMULA
-                ? evaluator.evaluateFormulaCell(cell) : cell.getCellType();
-        if (type == CellType.NUMERIC && !DateUtil.isCellDateFormatted(cell)) {
-            return String.format(Locale.US, "%,.2f", cell.getNumericCellValue());
+    private static String cellText(ExcelCell cell, DataFormatter formatter) {
+        if (cell.type() == CellType.NUMERIC && !cell.isDateFormatted()) {
+            return String.format(Locale.US, "%,.2f", cell.numericValue());
         }
-        return formatter.formatCellValue(cell, evaluator);
+        return cell.formatted(formatter);
     }
 
     private static String completeGroupedInt(String token) {
@@ -87,11 +81,11 @@ class ExcelGridExtractor implements WordSource {
         return m.matches() ? m.group(1) + m.group(2) + ".00" + m.group(3) : token;
     }
 
-    private static List<Word> rowWords(Row row, int page, DataFormatter formatter, FormulaEvaluator evaluator) {
-        double top = row.getRowNum() * ROW_HEIGHT;
+    private static List<Word> rowWords(ExcelRow row, int page, DataFormatter formatter) {
+        double top = row.rowNum() * ROW_HEIGHT;
         List<Word> words = new ArrayList<>();
-        for (Cell cell : row) {
-            String text = cellText(cell, formatter, evaluator);
+        for (ExcelCell cell : row) {
+            String text = cellText(cell, formatter);
             if (text == null || text.isBlank()) {
                 continue;
             }
@@ -99,7 +93,7 @@ class ExcelGridExtractor implements WordSource {
             for (int i = 0; i < tokens.length; i++) {
                 tokens[i] = completeGroupedInt(tokens[i]);
             }
-            double base = cell.getColumnIndex() * CELL_WIDTH;
+            double base = cell.column() * CELL_WIDTH;
             double tokenWidth = TOKEN_WIDTH / tokens.length;
             // x0 is subdivided to keep token order, but every token carries the
             // cell's right edge as x1 — header/amount column matching compares
@@ -1,8 +1,9 @@
 package com.financeos.statement.parser;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 
-public class ParseInfo {
+public class ParseInfo implements Serializable {
     public String mode;
     public int rowsChainValidated;
     public double chainValidationPct;
@@ -1,9 +1,10 @@
 package com.financeos.statement.parser;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.List;
 
 public record ParsedStatement(StatementMeta meta, String statementType,
                        LinkedHashMap<String, Object> summaryFields, Derived derived,
-                       ParseInfo parseInfo, List<RowResult> transactions) {
+                       ParseInfo parseInfo, List<RowResult> transactions) implements Serializable {
 }
@@ -10,30 +10,69 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Words and rows from a PDF's text layer. Long documents are split into contiguous page ranges
+ * extracted in parallel, each range on its own {@link PDDocument} (PDFBox documents are not
+ * thread-safe), and the rows are concatenated in page order — exactly what the serial loop
+ * produces, since each page's rows depend only on that page.
+ */
 class PdfWordExtractor implements WordSource {
 
     private static final double LINE_TOLERANCE = 3.8;
     private static final String PASSWORD_ERROR =
             "ERROR: PDF is password-protected and the password is missing or wrong.";
 
+    // Below this many pages per range, loading another document handle costs more than it saves.
+    static final int MIN_PAGES_PER_RANGE = 8;
+    static final int DEFAULT_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+    private static final ExecutorService POOL = new ThreadPoolExecutor(
+            DEFAULT_PARALLELISM, DEFAULT_PARALLELISM, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "pdf-extract-" + THREAD_SEQ.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        ((ThreadPoolExecutor) POOL).allowCoreThreadTimeOut(true);
+    }
+
+    private final int parallelism;
+
+    PdfWordExtractor() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    /** {@code parallelism} 1 is the serial path. */
+    PdfWordExtractor(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     @Override
     public List<Line> extract(byte[] bytes, String password) {
         PDDocument document = load(bytes, password);
 
-        List<Line> lines = new ArrayList<>();
+        List<Line> lines;
         try {
             int pageCount = document.getNumberOfPages();
-            for (int pno = 0; pno < pageCount; pno++) {
-                lines.addAll(groupIntoRows(extractPageWords(document, pno)));
-            }
+            int ranges = Math.min(parallelism, pageCount / MIN_PAGES_PER_RANGE);
+            lines = ranges > 1
+                    ? extractParallel(document, bytes, password, pageCount, ranges)
+                    : extractPages(document, 0, pageCount);
         } catch (IOException e) {
             throw new StatementParseException("ERROR: failed to read PDF text.", e);
         } finally {
-            try {
-                document.close();
-            } catch (IOException ignored) {
-            }
+            close(document);
         }
 
         if (lines.isEmpty()) {
@@ -42,6 +81,68 @@ class PdfWordExtractor implements WordSource {
         return WordSource.stripRepeatedFurniture(lines);
     }
 
+    private static List<Line> extractPages(PDDocument document, int from, int to) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        for (int pno = from; pno < to; pno++) {
+            lines.addAll(groupIntoRows(extractPageWords(document, pno)));
+        }
+        return lines;
+    }
+
+    // The calling thread takes the first range on the already-open document; the pool only ever
+    // runs leaf tasks, so a saturated pool delays a parse but can't deadlock it.
+    private static List<Line> extractParallel(PDDocument document, byte[] bytes, String password,
+                                              int pageCount, int ranges) throws IOException {
+        int[] bounds = new int[ranges + 1];
+        for (int r = 0; r <= ranges; r++) {
+            bounds[r] = (int) ((long) pageCount * r / ranges);
+        }
+
+        List<Future<List<Line>>> rest = new ArrayList<>(ranges - 1);
+        for (int r = 1; r < ranges; r++) {
+            int from = bounds[r];
+            int to = bounds[r + 1];
+            rest.add(POOL.submit(() -> {
+                PDDocument own = load(bytes, password);
+                try {
+                    return extractPages(own, from, to);
+                } finally {
+                    close(own);
+                }
+            }));
+        }
+
+        List<Line> lines;
+        try {
+            lines = extractPages(document, bounds[0], bounds[1]);
+            for (Future<List<Line>> range : rest) {
+                lines.addAll(range.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StatementParseException("ERROR: interrupted while reading PDF text.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new StatementParseException("ERROR: failed to read PDF text.", cause);
+        } finally {
+            rest.forEach(f -> f.cancel(true));
+        }
+        return lines;
+    }
+
+    private static void close(PDDocument document) {
+        try {
+            document.close();
+        } catch (IOException ignored) {
+        }
+    }
+
     private static PDDocument load(byte[] bytes, String password) {
         try {
             return (password != null && !password.isBlank())
@@ -1,8 +1,9 @@
 package com.financeos.statement.parser;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 
-public class RowResult {
+public class RowResult implements Serializable {
     public LocalDate date;
     public String description;
     public Double amount;
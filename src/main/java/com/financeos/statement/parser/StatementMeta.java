@@ -1,8 +1,9 @@
 package com.financeos.statement.parser;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 
-public class StatementMeta {
+public class StatementMeta implements Serializable {
     public String bank;
     public String accountNumber;
     public String ifsc;
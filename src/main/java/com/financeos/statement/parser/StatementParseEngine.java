@@ -2,6 +2,7 @@ package com.financeos.statement.parser;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -17,6 +18,13 @@ import java.util.regex.Matcher;
 
 public final class StatementParseEngine {
 
+    /**
+     * Identifies the parse pipeline's behaviour in persisted parse results. Bump it with any change
+     * that can alter the {@link ParsedStatement} produced for the same bytes; results cached under
+     * another version are ignored and re-parsed.
+     */
+    public static final int PARSER_VERSION = 2;
+
     private StatementParseEngine() {
     }
 
@@ -221,7 +229,7 @@ public final class StatementParseEngine {
         }
         List<Map.Entry<String, Double>> topMerchants = new ArrayList<>();
         for (Map.Entry<String, Double> e : merchantSpend.entrySet()) {
-            topMerchants.add(Map.entry(e.getKey(), e.getValue()));
+            topMerchants.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()));
         }
         topMerchants.sort(Comparator.comparingDouble(e -> -e.getValue())); // stable: ties keep insertion order
         if (topMerchants.size() > 5) {
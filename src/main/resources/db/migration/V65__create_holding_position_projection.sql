@@ -0,0 +1,60 @@
+-- Materialized per-holding position ledger (FIFO lots, realized P&L, charges, XIRR cashflows).
+-- Price-dependent figures (current value, unrealized, XIRR terminal flow) are still derived at
+-- read time. Amounts are unconstrained NUMBER so replay state round-trips exactly.
+CREATE TABLE holding_position (
+    holding_id        VARCHAR2(36)  NOT NULL,
+    user_id           VARCHAR2(36),
+    open_qty          NUMBER        NOT NULL,
+    open_cost         NUMBER        NOT NULL,
+    realized          NUMBER        NOT NULL,
+    intraday_realized NUMBER        NOT NULL,
+    total_charges     NUMBER        NOT NULL,
+    dividends         NUMBER        NOT NULL,
+    merged_into_name  VARCHAR2(255),
+    merged_into_date  DATE,
+    seeded            NUMBER(1) DEFAULT 0 NOT NULL,
+    last_event_date   DATE,         -- latest lot-ledger event replayed (trade day, CA ex-date, seed)
+    valid_until       DATE,         -- next future CA ex-date; the row must be rebuilt once it passes
+    stale_from        DATE,         -- set by writes: replay the lot ledger from this date onward
+    dividends_stale   NUMBER(1) DEFAULT 0 NOT NULL,
+    version           NUMBER(19) DEFAULT 0 NOT NULL,
+    rebuilt_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_holding_position PRIMARY KEY (holding_id),
+    CONSTRAINT fk_holding_position_holding FOREIGN KEY (holding_id) REFERENCES holdings(id) ON DELETE CASCADE,
+    CONSTRAINT fk_holding_position_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+CREATE INDEX ix_holding_position_stale ON holding_position (stale_from);
+
+-- OPEN rows are the current FIFO queue; CLOSED rows are realized lot matches in replay order.
+CREATE TABLE holding_position_lots (
+    id            VARCHAR2(36) NOT NULL,
+    holding_id    VARCHAR2(36) NOT NULL,
+    user_id       VARCHAR2(36),
+    kind          VARCHAR2(10) NOT NULL,
+    seq           NUMBER(10)   NOT NULL,
+    buy_date      DATE,
+    sell_date     DATE,
+    quantity      NUMBER       NOT NULL,
+    cost_per_unit NUMBER,
+    buy_value     NUMBER,
+    sell_value    NUMBER,
+    CONSTRAINT pk_holding_position_lots PRIMARY KEY (id),
+    CONSTRAINT fk_hp_lots_holding FOREIGN KEY (holding_id) REFERENCES holding_position(holding_id) ON DELETE CASCADE,
+    CONSTRAINT chk_hp_lots_kind CHECK (kind IN ('OPEN','CLOSED'))
+);
+CREATE INDEX ix_hp_lots_holding ON holding_position_lots (holding_id, kind, seq);
+
+-- POSITION: holding XIRR flows; TRADE: raw trade flows for the portfolio XIRR; DIVIDEND: both.
+CREATE TABLE holding_position_cashflows (
+    id         VARCHAR2(36) NOT NULL,
+    holding_id VARCHAR2(36) NOT NULL,
+    user_id    VARCHAR2(36),
+    kind       VARCHAR2(10) NOT NULL,
+    seq        NUMBER(10)   NOT NULL,
+    flow_date  DATE         NOT NULL,
+    amount     NUMBER       NOT NULL,
+    CONSTRAINT pk_holding_position_cashflows PRIMARY KEY (id),
+    CONSTRAINT fk_hp_flows_holding FOREIGN KEY (holding_id) REFERENCES holding_position(holding_id) ON DELETE CASCADE,
+    CONSTRAINT chk_hp_flows_kind CHECK (kind IN ('POSITION','TRADE','DIVIDEND'))
+);
+CREATE INDEX ix_hp_flows_holding ON holding_position_cashflows (holding_id, kind, seq);
@@ -0,0 +1,3 @@
+-- Resumable progress of a chunked job (JSON, handler-defined), written in the same
+-- transaction as each committed chunk and carried over when the job is retried.
+ALTER TABLE jobs ADD checkpoint VARCHAR2(4000);
@@ -0,0 +1,7 @@
+-- Rule-match previews push EXACT and STARTS_WITH patterns down as equality / prefix predicates
+-- on the upper-cased, trimmed description; this makes them index range scans within a user.
+-- The expression must match DESCRIPTION_KEY_SQL in TransactionRepositoryCustomImpl exactly.
+CREATE INDEX idx_transactions_desc_key ON transactions (
+    user_id,
+    SUBSTR(UPPER(REGEXP_REPLACE(sourced_description, '^[[:space:][:cntrl:]]+|[[:space:][:cntrl:]]+$', '')), 1, 1000)
+);
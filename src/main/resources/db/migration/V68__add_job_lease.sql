@@ -0,0 +1,9 @@
+-- Lease-based claiming so several app instances can share the queue: the claiming node stamps
+-- itself as lease_owner and keeps pushing lease_expires_at forward with a heartbeat. RUNNING jobs
+-- whose lease lapsed are re-queued (or failed once out of attempts) instead of every RUNNING job
+-- being failed when any node boots.
+ALTER TABLE jobs ADD (
+    lease_owner      VARCHAR2(100),
+    lease_expires_at TIMESTAMP(6) WITH TIME ZONE
+);
+CREATE INDEX ix_jobs_status_lease ON jobs (status, lease_expires_at);
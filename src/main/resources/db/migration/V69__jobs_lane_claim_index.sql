@@ -0,0 +1,3 @@
+-- Workers claim per job type (one lane per type), oldest first: serve that straight from the index.
+DROP INDEX ix_jobs_status_created;
+CREATE INDEX ix_jobs_status_type_created ON jobs (status, type, created_at);
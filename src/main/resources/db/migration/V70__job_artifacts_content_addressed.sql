@@ -0,0 +1,8 @@
+-- Artifact bytes move out of the database into the content-addressed artifact store
+-- (jobs.artifacts.dir); rows reference the blob by its SHA-256. Existing rows keep their BLOB
+-- until LegacyArtifactMigrator copies it into the store on startup and clears it; until then
+-- reads fall back to the column. The column is dropped in a later release, once no row has a
+-- NULL sha256.
+ALTER TABLE job_artifacts MODIFY (data NULL);
+ALTER TABLE job_artifacts ADD (sha256 VARCHAR2(64));
+CREATE INDEX ix_job_artifacts_sha256 ON job_artifacts (sha256);
@@ -0,0 +1,9 @@
+-- Parent/child jobs: a running job can spawn sub-jobs (parent_id) and then WAITs for them; it is
+-- re-queued to join once all succeed. Deleting a parent removes its sub-jobs.
+ALTER TABLE jobs DROP CONSTRAINT chk_jobs_status;
+ALTER TABLE jobs ADD CONSTRAINT chk_jobs_status
+    CHECK (status IN ('PENDING','RUNNING','WAITING','SUCCEEDED','FAILED','CANCELLED'));
+
+ALTER TABLE jobs ADD (parent_id VARCHAR2(36));
+ALTER TABLE jobs ADD CONSTRAINT fk_jobs_parent FOREIGN KEY (parent_id) REFERENCES jobs(id) ON DELETE CASCADE;
+CREATE INDEX ix_jobs_parent_status ON jobs (parent_id, status);
@@ -0,0 +1,12 @@
+-- Parse results of statement files, keyed by the file's SHA-256 (plus password, if any), so
+-- identical bytes skip the parse pipeline. Rows written by another parser_version are ignored
+-- and purged.
+CREATE TABLE parsed_statement_cache (
+    sha256         VARCHAR2(64) NOT NULL,
+    parser_version NUMBER(5)    NOT NULL,
+    payload        BLOB         NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_used_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_parsed_statement_cache PRIMARY KEY (sha256)
+);
+CREATE INDEX ix_parsed_stmt_cache_used ON parsed_statement_cache (last_used_at);
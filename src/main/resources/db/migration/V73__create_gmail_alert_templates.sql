@@ -0,0 +1,26 @@
+-- Extraction templates learned per Gmail sender from LLM-extracted transaction alerts. An alert
+-- whose subject shape and normalized body match a template is parsed without an LLM call. A
+-- template that disagrees with the LLM on a verification sample is disabled, and its pattern
+-- (unique per sender) is never re-learned.
+CREATE TABLE gmail_alert_templates (
+    id             VARCHAR2(36)   NOT NULL,
+    user_id        VARCHAR2(36)   NOT NULL,
+    sender_id      VARCHAR2(36)   NOT NULL,
+    subject_shape  VARCHAR2(255)  NOT NULL,
+    pattern        VARCHAR2(4000) NOT NULL,
+    pattern_hash   VARCHAR2(64)   NOT NULL,
+    direction      VARCHAR2(10)   NOT NULL,
+    currency       VARCHAR2(10),
+    confidence     NUMBER(5, 4),
+    hit_count      NUMBER(12)     DEFAULT 0 NOT NULL,
+    verified_count NUMBER(12)     DEFAULT 0 NOT NULL,
+    enabled        NUMBER(1)      DEFAULT 1 NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_hit_at    TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_gmail_alert_templates PRIMARY KEY (id),
+    CONSTRAINT fk_gmail_alert_tpl_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_gmail_alert_tpl_sender FOREIGN KEY (sender_id) REFERENCES gmail_senders(id) ON DELETE CASCADE,
+    CONSTRAINT uq_gmail_alert_tpl_pattern UNIQUE (sender_id, pattern_hash),
+    CONSTRAINT chk_gmail_alert_tpl_enabled CHECK (enabled IN (0, 1))
+);
+CREATE INDEX ix_gmail_alert_tpl_user ON gmail_alert_templates (user_id);
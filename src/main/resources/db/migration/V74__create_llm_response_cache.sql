@@ -0,0 +1,15 @@
+-- LLM answers keyed by the SHA-256 of task, response schema (or item scope) and the
+-- whitespace-normalized prompt, so an identical request is served without a provider call.
+-- Rows past expires_at are ignored and purged; the oldest rows go first when the table is over
+-- llm.cache.max-rows.
+CREATE TABLE llm_response_cache (
+    cache_key   VARCHAR2(64)  NOT NULL,
+    task        VARCHAR2(64)  NOT NULL,
+    response    CLOB          NOT NULL,
+    provider_id VARCHAR2(64),
+    model       VARCHAR2(255),
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_llm_response_cache PRIMARY KEY (cache_key)
+);
+CREATE INDEX ix_llm_response_cache_expiry ON llm_response_cache (expires_at);
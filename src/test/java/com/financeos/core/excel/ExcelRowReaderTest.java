@@ -0,0 +1,142 @@
+package com.financeos.core.excel;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelRowReaderTest {
+
+    private static byte[] write(Workbook workbook) throws IOException {
+        try (workbook; ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void fill(Workbook workbook) {
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd-mm-yyyy"));
+
+        Sheet trades = workbook.createSheet("Tradewise Exits");
+        Row header = trades.createRow(0);
+        header.createCell(1).setCellValue("Symbol");
+        header.createCell(2).setCellValue("Quantity");
+        header.createCell(3).setCellValue("Exit Date");
+        header.createCell(4).setCellValue("Settled");
+        // row 1 left empty
+        Row data = trades.createRow(2);
+        data.createCell(1).setCellValue("INFY");
+        data.createCell(2).setCellValue(12.5);
+        data.createCell(3).setCellValue(LocalDateTime.of(2026, 3, 31, 0, 0));
+        data.getCell(3).setCellStyle(dateStyle);
+        data.createCell(4).setCellValue(true);
+        data.createCell(5).setCellFormula("C3*2");
+
+        workbook.createSheet("Summary").createRow(0).createCell(0).setCellValue("Total");
+    }
+
+    private static List<ExcelRow> rows(ExcelRowReader reader, int sheet) {
+        List<ExcelRow> rows = new ArrayList<>();
+        reader.sheet(sheet).forEach(rows::add);
+        return rows;
+    }
+
+    @Test
+    void streamsXlsxRowsWithSparseCells() throws IOException {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        fill(workbook);
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+
+        try (ExcelRowReader reader = ExcelRowReader.open(write(workbook), null)) {
+            assertEquals(List.of("Tradewise Exits", "Summary"), reader.sheetNames());
+            assertRows(rows(reader, 0));
+            // Every iteration is a fresh pass over the sheet.
+            assertEquals(2, rows(reader, 0).size());
+            assertEquals("Total", rows(reader, 1).get(0).cell(0).stringValue());
+        }
+    }
+
+    @Test
+    void readsXlsThroughTheFallback() throws IOException {
+        HSSFWorkbook workbook = new HSSFWorkbook();
+        fill(workbook);
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+
+        try (ExcelRowReader reader = ExcelRowReader.open(write(workbook), null)) {
+            assertEquals(List.of("Tradewise Exits", "Summary"), reader.sheetNames());
+            assertRows(rows(reader, 0));
+        }
+    }
+
+    private static void assertRows(List<ExcelRow> rows) {
+        assertEquals(2, rows.size());
+        ExcelRow header = rows.get(0);
+        assertEquals(0, header.rowNum());
+        assertEquals(1, header.firstCellNum());
+        assertEquals(5, header.lastCellNum());
+        assertNull(header.cell(0));
+        assertEquals("Quantity", header.cell(2).stringValue());
+
+        ExcelRow data = rows.get(1);
+        assertEquals(2, data.rowNum());
+        assertEquals(12.5, data.cell(2).numericValue());
+        assertFalse(data.cell(2).isDateFormatted());
+        assertTrue(data.cell(3).isDateFormatted());
+        assertEquals(LocalDate.of(2026, 3, 31), data.cell(3).localDateTimeValue().toLocalDate());
+        assertEquals(CellType.BOOLEAN, data.cell(4).type());
+        assertTrue(data.cell(4).booleanValue());
+        assertEquals(CellType.NUMERIC, data.cell(5).type());
+        assertEquals(25.0, data.cell(5).numericValue());
+    }
+
+    @Test
+    void formulasWithoutCachedValuesReadAsBlank() throws IOException {
+        // Formulas are never evaluated: a workbook saved without cached results
+        // yields a blank cell rather than a recomputed value.
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        fill(workbook);
+
+        try (ExcelRowReader reader = ExcelRowReader.open(write(workbook), null)) {
+            ExcelRow data = rows(reader, 0).get(1);
+            assertEquals(12.5, data.cell(2).numericValue());
+            assertEquals(CellType.BLANK, data.cell(5).type());
+            assertEquals("", data.cell(5).formatted(new DataFormatter()));
+        }
+    }
+
+    @Test
+    void closesWhileASheetIsMidIteration() throws IOException {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        fill(workbook);
+
+        ExcelRowReader reader = ExcelRowReader.open(write(workbook), null);
+        Iterator<ExcelRow> first = reader.sheet(0).iterator();
+        Iterator<ExcelRow> second = reader.sheet(1).iterator();
+        assertTrue(first.hasNext());
+        first.next();
+        assertTrue(second.hasNext());
+
+        assertDoesNotThrow(reader::close);
+    }
+
+    @Test
+    void rejectsNonWorkbookBytes() {
+        assertThrows(IOException.class, () -> ExcelRowReader.open("not a workbook".getBytes(), null).close());
+    }
+}
@@ -1,5 +1,6 @@
 package com.financeos.domain.categorization;
 
+import com.financeos.core.observability.ObservabilityMetrics;
 import com.financeos.domain.category.Category;
 import com.financeos.domain.category.CategoryRepository;
 import com.financeos.domain.transaction.*;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.util.*;
@@ -47,6 +49,8 @@ public class CategorizationServiceTest {
                 userRepository,
                 transactionCategorizer,
                 reviewStatusManager,
+                new CompiledRuleSetCache(0, mock(ObservabilityMetrics.class)),
+                mock(ApplicationEventPublisher.class),
                 null
         );
 
@@ -86,7 +90,7 @@ public class CategorizationServiceTest {
         ruleLong.setVerified(false);
         ruleLong.setUpdatedAt(Instant.now());
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(ruleShort, ruleLong));
+        stubRules(List.of(ruleShort, ruleLong));
 
         // Longest key wins check: "SWIGGY INSTAMART" is longer than "SWIGGY"
         Optional<CategoryRule> match = categorizationService.findBestMatchingRule(userId, "UPI SWIGGY INSTAMART BANGALORE");
@@ -100,7 +104,7 @@ public class CategorizationServiceTest {
         ruleShortVerified.setVerified(true);
         ruleShortVerified.setUpdatedAt(Instant.now().minusSeconds(50));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(ruleShort, ruleShortVerified));
+        stubRules(List.of(ruleShort, ruleShortVerified));
         match = categorizationService.findBestMatchingRule(userId, "UPI SWIGGY BANGALORE");
         assertTrue(match.isPresent());
         assertTrue(match.get().isVerified());
@@ -112,7 +116,7 @@ public class CategorizationServiceTest {
         ruleTooShort.setVerified(true);
         ruleTooShort.setUpdatedAt(Instant.now());
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(ruleTooShort));
+        stubRules(List.of(ruleTooShort));
         match = categorizationService.findBestMatchingRule(userId, "SW BANGALORE");
         assertFalse(match.isPresent());
     }
@@ -136,7 +140,7 @@ public class CategorizationServiceTest {
         userRule.setVerified(false);
         userRule.setUpdatedAt(Instant.now().minusSeconds(500));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(llmRule, userRule));
+        stubRules(List.of(llmRule, userRule));
 
         Optional<CategoryRule> match = categorizationService.findBestMatchingRule(userId, "SWIGGY INSTAMART");
         assertTrue(match.isPresent());
@@ -150,8 +154,7 @@ public class CategorizationServiceTest {
         CategoryRule containsRule = ruleOf("SWIGGY INSTAMART", MatchType.CONTAINS);
         CategoryRule exactRule = ruleOf("UPI SWIGGY INSTAMART BLR", MatchType.EXACT);
 
-        when(categoryRuleRepository.findByUserId(userId))
-                .thenReturn(List.of(merchantKeyRule, containsRule, exactRule));
+        stubRules(List.of(merchantKeyRule, containsRule, exactRule));
 
         Optional<CategoryRule> match = categorizationService.findBestMatchingRule(userId, "UPI SWIGGY INSTAMART BLR");
         assertTrue(match.isPresent());
@@ -163,7 +166,7 @@ public class CategorizationServiceTest {
         // "UPI" is a noise token and "042" is all digits — a MERCHANT_KEY rule can never
         // hold this pattern, but a raw CONTAINS rule matches it.
         CategoryRule rule = ruleOf("UPI-AUTOPAY/042", MatchType.CONTAINS);
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
 
         assertTrue(categorizationService.findBestMatchingRule(userId, "upi-autopay/042/netflix").isPresent());
         assertFalse(categorizationService.findBestMatchingRule(userId, "AUTOPAY 042 NETFLIX").isPresent());
@@ -173,7 +176,7 @@ public class CategorizationServiceTest {
     public void testStartsWithAndRegexMatching() {
         CategoryRule startsWith = ruleOf("ACH/", MatchType.STARTS_WITH);
         CategoryRule regex = ruleOf("NEFT.*(HDFC|ICICI)", MatchType.REGEX);
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(startsWith, regex));
+        stubRules(List.of(startsWith, regex));
 
         Optional<CategoryRule> match = categorizationService.findBestMatchingRule(userId, "ACH/SALARY CREDIT");
         assertTrue(match.isPresent());
@@ -194,7 +197,7 @@ public class CategorizationServiceTest {
         // sourcedDescription) and are deliberately outside the rule system.
         CategoryRule rule = ruleOf("SWIGGY", MatchType.MERCHANT_KEY);
         rule.setCategories(Set.of(foodCategory));
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
 
         Transaction txn = new Transaction();
         txn.setUser(testUser);
@@ -228,7 +231,7 @@ public class CategorizationServiceTest {
         rule.setVerified(true);
         rule.setCategories(Set.of(foodCategory));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
         when(categoryRuleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
 
         Transaction txn = new Transaction();
@@ -252,7 +255,7 @@ public class CategorizationServiceTest {
         rule.setVerified(false);
         rule.setCategories(Set.of(foodCategory));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
         when(categoryRuleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
 
         Transaction txn = new Transaction();
@@ -628,7 +631,7 @@ public class CategorizationServiceTest {
         rule.setMcc("5812");
         rule.setCategories(Set.of(foodCategory));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
         when(categoryRuleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
 
         Transaction txn = new Transaction();
@@ -680,7 +683,7 @@ public class CategorizationServiceTest {
         rule.setMcc("5812");
         rule.setCategories(Set.of(foodCategory));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
         when(categoryRuleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
 
         Transaction txn = new Transaction();
@@ -703,7 +706,7 @@ public class CategorizationServiceTest {
         rule.setMcc("5812");
         rule.setCategories(Set.of(foodCategory));
 
-        when(categoryRuleRepository.findByUserId(userId)).thenReturn(List.of(rule));
+        stubRules(List.of(rule));
         when(categoryRuleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
 
         Transaction txn = new Transaction();
@@ -717,4 +720,62 @@ public class CategorizationServiceTest {
         assertEquals("5411", txn.getMcc());
         assertEquals(rule, txn.getAppliedRule());
     }
+
+    @Test
+    public void testCachedRuleSetKeepsTieBreakAcrossBatches() {
+        CategorizationService cachingService = new CategorizationService(
+                categoryRuleRepository,
+                categoryRepository,
+                transactionRepository,
+                userRepository,
+                transactionCategorizer,
+                reviewStatusManager,
+                new CompiledRuleSetCache(10, mock(ObservabilityMetrics.class)),
+                mock(ApplicationEventPublisher.class),
+                null
+        );
+
+        // Same source, type, key length and verification: the most recently updated rule wins
+        Instant older = Instant.now().minusSeconds(3600);
+        Instant newer = Instant.now().minusSeconds(60);
+        CategoryRule olderRule = new CategoryRule();
+        olderRule.setId(UUID.randomUUID());
+        olderRule.setMerchantKey("SWIGGY");
+        olderRule.setVerified(true);
+        olderRule.setCategories(Set.of(shoppingCategory));
+        olderRule.setUpdatedAt(older);
+        CategoryRule newerRule = new CategoryRule();
+        newerRule.setId(UUID.randomUUID());
+        newerRule.setMerchantKey("ORDERS");
+        newerRule.setVerified(true);
+        newerRule.setCategories(Set.of(foodCategory));
+        newerRule.setUpdatedAt(newer);
+        stubRules(List.of(olderRule, newerRule));
+
+        for (int batch = 0; batch < 2; batch++) {
+            Transaction txn = new Transaction();
+            txn.setUser(testUser);
+            txn.setSourcedDescription("SWIGGY ORDERS BANGALORE");
+            txn.setCategories(new HashSet<>());
+
+            cachingService.batchCategorize(List.of(txn));
+
+            assertEquals(newerRule, txn.getAppliedRule());
+        }
+
+        // The second batch matched against the cached set, and counting applications left the
+        // rules' updatedAt (and so the cached tie-break) as it was
+        verify(categoryRuleRepository, times(1)).findByUserId(userId);
+        verify(categoryRuleRepository, times(2)).recordApplied(eq(newerRule.getId()), eq(1), any(Instant.class));
+        verify(categoryRuleRepository, never()).save(any(CategoryRule.class));
+        assertEquals(newer, newerRule.getUpdatedAt());
+        assertEquals(older, olderRule.getUpdatedAt());
+    }
+
+    private void stubRules(List<CategoryRule> rules) {
+        when(categoryRuleRepository.findByUserId(userId)).thenReturn(rules);
+        for (CategoryRule rule : rules) {
+            when(categoryRuleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.financeos.domain.categorization;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CompiledRuleSetCacheTest {
+
+    private ObservabilityMetrics metrics;
+    private CompiledRuleSetCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        metrics = mock(ObservabilityMetrics.class);
+        cache = new CompiledRuleSetCache(2, metrics);
+    }
+
+    private Supplier<List<CategoryRule>> loader(String pattern) {
+        return () -> {
+            loads.incrementAndGet();
+            CategoryRule rule = new CategoryRule();
+            rule.setId(UUID.randomUUID());
+            rule.setMerchantKey(pattern);
+            rule.setMatchType(MatchType.CONTAINS);
+            return List.of(rule);
+        };
+    }
+
+    private static boolean matches(RuleIndex<CompiledRuleSetCache.RuleRef> rules, String description) {
+        return rules.anyMatch(RuleMatcher.MatchContext.of(description));
+    }
+
+    @Test
+    public void servesCompiledRulesUntilTheUsersVersionIsBumped() {
+        UUID userId = UUID.randomUUID();
+
+        assertTrue(matches(cache.get(userId, loader("SWIGGY")), "upi swiggy"));
+        assertTrue(matches(cache.get(userId, loader("ZOMATO")), "upi swiggy"));
+        assertEquals(1, loads.get());
+
+        cache.onRulesChanged(new CategoryRulesChangedEvent(userId));
+
+        assertTrue(matches(cache.get(userId, loader("ZOMATO")), "zomato order"));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.version(userId));
+        verify(metrics, times(1)).recordCacheAccess("category-rules", true);
+        verify(metrics, times(2)).recordCacheAccess("category-rules", false);
+    }
+
+    @Test
+    public void setLoadedAcrossABumpIsNotCached() {
+        UUID userId = UUID.randomUUID();
+        Supplier<List<CategoryRule>> racing = () -> {
+            // A rule write commits while the stale rows are being read.
+            cache.invalidate(userId);
+            return loader("SWIGGY").get();
+        };
+
+        cache.get(userId, racing);
+        cache.get(userId, loader("SWIGGY"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedUser() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        cache.get(a, loader("AAA"));
+        cache.get(b, loader("BBB"));
+        cache.get(a, loader("AAA"));
+        cache.get(c, loader("CCC"));
+        assertEquals(3, loads.get());
+
+        cache.get(a, loader("AAA"));
+        assertEquals(3, loads.get());
+        cache.get(b, loader("BBB"));
+        assertEquals(4, loads.get());
+    }
+}
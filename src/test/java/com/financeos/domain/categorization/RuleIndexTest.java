@@ -0,0 +1,96 @@
+package com.financeos.domain.categorization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleIndexTest {
+
+    private record P(MatchType type, String pattern) {
+    }
+
+    private static RuleIndex<P> index(List<P> patterns) {
+        return RuleIndex.compile(patterns, P::type, P::pattern);
+    }
+
+    private static List<P> matching(RuleIndex<P> index, String description) {
+        return index.matching(RuleMatcher.MatchContext.of(description));
+    }
+
+    @Test
+    public void containsFindsOverlappingAndNestedPatterns() {
+        P he = new P(MatchType.CONTAINS, "he");
+        P she = new P(MatchType.CONTAINS, "SHE");
+        P his = new P(MatchType.CONTAINS, "his");
+        P hers = new P(MatchType.CONTAINS, "hers");
+        RuleIndex<P> index = index(List.of(he, she, his, hers));
+
+        assertEquals(List.of(he, she, hers), matching(index, "ushers"));
+        assertEquals(List.of(his), matching(index, "this"));
+        assertEquals(List.of(), matching(index, "xyz"));
+    }
+
+    @Test
+    public void eachMatchTypeKeepsRuleMatcherSemantics() {
+        P merchant = new P(MatchType.MERCHANT_KEY, "SWIGGY");
+        P shortMerchant = new P(MatchType.MERCHANT_KEY, "SW");
+        P prefix = new P(MatchType.STARTS_WITH, " ach/ ");
+        P exact = new P(MatchType.EXACT, " NEFT SALARY ");
+        P regex = new P(MatchType.REGEX, "^UPI/\\d{6,}");
+        P untyped = new P(null, "NETFLIX");
+        P blank = new P(MatchType.CONTAINS, "  ");
+        RuleIndex<P> index = index(List.of(merchant, shortMerchant, prefix, exact, regex, untyped, blank));
+
+        assertEquals(List.of(merchant, regex), matching(index, "upi/9834721/swiggy/order"));
+        assertEquals(List.of(prefix), matching(index, "  ACH/SALARY CREDIT"));
+        assertEquals(List.of(exact), matching(index, "neft salary"));
+        assertEquals(List.of(untyped), matching(index, "AUTOPAY NETFLIX.COM"));
+        assertEquals(List.of(), matching(index, "   "));
+    }
+
+    @Test
+    public void bestKeepsFirstOnTiesLikeStreamMax() {
+        P first = new P(MatchType.CONTAINS, "AMAZON");
+        P second = new P(MatchType.CONTAINS, "MAZON");
+        RuleIndex<P> index = index(List.of(first, second));
+        RuleMatcher.MatchContext ctx = RuleMatcher.MatchContext.of("AMAZON PAY");
+
+        assertEquals(first, index.best(ctx, Comparator.comparingInt(p -> 0)).orElseThrow());
+        assertEquals(second, index.best(ctx, Comparator.comparingInt(p -> -p.pattern().length())).orElseThrow());
+        assertTrue(index.anyMatch(ctx));
+        assertFalse(index.anyMatch(RuleMatcher.MatchContext.of("FLIPKART")));
+    }
+
+    @Test
+    public void randomizedParityWithRuleMatcher() {
+        Random random = new Random(7);
+        String alphabet = "ABCab /-1";
+        MatchType[] types = {MatchType.MERCHANT_KEY, MatchType.CONTAINS, MatchType.STARTS_WITH, MatchType.EXACT};
+        List<P> patterns = random.ints(300, 0, Integer.MAX_VALUE)
+                .mapToObj(n -> new P(types[n % types.length], randomString(random, alphabet, 1 + n % 5)))
+                .toList();
+        RuleIndex<P> index = index(patterns);
+
+        for (int i = 0; i < 500; i++) {
+            String description = randomString(random, alphabet, random.nextInt(20));
+            RuleMatcher.MatchContext ctx = RuleMatcher.MatchContext.of(description);
+            List<P> expected = patterns.stream()
+                    .filter(p -> RuleMatcher.matches(p.type(), p.pattern(), ctx))
+                    .distinct()
+                    .toList();
+            assertEquals(expected, index.matching(ctx).stream().distinct().toList(), description);
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.financeos.domain.categorization;
 
 import com.financeos.domain.category.Category;
+import com.financeos.domain.transaction.DescriptionPrefilter;
 import com.financeos.domain.transaction.ReviewReason;
 import com.financeos.domain.transaction.ReviewStatusManager;
 import com.financeos.domain.transaction.ReviewType;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -87,7 +89,9 @@ public class RuleMatchServiceTest {
         UUID match1 = UUID.randomUUID();
         UUID match2 = UUID.randomUUID();
         UUID miss = UUID.randomUUID();
-        when(transactionRepository.findRuleMatchCandidates(userId, ReviewType.MANUALLY_REVIEWED))
+        // The SQL prefilter may over-approximate; the Java matcher still drops the miss.
+        when(transactionRepository.findRuleMatchCandidatesPrefiltered(userId, ReviewType.MANUALLY_REVIEWED,
+                DescriptionPrefilter.containsAll(List.of("SWIGGY"))))
                 .thenReturn(List.of(
                         candidate(match1, "UPI SWIGGY ORDER 1"),
                         candidate(miss, "AMAZON PAY"),
@@ -102,6 +106,25 @@ public class RuleMatchServiceTest {
         assertEquals(2, page.getTotalElements());
         assertEquals(1, page.getContent().size());
         assertEquals(match1, page.getContent().get(0).id());
+        verify(transactionRepository, never()).findRuleMatchCandidates(any(), any());
+    }
+
+    @Test
+    public void findMatchesScansInJavaWhenRegexDoesNotTranslate() {
+        UUID match = UUID.randomUUID();
+        when(transactionRepository.findRuleMatchCandidates(userId, ReviewType.MANUALLY_REVIEWED))
+                .thenReturn(List.of(
+                        candidate(match, "POS SWIGGY BLR"),
+                        candidate(UUID.randomUUID(), "SWIGGYINSTAMART")));
+        when(transactionRepository.findAllByIdInAndUserId(List.of(match), userId))
+                .thenReturn(List.of(txn(match, "POS SWIGGY BLR")));
+
+        Page<RuleMatchService.MatchedTransaction> page =
+                ruleMatchService.findMatches(userId, MatchType.REGEX, "\\bSWIGGY\\b", PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(match, page.getContent().get(0).id());
+        verify(transactionRepository, never()).findRuleMatchCandidatesPrefiltered(any(), any(), any());
     }
 
     @Test
@@ -119,8 +142,7 @@ public class RuleMatchServiceTest {
         assertEquals(1, txn.getCategories().size());
         assertTrue(txn.getCategories().stream().anyMatch(tc -> tc.getCategory().equals(foodCategory)));
         assertEquals(rule, txn.getAppliedRule());
-        assertEquals(1, rule.getAppliedCount());
-        assertNotNull(rule.getLastAppliedAt());
+        verify(categoryRuleRepository).recordApplied(eq(rule.getId()), eq(1), any(Instant.class));
         verify(reviewStatusManager).clearReason(txn, ReviewReason.CATEGORY_UNVERIFIED, ReviewType.AUTO_REVIEWED);
         verify(transactionRepository).saveAll(List.of(txn));
     }
@@ -144,9 +166,8 @@ public class RuleMatchServiceTest {
         assertTrue(manuallyReviewed.getCategories().isEmpty());
         assertTrue(nonMatching.getCategories().isEmpty());
         assertTrue(manualOnly.getCategories().isEmpty());
-        assertEquals(0, rule.getAppliedCount());
         verify(transactionRepository, never()).saveAll(anyList());
-        verify(categoryRuleRepository, never()).save(any());
+        verify(categoryRuleRepository, never()).recordApplied(any(), anyInt(), any());
     }
 
     @Test
@@ -167,19 +188,31 @@ public class RuleMatchServiceTest {
     }
 
     @Test
-    public void applyToAllMatchesRecomputesMatchesServerSide() {
-        UUID matchId = UUID.randomUUID();
-        when(transactionRepository.findRuleMatchCandidates(userId, ReviewType.MANUALLY_REVIEWED))
-                .thenReturn(List.of(
-                        candidate(matchId, "SWIGGY ORDER"),
-                        candidate(UUID.randomUUID(), "AMAZON PAY")));
-
-        Transaction txn = txn(matchId, "SWIGGY ORDER");
-        when(transactionRepository.findAllByIdInAndUserId(List.of(matchId), userId)).thenReturn(List.of(txn));
+    public void applyNextChunkAdvancesKeysetCursorAndReportsItInsideTheChunk() {
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        RuleMatchService.ApplyCursor start = RuleMatchService.ApplyCursor.start();
+        when(transactionRepository.findRuleMatchCandidatesAfter(eq(userId), eq(ReviewType.MANUALLY_REVIEWED),
+                eq(start.afterId()), any()))
+                .thenReturn(List.of(candidate(first, "SWIGGY ORDER"), candidate(second, "AMAZON PAY")));
+        when(transactionRepository.findRuleMatchCandidatesAfter(eq(userId), eq(ReviewType.MANUALLY_REVIEWED),
+                eq(second), any()))
+                .thenReturn(List.of());
+
+        Transaction txn = txn(first, "SWIGGY ORDER");
+        when(transactionRepository.findAllByIdInAndUserId(List.of(first), userId)).thenReturn(List.of(txn));
+
+        List<RuleMatchService.ApplyCursor> checkpoints = new ArrayList<>();
+        RuleMatchService.ApplyCursor cursor = ruleMatchService.applyNextChunk(rule.getId(), start, 2, checkpoints::add);
+
+        assertEquals(new RuleMatchService.ApplyCursor(second, 2, 1, false), cursor);
+        assertEquals(rule, txn.getAppliedRule());
 
-        int applied = ruleMatchService.applyToAllMatches(rule.getId());
+        cursor = ruleMatchService.applyNextChunk(rule.getId(), cursor, 2, checkpoints::add);
 
-        assertEquals(1, applied);
-        assertEquals(rule, txn.getAppliedRule());
+        assertEquals(new RuleMatchService.ApplyCursor(second, 2, 1, true), cursor);
+        assertEquals(2, checkpoints.size());
+        assertEquals(cursor, checkpoints.get(1));
+        verify(transactionRepository, never()).findRuleMatchCandidates(any(), any());
     }
 }
@@ -0,0 +1,49 @@
+package com.financeos.domain.categorization;
+
+import com.financeos.domain.transaction.DescriptionPrefilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RulePrefilterTest {
+
+    @Test
+    public void literalTypesTranslateToUpperCasedPredicates() {
+        assertEquals(Optional.of(DescriptionPrefilter.containsAll(List.of("SWIGGY", "INSTAMART"))),
+                RulePrefilter.of(MatchType.MERCHANT_KEY, "SWIGGY INSTAMART"));
+        assertEquals(Optional.of(DescriptionPrefilter.containsAll(List.of(" 50% OFF_"))),
+                RulePrefilter.of(MatchType.CONTAINS, " 50% off_"));
+        assertEquals(Optional.of(DescriptionPrefilter.keyStartsWith("ACH/")),
+                RulePrefilter.of(MatchType.STARTS_WITH, " ach/ "));
+        assertEquals(Optional.of(DescriptionPrefilter.keyEquals("NEFT SALARY")),
+                RulePrefilter.of(MatchType.EXACT, "neft salary"));
+        assertEquals(Optional.of(DescriptionPrefilter.containsAll(List.of("NETFLIX"))),
+                RulePrefilter.of(null, "NETFLIX"));
+    }
+
+    @Test
+    public void nonAsciiOrBlankPatternsAreNotPushedDown() {
+        assertTrue(RulePrefilter.of(MatchType.CONTAINS, "straße").isEmpty());
+        assertTrue(RulePrefilter.of(MatchType.EXACT, "café\t").isEmpty());
+        assertTrue(RulePrefilter.of(MatchType.CONTAINS, "   ").isEmpty());
+        assertTrue(RulePrefilter.of(MatchType.CONTAINS, null).isEmpty());
+    }
+
+    @Test
+    public void onlyPortableRegexesArePushedDown() {
+        for (String portable : List.of("^UPI/\\d{6,}", "SWIGGY|ZOMATO", "[A-Z0-9]+ PAY$", "AMAZON\\.IN",
+                "[^0-9]{3}", "\\s+REF\\s*\\w*", "A.B?C*")) {
+            assertTrue(RulePrefilter.isPortableRegex(portable), portable);
+        }
+        for (String javaOnly : List.of("\\bSWIGGY\\b", "(?i)swiggy", "(?=UPI)", "\\p{L}+", "(A)\\1",
+                "[\\d]+", "[a-z&&[^q]]", "A*?", "A++", "A{2,}?", "(A+)+", "(AB){2}", "\\QA.B\\E", "\\t")) {
+            assertFalse(RulePrefilter.isPortableRegex(javaOnly), javaOnly);
+        }
+        assertEquals(Optional.of(DescriptionPrefilter.regex("^UPI/\\d{6,}")),
+                RulePrefilter.of(MatchType.REGEX, "^UPI/\\d{6,}"));
+        assertTrue(RulePrefilter.of(MatchType.REGEX, "\\bUPI").isEmpty());
+    }
+}
@@ -1,10 +1,15 @@
 package com.financeos.domain.categorization;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeos.core.observability.ObservabilityMetrics;
 import com.financeos.llm.LlmClient;
 import com.financeos.llm.LlmException;
 import com.financeos.llm.LlmRequest;
+import com.financeos.llm.LlmProperties;
 import com.financeos.llm.LlmResponse;
+import com.financeos.llm.cache.LlmResponseCache;
+import com.financeos.llm.cache.LlmResponseCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -13,10 +18,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 public class TransactionCategorizerTest {
 
@@ -269,4 +278,96 @@ public class TransactionCategorizerTest {
         assertTrue(fake.requests.get(1).prompt().contains("- Entertainment"));
         assertEquals(2, results.size());
     }
+
+    @Test
+    public void testCategoriesProposedByParallelChunksAreMerged() {
+        FakeLlmClient fake = new FakeLlmClient() {
+            @Override
+            public LlmResponse complete(LlmRequest request) {
+                callCount++;
+                requests.add(request);
+                Matcher matcher = INDEX_PATTERN.matcher(request.prompt());
+                matcher.find();
+                int idx = Integer.parseInt(matcher.group(1));
+                String category = List.of("Food", "Groceries", "grocery", "Food & Dining", "FOOD").get(idx);
+                String json = "{\"results\":[{\"index\":" + idx + ",\"merchantKey\":\"MERCHANT-" + idx
+                        + "\",\"categoryNames\":[\"" + category + "\"],\"noFit\":false}]}";
+                return new LlmResponse(json, defaultProviderId, "fake-model");
+            }
+        };
+        fake.recommendedBatchSize = 1;
+        fake.batchSizeByProvider.put("fake", 1);
+        TransactionCategorizer categorizer = new TransactionCategorizer(fake, new ObjectMapper());
+
+        List<TransactionCategorizer.CategorizeItemResponse> results = categorizer.categorize(uniqueItems(5), List.of("Dining"));
+
+        assertEquals(5, fake.requests.size());
+        assertEquals(List.of("Food"), results.get(0).categoryNames());
+        assertEquals(List.of("Groceries"), results.get(1).categoryNames());
+        assertEquals(List.of("Groceries"), results.get(2).categoryNames());
+        assertEquals(List.of("Food & Dining"), results.get(3).categoryNames());
+        assertEquals(List.of("Food"), results.get(4).categoryNames());
+    }
+
+    @Test
+    public void testChunksAfterTheFirstArePipelined() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        FakeLlmClient fake = new FakeLlmClient() {
+            @Override
+            public CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                LlmResponse response = complete(request);
+                return CompletableFuture.supplyAsync(() -> {
+                    inFlight.decrementAndGet();
+                    return response;
+                }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+            }
+        };
+        fake.recommendedBatchSize = 10;
+        fake.batchSizeByProvider.put("fake", 10);
+        TransactionCategorizer categorizer = new TransactionCategorizer(fake, new ObjectMapper());
+
+        List<TransactionCategorizer.CategorizeItemResponse> results = categorizer.categorize(uniqueItems(40), List.of());
+
+        assertEquals(4, fake.requests.size());
+        assertEquals(3, peakInFlight.get());
+        assertEquals(40, results.size());
+        // Categories invented by the first chunk are offered to the pipelined ones
+        assertTrue(fake.requests.get(1).prompt().contains("- Cat-0"));
+        for (int i = 0; i < 40; i++) {
+            assertEquals(Integer.valueOf(i), results.get(i).index());
+        }
+    }
+
+    @Test
+    public void testRepeatedDescriptionsAreServedFromTheResponseCache() {
+        LlmProperties properties = new LlmProperties();
+        properties.getCache().setEnabled(true);
+        LlmResponseCache cache = new LlmResponseCache(mock(LlmResponseCacheRepository.class),
+                new ObservabilityMetrics(new SimpleMeterRegistry()), properties);
+        FakeLlmClient fake = new FakeLlmClient();
+        TransactionCategorizer categorizer = new TransactionCategorizer(fake, new ObjectMapper(), cache);
+
+        categorizer.categorize(List.of(
+                new TransactionCategorizer.CategorizeItemRequest(0, "SWIGGY ORDER 1234"),
+                new TransactionCategorizer.CategorizeItemRequest(1, "UBER TRIP BLR")), List.of("Food"));
+        List<TransactionCategorizer.CategorizeItemResponse> results = categorizer.categorize(List.of(
+                new TransactionCategorizer.CategorizeItemRequest(0, "UBER TRIP BLR"),
+                new TransactionCategorizer.CategorizeItemRequest(1, "AMAZON PURCHASE")), List.of("Food"));
+
+        // Only the new description is sent the second time
+        assertEquals(2, fake.requests.size());
+        assertFalse(fake.requests.get(1).prompt().contains("UBER"));
+        assertTrue(fake.requests.get(1).prompt().contains("AMAZON PURCHASE"));
+        assertEquals(2, results.size());
+        TransactionCategorizer.CategorizeItemResponse uber = results.stream()
+                .filter(r -> r.index() == 0).findFirst().orElseThrow();
+        assertEquals("MERCHANT-1", uber.merchantKey());
+        assertEquals(List.of("Cat-1"), uber.categoryNames());
+
+        // Another category list is another answer
+        categorizer.categorize(List.of(new TransactionCategorizer.CategorizeItemRequest(0, "UBER TRIP BLR")), List.of("Travel"));
+        assertEquals(3, fake.requests.size());
+    }
 }
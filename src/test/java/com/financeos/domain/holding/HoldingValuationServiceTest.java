@@ -1,7 +1,11 @@
 package com.financeos.domain.holding;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.financeos.domain.account.Account;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 class HoldingValuationServiceTest {
@@ -64,12 +69,50 @@ class HoldingValuationServiceTest {
 
         when(holdingRepository.findByBrokerAccountId(brokerAccountId))
                 .thenReturn(List.of(holding));
-        when(investmentService.calculateHoldingPosition(holding))
-                .thenReturn(mockPosition);
+        when(investmentService.calculateHoldingPositions(List.of(holding)))
+                .thenReturn(List.of(mockPosition));
 
         BigDecimal marketValue = holdingValuationService.getBrokerMarketValue(brokerAccountId);
 
         // With CA-adjusted position (200 @ 50), market value is 10000.00 (not 100 * 50 = 5000.00)
         assertEquals(0, marketValue.compareTo(new BigDecimal("10000.0000")));
     }
+
+    @Test
+    void testGetBrokerMarketValuesValuesAllAccountsInOnePass() {
+        Account first = new Account();
+        first.setId(brokerAccountId);
+        Account second = new Account();
+        second.setId(UUID.randomUUID());
+        UUID empty = UUID.randomUUID();
+
+        Holding a = holding(first);
+        Holding b = holding(first);
+        Holding c = holding(second);
+        List<Holding> holdings = List.of(a, b, c);
+        when(holdingRepository.findByBrokerAccountIdIn(anyCollection())).thenReturn(holdings);
+        when(investmentService.calculateHoldingPositions(holdings)).thenReturn(List.of(
+                position(a, "100.00"), position(b, "250.50"), position(c, "40.00")));
+
+        Map<UUID, BigDecimal> values = holdingValuationService.getBrokerMarketValues(
+                List.of(first.getId(), second.getId(), empty));
+
+        assertEquals(0, values.get(first.getId()).compareTo(new BigDecimal("350.50")));
+        assertEquals(0, values.get(second.getId()).compareTo(new BigDecimal("40.00")));
+        assertEquals(0, values.get(empty).compareTo(BigDecimal.ZERO));
+        verify(investmentService, times(1)).calculateHoldingPositions(anyList());
+    }
+
+    private static Holding holding(Account brokerAccount) {
+        Instrument instrument = new Instrument();
+        instrument.setId(UUID.randomUUID());
+        Holding holding = new Holding(brokerAccount, instrument, null);
+        holding.setId(UUID.randomUUID());
+        return holding;
+    }
+
+    private static HoldingPosition position(Holding holding, String currentValue) {
+        return new HoldingPosition(holding, BigDecimal.ONE, null, null, null, null, null,
+                new BigDecimal(currentValue), null, null, null, null, null, null, null, null);
+    }
 }
@@ -0,0 +1,78 @@
+package com.financeos.domain.holding;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldingValueSeriesCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 31);
+
+    private static HoldingValueSeriesCache.Series series(UUID instrumentId) {
+        return new HoldingValueSeriesCache.Series(TODAY, Set.of(instrumentId), new long[0], new long[0]);
+    }
+
+    @Test
+    void seriesReadBeforeAnEvictionIsNotCached() {
+        HoldingValueSeriesCache cache = new HoldingValueSeriesCache(10);
+        UUID holding = UUID.randomUUID();
+        UUID instrument = UUID.randomUUID();
+
+        long read = cache.beginRead();
+        cache.evictInstruments(Set.of(instrument));
+        cache.put(holding, series(instrument), read);
+        cache.endRead(read);
+
+        assertNull(cache.get(holding, TODAY));
+    }
+
+    @Test
+    void evictionStampsAreForgottenOnceNoOpenReadPredatesThem() {
+        HoldingValueSeriesCache cache = new HoldingValueSeriesCache(10);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        long read = cache.beginRead();
+        cache.evictInstruments(Set.of(first));
+        long laterRead = cache.beginRead();
+        cache.evictInstruments(Set.of(second));
+        assertEquals(2, cache.trackedEvictions());
+
+        // The older read could still be dropped by either stamp
+        cache.endRead(laterRead);
+        assertEquals(2, cache.trackedEvictions());
+
+        cache.endRead(read);
+        assertEquals(0, cache.trackedEvictions());
+
+        // With no read open, an eviction leaves nothing behind
+        cache.evictInstruments(Set.of(first));
+        assertEquals(0, cache.trackedEvictions());
+    }
+
+    @Test
+    void stampsOlderThanEveryOpenReadArePruned() {
+        HoldingValueSeriesCache cache = new HoldingValueSeriesCache(10);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID holding = UUID.randomUUID();
+
+        long oldRead = cache.beginRead();
+        cache.evictInstruments(Set.of(first));
+        long newRead = cache.beginRead();
+        cache.endRead(oldRead);
+        assertEquals(0, cache.trackedEvictions());
+
+        cache.evictInstruments(Set.of(second));
+        assertEquals(1, cache.trackedEvictions());
+        cache.put(holding, series(second), newRead);
+        assertNull(cache.get(holding, TODAY));
+        cache.put(holding, series(first), newRead);
+        assertNotNull(cache.get(holding, TODAY));
+        cache.endRead(newRead);
+    }
+}
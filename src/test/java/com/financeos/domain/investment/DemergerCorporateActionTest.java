@@ -55,7 +55,13 @@ class DemergerCorporateActionTest {
                 mock(com.financeos.domain.investment.dividend.DividendRepository.class),
                 mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
                 mock(org.springframework.context.ApplicationEventPublisher.class),
-                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class)
+                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class),
+                new PortfolioSnapshotLoader(holdingRepository, transactionRepository, corporateActionRepository,
+                        mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
+                        mock(com.financeos.domain.investment.dividend.DividendRepository.class),
+                        priceRepository),
+                Runnable::run,
+                mock(com.financeos.domain.investment.projection.HoldingPositionStore.class)
         );
 
         brokerAccount = new Account();
@@ -179,4 +185,57 @@ class DemergerCorporateActionTest {
         BigDecimal avgCost = (BigDecimal) posObj.getClass().getMethod("avgCost").invoke(posObj);
         assertEquals(0, avgCost.compareTo(new BigDecimal("40.00")));
     }
+
+    @Test
+    void openLotTotalsSweepMatchesPerDateRebuild() {
+        InvestmentTransaction buy = new InvestmentTransaction();
+        buy.setType(InvestmentTransactionType.buy);
+        buy.setQuantity(new BigDecimal("100"));
+        buy.setPrice(new BigDecimal("100.00"));
+        buy.setTradeDate(LocalDate.of(2024, 1, 10));
+        InvestmentTransaction sell = new InvestmentTransaction();
+        sell.setType(InvestmentTransactionType.sell);
+        sell.setQuantity(new BigDecimal("30"));
+        sell.setPrice(new BigDecimal("150.00"));
+        sell.setTradeDate(LocalDate.of(2024, 6, 1));
+
+        CorporateAction demerger = new CorporateAction();
+        demerger.setId(UUID.randomUUID());
+        demerger.setInstrument(parentInstrument);
+        demerger.setTargetInstrument(childInstrument);
+        demerger.setType(CorporateActionType.demerger);
+        demerger.setRatioFrom(2);
+        demerger.setRatioTo(1);
+        demerger.setCostAllocationPct(new BigDecimal("20.0"));
+        demerger.setExDate(LocalDate.of(2024, 3, 1));
+        CorporateAction split = new CorporateAction();
+        split.setId(UUID.randomUUID());
+        split.setInstrument(parentInstrument);
+        split.setType(CorporateActionType.split);
+        split.setRatioFrom(1);
+        split.setRatioTo(2);
+        split.setExDate(LocalDate.of(2024, 6, 1));
+
+        List<InvestmentTransaction> txns = List.of(buy, sell);
+        List<CorporateAction> cas = List.of(demerger, split);
+        List<LocalDate> dates = List.of(LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 31),
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 5, 31), LocalDate.of(2024, 6, 1), LocalDate.of(2024, 7, 15));
+
+        List<InvestmentService.OpenLotTotals> totals = investmentService.openLotTotalsAsOf(parentHolding, dates, txns, cas, List.of());
+
+        assertEquals(dates.size(), totals.size());
+        for (InvestmentService.OpenLotTotals t : totals) {
+            BigDecimal qty = BigDecimal.ZERO;
+            BigDecimal cost = BigDecimal.ZERO;
+            for (InvestmentService.Lot lot : investmentService.buildOpenLotsBeforeDate(parentHolding, t.date(), false, null, txns, cas, List.of())) {
+                qty = qty.add(lot.remainingQty);
+                cost = cost.add(lot.remainingQty.multiply(lot.costPerUnit));
+            }
+            assertEquals(0, qty.compareTo(t.quantity()), "qty at " + t.date());
+            assertEquals(0, cost.compareTo(t.cost()), "cost at " + t.date());
+        }
+        // Split (CA) applies before the same-day sell: 100 -> 200, then 30 sold.
+        assertEquals(0, totals.get(5).quantity().compareTo(new BigDecimal("170")));
+        assertEquals(0, totals.get(0).quantity().signum());
+    }
 }
@@ -37,7 +37,10 @@ class InvestmentServiceFnoTest {
                 divRepo,
                 null,
                 null,
-                fnoRepo
+                fnoRepo,
+                new PortfolioSnapshotLoader(holdingRepo, null, null, null, divRepo, null),
+                Runnable::run,
+                mock(com.financeos.domain.investment.projection.HoldingPositionStore.class)
         );
 
         SummaryResponse summary = investmentService.getSummary();
@@ -57,7 +57,13 @@ class MergerCorporateActionTest {
                 mock(com.financeos.domain.investment.dividend.DividendRepository.class),
                 mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
                 mock(org.springframework.context.ApplicationEventPublisher.class),
-                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class)
+                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class),
+                new PortfolioSnapshotLoader(holdingRepository, transactionRepository, corporateActionRepository,
+                        mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
+                        mock(com.financeos.domain.investment.dividend.DividendRepository.class),
+                        priceRepository),
+                Runnable::run,
+                mock(com.financeos.domain.investment.projection.HoldingPositionStore.class)
         );
 
         holdingValuationService = new HoldingValuationService(holdingRepository, investmentService);
@@ -171,30 +177,22 @@ class MergerCorporateActionTest {
         InstrumentPrice acquirerPrice = new InstrumentPrice();
         acquirerPrice.setClose(new BigDecimal("1500.00"));
 
-        // Mocks for transferor calculation
-        when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(transferorHolding.getId()))
-                .thenReturn(List.of(buyTxn));
-        when(corporateActionRepository.findByInstrumentIdOrderByExDateAsc(transferorInstrument.getId()))
-                .thenReturn(List.of(merger));
-        when(corporateActionRepository.findByTargetInstrumentIdOrderByExDateAsc(transferorInstrument.getId()))
-                .thenReturn(List.of());
-        when(priceRepository.findTopByInstrumentIdOrderByAsOfDesc(transferorInstrument.getId()))
-                .thenReturn(Optional.of(transferorPrice));
-
-        // Mocks for acquirer calculation
-        when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(acquirerHolding.getId()))
-                .thenReturn(List.of());
-        when(corporateActionRepository.findByInstrumentIdOrderByExDateAsc(acquirerInstrument.getId()))
-                .thenReturn(List.of());
-        when(corporateActionRepository.findByTargetInstrumentIdOrderByExDateAsc(acquirerInstrument.getId()))
-                .thenReturn(List.of(merger));
-        when(holdingRepository.findByBrokerAccountIdAndInstrumentId(brokerAccount.getId(), transferorInstrument.getId()))
-                .thenReturn(Optional.of(transferorHolding));
-        when(priceRepository.findTopByInstrumentIdOrderByAsOfDesc(acquirerInstrument.getId()))
-                .thenReturn(Optional.of(acquirerPrice));
+        transferorPrice.setInstrument(transferorInstrument);
+        acquirerPrice.setInstrument(acquirerInstrument);
 
+        // Broker valuation reads the portfolio snapshot's set-based queries
         when(holdingRepository.findByBrokerAccountId(brokerAccount.getId()))
                 .thenReturn(List.of(transferorHolding, acquirerHolding));
+        when(holdingRepository.findAllWithDetails())
+                .thenReturn(List.of(transferorHolding, acquirerHolding));
+        when(transactionRepository.findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection()))
+                .thenReturn(List.of(buyTxn));
+        when(corporateActionRepository.findByInstrumentIdInOrderByExDateAsc(anyCollection()))
+                .thenReturn(List.of(merger));
+        when(corporateActionRepository.findByTargetInstrumentIdInOrderByExDateAsc(anyCollection()))
+                .thenReturn(List.of(merger));
+        when(priceRepository.findLatestByInstrumentIdIn(anyCollection()))
+                .thenReturn(List.of(transferorPrice, acquirerPrice));
 
         BigDecimal marketValue = holdingValuationService.getBrokerMarketValue(brokerAccount.getId());
 
@@ -242,17 +240,14 @@ class MergerCorporateActionTest {
 
         when(holdingRepository.findAllWithDetails())
                 .thenReturn(List.of(transferorHolding));
-        when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(transferorHolding.getId()))
+        // The summary reads through the portfolio snapshot's set-based queries (no price rows).
+        when(transactionRepository.findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection()))
                 .thenReturn(List.of(buyTxn));
-        when(corporateActionRepository.findByInstrumentIdOrderByExDateAsc(transferorInstrument.getId()))
-                .thenReturn(List.of());
-        when(corporateActionRepository.findByTargetInstrumentIdOrderByExDateAsc(transferorInstrument.getId()))
-                .thenReturn(List.of());
-        when(priceRepository.findTopByInstrumentIdOrderByAsOfDesc(transferorInstrument.getId()))
-                .thenReturn(Optional.empty());
 
         com.financeos.api.investment.dto.SummaryResponse summary = investmentService.getSummary();
 
+        verify(transactionRepository, never()).findByHoldingIdOrderByTradeDateAscCreatedAtAsc(any());
+
         assertEquals(0, summary.totalInvested().compareTo(new BigDecimal("1000.0000")));
         assertEquals(0, summary.totalCurrentValue().compareTo(new BigDecimal("1000.0000")));
     }
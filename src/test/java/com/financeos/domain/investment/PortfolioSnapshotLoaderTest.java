@@ -0,0 +1,87 @@
+package com.financeos.domain.investment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.financeos.domain.account.Account;
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.instrument.Instrument;
+import com.financeos.domain.instrument.InstrumentPrice;
+import com.financeos.domain.instrument.InstrumentPriceRepository;
+import com.financeos.domain.instrument.corporateaction.CorporateActionRepository;
+import com.financeos.domain.investment.dividend.DividendRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+class PortfolioSnapshotLoaderTest {
+
+    @Test
+    void loadsEveryInputWithOneQueryPerKindAndGroupsByHolding() {
+        HoldingRepository holdingRepository = mock(HoldingRepository.class);
+        InvestmentTransactionRepository transactionRepository = mock(InvestmentTransactionRepository.class);
+        CorporateActionRepository corporateActionRepository = mock(CorporateActionRepository.class);
+        TradeSettlementClassificationRepository classificationRepository = mock(TradeSettlementClassificationRepository.class);
+        DividendRepository dividendRepository = mock(DividendRepository.class);
+        InstrumentPriceRepository priceRepository = mock(InstrumentPriceRepository.class);
+
+        Account broker = new Account();
+        broker.setId(UUID.randomUUID());
+        Instrument instrument = new Instrument();
+        instrument.setId(UUID.randomUUID());
+        Holding first = holding(broker, instrument);
+        Holding second = holding(new Account(), new Instrument());
+        second.getBrokerAccount().setId(UUID.randomUUID());
+        second.getInstrument().setId(UUID.randomUUID());
+
+        InvestmentTransaction t1 = txn(first, LocalDate.of(2025, 1, 1));
+        InvestmentTransaction t2 = txn(second, LocalDate.of(2025, 1, 2));
+        InvestmentTransaction t3 = txn(first, LocalDate.of(2025, 1, 3));
+        InstrumentPrice price = new InstrumentPrice();
+        price.setInstrument(instrument);
+        price.setAsOf(LocalDate.of(2025, 2, 1));
+        price.setClose(new BigDecimal("12.5"));
+
+        when(holdingRepository.findAllWithDetails()).thenReturn(List.of(first, second));
+        when(transactionRepository.findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection())).thenReturn(List.of(t1, t2, t3));
+        when(priceRepository.findLatestByInstrumentIdIn(anyCollection())).thenReturn(List.of(price));
+
+        PortfolioSnapshot snapshot = new PortfolioSnapshotLoader(holdingRepository, transactionRepository,
+                corporateActionRepository, classificationRepository, dividendRepository, priceRepository).load();
+
+        assertEquals(List.of(first, second), snapshot.holdings());
+        assertEquals(List.of(t1, t3), snapshot.transactions(first));
+        assertEquals(List.of(t2), snapshot.transactions(second));
+        assertSame(price, snapshot.latestPrice(instrument.getId()).orElseThrow());
+        assertTrue(snapshot.latestPrice(second.getInstrument().getId()).isEmpty());
+        assertSame(first, snapshot.holding(broker.getId(), instrument.getId()).orElseThrow());
+        assertTrue(snapshot.holding(UUID.randomUUID(), instrument.getId()).isEmpty());
+
+        verify(transactionRepository, times(1)).findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection());
+        verify(corporateActionRepository, times(1)).findByInstrumentIdInOrderByExDateAsc(anyCollection());
+        verify(corporateActionRepository, times(1)).findByTargetInstrumentIdInOrderByExDateAsc(anyCollection());
+        verify(classificationRepository, times(1)).findByHoldingIdIn(anyCollection());
+        verify(dividendRepository, times(1)).findByHoldingIdInOrderByPayDateDescCreatedAtDesc(anyCollection());
+        verifyNoMoreInteractions(transactionRepository);
+    }
+
+    private static Holding holding(Account broker, Instrument instrument) {
+        Holding h = new Holding(broker, instrument, null);
+        h.setId(UUID.randomUUID());
+        return h;
+    }
+
+    private static InvestmentTransaction txn(Holding holding, LocalDate date) {
+        InvestmentTransaction t = new InvestmentTransaction();
+        t.setHolding(holding);
+        t.setType(InvestmentTransactionType.buy);
+        t.setQuantity(BigDecimal.ONE);
+        t.setPrice(BigDecimal.TEN);
+        t.setTradeDate(date);
+        return t;
+    }
+}
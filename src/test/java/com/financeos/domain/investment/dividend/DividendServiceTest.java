@@ -14,6 +14,7 @@ import com.financeos.domain.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -46,7 +47,8 @@ class DividendServiceTest {
 
         dividendService = new DividendService(
                 dividendRepository, holdingRepository, userRepository,
-                investmentService, yahooClient, transactionRepository
+                investmentService, yahooClient, transactionRepository,
+                Mockito.mock(ApplicationEventPublisher.class)
         );
     }
 
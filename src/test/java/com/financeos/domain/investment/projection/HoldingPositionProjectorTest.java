@@ -0,0 +1,157 @@
+package com.financeos.domain.investment.projection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.financeos.domain.account.Account;
+import com.financeos.domain.holding.Holding;
+import com.financeos.domain.holding.HoldingLedgerChangedEvent;
+import com.financeos.domain.holding.HoldingRepository;
+import com.financeos.domain.instrument.Instrument;
+import com.financeos.domain.instrument.InstrumentPriceRepository;
+import com.financeos.domain.instrument.InstrumentType;
+import com.financeos.domain.instrument.corporateaction.CorporateAction;
+import com.financeos.domain.instrument.corporateaction.CorporateActionRepository;
+import com.financeos.domain.instrument.corporateaction.CorporateActionType;
+import com.financeos.domain.investment.HoldingLedger;
+import com.financeos.domain.investment.InvestmentService;
+import com.financeos.domain.investment.InvestmentTransaction;
+import com.financeos.domain.investment.InvestmentTransactionRepository;
+import com.financeos.domain.investment.InvestmentTransactionType;
+import com.financeos.domain.investment.PortfolioSnapshotLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+class HoldingPositionProjectorTest {
+
+    private InvestmentTransactionRepository transactionRepository;
+    private CorporateActionRepository corporateActionRepository;
+    private InvestmentService investmentService;
+    private Instrument instrument;
+    private Holding holding;
+
+    @BeforeEach
+    void setUp() {
+        HoldingRepository holdingRepository = mock(HoldingRepository.class);
+        InstrumentPriceRepository priceRepository = mock(InstrumentPriceRepository.class);
+        transactionRepository = mock(InvestmentTransactionRepository.class);
+        corporateActionRepository = mock(CorporateActionRepository.class);
+
+        investmentService = new InvestmentService(
+                transactionRepository,
+                holdingRepository,
+                mock(com.financeos.domain.account.AccountRepository.class),
+                mock(com.financeos.domain.instrument.InstrumentRepository.class),
+                priceRepository,
+                mock(com.financeos.domain.user.UserRepository.class),
+                corporateActionRepository,
+                mock(com.financeos.domain.investment.dividend.DividendRepository.class),
+                mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
+                mock(org.springframework.context.ApplicationEventPublisher.class),
+                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class),
+                new PortfolioSnapshotLoader(holdingRepository, transactionRepository, corporateActionRepository,
+                        mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
+                        mock(com.financeos.domain.investment.dividend.DividendRepository.class),
+                        priceRepository),
+                Runnable::run,
+                mock(HoldingPositionStore.class)
+        );
+
+        Account brokerAccount = new Account();
+        brokerAccount.setId(UUID.randomUUID());
+        instrument = new Instrument();
+        instrument.setId(UUID.randomUUID());
+        instrument.setName("Acme");
+        instrument.setType(InstrumentType.stock);
+        holding = new Holding(brokerAccount, instrument, null);
+        holding.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void resumedLedgerMatchesFullReplay() {
+        List<InvestmentTransaction> txns = new ArrayList<>(List.of(
+                txn(InvestmentTransactionType.buy, "10", "100", LocalDate.of(2024, 1, 10)),
+                txn(InvestmentTransactionType.buy, "5", "110", LocalDate.of(2024, 2, 10)),
+                txn(InvestmentTransactionType.sell, "12", "130", LocalDate.of(2024, 3, 10))));
+        when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId())).thenReturn(txns);
+        HoldingLedger base = investmentService.replayLedger(holding);
+        assertEquals(LocalDate.of(2024, 3, 10), base.lastEventDate());
+
+        // Appended history: a later buy and a 1:2 split after it.
+        CorporateAction split = new CorporateAction();
+        split.setId(UUID.randomUUID());
+        split.setInstrument(instrument);
+        split.setType(CorporateActionType.split);
+        split.setRatioFrom(1);
+        split.setRatioTo(2);
+        split.setExDate(LocalDate.of(2024, 5, 1));
+        txns.add(txn(InvestmentTransactionType.buy, "4", "120", LocalDate.of(2024, 4, 10)));
+        when(corporateActionRepository.findByInstrumentIdOrderByExDateAsc(instrument.getId())).thenReturn(List.of(split));
+
+        HoldingLedger full = investmentService.replayLedger(holding);
+        HoldingLedger resumed = investmentService.resumeLedger(holding, base, LocalDate.of(2024, 4, 10));
+
+        assertEquals(List.of(), HoldingPositionProjector.differences(resumed, full));
+        assertEquals(0, new BigDecimal("14").compareTo(full.openQty()));
+        assertEquals(LocalDate.of(2024, 5, 1), resumed.lastEventDate());
+    }
+
+    @Test
+    void resumesOnlyAfterLastReplayedEvent() {
+        assertNull(HoldingPositionProjector.resumeFrom(null));
+
+        HoldingPositionProjection row = new HoldingPositionProjection(holding.getId(), null);
+        row.setLastEventDate(LocalDate.of(2024, 3, 10));
+        row.setStaleFrom(LocalDate.of(2024, 4, 1));
+        assertEquals(LocalDate.of(2024, 4, 1), HoldingPositionProjector.resumeFrom(row));
+
+        // A same-day trade regroups that day's intraday split; an earlier one rewrites FIFO history.
+        row.setStaleFrom(LocalDate.of(2024, 3, 10));
+        assertNull(HoldingPositionProjector.resumeFrom(row));
+
+        // Dividend-only or expired rows resume past the ledger, which just re-reads dividends and validity.
+        row.setStaleFrom(null);
+        assertEquals(LocalDate.of(2024, 3, 11), HoldingPositionProjector.resumeFrom(row));
+
+        row.setSeeded(true);
+        assertNull(HoldingPositionProjector.resumeFrom(row));
+    }
+
+    @Test
+    void writeCreatesMissingRowsBeforeMarkingThem() {
+        HoldingPositionProjectionRepository projectionRepository = mock(HoldingPositionProjectionRepository.class);
+        HoldingPositionProjector projector = new HoldingPositionProjector(projectionRepository,
+                mock(HoldingPositionStore.class), mock(HoldingRepository.class), corporateActionRepository, investmentService);
+        LocalDate from = LocalDate.of(2024, 4, 10);
+        when(projectionRepository.findHoldingIdsOfInstruments(Set.of(instrument.getId()), null))
+                .thenReturn(List.of(holding.getId()));
+
+        // Without a row the marks would update nothing, and a rebuild racing the write could store a stale row as fresh.
+        projector.onLedgerChanged(HoldingLedgerChangedEvent.forHolding(holding, from));
+        projector.onLedgerChanged(HoldingLedgerChangedEvent.forInstruments(null, Set.of(instrument.getId()), from));
+
+        InOrder order = inOrder(projectionRepository);
+        order.verify(projectionRepository).insertMissingRows(List.of(holding.getId().toString()));
+        order.verify(projectionRepository).markLedgerStale(Set.of(holding.getId()), from);
+        order.verify(projectionRepository).insertMissingRows(List.of(holding.getId().toString()));
+        order.verify(projectionRepository).markInstrumentsLedgerStale(Set.of(instrument.getId()), null, from);
+    }
+
+    private InvestmentTransaction txn(InvestmentTransactionType type, String qty, String price, LocalDate date) {
+        InvestmentTransaction t = new InvestmentTransaction();
+        t.setHolding(holding);
+        t.setType(type);
+        t.setQuantity(new BigDecimal(qty));
+        t.setPrice(new BigDecimal(price));
+        t.setTradeDate(date);
+        return t;
+    }
+}
@@ -0,0 +1,196 @@
+package com.financeos.domain.investment.returncalc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Portfolio-summary XIRR workload: one rate per holding plus the portfolio rate over all flows.
+ * {@code legacy*} is the previous BigDecimal/LocalDate Newton + bisection solver kept here as the
+ * baseline. Run with {@code main} from the IDE (test classpath); not part of the test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XirrCalculatorBenchmark {
+
+    @Param({"10000"})
+    int cashflows;
+
+    @Param({"50"})
+    int holdings;
+
+    private List<List<XirrCalculator.Cashflow>> perHolding;
+    private List<XirrCalculator.Cashflow> portfolio;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        perHolding = new ArrayList<>();
+        portfolio = new ArrayList<>();
+        int perHoldingCount = cashflows / holdings;
+        for (int h = 0; h < holdings; h++) {
+            List<XirrCalculator.Cashflow> flows = new ArrayList<>();
+            for (int i = 0; i < perHoldingCount - 1; i++) {
+                LocalDate date = start.plusDays(random.nextInt(3650));
+                // Mostly buys, some sells and dividends.
+                double amount = random.nextDouble() < 0.8
+                        ? -(1000 + random.nextInt(50_000))
+                        : 500 + random.nextInt(40_000);
+                flows.add(new XirrCalculator.Cashflow(date, BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP)));
+            }
+            double invested = -flows.stream().mapToDouble(c -> c.amount().doubleValue()).sum();
+            flows.add(new XirrCalculator.Cashflow(start.plusDays(3650),
+                    BigDecimal.valueOf(Math.max(invested, 0) * 1.4 + 1000).setScale(2, RoundingMode.HALF_UP)));
+            perHolding.add(flows);
+            portfolio.addAll(flows);
+        }
+    }
+
+    @Benchmark
+    public double legacySummary() {
+        double sum = 0;
+        for (List<XirrCalculator.Cashflow> flows : perHolding) {
+            sum += orZero(legacyXirr(flows));
+        }
+        return sum + orZero(legacyXirr(portfolio));
+    }
+
+    @Benchmark
+    public double packedSummary() {
+        double sum = 0;
+        for (List<XirrCalculator.Cashflow> flows : perHolding) {
+            sum += orZero(XirrCalculator.calculateXirr(flows));
+        }
+        return sum + orZero(XirrCalculator.calculateXirr(portfolio));
+    }
+
+    @Benchmark
+    public double batchedSummary() {
+        XirrCalculator.Batch batch = new XirrCalculator.Batch(cashflows);
+        int[] series = new int[perHolding.size()];
+        double sum = 0;
+        for (int h = 0; h < series.length; h++) {
+            series[h] = batch.add(perHolding.get(h));
+            sum += orZero(batch.solve(series[h]));
+        }
+        return sum + orZero(batch.solve(batch.group(series, List.of())));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(XirrCalculatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static double orZero(Double value) {
+        return value == null ? 0 : value;
+    }
+
+    // --- Baseline: the solver this class replaced ---
+
+    static Double legacyXirr(List<XirrCalculator.Cashflow> cashflows) {
+        boolean hasPositive = false;
+        boolean hasNegative = false;
+        for (XirrCalculator.Cashflow c : cashflows) {
+            hasPositive |= c.amount().compareTo(BigDecimal.ZERO) > 0;
+            hasNegative |= c.amount().compareTo(BigDecimal.ZERO) < 0;
+        }
+        if (!hasPositive || !hasNegative) {
+            return null;
+        }
+        LocalDate startDate = cashflows.get(0).date();
+        for (XirrCalculator.Cashflow c : cashflows) {
+            if (c.date().isBefore(startDate)) {
+                startDate = c.date();
+            }
+        }
+        double rate = 0.10;
+        for (int i = 0; i < 100 && rate > -0.9999; i++) {
+            double f = 0.0;
+            double df = 0.0;
+            for (XirrCalculator.Cashflow c : cashflows) {
+                if (c.amount().compareTo(BigDecimal.ZERO) == 0) {
+                    continue;
+                }
+                double years = ChronoUnit.DAYS.between(startDate, c.date()) / 365.0;
+                double amount = c.amount().doubleValue();
+                double denom = Math.pow(1.0 + rate, years);
+                f += amount / denom;
+                df -= years * amount / (denom * (1.0 + rate));
+            }
+            if (Math.abs(f) < 1e-7) {
+                return rate;
+            }
+            if (Math.abs(df) < 1e-12) {
+                break;
+            }
+            double next = rate - f / df;
+            if (!Double.isFinite(next) || next <= -0.9999) {
+                break;
+            }
+            if (Math.abs(next - rate) < 1e-7) {
+                return next;
+            }
+            rate = next;
+        }
+        return legacyBisection(cashflows, startDate);
+    }
+
+    private static Double legacyBisection(List<XirrCalculator.Cashflow> cashflows, LocalDate startDate) {
+        double low = -0.9999;
+        double high = 10.0;
+        double fLow = legacyNpv(cashflows, startDate, low);
+        if (fLow * legacyNpv(cashflows, startDate, high) > 0) {
+            return null;
+        }
+        double mid = 0.0;
+        for (int i = 0; i < 100; i++) {
+            mid = (low + high) / 2.0;
+            double fMid = legacyNpv(cashflows, startDate, mid);
+            if (Math.abs(fMid) < 1e-6 || (high - low) / 2.0 < 1e-6) {
+                return mid;
+            }
+            if (fLow * fMid < 0) {
+                high = mid;
+            } else {
+                low = mid;
+                fLow = fMid;
+            }
+        }
+        return mid;
+    }
+
+    private static double legacyNpv(List<XirrCalculator.Cashflow> cashflows, LocalDate startDate, double rate) {
+        double sum = 0.0;
+        for (XirrCalculator.Cashflow c : cashflows) {
+            double years = ChronoUnit.DAYS.between(startDate, c.date()) / 365.0;
+            sum += c.amount().doubleValue() / Math.pow(1.0 + rate, years);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,77 @@
+package com.financeos.domain.investment.returncalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XirrCalculatorTest {
+
+    private static XirrCalculator.Cashflow flow(String date, String amount) {
+        return new XirrCalculator.Cashflow(LocalDate.parse(date), new BigDecimal(amount));
+    }
+
+    @Test
+    void matchesSpreadsheetXirr() {
+        List<XirrCalculator.Cashflow> flows = List.of(
+                flow("2008-01-01", "-10000"),
+                flow("2008-03-01", "2750"),
+                flow("2008-10-30", "4250"),
+                flow("2009-02-15", "3250"),
+                flow("2009-04-01", "2750"));
+
+        assertEquals(0.373362535, XirrCalculator.calculateXirr(flows), 1e-6);
+    }
+
+    @Test
+    void noSignChangeHasNoRate() {
+        assertNull(XirrCalculator.calculateXirr(List.of(
+                flow("2024-01-01", "100"),
+                flow("2025-01-01", "200"))));
+        assertNull(XirrCalculator.calculateXirr(List.of(flow("2024-01-01", "-100"))));
+    }
+
+    @Test
+    void zeroAndOrderDoNotMatter() {
+        List<XirrCalculator.Cashflow> flows = List.of(
+                flow("2024-01-01", "1100"),
+                flow("2023-06-01", "0"),
+                flow("2023-01-01", "-1000"));
+
+        assertEquals(0.10, XirrCalculator.calculateXirr(flows), 1e-6);
+    }
+
+    @Test
+    void batchGroupEqualsConcatenatedSeries() {
+        List<XirrCalculator.Cashflow> a = List.of(flow("2023-01-01", "-5000"), flow("2024-02-01", "1200"));
+        List<XirrCalculator.Cashflow> b = List.of(flow("2022-05-01", "-3000"), flow("2023-11-15", "800"));
+        List<XirrCalculator.Cashflow> terminal = List.of(flow("2025-01-01", "8500"));
+
+        XirrCalculator.Batch batch = new XirrCalculator.Batch();
+        int sa = batch.add(a);
+        int sb = batch.add(b);
+        int group = batch.group(new int[]{sa, sb}, terminal);
+
+        List<XirrCalculator.Cashflow> all = new ArrayList<>(a);
+        all.addAll(b);
+        all.addAll(terminal);
+        assertEquals(XirrCalculator.calculateXirr(all), batch.solve(group), 1e-12);
+        assertEquals(XirrCalculator.calculateXirr(a), batch.solve(sa), 1e-12);
+    }
+
+    @Test
+    void bracketedSolverFindsRootNewtonCannotReach() {
+        // Near-total loss: Newton from +10% overshoots below -100%, Brent still brackets the root.
+        double[] amounts = {-10000, 2};
+        double[] years = {0, 1};
+
+        Double rate = XirrCalculator.solve(amounts, years, 2);
+
+        assertNotNull(rate);
+        assertEquals(-0.9998, rate, 1e-6);
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -13,33 +14,41 @@ class JobJanitorTest {
 
     private JobRepository jobRepository;
     private JobArtifactRepository artifactRepository;
+    private ArtifactStore artifactStore;
+    private JobService jobService;
     private JobJanitor jobJanitor;
 
     @BeforeEach
     void setUp() {
         jobRepository = mock(JobRepository.class);
         artifactRepository = mock(JobArtifactRepository.class);
-        jobJanitor = new JobJanitor(jobRepository, artifactRepository, 30, 7);
+        artifactStore = mock(ArtifactStore.class);
+        jobService = mock(JobService.class);
+        jobJanitor = new JobJanitor(jobRepository, artifactRepository, artifactStore, jobService, 30, 7, 3);
     }
 
     @Test
-    void markInterruptedOnStartup_updatesRunningJobsToFailedInterrupted() {
-        jobJanitor.markInterruptedOnStartup();
+    void sweepExpiredLeases_requeuesLapsedJobsAndFailsExhaustedOnes() {
+        jobJanitor.sweepExpiredLeases();
 
-        verify(jobRepository, times(1)).markInterrupted(
-                eq(JobStatus.RUNNING),
-                eq(JobStatus.FAILED),
+        verify(jobRepository, times(1)).failExpiredLeases(
+                any(Instant.class),
+                eq(3),
                 eq("INTERRUPTED"),
-                eq("Interrupted by server restart"),
-                any(Instant.class)
+                eq("Worker lease expired after 3 attempt(s)")
         );
+        verify(jobRepository, times(1)).requeueExpiredLeases(any(Instant.class), eq(3));
+        verify(jobService, times(1)).settleWaitingParents();
     }
 
     @Test
-    void runRetentionPurge_purgesFailedJobArtifactsAndTerminalJobs() {
+    void runRetentionPurge_purgesFailedJobArtifactsAndTerminalJobs() throws Exception {
+        when(artifactRepository.findReferencedSha256()).thenReturn(Set.of("abc"));
+
         jobJanitor.runRetentionPurge();
 
         verify(jobRepository, times(1)).deleteFailedJobArtifactsOlderThan(any(Instant.class));
         verify(jobRepository, times(1)).deleteTerminalJobsOlderThan(any(), any(Instant.class));
+        verify(artifactStore, times(1)).sweep(eq(Set.of("abc")), any(Instant.class));
     }
 }
@@ -0,0 +1,52 @@
+package com.financeos.domain.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobLanesTest {
+
+    @Test
+    void destroy_waitsOneGracePeriodForAllBusyLanes() throws Exception {
+        JobLanes lanes = JobLanes.create(new JobLaneProperties(), 1, Runnable::run);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+        for (JobType type : new JobType[]{JobType.STATEMENT_INGEST, JobType.RULE_APPLY, JobType.PRICE_REFRESH}) {
+            lanes.lane(type).executor().execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        try {
+            lanes.destroy();
+        } finally {
+            release.countDown();
+        }
+
+        // Three stuck lanes with a 1s grace each would take 3s if awaited one after another
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(900L, 2000L);
+    }
+
+    @Test
+    void laneQueueCapacity_fallsBackToTheDefault() {
+        JobLaneProperties properties = new JobLaneProperties();
+        JobLaneProperties.Lane ingest = new JobLaneProperties.Lane();
+        ingest.setQueueCapacity(5);
+        properties.getLanes().put("statement-ingest", ingest);
+        properties.setDefaultQueueCapacity(100);
+
+        assertThat(properties.queueCapacity(properties.lane(JobType.STATEMENT_INGEST))).isEqualTo(5);
+        assertThat(properties.queueCapacity(properties.lane(JobType.RULE_APPLY))).isEqualTo(100);
+        assertThat(new JobLaneProperties().queueCapacity(new JobLaneProperties.Lane())).isEqualTo(20);
+    }
+}
@@ -5,7 +5,10 @@ import com.financeos.core.exception.ResourceNotFoundException;
 import com.financeos.core.exception.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ByteArrayResource;
 
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +24,7 @@ class JobServiceTest {
 
     private JobRepository jobRepository;
     private JobArtifactRepository jobArtifactRepository;
+    private ArtifactStore artifactStore;
     private ObjectMapper objectMapper;
     private JobService jobService;
 
@@ -28,8 +32,10 @@ class JobServiceTest {
     void setUp() {
         jobRepository = mock(JobRepository.class);
         jobArtifactRepository = mock(JobArtifactRepository.class);
+        artifactStore = mock(ArtifactStore.class);
         objectMapper = new ObjectMapper();
-        jobService = new JobService(jobRepository, jobArtifactRepository, objectMapper, null);
+        jobService = new JobService(jobRepository, jobArtifactRepository, artifactStore, new JobSignals(jobRepository),
+                objectMapper, null, "node-a", 60);
     }
 
     @Test
@@ -47,6 +53,60 @@ class JobServiceTest {
         verify(jobRepository, times(1)).save(any(Job.class));
     }
 
+    @Test
+    void enqueue_storesFilesInArtifactStoreAndKeepsOnlyTheirHash() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(jobRepository.save(any(Job.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(artifactStore.put(any())).thenReturn(new ArtifactStore.StoredBlob("ab".repeat(32), 11));
+        StagedFile file = new StagedFile("statement.pdf", "application/pdf",
+                new ByteArrayResource("PDF content".getBytes()));
+
+        jobService.enqueue(userId, JobType.STATEMENT_INGEST, JobTrigger.USER, "payload", List.of(file), null);
+
+        ArgumentCaptor<JobArtifact> saved = ArgumentCaptor.forClass(JobArtifact.class);
+        verify(jobArtifactRepository).save(saved.capture());
+        assertThat(saved.getValue().getSha256()).isEqualTo("ab".repeat(32));
+        assertThat(saved.getValue().getSizeBytes()).isEqualTo(11);
+        assertThat(saved.getValue().getFilename()).isEqualTo("statement.pdf");
+    }
+
+    @Test
+    void legacyArtifact_isReadFromItsBlobUntilMovedIntoTheStore() throws Exception {
+        JobArtifact legacy = new JobArtifact();
+        legacy.setId(UUID.randomUUID());
+        legacy.setFilename("old.pdf");
+        legacy.setLegacyData("old bytes".getBytes());
+        when(jobArtifactRepository.findById(legacy.getId())).thenReturn(Optional.of(legacy));
+        when(artifactStore.put(any())).thenAnswer(inv -> {
+            try (InputStream in = inv.getArgument(0)) {
+                assertThat(in.readAllBytes()).isEqualTo("old bytes".getBytes());
+            }
+            return new ArtifactStore.StoredBlob("cd".repeat(32), 9);
+        });
+
+        assertThat(jobService.readArtifact(legacy)).isEqualTo("old bytes".getBytes());
+        verify(artifactStore, never()).open(any());
+
+        assertThat(jobService.moveLegacyArtifact(legacy.getId())).isTrue();
+        assertThat(legacy.getSha256()).isEqualTo("cd".repeat(32));
+        assertThat(legacy.getLegacyData()).isNull();
+        verify(jobArtifactRepository).save(legacy);
+
+        // Already moved (e.g. by another instance): left alone
+        assertThat(jobService.moveLegacyArtifact(legacy.getId())).isFalse();
+        verify(artifactStore, times(1)).put(any());
+    }
+
+    @Test
+    void saveCheckpoint_isFencedOnThisNodesLease() {
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.updateCheckpoint(eq(jobId), eq("node-a"), eq("{}"), any())).thenReturn(1, 0);
+
+        assertThat(jobService.saveCheckpoint(jobId, "{}")).isTrue();
+        // Lease lost or job ended: nothing is written
+        assertThat(jobService.saveCheckpoint(jobId, "{}")).isFalse();
+    }
+
     @Test
     void enqueue_returnsExistingActiveJob_whenDuplicateExists() {
         UUID userId = UUID.randomUUID();
@@ -141,6 +201,7 @@ class JobServiceTest {
         orig.setType(JobType.PRICE_REFRESH);
         orig.setStatus(JobStatus.FAILED);
         orig.setPayload("{\"test\":true}");
+        orig.setCheckpoint("{\"afterId\":\"x\"}");
         orig.setDedupKey("manual-key");
 
         when(jobRepository.findByIdAndUserId(origId, userId)).thenReturn(Optional.of(orig));
@@ -151,6 +212,7 @@ class JobServiceTest {
 
         assertThat(retried.getStatus()).isEqualTo(JobStatus.PENDING);
         assertThat(retried.getPayload()).isEqualTo("{\"test\":true}");
+        assertThat(retried.getCheckpoint()).isEqualTo("{\"afterId\":\"x\"}");
         assertThat(retried.getDedupKey()).isNull();
     }
 
@@ -171,4 +233,130 @@ class JobServiceTest {
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("Statement ingest artifacts expired");
     }
+
+    @Test
+    void claimBatch_leasesLockedPendingJobsToThisNode() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        Job claimed = new Job();
+        claimed.setId(a);
+        when(jobRepository.lockPendingIds("RULE_APPLY", 2)).thenReturn(List.of(a.toString(), b.toString()));
+        when(jobRepository.findByIdInAndLeaseOwnerOrderByCreatedAtAsc(List.of(a, b), "node-a")).thenReturn(List.of(claimed));
+
+        List<Job> jobs = jobService.claimBatch(JobType.RULE_APPLY, 2);
+
+        assertThat(jobs).containsExactly(claimed);
+        verify(jobRepository).claimLeased(eq(List.of(a, b)), eq("node-a"), any(), any());
+    }
+
+    @Test
+    void claimBatch_skipsClaimWhenNothingIsLockable() {
+        when(jobRepository.lockPendingIds("GMAIL_SYNC", 4)).thenReturn(List.of());
+
+        assertThat(jobService.claimBatch(JobType.GMAIL_SYNC, 4)).isEmpty();
+        verify(jobRepository, never()).claimLeased(any(), any(), any(), any());
+    }
+
+    @Test
+    void succeed_isDroppedOnceTheLeaseMovedToAnotherNode() {
+        UUID jobId = UUID.randomUUID();
+        Job job = new Job();
+        job.setId(jobId);
+        job.setStatus(JobStatus.RUNNING);
+        job.setLeaseOwner("node-b");
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+
+        jobService.succeed(jobId, "{}");
+
+        assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING);
+        verify(jobRepository, never()).save(any());
+        assertThat(jobService.shouldStop(jobId)).isTrue();
+
+        job.setLeaseOwner("node-a");
+        assertThat(jobService.shouldStop(jobId)).isFalse();
+        jobService.succeed(jobId, "{}");
+        assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(job.getLeaseOwner()).isNull();
+    }
+
+    private Job job(UUID id, UUID parentId, JobStatus status) {
+        Job job = new Job();
+        job.setId(id);
+        job.setParentId(parentId);
+        job.setType(JobType.STATEMENT_INGEST);
+        job.setStatus(status);
+        job.setLeaseOwner(status == JobStatus.RUNNING ? "node-a" : null);
+        when(jobRepository.findById(id)).thenReturn(Optional.of(job));
+        when(jobRepository.findByIdForUpdate(id)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    @Test
+    void parentWaitsForItsChildrenThenIsRequeuedToJoinWhenAllSucceed() {
+        UUID parentId = UUID.randomUUID();
+        Job parent = job(parentId, null, JobStatus.RUNNING);
+        parent.setAttempt(3);
+        Job first = job(UUID.randomUUID(), parentId, JobStatus.RUNNING);
+        Job second = job(UUID.randomUUID(), parentId, JobStatus.SUCCEEDED);
+        when(jobRepository.findByParentIdOrderByCreatedAtAsc(parentId)).thenReturn(List.of(first, second));
+
+        jobService.awaitChildren(parentId, null);
+
+        assertThat(parent.getStatus()).isEqualTo(JobStatus.WAITING);
+        assertThat(parent.getLeaseOwner()).isNull();
+        assertThat(parent.getProgressCurrent()).isEqualTo(1);
+        assertThat(parent.getProgressTotal()).isEqualTo(2);
+
+        jobService.succeed(first.getId(), "{}");
+
+        assertThat(first.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(parent.getStatus()).isEqualTo(JobStatus.PENDING);
+        assertThat(parent.getAttempt()).isZero();
+        assertThat(parent.getProgressCurrent()).isEqualTo(2);
+    }
+
+    @Test
+    void failedChildFailsTheParent_andRetryingItPutsTheParentBackToWaiting() {
+        UUID userId = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+        Job parent = job(parentId, null, JobStatus.WAITING);
+        parent.setAttempt(3);
+        Job child = job(UUID.randomUUID(), parentId, JobStatus.RUNNING);
+        child.setUserId(userId);
+        when(jobRepository.findByParentIdOrderByCreatedAtAsc(parentId)).thenReturn(List.of(child));
+        when(jobRepository.findByIdAndUserId(child.getId(), userId)).thenReturn(Optional.of(child));
+        when(jobRepository.save(any(Job.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(jobArtifactRepository.findByJobId(child.getId())).thenReturn(List.of(new JobArtifact()));
+
+        jobService.fail(child.getId(), "IOException", "boom");
+
+        assertThat(parent.getStatus()).isEqualTo(JobStatus.FAILED);
+        assertThat(parent.getErrorCode()).isEqualTo("CHILD_FAILED");
+
+        Job retried = jobService.retry(userId, child.getId());
+
+        assertThat(retried).isSameAs(child);
+        assertThat(child.getStatus()).isEqualTo(JobStatus.PENDING);
+        assertThat(child.getErrorCode()).isNull();
+        assertThat(parent.getStatus()).isEqualTo(JobStatus.WAITING);
+        assertThat(parent.getErrorCode()).isNull();
+        assertThat(parent.getAttempt()).isZero();
+        verify(jobRepository, never()).save(argThat(j -> j != child && j != parent));
+    }
+
+    @Test
+    void requestCancel_cancelsAWaitingParentAndItsPendingChildren() {
+        UUID userId = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+        Job parent = job(parentId, null, JobStatus.WAITING);
+        Job child = job(UUID.randomUUID(), parentId, JobStatus.PENDING);
+        when(jobRepository.findByIdAndUserId(parentId, userId)).thenReturn(Optional.of(parent));
+        when(jobRepository.findByParentIdOrderByCreatedAtAsc(parentId)).thenReturn(List.of(child));
+
+        jobService.requestCancel(userId, parentId);
+
+        assertThat(parent.getStatus()).isEqualTo(JobStatus.CANCELLED);
+        assertThat(child.getStatus()).isEqualTo(JobStatus.CANCELLED);
+        verify(jobArtifactRepository).deleteByJobId(child.getId());
+    }
 }
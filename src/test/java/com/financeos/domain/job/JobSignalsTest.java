@@ -0,0 +1,100 @@
+package com.financeos.domain.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class JobSignalsTest {
+
+    private JobRepository jobRepository;
+    private JobSignals signals;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(JobRepository.class);
+        signals = new JobSignals(jobRepository);
+    }
+
+    @Test
+    void flush_writesOnlyTheLatestProgressPerJob() {
+        UUID jobId = UUID.randomUUID();
+        signals.open(jobId);
+        for (int i = 1; i <= 100; i++) {
+            signals.progress(jobId, "node-a", i, 100, "row " + i);
+        }
+
+        signals.flush();
+        signals.flush();
+
+        verify(jobRepository, times(1)).updateProgress(any(), anyString(), anyInt(), anyInt(), anyString(), any(Instant.class));
+        verify(jobRepository).updateProgress(eq(jobId), eq("node-a"), eq(100), eq(100), eq("row 100"), any(Instant.class));
+    }
+
+    @Test
+    void close_writesUnflushedProgressAndForgetsTheJob() {
+        UUID jobId = UUID.randomUUID();
+        signals.open(jobId);
+        signals.progress(jobId, "node-a", 3, 4, "c.pdf");
+
+        signals.close(jobId);
+
+        verify(jobRepository).updateProgress(eq(jobId), eq("node-a"), eq(3), eq(4), eq("c.pdf"), any(Instant.class));
+        assertThat(signals.isRunning(jobId)).isFalse();
+        signals.flush();
+        verifyNoMoreInteractions(jobRepository);
+    }
+
+    @Test
+    void flushOfOneJob_writesItsProgressAndKeepsTheChannelOpen() {
+        UUID jobId = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        signals.open(jobId);
+        signals.open(other);
+        signals.progress(jobId, "node-a", 5, 5, "done");
+        signals.progress(other, "node-a", 1, 5, null);
+
+        signals.flush(jobId);
+
+        verify(jobRepository).updateProgress(eq(jobId), eq("node-a"), eq(5), eq(5), eq("done"), any(Instant.class));
+        verify(jobRepository, never()).updateProgress(eq(other), any(), anyInt(), anyInt(), any(), any());
+        assertThat(signals.isRunning(jobId)).isTrue();
+        signals.close(jobId);
+        verify(jobRepository, times(1)).updateProgress(eq(jobId), any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void stop_reachesOnlyJobsRunningHere() {
+        UUID running = UUID.randomUUID();
+        UUID elsewhere = UUID.randomUUID();
+        signals.open(running);
+
+        signals.stop(running);
+        signals.stop(elsewhere);
+
+        assertThat(signals.isStopped(running)).isTrue();
+        assertThat(signals.isStopped(elsewhere)).isFalse();
+        assertThat(signals.runningJobs()).containsExactly(running);
+    }
+
+    @Test
+    void progressForAJobNotRunningHereIsFlushedThenDropped() {
+        UUID jobId = UUID.randomUUID();
+        signals.progress(jobId, "node-a", 1, 2, null);
+
+        signals.flush();
+        signals.flush();
+
+        verify(jobRepository, times(1)).updateProgress(eq(jobId), eq("node-a"), eq(1), eq(2), isNull(), any(Instant.class));
+        assertThat(signals.isRunning(jobId)).isFalse();
+    }
+}
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.financeos.core.security.UserContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.slf4j.MDC;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
@@ -17,17 +20,17 @@ import static org.mockito.Mockito.*;
 
 class JobWorkerTest {
 
-    private JobRepository jobRepository;
     private JobService jobService;
     private JobHandlerRegistry handlerRegistry;
     private ObjectMapper objectMapper;
+    private JobSignals signals;
 
     @BeforeEach
     void setUp() {
-        jobRepository = mock(JobRepository.class);
         jobService = mock(JobService.class);
         handlerRegistry = mock(JobHandlerRegistry.class);
         objectMapper = new ObjectMapper();
+        signals = new JobSignals(mock(JobRepository.class));
     }
 
     @Test
@@ -37,20 +40,19 @@ class JobWorkerTest {
         job.setType(JobType.PRICE_REFRESH);
         job.setStatus(JobStatus.PENDING);
 
-        when(jobRepository.findByStatusOrderByCreatedAtAsc(eq(JobStatus.PENDING), any()))
-                .thenReturn(List.of(job));
-        when(jobService.claim(job.getId())).thenReturn(true);
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.PRICE_REFRESH));
+        when(jobService.claimBatch(JobType.PRICE_REFRESH, 1)).thenReturn(List.of(job));
 
         Executor rejectingExecutor = command -> {
             throw new RejectedExecutionException("Queue full");
         };
 
         JobWorker worker = new JobWorker(
-                jobRepository,
                 jobService,
                 handlerRegistry,
                 mock(com.financeos.core.observability.ObservabilityMetrics.class),
-                rejectingExecutor,
+                JobLanes.uniform(rejectingExecutor, 1),
+                signals,
                 objectMapper,
                 1
         );
@@ -81,11 +83,11 @@ class JobWorkerTest {
         Executor sameThreadExecutor = Runnable::run;
 
         JobWorker worker = new JobWorker(
-                jobRepository,
                 jobService,
                 handlerRegistry,
                 mock(com.financeos.core.observability.ObservabilityMetrics.class),
-                sameThreadExecutor,
+                JobLanes.uniform(sameThreadExecutor, 2),
+                signals,
                 objectMapper,
                 2
         );
@@ -96,9 +98,8 @@ class JobWorkerTest {
         jobA.setUserId(userIdUserA);
         jobA.setType(JobType.PRICE_REFRESH);
 
-        when(jobRepository.findByStatusOrderByCreatedAtAsc(eq(JobStatus.PENDING), any()))
-                .thenReturn(List.of(jobA));
-        when(jobService.claim(jobIdUserA)).thenReturn(true);
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.PRICE_REFRESH));
+        when(jobService.claimBatch(JobType.PRICE_REFRESH, 2)).thenReturn(List.of(jobA));
 
         worker.poll();
 
@@ -112,9 +113,8 @@ class JobWorkerTest {
         jobB.setUserId(userIdUserB);
         jobB.setType(JobType.GMAIL_SYNC);
 
-        when(jobRepository.findByStatusOrderByCreatedAtAsc(eq(JobStatus.PENDING), any()))
-                .thenReturn(List.of(jobB));
-        when(jobService.claim(jobIdUserB)).thenReturn(true);
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.GMAIL_SYNC));
+        when(jobService.claimBatch(JobType.GMAIL_SYNC, 2)).thenReturn(List.of(jobB));
 
         worker.poll();
 
@@ -124,4 +124,145 @@ class JobWorkerTest {
 
         verify(jobService, times(1)).fail(eq(jobIdUserB), eq("RuntimeException"), contains("Simulated Failure"));
     }
+
+    @Test
+    void heartbeat_renewsLeasesOfRunningJobsOnly() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        Job job = new Job();
+        job.setId(jobId);
+        job.setType(JobType.PRICE_REFRESH);
+
+        List<Runnable> queued = new ArrayList<>();
+        JobWorker worker = new JobWorker(
+                jobService,
+                handlerRegistry,
+                mock(com.financeos.core.observability.ObservabilityMetrics.class),
+                JobLanes.uniform(queued::add, 2),
+                signals,
+                objectMapper,
+                2
+        );
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.PRICE_REFRESH));
+        when(jobService.claimBatch(JobType.PRICE_REFRESH, 2)).thenReturn(List.of(job));
+        when(jobService.renewLeases(any())).thenReturn(Set.of(jobId));
+        when(handlerRegistry.get(JobType.PRICE_REFRESH)).thenReturn(mock(JobHandler.class));
+
+        worker.heartbeat();
+        verify(jobService, never()).renewLeases(any());
+
+        worker.poll();
+        worker.heartbeat();
+        verify(jobService, times(1)).renewLeases(Set.of(jobId));
+
+        queued.forEach(Runnable::run);
+        worker.heartbeat();
+        verify(jobService, times(1)).renewLeases(any());
+    }
+
+    @Test
+    void runJob_writesBufferedProgressBeforeTheTerminalTransition() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        Job job = new Job();
+        job.setId(jobId);
+        job.setType(JobType.PRICE_REFRESH);
+
+        JobRepository jobRepository = mock(JobRepository.class);
+        JobSignals flushingSignals = new JobSignals(jobRepository);
+        JobHandler handler = mock(JobHandler.class);
+        when(handler.execute(any())).thenAnswer(inv -> {
+            flushingSignals.progress(jobId, "node-a", 10, 10, "done");
+            return null;
+        });
+        List<Runnable> queued = new ArrayList<>();
+        JobWorker worker = new JobWorker(
+                jobService,
+                handlerRegistry,
+                mock(com.financeos.core.observability.ObservabilityMetrics.class),
+                JobLanes.uniform(queued::add, 1),
+                flushingSignals,
+                objectMapper,
+                1
+        );
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.PRICE_REFRESH));
+        when(jobService.claimBatch(JobType.PRICE_REFRESH, 1)).thenReturn(List.of(job));
+        when(handlerRegistry.get(JobType.PRICE_REFRESH)).thenReturn(handler);
+
+        worker.poll();
+        queued.forEach(Runnable::run);
+
+        // updateProgress only lands on a RUNNING job, so it must precede succeed.
+        InOrder order = inOrder(jobRepository, jobService);
+        order.verify(jobRepository).updateProgress(eq(jobId), eq("node-a"), eq(10), eq(10), eq("done"), any());
+        order.verify(jobService).succeed(eq(jobId), any());
+    }
+
+    @Test
+    void pollStopSignals_deliversStopsRecordedByOtherNodesToRunningJobs() {
+        UUID jobId = UUID.randomUUID();
+        Job job = new Job();
+        job.setId(jobId);
+        job.setType(JobType.PRICE_REFRESH);
+
+        List<Runnable> queued = new ArrayList<>();
+        JobWorker worker = new JobWorker(
+                jobService,
+                handlerRegistry,
+                mock(com.financeos.core.observability.ObservabilityMetrics.class),
+                JobLanes.uniform(queued::add, 1),
+                signals,
+                objectMapper,
+                1
+        );
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.PRICE_REFRESH));
+        when(jobService.claimBatch(JobType.PRICE_REFRESH, 1)).thenReturn(List.of(job));
+        when(jobService.findStopRequested(Set.of(jobId))).thenReturn(Set.of(jobId));
+
+        worker.poll();
+        assertThat(signals.isStopped(jobId)).isFalse();
+
+        worker.pollStopSignals();
+        assertThat(signals.isStopped(jobId)).isTrue();
+    }
+
+    @Test
+    void poll_fillsFreeSlotsByLanePriorityWithinLaneCaps() {
+        List<Runnable> queued = new ArrayList<>();
+        Executor queueing = queued::add;
+        JobLanes lanes = new JobLanes(List.of(
+                new JobLanes.Lane(JobType.STATEMENT_INGEST, 2, 3, queueing),
+                new JobLanes.Lane(JobType.RULE_APPLY, 1, 0, queueing),
+                new JobLanes.Lane(JobType.PRICE_REFRESH, 1, 1, queueing)), queueing);
+        JobWorker worker = new JobWorker(
+                jobService,
+                handlerRegistry,
+                mock(com.financeos.core.observability.ObservabilityMetrics.class),
+                lanes,
+                signals,
+                objectMapper,
+                2
+        );
+        when(jobService.pendingTypes()).thenReturn(Set.of(JobType.STATEMENT_INGEST, JobType.RULE_APPLY));
+        when(jobService.claimBatch(JobType.RULE_APPLY, 1)).thenReturn(List.of(jobOf(JobType.RULE_APPLY)));
+        when(jobService.claimBatch(JobType.STATEMENT_INGEST, 1)).thenReturn(List.of(jobOf(JobType.STATEMENT_INGEST)));
+
+        worker.poll();
+
+        var order = inOrder(jobService);
+        order.verify(jobService).claimBatch(JobType.RULE_APPLY, 1);
+        order.verify(jobService).claimBatch(JobType.STATEMENT_INGEST, 1);
+        verify(jobService, never()).claimBatch(eq(JobType.PRICE_REFRESH), anyInt());
+        assertThat(worker.getInFlightCount()).isEqualTo(2);
+        assertThat(lanes.lane(JobType.RULE_APPLY).freeSlots()).isZero();
+
+        // Node-wide cap reached: nothing more is claimed until a job finishes.
+        worker.poll();
+        verify(jobService, times(1)).claimBatch(JobType.RULE_APPLY, 1);
+    }
+
+    private static Job jobOf(JobType type) {
+        Job job = new Job();
+        job.setId(UUID.randomUUID());
+        job.setType(type);
+        return job;
+    }
 }
@@ -0,0 +1,72 @@
+package com.financeos.domain.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalArtifactStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static InputStream content(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long blobCount() throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void put_storesContentUnderItsSha256AndDeduplicates() throws Exception {
+        LocalArtifactStore store = new LocalArtifactStore(dir.toString());
+
+        ArtifactStore.StoredBlob first = store.put(content("PDF content"));
+        ArtifactStore.StoredBlob second = store.put(content("PDF content"));
+
+        assertThat(first.sha256()).isEqualTo("7e7f04c8b5646f7ad29b1cb0c8085d4ff9c6b08f2a632f496641b31f524c7b98");
+        assertThat(second).isEqualTo(first);
+        assertThat(first.sizeBytes()).isEqualTo(11);
+        assertThat(blobCount()).isEqualTo(1);
+        try (InputStream in = Channels.newInputStream(store.open(first.sha256()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("PDF content");
+        }
+        ByteBuffer mapped = store.map(first.sha256());
+        assertThat(mapped.remaining()).isEqualTo(11);
+    }
+
+    @Test
+    void open_rejectsKeysThatAreNotADigest() {
+        LocalArtifactStore store = new LocalArtifactStore(dir.toString());
+
+        assertThatThrownBy(() -> store.open("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sweep_deletesOnlyUnreferencedBlobsOlderThanTheCutoff() throws Exception {
+        LocalArtifactStore store = new LocalArtifactStore(dir.toString());
+        String kept = store.put(content("referenced")).sha256();
+        String orphan = store.put(content("orphan")).sha256();
+
+        assertThat(store.sweep(Set.of(kept), Instant.now().minusSeconds(3600))).isZero();
+        assertThat(store.sweep(Set.of(kept), Instant.now().plusSeconds(1))).isEqualTo(1);
+
+        assertThat(Files.exists(dir.resolve(kept.substring(0, 2)).resolve(kept))).isTrue();
+        assertThat(Files.exists(dir.resolve(orphan.substring(0, 2)).resolve(orphan))).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.financeos.domain.job.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeos.domain.categorization.CategoryRule;
+import com.financeos.domain.categorization.CategoryRuleRepository;
+import com.financeos.domain.categorization.RuleMatchService;
+import com.financeos.domain.job.JobCancelledException;
+import com.financeos.domain.job.JobExecutionContext;
+import com.financeos.domain.job.JobService;
+import com.financeos.domain.user.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RuleApplyJobHandlerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_stopsWhenTheCheckpointIsFencedOff() throws Exception {
+        CategoryRuleRepository ruleRepository = mock(CategoryRuleRepository.class);
+        RuleMatchService ruleMatchService = mock(RuleMatchService.class);
+        JobService jobService = mock(JobService.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        CategoryRule rule = new CategoryRule();
+        rule.setId(UUID.randomUUID());
+        rule.setUser(user);
+        when(ruleRepository.findWithCategoriesById(rule.getId())).thenReturn(Optional.of(rule));
+        when(ruleMatchService.countApplyCandidates(user.getId())).thenReturn(10L);
+        when(ruleMatchService.applyNextChunk(eq(rule.getId()), any(), anyInt(), any())).thenAnswer(inv -> {
+            RuleMatchService.ApplyCursor next = new RuleMatchService.ApplyCursor(UUID.randomUUID(), 2, 1, false);
+            ((Consumer<RuleMatchService.ApplyCursor>) inv.getArgument(3)).accept(next);
+            return next;
+        });
+        // Another node took the lease: the checkpoint write matches no row
+        when(jobService.saveCheckpoint(any(), anyString())).thenReturn(false);
+
+        UUID jobId = UUID.randomUUID();
+        String payload = objectMapper.writeValueAsString(new RuleApplyPayload(rule.getId(), true, null));
+        JobExecutionContext ctx = new JobExecutionContext(jobId, user.getId(), payload, jobService, objectMapper);
+
+        assertThatThrownBy(() -> new RuleApplyJobHandler(ruleRepository, ruleMatchService, 2).execute(ctx))
+                .isInstanceOf(JobCancelledException.class);
+        verify(ruleMatchService, times(1)).applyNextChunk(eq(rule.getId()), any(), anyInt(), any());
+    }
+}
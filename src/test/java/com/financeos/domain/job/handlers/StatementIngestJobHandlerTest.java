@@ -3,11 +3,14 @@ package com.financeos.domain.job.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.financeos.domain.ingestion.FileIngestionResult;
 import com.financeos.domain.ingestion.FileIngestionService;
+import com.financeos.domain.ingestion.UploadedFile;
+import com.financeos.domain.job.Job;
 import com.financeos.domain.job.JobArtifact;
 import com.financeos.domain.job.JobExecutionContext;
 import com.financeos.domain.job.JobService;
 import com.financeos.domain.job.JobType;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.List;
 import java.util.UUID;
@@ -20,6 +23,7 @@ import static org.mockito.Mockito.*;
 class StatementIngestJobHandlerTest {
 
     @Test
+    @SuppressWarnings("unchecked")
     void execute_mapsArtifactsToUploadedFilesAndInvokesIngestionService() throws Exception {
         FileIngestionService ingestionService = mock(FileIngestionService.class);
         JobService jobService = mock(JobService.class);
@@ -37,12 +41,13 @@ class StatementIngestJobHandlerTest {
         artifact.setJobId(jobId);
         artifact.setFilename("statement.pdf");
         artifact.setContentType("application/pdf");
-        artifact.setData("PDF content".getBytes());
+        artifact.setSha256("ab".repeat(32));
         artifact.setSizeBytes((long) "PDF content".getBytes().length);
 
         when(jobService.getArtifacts(jobId)).thenReturn(List.of(artifact));
+        when(jobService.readArtifact(artifact)).thenReturn("PDF content".getBytes());
         FileIngestionResult expectedResult = new FileIngestionResult(1, 10, 0, List.of());
-        when(ingestionService.ingest(eq(accountId), anyList(), any(JobExecutionContext.class))).thenReturn(expectedResult);
+        when(ingestionService.ingest(eq(accountId), anyList(), any(JobExecutionContext.class), eq(true))).thenReturn(expectedResult);
 
         JobExecutionContext ctx = new JobExecutionContext(jobId, userId, payloadJson, jobService, objectMapper);
         Object result = handler.execute(ctx);
@@ -50,6 +55,58 @@ class StatementIngestJobHandlerTest {
         assertThat(result).isEqualTo(expectedResult);
         assertThat(handler.type()).isEqualTo(JobType.STATEMENT_INGEST);
 
-        verify(ingestionService, times(1)).ingest(eq(accountId), anyList(), any(JobExecutionContext.class));
+        ArgumentCaptor<List<UploadedFile>> files = ArgumentCaptor.forClass(List.class);
+        verify(ingestionService, times(1)).ingest(eq(accountId), files.capture(), any(JobExecutionContext.class), eq(true));
+        // Content is only read from the store when ingestion asks for it.
+        verify(jobService, never()).readArtifact(any());
+        assertThat(files.getValue().get(0).bytes()).isEqualTo("PDF content".getBytes());
+    }
+
+    @Test
+    void execute_fansOutOneSubJobPerFile_thenCategorizesAndMergesTheirResults() throws Exception {
+        FileIngestionService ingestionService = mock(FileIngestionService.class);
+        JobService jobService = mock(JobService.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        StatementIngestJobHandler handler = new StatementIngestJobHandler(ingestionService);
+
+        UUID jobId = UUID.randomUUID();
+        StatementIngestPayload payload = new StatementIngestPayload(UUID.randomUUID());
+        JobArtifact first = new JobArtifact();
+        first.setFilename("jan.pdf");
+        JobArtifact second = new JobArtifact();
+        second.setFilename("feb.pdf");
+        when(jobService.getArtifacts(jobId)).thenReturn(List.of(first, second));
+
+        JobExecutionContext ctx = new JobExecutionContext(jobId, UUID.randomUUID(),
+                objectMapper.writeValueAsString(payload), jobService, objectMapper);
+        assertThat(handler.execute(ctx)).isNull();
+
+        assertThat(ctx.hasSpawned()).isTrue();
+        // Sub-jobs store their files uncategorized; categorization waits for all of them
+        StatementIngestPayload childPayload = new StatementIngestPayload(payload.accountId(), true);
+        verify(jobService).spawnChild(jobId, JobType.STATEMENT_INGEST, childPayload, List.of(first));
+        verify(jobService).spawnChild(jobId, JobType.STATEMENT_INGEST, childPayload, List.of(second));
+        verifyNoInteractions(ingestionService);
+
+        UUID janStatement = UUID.randomUUID();
+        UUID febStatement = UUID.randomUUID();
+        Job janChild = new Job();
+        janChild.setResult(objectMapper.writeValueAsString(new FileIngestionResult(1, 10, 1,
+                List.of(new FileIngestionResult.FileSummary("jan.pdf", "SUCCESS", 10, null, janStatement)))));
+        Job febChild = new Job();
+        febChild.setResult(objectMapper.writeValueAsString(new FileIngestionResult(1, 4, 0,
+                List.of(new FileIngestionResult.FileSummary("feb.pdf", "SUCCESS", 4, null, febStatement),
+                        new FileIngestionResult.FileSummary("mar.pdf", "FAILED", 0, "File is empty")))));
+        when(jobService.getChildren(jobId)).thenReturn(List.of(janChild, febChild));
+
+        FileIngestionResult merged = (FileIngestionResult) handler.execute(
+                new JobExecutionContext(jobId, UUID.randomUUID(), objectMapper.writeValueAsString(payload), jobService, objectMapper));
+
+        assertThat(merged.filesProcessed()).isEqualTo(2);
+        assertThat(merged.totalCreated()).isEqualTo(14);
+        assertThat(merged.totalDuplicatesFound()).isEqualTo(1);
+        assertThat(merged.fileDetails()).extracting(FileIngestionResult.FileSummary::filename)
+                .containsExactly("jan.pdf", "feb.pdf", "mar.pdf");
+        verify(ingestionService).categorizeStatements(List.of(janStatement, febStatement));
     }
 }
@@ -12,7 +12,8 @@ import com.financeos.domain.instrument.InstrumentPrice;
 import com.financeos.domain.instrument.InstrumentPriceRepository;
 import com.financeos.domain.instrument.InstrumentType;
 import com.financeos.domain.investment.InvestmentService;
-import com.financeos.domain.investment.InvestmentService.Lot;
+import com.financeos.domain.holding.HoldingValueSeriesCache;
+import com.financeos.domain.investment.InvestmentService.OpenLotTotals;
 import com.financeos.domain.investment.InvestmentTransaction;
 import com.financeos.domain.investment.InvestmentTransactionRepository;
 import com.financeos.domain.investment.InvestmentTransactionType;
@@ -23,6 +24,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 class PortfolioValueDatasourceTest {
@@ -31,6 +33,7 @@ class PortfolioValueDatasourceTest {
     private InvestmentTransactionRepository transactionRepository;
     private InstrumentPriceRepository priceRepository;
     private InvestmentService investmentService;
+    private HoldingValueSeriesCache seriesCache;
     private PortfolioValueDatasource datasource;
 
     private Holding holding;
@@ -42,13 +45,15 @@ class PortfolioValueDatasourceTest {
         transactionRepository = mock(InvestmentTransactionRepository.class);
         priceRepository = mock(InstrumentPriceRepository.class);
         investmentService = mock(InvestmentService.class);
+        seriesCache = new HoldingValueSeriesCache(100);
 
         datasource = new PortfolioValueDatasource(
                 holdingRepository,
                 transactionRepository,
                 priceRepository,
                 mock(com.financeos.domain.instrument.corporateaction.CorporateActionRepository.class),
-                investmentService
+                investmentService,
+                seriesCache
         );
 
         Account account = new Account();
@@ -86,15 +91,7 @@ class PortfolioValueDatasourceTest {
                 .thenReturn(List.of(txn));
 
         // Stub open lots at month end Jan 31: 10 qty @ 2000 cost
-        when(investmentService.seedLotsFor(holding)).thenReturn(List.of());
-        when(investmentService.buildOpenLotsBeforeDate(eq(holding), any(LocalDate.class), eq(false), any(), any(), any(), any()))
-                .thenAnswer(inv -> {
-                    LocalDate date = inv.getArgument(1);
-                    if (date.isBefore(LocalDate.of(2026, 1, 15))) {
-                        return List.of();
-                    }
-                    return List.of(new Lot(new BigDecimal("10"), new BigDecimal("2000")));
-                });
+        stubOpenLots();
 
         // Price stored on Jan 20 @ 2500 -> carry-forward to Jan 31
         InstrumentPrice p1 = new InstrumentPrice();
@@ -130,15 +127,7 @@ class PortfolioValueDatasourceTest {
         when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId()))
                 .thenReturn(List.of(txn));
 
-        when(investmentService.seedLotsFor(holding)).thenReturn(List.of());
-        when(investmentService.buildOpenLotsBeforeDate(eq(holding), any(LocalDate.class), eq(false), any(), any(), any(), any()))
-                .thenAnswer(inv -> {
-                    LocalDate date = inv.getArgument(1);
-                    if (date.isBefore(LocalDate.of(2026, 1, 15))) {
-                        return List.of();
-                    }
-                    return List.of(new Lot(new BigDecimal("10"), new BigDecimal("2000")));
-                });
+        stubOpenLots();
 
         // No stored price history
         when(priceRepository.findByInstrumentIdInOrderByAsOfAsc(anyList()))
@@ -154,4 +143,73 @@ class PortfolioValueDatasourceTest {
         // Fallback to cost basis: 10 * 2000 = 20000.00
         assertEquals(new BigDecimal("20000.00"), janRow.get("value"));
     }
+
+    @Test
+    void cachedSeriesIsReusedUntilInstrumentInputsChange() {
+        InvestmentTransaction txn = new InvestmentTransaction();
+        txn.setTradeDate(LocalDate.of(2026, 1, 15));
+        txn.setQuantity(new BigDecimal("10"));
+        txn.setPrice(new BigDecimal("2000"));
+
+        when(holdingRepository.findAllWithDetails()).thenReturn(List.of(holding));
+        when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId()))
+                .thenReturn(List.of(txn));
+        stubOpenLots();
+        when(priceRepository.findByInstrumentIdInOrderByAsOfAsc(anyList())).thenReturn(List.of());
+
+        List<Map<String, Object>> first = datasource.rows();
+        List<Map<String, Object>> second = datasource.rows();
+
+        assertEquals(first, second);
+        verify(transactionRepository, times(1)).findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
+        verify(investmentService, times(1)).openLotTotalsAsOf(eq(holding), anyList(), any(), any(), any());
+
+        // An unrelated instrument leaves the entry alone; the holding's own instrument evicts it.
+        seriesCache.evictInstruments(Set.of(UUID.randomUUID()));
+        datasource.rows();
+        verify(transactionRepository, times(1)).findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
+
+        seriesCache.evictInstruments(Set.of(instrument.getId()));
+        datasource.rows();
+        verify(transactionRepository, times(2)).findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
+    }
+
+    @Test
+    void seriesComputedAcrossAnEvictionIsNotCached() {
+        InvestmentTransaction txn = new InvestmentTransaction();
+        txn.setTradeDate(LocalDate.of(2026, 1, 15));
+        txn.setQuantity(new BigDecimal("10"));
+        txn.setPrice(new BigDecimal("2000"));
+
+        when(holdingRepository.findAllWithDetails()).thenReturn(List.of(holding));
+        // The holding's inputs change (and their commit evicts) while the first report is reading them.
+        when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId()))
+                .thenAnswer(inv -> {
+                    seriesCache.evictInstruments(Set.of(instrument.getId()));
+                    return List.of(txn);
+                })
+                .thenReturn(List.of(txn));
+        stubOpenLots();
+        when(priceRepository.findByInstrumentIdInOrderByAsOfAsc(anyList())).thenReturn(List.of());
+
+        datasource.rows();
+        datasource.rows();
+        datasource.rows();
+
+        verify(transactionRepository, times(2)).findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId());
+    }
+
+    /** 10 qty @ 2000 cost from Jan 15 2026 onwards, answered per requested valuation date. */
+    private void stubOpenLots() {
+        when(investmentService.seedLotsFor(holding)).thenReturn(List.of());
+        when(investmentService.openLotTotalsAsOf(eq(holding), anyList(), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    List<LocalDate> dates = inv.getArgument(1);
+                    return dates.stream()
+                            .map(d -> d.isBefore(LocalDate.of(2026, 1, 15))
+                                    ? new OpenLotTotals(d, BigDecimal.ZERO, BigDecimal.ZERO)
+                                    : new OpenLotTotals(d, new BigDecimal("10"), new BigDecimal("20000")))
+                            .toList();
+                });
+    }
 }
@@ -54,7 +54,13 @@ class RealizedLotsParityTest {
                 mock(com.financeos.domain.investment.dividend.DividendRepository.class),
                 mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
                 mock(org.springframework.context.ApplicationEventPublisher.class),
-                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class)
+                mock(com.financeos.domain.investment.fno.FnoTradeRepository.class),
+                new com.financeos.domain.investment.PortfolioSnapshotLoader(holdingRepository, transactionRepository, corporateActionRepository,
+                        mock(com.financeos.domain.investment.TradeSettlementClassificationRepository.class),
+                        mock(com.financeos.domain.investment.dividend.DividendRepository.class),
+                        priceRepository),
+                Runnable::run,
+                mock(com.financeos.domain.investment.projection.HoldingPositionStore.class)
         );
 
         datasource = new RealizedLotsDatasource(investmentService);
@@ -103,8 +109,12 @@ class RealizedLotsParityTest {
         when(holdingRepository.findAllWithDetails()).thenReturn(List.of(holding));
         when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId()))
                 .thenReturn(List.of(buy1, buy2, sell1));
+        when(transactionRepository.findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection()))
+                .thenReturn(List.of(buy1, buy2, sell1));
         when(corporateActionRepository.findByInstrumentIdOrderByExDateAsc(holding.getInstrument().getId()))
                 .thenReturn(List.of());
+        when(corporateActionRepository.findByInstrumentIdInOrderByExDateAsc(anyCollection()))
+                .thenReturn(List.of());
 
         HoldingPosition pos = investmentService.calculateHoldingPosition(holding);
         List<RealizedLot> lots = investmentService.getAllRealizedLots();
@@ -152,8 +162,12 @@ class RealizedLotsParityTest {
         when(holdingRepository.findAllWithDetails()).thenReturn(List.of(holding));
         when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId()))
                 .thenReturn(List.of(buy, sell));
+        when(transactionRepository.findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection()))
+                .thenReturn(List.of(buy, sell));
         when(corporateActionRepository.findByInstrumentIdOrderByExDateAsc(holding.getInstrument().getId()))
                 .thenReturn(List.of(split));
+        when(corporateActionRepository.findByInstrumentIdInOrderByExDateAsc(anyCollection()))
+                .thenReturn(List.of(split));
 
         HoldingPosition pos = investmentService.calculateHoldingPosition(holding);
         List<RealizedLot> lots = investmentService.getAllRealizedLots();
@@ -198,6 +212,8 @@ class RealizedLotsParityTest {
         when(holdingRepository.findAllWithDetails()).thenReturn(List.of(holding));
         when(transactionRepository.findByHoldingIdOrderByTradeDateAscCreatedAtAsc(holding.getId()))
                 .thenReturn(List.of(buy, sellShort, sellLong));
+        when(transactionRepository.findByHoldingIdInOrderByTradeDateAscCreatedAtAsc(anyCollection()))
+                .thenReturn(List.of(buy, sellShort, sellLong));
 
         List<RealizedLot> lots = investmentService.getAllRealizedLots();
         assertEquals(2, lots.size());
@@ -0,0 +1,208 @@
+package com.financeos.domain.report.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.financeos.domain.report.datasource.Aggregation;
+import com.financeos.domain.report.datasource.ComputedReportDatasource;
+import com.financeos.domain.report.datasource.DatasourceCatalog.FieldDef;
+import com.financeos.domain.report.datasource.FieldRole;
+import com.financeos.domain.report.datasource.FieldType;
+import com.financeos.domain.report.definition.AggregatedTableDefinition;
+import com.financeos.domain.report.definition.ChartDefinition;
+import com.financeos.domain.report.definition.ChartType;
+import com.financeos.domain.report.definition.DimensionRef;
+import com.financeos.domain.report.definition.FilterClause;
+import com.financeos.domain.report.definition.Granularity;
+import com.financeos.domain.report.definition.KpiDefinition;
+import com.financeos.domain.report.definition.MeasureRef;
+import com.financeos.domain.report.definition.RawTableDefinition;
+import com.financeos.domain.report.definition.SortClause;
+import com.financeos.domain.report.definition.SortDirection;
+import com.financeos.domain.report.definition.TableMode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ReportFrameTest {
+
+    private static final List<FieldDef> FIELDS = List.of(
+            new FieldDef("broker", "Broker", FieldType.ENUM, FieldRole.DIMENSION, null, null, true, List.of()),
+            new FieldDef("valueDate", "Value Date", FieldType.DATE, FieldRole.DIMENSION, null, null, null, List.of()),
+            new FieldDef("value", "Value", FieldType.NUMBER, FieldRole.MEASURE, List.of(Aggregation.SUM), null, null, List.of(), "currency"),
+            new FieldDef("isOpen", "Open", FieldType.BOOLEAN, FieldRole.FILTER, null, null, null, List.of()));
+
+    @Test
+    void fromRowsEncodesByFieldTypeAndRoundTrips() {
+        Map<String, Object> withNulls = new HashMap<>();
+        withNulls.put("id", "b");
+        withNulls.put("broker", null);
+        List<Map<String, Object>> rows = List.of(
+                Map.of("id", "a", "broker", "Zerodha", "valueDate", LocalDate.of(2026, 1, 31),
+                        "value", new BigDecimal("10.5"), "isOpen", true),
+                withNulls);
+
+        ReportFrame frame = ReportFrame.fromRows(FIELDS, rows);
+
+        assertEquals(2, frame.rowCount());
+        assertInstanceOf(ReportFrame.DictionaryColumn.class, frame.column("broker"));
+        assertInstanceOf(ReportFrame.DateColumn.class, frame.column("valueDate"));
+        assertInstanceOf(ReportFrame.BooleanColumn.class, frame.column("isOpen"));
+        ReportFrame.DecimalColumn value = (ReportFrame.DecimalColumn) frame.column("value");
+        assertEquals(1, value.scale());
+        // Keys outside the catalog (e.g. id) are carried as dictionary columns.
+        assertInstanceOf(ReportFrame.DictionaryColumn.class, frame.column("id"));
+
+        Map<String, Object> first = frame.row(0);
+        assertEquals("Zerodha", first.get("broker"));
+        assertEquals(LocalDate.of(2026, 1, 31), first.get("valueDate"));
+        assertEquals(new BigDecimal("10.5"), first.get("value"));
+        assertEquals(Boolean.TRUE, first.get("isOpen"));
+        // Null cells stay in the row as null values, like the source row maps carried them.
+        Map<String, Object> second = frame.toRows().get(1);
+        assertEquals("b", second.get("id"));
+        assertEquals(first.keySet(), second.keySet());
+        assertNull(second.get("broker"));
+        assertNull(second.get("value"));
+    }
+
+    @Test
+    void inferredNumberColumnsKeepEveryDigit() {
+        BigDecimal fine = new BigDecimal("0.333333333333333333");
+        List<Map<String, Object>> rows = List.of(
+                Map.of("id", "a", "value", fine),
+                Map.of("id", "b", "value", new BigDecimal("12.5")));
+
+        ReportFrame frame = ReportFrame.fromRows(FIELDS, rows);
+
+        assertEquals(0, fine.compareTo((BigDecimal) frame.row(0).get("value")));
+        assertEquals(0, new BigDecimal("12.5").compareTo((BigDecimal) frame.row(1).get("value")));
+        ReportFrame.DecimalColumn fromText = ReportFrame.asDecimal(
+                ReportFrame.fromRows(FIELDS, List.of(Map.of("id", "0.123456789012"))).column("id"), 1);
+        assertEquals(new BigDecimal("0.123456789012"), fromText.value(0));
+    }
+
+    @Test
+    void builderRejectsRaggedColumns() {
+        ReportFrame.Builder b = ReportFrame.builder();
+        b.dictionaryColumn("broker").add("A").add("B");
+        b.decimalColumn("value", 2).add(BigDecimal.ONE);
+
+        assertThrows(IllegalStateException.class, b::build);
+    }
+
+    @Test
+    void decimalColumnRoundsToScale() {
+        ReportFrame.Builder b = ReportFrame.builder();
+        b.decimalColumn("value", 2).add(new BigDecimal("1.005")).addUnscaled(250).add(null);
+        ReportFrame frame = b.build();
+
+        assertEquals(new BigDecimal("1.01"), frame.column("value").value(0));
+        assertEquals(new BigDecimal("2.50"), frame.column("value").value(1));
+        assertTrue(frame.column("value").isNull(2));
+    }
+
+    @Test
+    void decimalColumnFallsBackToBigDecimalWhenAValueOverflowsLong() {
+        BigDecimal huge = new BigDecimal("123456789012345678901234.5");
+        ReportFrame.Builder b = ReportFrame.builder();
+        b.decimalColumn("value", 2).add(new BigDecimal("1.5")).add(null).add(huge).addUnscaled(250);
+        ReportFrame.DecimalColumn value = (ReportFrame.DecimalColumn) b.build().column("value");
+
+        assertNull(value.unscaled());
+        assertEquals(new BigDecimal("1.50"), value.value(0));
+        assertTrue(value.isNull(1));
+        assertEquals(new BigDecimal("123456789012345678901234.50"), value.value(2));
+        assertEquals(new BigDecimal("2.50"), value.value(3));
+
+        FrameDatasource ds = new FrameDatasource(b.build());
+        InMemoryReportExecutor executor = new InMemoryReportExecutor(new DateRangeResolver(4));
+        KpiData sum = executor.execute(new KpiDefinition("value", Aggregation.SUM, List.of(), null), ds, Map.of());
+        assertEquals(new BigDecimal("123456789012345678901238.50"), sum.value());
+        KpiData max = executor.execute(new KpiDefinition("value", Aggregation.MAX,
+                List.of(new FilterClause("value", "less_than", TextNode.valueOf("2"))), null), ds, Map.of());
+        assertEquals(new BigDecimal("1.50"), max.value());
+    }
+
+    @Test
+    void rawTableSortsNumericStringsNumericallyAheadOfText() {
+        ReportFrame.Builder b = ReportFrame.builder();
+        b.dictionaryColumn("id").add("a").add("b").add("c").add("d").add("e").add("f");
+        b.dictionaryColumn("broker").add("10").add("Zerodha").add("9").add(null).add("Groww").add("9.0");
+        FrameDatasource ds = new FrameDatasource(b.build());
+        InMemoryReportExecutor executor = new InMemoryReportExecutor(new DateRangeResolver(4));
+
+        TableData table = executor.execute(new RawTableDefinition(TableMode.RAW, List.of("broker"), List.of(),
+                List.of(new SortClause("broker", SortDirection.ASC))), ds, Map.of(), 0, 10);
+
+        // 9 and 9.0 tie and keep their input order
+        assertEquals(List.of("d", "c", "f", "a", "e", "b"),
+                table.rows().stream().map(r -> r.get("id")).toList());
+    }
+
+    @Test
+    void executorAggregatesFrameNativeDatasource() {
+        ReportFrame.Builder b = ReportFrame.builder();
+        ReportFrame.DictionaryColumnBuilder broker = b.dictionaryColumn("broker");
+        ReportFrame.DateColumnBuilder date = b.dateColumn("valueDate");
+        ReportFrame.DecimalColumnBuilder value = b.decimalColumn("value", 2);
+        broker.add("Zerodha").add("Groww").add("Zerodha").add(null);
+        date.add(LocalDate.of(2026, 1, 31)).add(LocalDate.of(2026, 1, 31)).add(LocalDate.of(2026, 2, 28)).add(LocalDate.of(2026, 2, 28));
+        value.add(new BigDecimal("100")).add(new BigDecimal("50")).add(new BigDecimal("120")).add(new BigDecimal("70"));
+        FrameDatasource ds = new FrameDatasource(b.build());
+        InMemoryReportExecutor executor = new InMemoryReportExecutor(new DateRangeResolver(4));
+
+        KpiData kpi = executor.execute(new KpiDefinition("value", Aggregation.SUM,
+                List.of(new FilterClause("broker", "in", JsonNodeFactory.instance.arrayNode().add("zerodha"))), null), ds, Map.of());
+        assertEquals(new BigDecimal("220.00"), kpi.value());
+        assertEquals(2, kpi.meta().rowCount());
+
+        ChartData chart = executor.execute(new ChartDefinition(ChartType.LINE,
+                new DimensionRef("valueDate", Granularity.MONTH),
+                new DimensionRef("broker", null),
+                new MeasureRef("value", Aggregation.SUM),
+                List.of()), ds, Map.of());
+        assertEquals(List.of("Jan 26", "Feb 26"), chart.categories());
+        assertEquals("Groww", chart.series().get(0).name());
+        assertEquals(List.of(new BigDecimal("50.00"), BigDecimal.ZERO), chart.series().get(0).data());
+        assertEquals(List.of(new BigDecimal("100.00"), new BigDecimal("120.00")), chart.series().get(1).data());
+
+        PivotTableData pivot = executor.execute(new AggregatedTableDefinition(TableMode.AGGREGATED,
+                List.of(new DimensionRef("broker", null)),
+                List.of(),
+                List.of(new MeasureRef("value", Aggregation.MAX)),
+                List.of(new FilterClause("value", "greater_than", TextNode.valueOf("49.995"))),
+                List.of()), ds, Map.of());
+        assertEquals(List.of("(none)", "Groww", "Zerodha"),
+                pivot.rows().stream().map(PivotTableData.Row::key).toList());
+        assertEquals(new BigDecimal("120.00"), pivot.rows().get(2).cells().get("").get("value_max"));
+    }
+
+    private static final class FrameDatasource implements ComputedReportDatasource {
+        private final ReportFrame frame;
+
+        FrameDatasource(ReportFrame frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public String name() { return "frame"; }
+
+        @Override
+        public String label() { return "Frame"; }
+
+        @Override
+        public List<FieldDef> fields() { return FIELDS; }
+
+        @Override
+        public List<Map<String, Object>> rows() { return frame.toRows(); }
+
+        @Override
+        public ReportFrame frame() { return frame; }
+    }
+}
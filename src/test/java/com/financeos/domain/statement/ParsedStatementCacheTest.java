@@ -0,0 +1,127 @@
+package com.financeos.domain.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.statement.parser.Derived;
+import com.financeos.statement.parser.ParseInfo;
+import com.financeos.statement.parser.ParsedStatement;
+import com.financeos.statement.parser.StatementMeta;
+import com.financeos.statement.parser.StatementParseEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class ParsedStatementCacheTest {
+
+    private final Map<String, ParsedStatementCacheEntry> rows = new HashMap<>();
+    private ParsedStatementCacheRepository repository;
+    private ObservabilityMetrics metrics;
+    private ParsedStatementCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ParsedStatementCacheRepository.class);
+        metrics = mock(ObservabilityMetrics.class);
+        when(repository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<String>getArgument(0))));
+        when(repository.save(any())).thenAnswer(inv -> {
+            ParsedStatementCacheEntry entry = inv.getArgument(0);
+            rows.put(entry.getSha256(), entry);
+            return entry;
+        });
+        cache = new ParsedStatementCache(repository, metrics, 90);
+    }
+
+    private static ParsedStatement statement() {
+        StatementMeta meta = new StatementMeta();
+        meta.bank = "HDFC";
+        meta.accountNumber = "1234567890";
+        meta.periodStart = LocalDate.of(2026, 4, 1);
+        meta.periodEnd = LocalDate.of(2026, 4, 30);
+        meta.openingBalance = 50000.0;
+        ParseInfo info = new ParseInfo();
+        info.mode = "balance-chain";
+        info.checksumOk = true;
+        info.cardChecks = new LinkedHashMap<>(Map.of("payments == sum(credits)", true));
+        LinkedHashMap<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total_amount_due", 12500.5);
+        summary.put("payment_due_date", LocalDate.of(2026, 5, 15));
+        return new ParsedStatement(meta, "credit_card", summary, new Derived(), info, List.of());
+    }
+
+    @Test
+    void servesWhatWasStoredForTheSameBytes() {
+        byte[] bytes = "%PDF-1.4 statement".getBytes(StandardCharsets.UTF_8);
+        String key = ParsedStatementCache.key(bytes, null);
+        assertNull(cache.find(key));
+
+        cache.put(key, statement());
+        ParsedStatement hit = cache.find(ParsedStatementCache.key(bytes.clone(), null));
+
+        assertNotNull(hit);
+        assertEquals("1234567890", hit.meta().accountNumber);
+        assertEquals(LocalDate.of(2026, 4, 30), hit.meta().periodEnd);
+        assertEquals(LocalDate.of(2026, 5, 15), hit.summaryFields().get("payment_due_date"));
+        assertEquals(12500.5, hit.summaryFields().get("total_amount_due"));
+        assertEquals(Boolean.TRUE, hit.parseInfo().cardChecks.get("payments == sum(credits)"));
+        assertEquals(StatementParseEngine.PARSER_VERSION, rows.get(key).getParserVersion());
+        verify(metrics).recordCacheAccess("parsed-statement", true);
+        verify(metrics).recordCacheAccess("parsed-statement", false);
+    }
+
+    @Test
+    void ignoresEntriesFromAnotherParserVersion() {
+        String key = ParsedStatementCache.key(new byte[]{1, 2, 3}, null);
+        cache.put(key, statement());
+        rows.get(key).setParserVersion(StatementParseEngine.PARSER_VERSION - 1);
+
+        assertNull(cache.find(key));
+
+        cache.put(key, statement());
+        assertNotNull(cache.find(key));
+    }
+
+    @Test
+    void passwordIsPartOfTheKey() {
+        byte[] bytes = {1, 2, 3};
+        assertEquals(ParsedStatementCache.key(bytes, null), ParsedStatementCache.key(bytes, null));
+        assertNotEquals(ParsedStatementCache.key(bytes, null), ParsedStatementCache.key(bytes, "secret"));
+        assertNotEquals(ParsedStatementCache.key(bytes, "secret"), ParsedStatementCache.key(bytes, "other"));
+    }
+
+    @Test
+    void unreadablePayloadIsAMiss() {
+        ParsedStatementCacheEntry entry = new ParsedStatementCacheEntry();
+        entry.setSha256("k");
+        entry.setParserVersion(StatementParseEngine.PARSER_VERSION);
+        entry.setPayload(new byte[]{0x1f, (byte) 0x8b, 0, 0});
+        entry.setLastUsedAt(Instant.now());
+        rows.put("k", entry);
+
+        assertNull(cache.find("k"));
+        assertNull(ParsedStatementCache.decode(new byte[0]));
+    }
+
+    @Test
+    void touchesEntriesOnlyOncePerDay() {
+        String key = ParsedStatementCache.key(new byte[]{9}, null);
+        cache.put(key, statement());
+
+        cache.find(key);
+        verify(repository, never()).touch(anyString(), any());
+
+        rows.get(key).setLastUsedAt(Instant.now().minusSeconds(2 * 86400));
+        cache.find(key);
+        verify(repository).touch(eq(key), any());
+    }
+}
@@ -0,0 +1,93 @@
+package com.financeos.domain.transaction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.financeos.domain.account.Account;
+import com.financeos.domain.account.AccountRepository;
+import com.financeos.domain.account.AccountType;
+import com.financeos.domain.user.User;
+import com.financeos.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+@SpringBootTest
+public class RuleMatchCandidatesIntegrationTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setDisplayName("User");
+        user.setEmail("rulematch@test.com");
+        user.setPasswordHash("hash");
+        user = userRepository.save(user);
+
+        account = new Account();
+        account.setName("Account");
+        account.setUser(user);
+        account.setType(AccountType.bank_account);
+        account = accountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private String save(String description) {
+        Transaction txn = new Transaction();
+        txn.setUser(user);
+        txn.setAccount(account);
+        txn.setAmount(BigDecimal.TEN);
+        txn.setDate(LocalDate.parse("2026-07-11"));
+        txn.setReviewType(ReviewType.AUTO_REVIEWED);
+        txn.setSource(TransactionSource.manual);
+        txn.setType(TransactionType.DEBIT);
+        txn.setSourcedDescription(description);
+        transactionRepository.save(txn);
+        return description;
+    }
+
+    private Set<String> candidates(DescriptionPrefilter prefilter) {
+        Set<String> descriptions = new HashSet<>();
+        for (TransactionRepository.RuleMatchCandidate c : transactionRepository.findRuleMatchCandidatesPrefiltered(
+                user.getId(), ReviewType.MANUALLY_REVIEWED, prefilter)) {
+            descriptions.add(c.getSourcedDescription());
+        }
+        return descriptions;
+    }
+
+    @Test
+    void nonAsciiDescriptionsBypassThePrefilter() {
+        // Java upper-cases these to contain STRASSE / FIT; Oracle's UPPER does not
+        save("Hauptstraße 5 Berlin");
+        save("ﬁtness club");
+        save("STRASSE CAFE");
+        save("SWIGGY ORDER");
+
+        assertEquals(Set.of("Hauptstraße 5 Berlin", "ﬁtness club", "STRASSE CAFE"),
+                candidates(DescriptionPrefilter.containsAll(List.of("STRASSE"))));
+        assertEquals(Set.of("Hauptstraße 5 Berlin", "ﬁtness club", "SWIGGY ORDER"),
+                candidates(DescriptionPrefilter.keyEquals("SWIGGY ORDER")));
+    }
+}
@@ -0,0 +1,139 @@
+package com.financeos.gmail.engine;
+
+import com.financeos.gmail.client.GmailApiClient;
+import com.financeos.gmail.domain.GmailConnection;
+import com.financeos.gmail.history.SyncStateService;
+import com.financeos.gmail.internal.FetchMode;
+import com.financeos.gmail.internal.GmailFetchRequest;
+import com.financeos.gmail.internal.GmailFetchResult;
+import com.financeos.gmail.internal.GmailMessage;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.gmail.Gmail;
+import com.google.api.services.gmail.model.ListMessagesResponse;
+import com.google.api.services.gmail.model.Message;
+import com.google.api.services.gmail.model.MessagePart;
+import com.google.api.services.gmail.model.MessagePartHeader;
+import com.google.api.services.gmail.model.Profile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GmailEngineTest {
+
+    private GmailApiClient apiClient;
+    private Gmail service;
+    private GmailConnection connection;
+    private GmailEngine engine;
+    private final List<List<String>> metadataCalls = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        apiClient = mock(GmailApiClient.class);
+        service = mock(Gmail.class);
+        when(apiClient.createGmailService("token")).thenReturn(service);
+        when(apiClient.getProfile(service)).thenReturn(new Profile().setHistoryId(BigInteger.valueOf(42)));
+        when(apiClient.listMessages(eq(service), anyString(), isNull(), anyLong())).thenReturn(new ListMessagesResponse()
+                .setMessages(List.of(new Message().setId("a"), new Message().setId("b"), new Message().setId("c"))));
+        when(apiClient.getMessage(eq(service), anyString()))
+                .thenAnswer(inv -> message(inv.getArgument(1), "alerts@bank.com"));
+
+        connection = new GmailConnection();
+        connection.setId(UUID.randomUUID());
+        connection.setEncryptedRefreshToken("token");
+
+        GmailFetchProperties properties = new GmailFetchProperties();
+        properties.setConcurrency(2);
+        properties.setBackoffBaseMs(1);
+        properties.setBackoffMaxMs(2);
+        engine = new GmailEngine(apiClient, mock(SyncStateService.class), properties);
+    }
+
+    private static Message message(String id, String from) {
+        return new Message().setId(id).setInternalDate(1_700_000_000_000L).setPayload(new MessagePart()
+                .setHeaders(List.of(new MessagePartHeader().setName("From").setValue(from))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void answerMetadata(String failId, GoogleJsonError failure) throws IOException {
+        doAnswer(inv -> {
+            List<String> ids = List.copyOf(inv.getArgument(1));
+            BiConsumer<String, Message> onMessage = inv.getArgument(4);
+            BiConsumer<String, GoogleJsonError> onError = inv.getArgument(5);
+            boolean firstCall = metadataCalls.isEmpty();
+            metadataCalls.add(ids);
+            for (String id : ids) {
+                if (firstCall && id.equals(failId)) {
+                    onError.accept(id, failure);
+                } else {
+                    onMessage.accept(id, message(id, id.equals("b") ? "promo@shop.com" : "alerts@bank.com"));
+                }
+            }
+            return null;
+        }).when(apiClient).getMessageMetadata(eq(service), anyList(), anyList(), anyInt(), any(), any());
+    }
+
+    private GmailFetchRequest bankOnly() {
+        return new GmailFetchRequest(FetchMode.MANUAL, null, 100, "from:bank.com",
+                headers -> headers.stream().filter(header -> header.from().endsWith("@bank.com")).toList());
+    }
+
+    @Test
+    void downloadsOnlyMessagesTheHeaderFilterKeeps() throws IOException {
+        answerMetadata(null, null);
+
+        GmailFetchResult result = engine.fetch(connection, bankOnly());
+
+        assertEquals(List.of("a", "c"), result.messages().stream().map(GmailMessage::messageId).toList());
+        assertEquals(1, result.filteredOut());
+        assertEquals("42", result.nextState().historyId());
+        verify(apiClient).getMessage(service, "a");
+        verify(apiClient).getMessage(service, "c");
+        verify(apiClient, never()).getMessage(service, "b");
+    }
+
+    @Test
+    void retriesRateLimitedMetadataItemsOnly() throws IOException {
+        GoogleJsonError rateLimited = new GoogleJsonError();
+        rateLimited.setCode(429);
+        answerMetadata("c", rateLimited);
+
+        GmailFetchResult result = engine.fetch(connection, bankOnly());
+
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("c")), metadataCalls);
+        assertEquals(List.of("a", "c"), result.messages().stream().map(GmailMessage::messageId).toList());
+    }
+
+    @Test
+    void withoutFilterEveryListedMessageIsDownloadedAndDeletedOnesDropped() throws IOException {
+        when(apiClient.getMessage(service, "b")).thenThrow(new GoogleJsonResponseException(
+                new HttpResponseException.Builder(404, "Not Found", new HttpHeaders()), null));
+
+        GmailFetchResult result = engine.fetch(connection, new GmailFetchRequest(FetchMode.MANUAL, null, 100, "q"));
+
+        assertEquals(List.of("a", "c"), result.messages().stream().map(GmailMessage::messageId).toList());
+        assertEquals(0, result.filteredOut());
+        verify(apiClient, never()).getMessageMetadata(any(), anyList(), anyList(), anyInt(), any(), any());
+    }
+
+    @Test
+    void destroyStopsTheDownloadPool() {
+        engine.destroy();
+
+        assertThrows(RejectedExecutionException.class,
+                () -> engine.fetch(connection, new GmailFetchRequest(FetchMode.MANUAL, null, 100, "q")));
+    }
+}
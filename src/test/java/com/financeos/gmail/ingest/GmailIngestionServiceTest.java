@@ -0,0 +1,171 @@
+package com.financeos.gmail.ingest;
+
+import com.financeos.domain.account.Account;
+import com.financeos.domain.categorization.CategorizationService;
+import com.financeos.domain.user.User;
+import com.financeos.gmail.domain.GmailConnection;
+import com.financeos.gmail.domain.GmailProcessedMessage;
+import com.financeos.gmail.domain.GmailProcessedMessageRepository;
+import com.financeos.gmail.domain.GmailProcessedStatus;
+import com.financeos.gmail.engine.GmailEngine;
+import com.financeos.gmail.history.SyncStateService;
+import com.financeos.gmail.ingest.gemini.ExtractedTransaction;
+import com.financeos.gmail.ingest.gemini.GeminiExtractionResult;
+import com.financeos.gmail.ingest.gemini.GeminiExtractor;
+import com.financeos.gmail.ingest.template.AlertTemplateService;
+import com.financeos.gmail.internal.GmailFetchRequest;
+import com.financeos.gmail.internal.GmailFetchResult;
+import com.financeos.gmail.internal.GmailMessage;
+import com.financeos.gmail.internal.GmailMessageHeader;
+import com.financeos.gmail.internal.GmailSyncState;
+import com.financeos.gmail.reconcile.StatementReconciliationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GmailIngestionServiceTest {
+
+    private GmailEngine gmailEngine;
+    private GmailSenderRepository senderRepository;
+    private GmailTransactionWriter writer;
+    private GeminiExtractor extractor;
+    private AlertTemplateService templates;
+    private GmailProcessedMessageRepository processedMessages;
+    private GmailIngestionService service;
+    private GmailConnection connection;
+    private GmailSender sender;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        gmailEngine = mock(GmailEngine.class);
+        senderRepository = mock(GmailSenderRepository.class);
+        AccountResolver accountResolver = mock(AccountResolver.class);
+        writer = mock(GmailTransactionWriter.class);
+        extractor = mock(GeminiExtractor.class);
+        templates = mock(AlertTemplateService.class);
+        processedMessages = mock(GmailProcessedMessageRepository.class);
+        service = new GmailIngestionService(gmailEngine, mock(SyncStateService.class), senderRepository,
+                accountResolver, writer, extractor, processedMessages,
+                new GmailIngestProperties(), mock(StatementReconciliationService.class),
+                mock(CategorizationService.class), templates);
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        connection = new GmailConnection();
+        connection.setId(UUID.randomUUID());
+        connection.setUser(user);
+        sender = new GmailSender();
+        sender.setId(UUID.randomUUID());
+        sender.setSenderAddress("alerts@bank.example");
+        when(senderRepository.findByUserIdAndEnabledTrue(user.getId())).thenReturn(List.of(sender));
+
+        account = new Account();
+        when(accountResolver.resolve(anyString())).thenReturn(Optional.of(account));
+        when(writer.writeTransaction(eq(connection), anyString(), any(), eq(account))).thenAnswer(inv -> {
+            GmailProcessedMessage processed = new GmailProcessedMessage();
+            processed.setStatus(GmailProcessedStatus.CREATED);
+            return processed;
+        });
+    }
+
+    @Test
+    void templateHitsSkipTheLlmAndSampledHitsAreVerifiedAgainstIt() {
+        GmailMessage hit = message("hit");
+        GmailMessage sampled = message("sampled");
+        GmailMessage miss = message("miss");
+        GmailMessage broken = message("broken");
+        when(gmailEngine.fetch(eq(connection), any())).thenReturn(new GmailFetchResult(
+                List.of(hit, sampled, miss, broken), new GmailSyncState("42", Instant.now())));
+
+        UUID templateId = UUID.randomUUID();
+        GeminiExtractionResult hitResult = result("100", "4321");
+        AlertTemplateService.TemplateMatch hitMatch = new AlertTemplateService.TemplateMatch(templateId, hitResult, false);
+        AlertTemplateService.TemplateMatch sampledMatch =
+                new AlertTemplateService.TemplateMatch(templateId, result("200", "4321"), true);
+        when(templates.match(sender, hit)).thenReturn(hitMatch);
+        when(templates.match(sender, sampled)).thenReturn(sampledMatch);
+        when(templates.match(sender, broken)).thenThrow(new IllegalStateException("bad pattern"));
+
+        GeminiExtractionResult sampledLlm = result("250", "4321");
+        GeminiExtractionResult missLlm = result("300", "4321");
+        GeminiExtractionResult brokenLlm = result("400", "4321");
+        when(extractor.extractAll(List.of(sampled, miss, broken))).thenReturn(List.of(sampledLlm, missLlm, brokenLlm));
+
+        SyncSummary summary = service.syncConnection(connection);
+
+        assertEquals(4, summary.created());
+        assertEquals(0, summary.failed());
+        // Only the plain hit skipped the LLM; a failing lookup counts as a miss
+        verify(extractor).extractAll(List.of(sampled, miss, broken));
+        verify(templates).verify(sampledMatch, sampledLlm);
+        verify(templates).learn(sender, miss, missLlm);
+        verify(templates).learn(sender, broken, brokenLlm);
+        verify(templates, times(1)).verify(any(), any());
+        verify(templates, times(2)).learn(any(), any(), any());
+        // A sampled hit is written from the LLM's answer, not the template's guess
+        verify(writer).writeTransaction(connection, "hit", hitResult, account);
+        verify(writer).writeTransaction(connection, "sampled", sampledLlm, account);
+    }
+
+    @Test
+    void templateBookkeepingFailureDoesNotFailTheMessage() {
+        GmailMessage miss = message("miss");
+        when(gmailEngine.fetch(eq(connection), any())).thenReturn(new GmailFetchResult(
+                List.of(miss), new GmailSyncState("42", Instant.now())));
+        GeminiExtractionResult llm = result("300", "4321");
+        when(extractor.extractAll(List.of(miss))).thenReturn(List.of(llm));
+        doThrow(new IllegalStateException("db down")).when(templates).learn(sender, miss, llm);
+
+        SyncSummary summary = service.syncConnection(connection);
+
+        assertEquals(1, summary.created());
+        verify(writer).writeTransaction(connection, "miss", llm, account);
+    }
+
+    @Test
+    void headerFilterChecksTheProcessedLedgerOncePerPage() {
+        when(gmailEngine.fetch(eq(connection), any())).thenReturn(new GmailFetchResult(
+                List.of(), new GmailSyncState("42", Instant.now())));
+        service.syncConnection(connection);
+        ArgumentCaptor<GmailFetchRequest> request = ArgumentCaptor.forClass(GmailFetchRequest.class);
+        verify(gmailEngine).fetch(eq(connection), request.capture());
+        when(processedMessages.findProcessedMessageIds(connection.getId(), List.of("new", "done")))
+                .thenReturn(Set.of("done"));
+
+        List<GmailMessageHeader> kept = request.getValue().keep().apply(List.of(
+                header("new", "Bank <alerts@bank.example>"),
+                header("promo", "Shop <deals@shop.example>"),
+                header("done", "alerts@bank.example")));
+
+        assertEquals(List.of("new"), kept.stream().map(GmailMessageHeader::messageId).toList());
+        verify(processedMessages, times(1)).findProcessedMessageIds(any(), anyCollection());
+        verify(processedMessages, never()).existsByConnectionIdAndGmailMessageId(any(), any());
+    }
+
+    private static GmailMessageHeader header(String id, String from) {
+        return new GmailMessageHeader(id, Instant.now(), from, "Debit alert");
+    }
+
+    private static GmailMessage message(String id) {
+        return new GmailMessage(id, Instant.now(), "Bank <alerts@bank.example>", "Debit alert", null,
+                "Rs." + id + " debited", null, List.of());
+    }
+
+    private static GeminiExtractionResult result(String amount, String last4) {
+        return GeminiExtractionResult.success(new ExtractedTransaction(true, new BigDecimal(amount), "INR", "DEBIT",
+                "2026-07-05", "Shop", last4, 0.9), LocalDate.of(2026, 7, 5));
+    }
+}
@@ -0,0 +1,190 @@
+package com.financeos.gmail.ingest.gemini;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.gmail.internal.GmailMessage;
+import com.financeos.llm.LlmClient;
+import com.financeos.llm.LlmException;
+import com.financeos.llm.LlmProperties;
+import com.financeos.llm.LlmRequest;
+import com.financeos.llm.LlmResponse;
+import com.financeos.llm.cache.LlmResponseCache;
+import com.financeos.llm.cache.LlmResponseCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GeminiExtractorTest {
+
+    private static final Pattern ALERT_INDEX = Pattern.compile("=== Alert (\\d+) ===");
+
+    /** Answers prompts through a function and records them; batch size and concurrency are fixed. */
+    private static class StubLlmClient implements LlmClient {
+        final List<LlmRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        private final Function<LlmRequest, String> answer;
+        private final int batchSize;
+        private final int concurrency;
+
+        StubLlmClient(int batchSize, int concurrency, Function<LlmRequest, String> answer) {
+            this.batchSize = batchSize;
+            this.concurrency = concurrency;
+            this.answer = answer;
+        }
+
+        @Override
+        public LlmResponse complete(LlmRequest request) {
+            requests.add(request);
+            return new LlmResponse(answer.apply(request), "stub", "stub-model");
+        }
+
+        @Override
+        public int recommendedBatchSize(String task) {
+            return batchSize;
+        }
+
+        @Override
+        public int recommendedConcurrency(String task) {
+            return concurrency;
+        }
+
+        long batchCalls() {
+            return requests.stream().filter(r -> r.prompt().contains("=== Alert")).count();
+        }
+    }
+
+    private static List<GmailMessage> alerts(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new GmailMessage("m" + i, Instant.EPOCH, "alerts@bank.com", "Debit alert",
+                        "", "Rs " + (100 + i) + " debited from a/c XX1234 on 05-07-2026", "", List.of()))
+                .toList();
+    }
+
+    private static String item(int index) {
+        return "{\"index\":" + index + ",\"isTransaction\":true,\"amount\":" + (100 + index)
+                + ",\"direction\":\"DEBIT\",\"date\":\"05-07-2026\",\"accountLast4\":\"1234\"}";
+    }
+
+    /** Answers a batch prompt with every alert it lists, optionally skipping some indices. */
+    private static String answerBatch(LlmRequest request, List<Integer> omit) {
+        List<String> items = new ArrayList<>();
+        Matcher m = ALERT_INDEX.matcher(request.prompt());
+        while (m.find()) {
+            int index = Integer.parseInt(m.group(1));
+            if (!omit.contains(index)) {
+                items.add(0, item(index));
+            }
+        }
+        return "{\"results\":[" + String.join(",", items) + "]}";
+    }
+
+    private static final String SINGLE = "{\"isTransaction\":true,\"amount\":1,\"date\":\"2026-07-05\",\"accountLast4\":\"9999\"}";
+
+    @Test
+    void packsAlertsIntoIndexedChunksAndMapsResultsBack() {
+        StubLlmClient client = new StubLlmClient(4, 2, request -> answerBatch(request, List.of()));
+        GeminiExtractor extractor = new GeminiExtractor(client, new ObjectMapper());
+
+        List<GeminiExtractionResult> results = extractor.extractAll(alerts(10));
+
+        assertEquals(3, client.requests.size());
+        assertEquals(10, results.size());
+        for (int i = 0; i < 10; i++) {
+            GeminiExtractionResult result = results.get(i);
+            assertTrue(result.isSuccess());
+            assertEquals(0, new BigDecimal(100 + i).compareTo(result.amount()));
+            assertEquals(LocalDate.of(2026, 7, 5), result.date());
+        }
+    }
+
+    @Test
+    void failedChunkIsSplitUntilItSucceeds() {
+        StubLlmClient client = new StubLlmClient(4, 1, request -> {
+            if (request.prompt().contains("=== Alert 2 ===") && request.prompt().contains("=== Alert 3 ===")) {
+                throw new LlmException(LlmException.Kind.BAD_OUTPUT, "stub", null, null, "truncated output");
+            }
+            return request.prompt().contains("=== Alert") ? answerBatch(request, List.of()) : SINGLE;
+        });
+        GeminiExtractor extractor = new GeminiExtractor(client, new ObjectMapper());
+
+        List<GeminiExtractionResult> results = extractor.extractAll(alerts(4));
+
+        // [0..3] fails, [0,1] succeeds as a batch, [2,3] fails again and each goes alone
+        assertEquals(3, client.batchCalls());
+        assertEquals(5, client.requests.size());
+        assertEquals(0, new BigDecimal(101).compareTo(results.get(1).amount()));
+        assertEquals("9999", results.get(2).accountLast4());
+        assertEquals("9999", results.get(3).accountLast4());
+    }
+
+    @Test
+    void chunkIsFailedWithoutSplittingWhenNoProviderAnswers() {
+        StubLlmClient client = new StubLlmClient(4, 1, request -> {
+            throw new LlmException(LlmException.Kind.FATAL, "chain", null, null, "All providers failed for task 'email-extract'");
+        });
+        GeminiExtractor extractor = new GeminiExtractor(client, new ObjectMapper());
+
+        List<GeminiExtractionResult> results = extractor.extractAll(alerts(4));
+
+        assertEquals(1, client.requests.size());
+        for (GeminiExtractionResult result : results) {
+            assertFalse(result.isSuccess());
+            assertTrue(result.failureReason().contains("All providers failed"));
+        }
+    }
+
+    @Test
+    void alertsLeftOutOfAResponseAreRetried() {
+        List<Integer> omitOnce = new ArrayList<>(List.of(1));
+        StubLlmClient client = new StubLlmClient(10, 1, request -> {
+            if (!request.prompt().contains("=== Alert")) {
+                return SINGLE;
+            }
+            String json = answerBatch(request, omitOnce);
+            omitOnce.clear();
+            return json;
+        });
+        GeminiExtractor extractor = new GeminiExtractor(client, new ObjectMapper());
+
+        List<GeminiExtractionResult> results = extractor.extractAll(alerts(3));
+
+        assertEquals(2, client.requests.size());
+        assertTrue(results.stream().allMatch(GeminiExtractionResult::isSuccess));
+        assertEquals("9999", results.get(1).accountLast4());
+        assertEquals("1234", results.get(2).accountLast4());
+    }
+
+    @Test
+    void alertsExtractedBeforeAreServedFromTheResponseCache() {
+        LlmProperties properties = new LlmProperties();
+        properties.getCache().setEnabled(true);
+        LlmResponseCache cache = new LlmResponseCache(mock(LlmResponseCacheRepository.class),
+                new ObservabilityMetrics(new SimpleMeterRegistry()), properties);
+        StubLlmClient client = new StubLlmClient(10, 1, request -> answerBatch(request, List.of()));
+        GeminiExtractor extractor = new GeminiExtractor(client, new ObjectMapper(), cache);
+
+        extractor.extractAll(alerts(3));
+        List<GeminiExtractionResult> results = extractor.extractAll(alerts(5));
+
+        // The second batch only lists the two new alerts
+        assertEquals(2, client.requests.size());
+        assertFalse(client.requests.get(1).prompt().contains("=== Alert 0 ==="));
+        assertTrue(client.requests.get(1).prompt().contains("=== Alert 3 ==="));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(0, new BigDecimal(100 + i).compareTo(results.get(i).amount()));
+        }
+    }
+}
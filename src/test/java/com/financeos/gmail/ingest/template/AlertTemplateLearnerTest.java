@@ -0,0 +1,73 @@
+package com.financeos.gmail.ingest.template;
+
+import com.financeos.gmail.ingest.gemini.GeminiExtractionResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertTemplateLearnerTest {
+
+    private static final String ALERT = "Dear Customer, Rs.1,250.00 has been debited from account XX4321 to "
+            + "VPA swiggy@icici on 05-07-2026. UPI Ref 618273645512. Avl Bal Rs 10,402.19";
+
+    private static GeminiExtractionResult apply(String pattern, String body) {
+        return AlertTemplateService.apply(Pattern.compile(pattern), AlertTemplateLearner.normalize(body),
+                "DEBIT", "INR", 0.9);
+    }
+
+    @Test
+    void learnedTemplateParsesLaterAlertsOfTheSameFormat() {
+        Optional<String> pattern = AlertTemplateLearner.learn(ALERT, new BigDecimal("1250.00"),
+                LocalDate.of(2026, 7, 5), "4321", "swiggy@icici");
+        assertTrue(pattern.isPresent());
+
+        GeminiExtractionResult replay = apply(pattern.get(), ALERT);
+        assertNotNull(replay);
+        assertEquals(0, new BigDecimal("1250.00").compareTo(replay.amount()));
+
+        String next = "Dear Customer, Rs.89 has been debited from account XX9876 to "
+                + "VPA zomato.order@hdfcbank on 17-08-2026. UPI Ref 700011112222. Avl Bal Rs 9,313.19";
+        GeminiExtractionResult result = apply(pattern.get(), next);
+        assertNotNull(result);
+        assertTrue(result.isSuccess());
+        assertEquals(0, new BigDecimal("89").compareTo(result.amount()));
+        assertEquals(LocalDate.of(2026, 8, 17), result.date());
+        assertEquals("9876", result.accountLast4());
+        assertEquals("zomato.order@hdfcbank", result.description());
+        assertEquals("DEBIT", result.direction());
+    }
+
+    @Test
+    void alertOfAnotherFormatIsAMiss() {
+        String pattern = AlertTemplateLearner.learn(ALERT, new BigDecimal("1250"), LocalDate.of(2026, 7, 5),
+                "4321", "swiggy@icici").orElseThrow();
+
+        assertNull(apply(pattern, "Rs.500 credited to account XX4321 from VPA a@b on 05-07-2026."));
+        // Same format with an extra footer: the whole alert must fit
+        assertNull(apply(pattern, ALERT + " Not you? Call 1800-000-000."));
+    }
+
+    @Test
+    void ambiguousOrMissingFieldsLearnNothing() {
+        // The amount occurs twice
+        assertTrue(AlertTemplateLearner.learn("Rs 500 debited from XX4321 on 05-07-2026 to shop. Limit Rs 500",
+                new BigDecimal("500"), LocalDate.of(2026, 7, 5), "4321", "shop").isEmpty());
+        // The description isn't in the body
+        assertTrue(AlertTemplateLearner.learn(ALERT, new BigDecimal("1250"), LocalDate.of(2026, 7, 5),
+                "4321", "Swiggy Instamart").isEmpty());
+        // No date token reads back to the extracted day
+        assertTrue(AlertTemplateLearner.learn(ALERT, new BigDecimal("1250"), LocalDate.of(2026, 7, 6),
+                "4321", "swiggy@icici").isEmpty());
+    }
+
+    @Test
+    void subjectShapeIgnoresNumbers() {
+        assertEquals(AlertTemplateLearner.subjectShape("Rs 1,250.00 debited from A/c XX4321"),
+                AlertTemplateLearner.subjectShape("Rs 89 debited  from a/c XX9876"));
+    }
+}
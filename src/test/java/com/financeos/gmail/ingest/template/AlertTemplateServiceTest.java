@@ -0,0 +1,189 @@
+package com.financeos.gmail.ingest.template;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.gmail.ingest.GmailSender;
+import com.financeos.gmail.ingest.gemini.ExtractedTransaction;
+import com.financeos.gmail.ingest.gemini.GeminiExtractionResult;
+import com.financeos.gmail.internal.GmailMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AlertTemplateServiceTest {
+
+    private static final String SUBJECT = "Rs 1,250.00 debited from A/c XX4321";
+    private static final String ALERT = "Dear Customer, Rs.1,250.00 has been debited from account XX4321 to "
+            + "VPA swiggy@icici on 05-07-2026. UPI Ref 618273645512. Avl Bal Rs 10,402.19";
+    private static final String NEXT_ALERT = "Dear Customer, Rs.89 has been debited from account XX9876 to "
+            + "VPA zomato.order@hdfcbank on 17-08-2026. UPI Ref 700011112222. Avl Bal Rs 9,313.19";
+
+    private AlertTemplateRepository repository;
+    private MeterRegistry registry;
+    private AlertTemplateService service;
+    private GmailSender sender;
+    private AlertTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AlertTemplateRepository.class);
+        registry = new SimpleMeterRegistry();
+        service = new AlertTemplateService(repository, new ObservabilityMetrics(registry), true, 3);
+
+        sender = new GmailSender();
+        sender.setId(UUID.randomUUID());
+
+        template = new AlertTemplate();
+        template.setId(UUID.randomUUID());
+        template.setSender(sender);
+        template.setSubjectShape(AlertTemplateLearner.subjectShape(SUBJECT));
+        template.setPattern(AlertTemplateLearner.learn(AlertTemplateLearner.normalize(ALERT), new BigDecimal("1250.00"),
+                LocalDate.of(2026, 7, 5), "4321", "swiggy@icici").orElseThrow());
+        template.setDirection("DEBIT");
+        template.setCurrency("INR");
+        template.setConfidence(0.9);
+        when(repository.findBySenderIdAndEnabledTrue(sender.getId())).thenReturn(List.of(template));
+    }
+
+    @Test
+    void everyNthHitIsSentForVerification() {
+        List<Boolean> verify = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            AlertTemplateService.TemplateMatch match = service.match(sender, message(SUBJECT, NEXT_ALERT));
+            assertNotNull(match);
+            assertEquals(template.getId(), match.templateId());
+            assertEquals(0, new BigDecimal("89").compareTo(match.result().amount()));
+            verify.add(match.verify());
+        }
+
+        assertEquals(List.of(false, false, true, false, false, true), verify);
+        verify(repository, times(6)).recordHit(eq(template.getId()), any(Instant.class));
+        // Templates are loaded once and then served from memory
+        verify(repository, times(1)).findBySenderIdAndEnabledTrue(sender.getId());
+    }
+
+    @Test
+    void hitsAndMissesAreCountedAndOnlyUnverifiedHitsAvoidTheLlm() {
+        for (int i = 0; i < 3; i++) {
+            service.match(sender, message(SUBJECT, NEXT_ALERT));
+        }
+        // Same subject shape, another body format
+        assertNull(service.match(sender, message(SUBJECT, "Rs.500 credited to account XX4321 on 05-07-2026.")));
+        // Another subject shape
+        assertNull(service.match(sender, message("Your OTP is 123456", NEXT_ALERT)));
+
+        assertEquals(3.0, count("financeos.cache.requests", "result", "hit"));
+        assertEquals(2.0, count("financeos.cache.requests", "result", "miss"));
+        // The third hit was sampled for verification, so the LLM still ran for it
+        assertEquals(2.0, count("financeos.llm.calls.avoided", "task", "email-extract"));
+    }
+
+    @Test
+    void disagreementDisablesTheTemplateImmediately() {
+        AlertTemplateService.TemplateMatch sampled = matchUntilVerified();
+
+        service.verify(sampled, llmResult(new BigDecimal("98"), "DEBIT", LocalDate.of(2026, 8, 17), "9876"));
+
+        verify(repository).disable(template.getId());
+        verify(repository, never()).recordVerified(any());
+        assertEquals(1.0, count("financeos.gmail.alert.template.verifications", "result", "disagreed"));
+        // Disabled in memory as well: the cached template no longer matches, without a reload
+        assertNull(service.match(sender, message(SUBJECT, NEXT_ALERT)));
+        verify(repository, times(1)).findBySenderIdAndEnabledTrue(sender.getId());
+    }
+
+    @Test
+    void agreementIsRecordedAndTheTemplateStaysEnabled() {
+        AlertTemplateService.TemplateMatch sampled = matchUntilVerified();
+
+        // Descriptions may differ; direction is compared ignoring case
+        GeminiExtractionResult llm = llmResult(new BigDecimal("89.00"), "debit", LocalDate.of(2026, 8, 17), "9876");
+        service.verify(sampled, llm);
+
+        verify(repository).recordVerified(template.getId());
+        verify(repository, never()).disable(any());
+        assertEquals(1.0, count("financeos.gmail.alert.template.verifications", "result", "agreed"));
+        assertNotNull(service.match(sender, message(SUBJECT, NEXT_ALERT)));
+    }
+
+    @Test
+    void failedLlmExtractionIsInconclusive() {
+        AlertTemplateService.TemplateMatch sampled = matchUntilVerified();
+
+        service.verify(sampled, GeminiExtractionResult.failure("timeout"));
+
+        verify(repository, never()).disable(any());
+        verify(repository, never()).recordVerified(any());
+        assertNotNull(service.match(sender, message(SUBJECT, NEXT_ALERT)));
+    }
+
+    @Test
+    void learnedTemplateStoresTheDirectionUpperCase() {
+        GmailSender other = new GmailSender();
+        other.setId(UUID.randomUUID());
+
+        service.learn(other, message(SUBJECT, ALERT),
+                llmResult(new BigDecimal("1250.00"), "debit", LocalDate.of(2026, 7, 5), "4321", "swiggy@icici"));
+
+        ArgumentCaptor<AlertTemplate> saved = ArgumentCaptor.forClass(AlertTemplate.class);
+        verify(repository).save(saved.capture());
+        assertEquals("DEBIT", saved.getValue().getDirection());
+        assertEquals(AlertTemplateLearner.subjectShape(SUBJECT), saved.getValue().getSubjectShape());
+        verify(repository).existsBySenderIdAndPatternHash(eq(other.getId()), anyString());
+    }
+
+    @Test
+    void disabledServiceNeitherMatchesNorLearns() {
+        service = new AlertTemplateService(repository, new ObservabilityMetrics(registry), false, 3);
+
+        assertNull(service.match(sender, message(SUBJECT, NEXT_ALERT)));
+        service.learn(sender, message(SUBJECT, ALERT),
+                llmResult(new BigDecimal("1250.00"), "DEBIT", LocalDate.of(2026, 7, 5), "4321"));
+
+        verifyNoInteractions(repository);
+    }
+
+    private AlertTemplateService.TemplateMatch matchUntilVerified() {
+        for (int i = 0; i < 3; i++) {
+            AlertTemplateService.TemplateMatch match = service.match(sender, message(SUBJECT, NEXT_ALERT));
+            if (match.verify()) {
+                return match;
+            }
+        }
+        throw new AssertionError("no hit was sampled for verification");
+    }
+
+    private static GmailMessage message(String subject, String body) {
+        return new GmailMessage(UUID.randomUUID().toString(), Instant.now(), "alerts@bank.example", subject,
+                null, body, null, List.of());
+    }
+
+    private static GeminiExtractionResult llmResult(BigDecimal amount, String direction, LocalDate date, String last4) {
+        return llmResult(amount, direction, date, last4, "Zomato");
+    }
+
+    private static GeminiExtractionResult llmResult(BigDecimal amount, String direction, LocalDate date, String last4,
+                                                    String description) {
+        return GeminiExtractionResult.success(new ExtractedTransaction(true, amount, "INR", direction,
+                date.toString(), description, last4, 0.95), date);
+    }
+
+    private double count(String name, String tag, String value) {
+        Counter counter = registry.find(name).tag(tag, value).counter();
+        return counter != null ? counter.count() : 0.0;
+    }
+}
@@ -3,9 +3,14 @@ package com.financeos.llm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -231,4 +236,188 @@ public class FailoverLlmClientTest {
         assertTrue(ex.getMessage().contains("B: Err B"), "Message should contain B: Err B, but was: " + ex.getMessage());
         assertTrue(ex.getMessage().contains("C: Err C"), "Message should contain C: Err C, but was: " + ex.getMessage());
     }
+
+    /** Answers after a delay; records whether it was interrupted (cancelled) while waiting. */
+    private static class SlowLlmProvider implements LlmProvider {
+        private final String id;
+        private final long delayMs;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean interrupted;
+
+        SlowLlmProvider(String id, long delayMs) {
+            this.id = id;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public LlmResponse complete(LlmRequest request) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                Thread.currentThread().interrupt();
+                throw new LlmException(LlmException.Kind.FATAL, id, null, null, "Request interrupted", e);
+            }
+            return new LlmResponse("{}", id, "mock-model");
+        }
+    }
+
+    private void enableHedging(long initialDelayMs) {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setInitialDelayMs(initialDelayMs);
+        properties.getHedge().setMinDelayMs(5L);
+        properties.getHedge().setMinSamples(3);
+    }
+
+    @Test
+    public void testHedgeToNextProviderWhenPrimaryIsSlow() throws InterruptedException {
+        enableHedging(50L);
+        SlowLlmProvider slowA = new SlowLlmProvider("A", 5000L);
+        providers.put("A", slowA);
+
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+        long start = System.currentTimeMillis();
+        LlmResponse res = client.complete(new LlmRequest("test", "prompt", null, 0.0));
+
+        assertEquals("B", res.providerId());
+        assertTrue(System.currentTimeMillis() - start < 2000, "hedge should not wait for the slow primary");
+        assertEquals(1, providerB.getCallCount());
+        assertEquals(0, providerC.getCallCount());
+        for (int i = 0; i < 100 && !slowA.interrupted; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(slowA.interrupted, "losing call should be cancelled");
+    }
+
+    @Test
+    public void testFastPrimaryIsNotHedged() {
+        enableHedging(1000L);
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+
+        LlmResponse res = client.complete(new LlmRequest("test", "prompt", null, 0.0));
+
+        assertEquals("A", res.providerId());
+        assertEquals(1, providerA.getCallCount());
+        assertEquals(0, providerB.getCallCount());
+    }
+
+    @Test
+    public void testHedgeDelayFollowsObservedLatency() {
+        enableHedging(1000L);
+        providers.put("A", new SlowLlmProvider("A", 30L));
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+
+        assertEquals(1000L, client.hedgeDelayMs("A"));
+        for (int i = 0; i < 3; i++) {
+            client.complete(new LlmRequest("test", "prompt", null, 0.0));
+        }
+        long delay = client.hedgeDelayMs("A");
+        assertTrue(delay >= 30L && delay < 1000L, "delay should track the observed latency, was " + delay);
+        assertEquals(0, providerB.getCallCount());
+    }
+
+    @Test
+    public void testFailedPrimaryFailsOverImmediatelyWhenHedging() {
+        enableHedging(5000L);
+        providerA.setOutcome(null, new LlmException(LlmException.Kind.FATAL, "A", 400, null, "Err A"));
+        providerB.setOutcome(new LlmResponse("{\"res\":\"B\"}", "B", "m-b"), null);
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+
+        long start = System.currentTimeMillis();
+        LlmResponse res = client.complete(new LlmRequest("test", "prompt", null, 0.0));
+
+        assertEquals("B", res.providerId());
+        assertTrue(System.currentTimeMillis() - start < 2000, "failover should not wait for the hedge delay");
+    }
+
+    /** Async provider whose calls stay pending until the test completes them. */
+    private static class PendingLlmProvider implements LlmProvider {
+        private final String id;
+        final List<CompletableFuture<LlmResponse>> calls = new CopyOnWriteArrayList<>();
+
+        PendingLlmProvider(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public LlmResponse complete(LlmRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<LlmResponse> completeAsync(LlmRequest request) {
+            CompletableFuture<LlmResponse> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+
+    @Test
+    public void testCompleteAsyncQueuesCallsOverTheProviderInFlightLimit() throws InterruptedException {
+        LlmProperties.ProviderProperties propA = new LlmProperties.ProviderProperties();
+        propA.setApiKey("key");
+        propA.setConcurrency(2);
+        properties.getProviders().put("A", propA);
+        PendingLlmProvider pendingA = new PendingLlmProvider("A");
+        providers.put("A", pendingA);
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+
+        List<CompletableFuture<LlmResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(client.completeAsync(new LlmRequest("test", "prompt " + i, null, 0.0)));
+        }
+        assertEquals(2, pendingA.calls.size());
+
+        pendingA.calls.get(0).complete(new LlmResponse("{}", "A", "m-a"));
+        // The freed slot starts the queued call on the pool
+        for (int i = 0; i < 100 && pendingA.calls.size() < 3; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, pendingA.calls.size());
+        assertEquals("A", results.get(0).join().providerId());
+        assertFalse(results.get(2).isDone());
+
+        pendingA.calls.get(1).complete(new LlmResponse("{}", "A", "m-a"));
+        pendingA.calls.get(2).complete(new LlmResponse("{}", "A", "m-a"));
+        assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+    }
+
+    @Test
+    public void testCompleteAsyncRetriesThenFailsOver() {
+        providerA.setOutcome(null, new LlmException(LlmException.Kind.RETRYABLE, "A", 503, null, "503 Unavailable"));
+        providerB.setOutcome(null, new LlmException(LlmException.Kind.FATAL, "B", 400, null, "Err B"));
+        providerC.setOutcome(new LlmResponse("{\"res\":\"C\"}", "C", "m-c"), null);
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+
+        LlmResponse res = client.completeAsync(new LlmRequest("test", "prompt", null, 0.0)).join();
+
+        assertEquals("C", res.providerId());
+        assertEquals(2, providerA.getCallCount());
+        assertEquals(1, providerB.getCallCount());
+    }
+
+    @Test
+    public void testCompleteAsyncFailsWithChainExhausted() {
+        providerA.setOutcome(null, new LlmException(LlmException.Kind.FATAL, "A", 400, null, "Err A"));
+        providerB.setOutcome(null, new LlmException(LlmException.Kind.FATAL, "B", 400, null, "Err B"));
+        providerC.setOutcome(null, new LlmException(LlmException.Kind.FATAL, "C", 400, null, "Err C"));
+        FailoverLlmClient client = new FailoverLlmClient(properties, providers);
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> client.completeAsync(new LlmRequest("test", "prompt", null, 0.0)).join());
+
+        assertInstanceOf(LlmException.class, ex.getCause());
+        assertTrue(ex.getCause().getMessage().contains("B: Err B"));
+    }
 }
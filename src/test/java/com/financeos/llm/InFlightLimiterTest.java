@@ -0,0 +1,41 @@
+package com.financeos.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightLimiterTest {
+
+    @Test
+    void queuedCallsStartOnTheExecutorNotTheCompletingThread() {
+        Deque<Runnable> executor = new ArrayDeque<>();
+        InFlightLimiter limiter = new InFlightLimiter(1, executor::add);
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        results.add(limiter.submit(() -> first));
+        // The queued calls complete synchronously, as a failed-fast call would
+        for (int i = 1; i < 1000; i++) {
+            String value = "call " + i;
+            results.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+        }
+        first.complete("call 0");
+        assertTrue(results.get(0).isDone());
+        assertFalse(results.get(1).isDone());
+        assertEquals(1, executor.size());
+
+        // Run the hand-offs one at a time: each start queues the next instead of nesting it
+        while (!executor.isEmpty()) {
+            executor.poll().run();
+            assertTrue(executor.size() <= 1);
+        }
+        assertEquals("call 999", results.get(999).join());
+        assertEquals(0, limiter.inFlight());
+    }
+}
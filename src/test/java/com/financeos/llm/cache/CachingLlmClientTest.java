@@ -0,0 +1,67 @@
+package com.financeos.llm.cache;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.llm.LlmClient;
+import com.financeos.llm.LlmProperties;
+import com.financeos.llm.LlmRequest;
+import com.financeos.llm.LlmResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingLlmClientTest {
+
+    private LlmClient delegate;
+    private LlmResponseCacheRepository repository;
+    private CachingLlmClient client;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(LlmClient.class);
+        repository = mock(LlmResponseCacheRepository.class);
+        LlmProperties properties = new LlmProperties();
+        properties.getCache().setEnabled(true);
+        LlmResponseCache cache = new LlmResponseCache(repository, new ObservabilityMetrics(new SimpleMeterRegistry()), properties);
+        client = new CachingLlmClient(delegate, cache);
+    }
+
+    @Test
+    void answerIsOnlyCachedOnceTheCallerAcceptsIt() {
+        LlmRequest request = new LlmRequest("email-classify", "Subject: debit alert", null, 0.0);
+        LlmResponse malformed = new LlmResponse("{\"emailType\":\"BOGUS\"}", "gemini", "flash");
+        LlmResponse good = new LlmResponse("{\"emailType\":\"OTHER\"}", "gemini", "flash");
+        when(delegate.complete(request)).thenReturn(malformed, good);
+
+        // Rejected by the caller: never stored, so the next call asks the provider again
+        assertSame(malformed, client.complete(request));
+        assertSame(good, client.complete(request));
+        verify(repository, never()).saveAll(anyList());
+
+        client.accept(request, good);
+        assertEquals(good, client.complete(request));
+        verify(delegate, times(2)).complete(any());
+        verify(repository, times(1)).saveAll(anyList());
+
+        // Accepting an answer served from the cache doesn't store it again
+        client.accept(request, good);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void requestsWithTemperatureAreNeverCached() {
+        LlmRequest request = new LlmRequest("email-classify", "Subject: debit alert", null, 0.7);
+        LlmResponse response = new LlmResponse("{}", "gemini", "flash");
+        when(delegate.complete(request)).thenReturn(response);
+
+        client.complete(request);
+        client.accept(request, response);
+        client.complete(request);
+
+        verify(delegate, times(2)).complete(request);
+        verifyNoInteractions(repository);
+    }
+}
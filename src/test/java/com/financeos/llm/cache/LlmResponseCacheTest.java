@@ -0,0 +1,126 @@
+package com.financeos.llm.cache;
+
+import com.financeos.core.observability.ObservabilityMetrics;
+import com.financeos.llm.LlmProperties;
+import com.financeos.llm.LlmResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class LlmResponseCacheTest {
+
+    private LlmResponseCacheRepository repository;
+    private MeterRegistry registry;
+    private LlmProperties properties;
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LlmResponseCacheRepository.class);
+        registry = new SimpleMeterRegistry();
+        properties = new LlmProperties();
+        properties.getCache().setEnabled(true);
+        cache = new LlmResponseCache(repository, new ObservabilityMetrics(registry), properties);
+    }
+
+    @Test
+    void keyIgnoresWhitespaceButNotTaskOrScope() {
+        String key = LlmResponseCache.key("categorize", "scope", "Index: 1, Description: SWIGGY  BLR\n");
+        assertEquals(key, LlmResponseCache.key("categorize", "scope", "  Index: 1,\tDescription: SWIGGY BLR"));
+        assertNotEquals(key, LlmResponseCache.key("email-extract", "scope", "Index: 1, Description: SWIGGY BLR"));
+        assertNotEquals(key, LlmResponseCache.key("categorize", "other", "Index: 1, Description: SWIGGY BLR"));
+    }
+
+    @Test
+    void storedAnswerIsServedFromMemoryWithoutTheTable() {
+        LlmResponse response = new LlmResponse("{\"a\":1}", "gemini", "flash");
+        cache.put("categorize", "k1", response);
+
+        Map<String, LlmResponse> found = cache.findAll(List.of("k1", "k2"));
+
+        assertEquals(response, found.get("k1"));
+        assertFalse(found.containsKey("k2"));
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository, times(1)).findByCacheKeyInAndExpiresAtAfter(eq(List.of("k2")), any(Instant.class));
+        assertEquals(1.0, counter("hit"));
+        assertEquals(1.0, counter("miss"));
+    }
+
+    @Test
+    void memoryMissFallsBackToTheTable() {
+        LlmResponseCacheEntry entry = new LlmResponseCacheEntry();
+        entry.setCacheKey("k1");
+        entry.setResponse("{\"a\":1}");
+        entry.setProviderId("groq");
+        entry.setExpiresAt(Instant.now().plusSeconds(60));
+        when(repository.findByCacheKeyInAndExpiresAtAfter(anyCollection(), any(Instant.class))).thenReturn(List.of(entry));
+
+        assertEquals("groq", cache.find("k1").providerId());
+        // Now held in memory
+        assertEquals("groq", cache.find("k1").providerId());
+        verify(repository, times(1)).findByCacheKeyInAndExpiresAtAfter(anyCollection(), any(Instant.class));
+    }
+
+    @Test
+    void failingTableIsAMissAndADroppedWrite() {
+        when(repository.findByCacheKeyInAndExpiresAtAfter(anyCollection(), any(Instant.class)))
+                .thenThrow(new IllegalStateException("db down"));
+        when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertNull(cache.find("k1"));
+        assertDoesNotThrow(() -> cache.put("categorize", "k2", new LlmResponse("{}", "gemini", "flash")));
+    }
+
+    @Test
+    void expiredAnswerIsAMiss() {
+        properties.getCache().setTtlHours(0);
+        cache.put("categorize", "k1", new LlmResponse("{}", "gemini", "flash"));
+
+        assertNull(cache.find("k1"));
+    }
+
+    @Test
+    void expiredRowsAreClearedBeforeTheirKeysAreStoredAgain() {
+        cache.put("categorize", "k1", new LlmResponse("{}", "gemini", "flash"));
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).deleteExpiredIn(eq(List.of("k1")), any(Instant.class));
+        order.verify(repository).saveAll(anyList());
+    }
+
+    @Test
+    void disabledCacheNeverTouchesTheTable() {
+        properties.getCache().setEnabled(false);
+
+        cache.put("categorize", "k1", new LlmResponse("{}", "gemini", "flash"));
+        assertNull(cache.find("k1"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void savedTokensAreEstimatedFromText() {
+        cache.recordSaved("categorize", 400, 80);
+
+        assertEquals(100.0, registry.find("financeos.llm.tokens").tag("provider", "cache").tag("kind", "prompt_saved")
+                .counter().count());
+        assertEquals(20.0, registry.find("financeos.llm.tokens").tag("provider", "cache").tag("kind", "completion_saved")
+                .counter().count());
+    }
+
+    private double counter(String result) {
+        Counter counter = registry.find("financeos.cache.requests").tag("cache", "llm-response").tag("result", result).counter();
+        return counter != null ? counter.count() : 0.0;
+    }
+}
@@ -0,0 +1,278 @@
+package com.financeos.statement.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date recognition over statement-shaped lines: the row anchors RowCollector looks for plus the
+ * all-formats sweep MetadataExtractor and the due-date scan do. Lines mimic the layouts the
+ * parser sees (dd/mm/yyyy and dd-Mon-yy bank rows, "Mon dd yyyy" card rows, header and summary
+ * text, narration full of digits). {@code legacy*} is the previous DateTimeFormatter parser,
+ * which rejected non-dates by throwing, and the span probing that joined each candidate into a
+ * string for the date-token regex, kept here as the baseline. Run with {@code main} from the
+ * IDE (test classpath); not part of the test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatesBenchmark {
+
+	@Param({"2000"})
+	int lines;
+
+	private List<List<Word>> corpus;
+
+	@Setup
+	public void setUp() {
+		corpus = corpus(new Random(42), lines);
+	}
+
+	@Benchmark
+	public int legacyStatement() {
+		int found = 0;
+		for (List<Word> words : corpus) {
+			found += legacyFindDatesInWords(words, Dates.DATE_FORMATS).size();
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int scannerStatement() {
+		int found = 0;
+		for (List<Word> words : corpus) {
+			found += Dates.findDatesInWords(words, Dates.DATE_FORMATS).size();
+		}
+		return found;
+	}
+
+	@Benchmark
+	public String legacyInferFormat() {
+		return legacyInferDateFormat(anchorTexts());
+	}
+
+	@Benchmark
+	public String scannerInferFormat() {
+		return Dates.inferDateFormat(anchorTexts());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(DatesBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+	private List<String> anchorTexts() {
+		List<String> texts = new ArrayList<>();
+		for (List<Word> words : corpus) {
+			DateAnchor anchor = Dates.dateAnchor(words);
+			if (anchor != null) {
+				texts.add(anchor.text());
+			}
+		}
+		return texts;
+	}
+
+	static List<List<Word>> corpus(Random random, int lines) {
+		String[] narrations = {
+				"UPI/DR/412345678901/SWIGGY/YESB/swiggy@ybl", "NEFT-HDFCR52026041512345-ACME PAYROLL",
+				"ATM WDL 0417 MG ROAD", "POS 4587XXXXXX1234 AMAZON PAY", "IMPS/P2A/411822/RENT APR",
+				"ACH D- BSE LIMITED-1234567", "INT.PD:01-04-2026 TO 30-06-2026", "NACH/TP ACH ICICI PRU"};
+		String[] headers = {
+				"Statement of account for the period", "Opening Balance 50,000.00",
+				"Page 1 of 4", "Account No 0012345678901 Cust ID 1234567",
+				"Total 1,23,456.78 98,765.43", "Payment Due Date 15 May 2026 Minimum Amount Due 2,500.00"};
+		List<List<Word>> corpus = new ArrayList<>(lines);
+		LocalDate date = LocalDate.of(2026, 1, 1);
+		for (int i = 0; i < lines; i++) {
+			date = date.plusDays(random.nextInt(3));
+			String amount = String.format(Locale.ROOT, "%,d.%02d", 10 + random.nextInt(90_000), random.nextInt(100));
+			String balance = String.format(Locale.ROOT, "%,d.%02d", 10_000 + random.nextInt(900_000), random.nextInt(100));
+			String narration = narrations[random.nextInt(narrations.length)];
+			String line = switch (random.nextInt(6)) {
+				case 0 -> date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + " " + narration + " "
+						+ date.format(DateTimeFormatter.ofPattern("dd/MM/yy")) + " " + amount + " " + balance;
+				case 1 -> date.format(DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH)) + " " + narration
+						+ " " + amount + " " + balance;
+				case 2 -> date.format(DateTimeFormatter.ofPattern("MMM dd yyyy", Locale.ENGLISH)) + " " + narration
+						+ " " + amount + " Cr";
+				case 3 -> date.format(DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH)) + " " + narration
+						+ " " + amount;
+				case 4 -> narration + " " + amount;
+				default -> headers[random.nextInt(headers.length)];
+			};
+			corpus.add(words(line));
+		}
+		return corpus;
+	}
+
+	private static List<Word> words(String line) {
+		List<Word> words = new ArrayList<>();
+		double x = 40;
+		for (String text : line.split(" ")) {
+			words.add(new Word(text, x, x + text.length() * 5, 700, 1));
+			x += text.length() * 5 + 4;
+		}
+		return words;
+	}
+
+	// --- Baseline: the DateTimeFormatter parser Dates.parse replaced ---
+
+	private static final Map<String, DateTimeFormatter> LEGACY_FORMATTERS = new HashMap<>();
+
+	static {
+		for (String fmtId : Dates.DATE_FORMATS) {
+			LEGACY_FORMATTERS.put(fmtId, legacyFormatter(fmtId));
+		}
+	}
+
+	private static DateTimeFormatter legacyFormatter(String fmtId) {
+		DateTimeFormatterBuilder b = new DateTimeFormatterBuilder().parseCaseInsensitive();
+		int i = 0;
+		while (i < fmtId.length()) {
+			char c = fmtId.charAt(i);
+			if (c == '%' && i + 1 < fmtId.length()) {
+				switch (fmtId.charAt(i + 1)) {
+					case 'd' -> b.appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE);
+					case 'm' -> b.appendValue(ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE);
+					case 'Y' -> b.appendValue(ChronoField.YEAR, 4);
+					case 'y' -> b.appendValueReduced(ChronoField.YEAR, 2, 2, 2000);
+					case 'b' -> b.appendText(ChronoField.MONTH_OF_YEAR, TextStyle.SHORT);
+					case 'B' -> b.appendText(ChronoField.MONTH_OF_YEAR, TextStyle.FULL);
+					default -> throw new IllegalStateException(fmtId);
+				}
+				i += 2;
+			} else {
+				b.appendLiteral(c);
+				i++;
+			}
+		}
+		if (!fmtId.contains("%Y") && !fmtId.contains("%y")) {
+			b.parseDefaulting(ChronoField.YEAR, 1900);
+		}
+		return b.toFormatter(Locale.ENGLISH);
+	}
+
+	static LocalDate legacyParse(String text, String fmtId) {
+		DateTimeFormatter fmt = LEGACY_FORMATTERS.get(fmtId);
+		if (fmt == null) {
+			return null;
+		}
+		try {
+			return LocalDate.from(fmt.parse(text));
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	static DateAnchor legacyDateAnchor(List<Word> words) {
+		int n = words.size();
+		for (int start = 0; start < Math.min(3, n); start++) {
+			for (int span = Math.min(3, n - start); span >= 1; span--) {
+				String cand = legacyJoinNorm(words, start, span);
+				if (Tokens.isDateToken(cand)) {
+					return new DateAnchor(start, span, cand);
+				}
+			}
+		}
+		return null;
+	}
+
+	static List<LocalDate> legacyFindDatesInWords(List<Word> words, List<String> fmtIds) {
+		List<LocalDate> found = new ArrayList<>();
+		int n = words.size();
+		int i = 0;
+		while (i < n) {
+			int consumed = 0;
+			for (int span : new int[]{3, 2, 1}) {
+				if (i + span > n) {
+					continue;
+				}
+				String cand = legacyJoinNorm(words, i, span);
+				if (!Tokens.isDateToken(cand)) {
+					continue;
+				}
+				for (String fmtId : fmtIds) {
+					LocalDate d = legacyParse(cand, fmtId);
+					if (d != null) {
+						found.add(d);
+						consumed = span;
+						break;
+					}
+				}
+				if (consumed != 0) {
+					break;
+				}
+			}
+			i += consumed != 0 ? consumed : 1;
+		}
+		return found;
+	}
+
+	private static String legacyJoinNorm(List<Word> words, int start, int span) {
+		StringBuilder sb = new StringBuilder();
+		for (int k = start; k < start + span; k++) {
+			if (k > start) {
+				sb.append(' ');
+			}
+			sb.append(Tokens.norm(words.get(k).text()));
+		}
+		return sb.toString();
+	}
+
+	private static String legacyInferDateFormat(List<String> tokens) {
+		String best = null;
+		int bestParsed = 0;
+		int bestOrdered = -1;
+		for (String fmtId : Dates.DATE_FORMATS) {
+			List<LocalDate> parsed = new ArrayList<>();
+			for (String t : tokens) {
+				LocalDate d = legacyParse(t, fmtId);
+				if (d != null) {
+					parsed.add(d);
+				}
+			}
+			int ordered = 0;
+			for (int i = 0; i + 1 < parsed.size(); i++) {
+				if (!parsed.get(i + 1).isBefore(parsed.get(i))) {
+					ordered++;
+				}
+			}
+			if (parsed.size() > bestParsed || (parsed.size() == bestParsed && ordered > bestOrdered)) {
+				best = fmtId;
+				bestParsed = parsed.size();
+				bestOrdered = ordered;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,114 @@
+package com.financeos.statement.parser;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatesTest {
+
+	@Test
+	void parsesEachFormat() {
+		assertEquals(LocalDate.of(2026, 4, 5), Dates.parse("05/04/2026", "%d/%m/%Y"));
+		assertEquals(LocalDate.of(2026, 4, 5), Dates.parse("4/5/26", "%m/%d/%y"));
+		assertEquals(LocalDate.of(2026, 9, 1), Dates.parse("1-SEP-26", "%d-%b-%y"));
+		assertEquals(LocalDate.of(2026, 9, 1), Dates.parse("September 1 2026", "%B %d %Y"));
+		assertEquals(LocalDate.of(2026, 12, 31), Dates.parse("31dec2026", "%d%b%Y"));
+		assertEquals(LocalDate.of(2026, 4, 5), Dates.parse("2026/04/05", "%Y/%m/%d"));
+		assertEquals(LocalDate.of(1900, 3, 7), Dates.parse("07 Mar", "%d %b"));
+	}
+
+	@Test
+	void rejectsWithoutThrowing() {
+		assertNull(Dates.parse("05/04/2026", "%d-%m-%Y"));
+		assertNull(Dates.parse("123/04/2026", "%d/%m/%Y"));
+		assertNull(Dates.parse("05/13/2026", "%d/%m/%Y"));
+		assertNull(Dates.parse("00/04/2026", "%d/%m/%Y"));
+		assertNull(Dates.parse("05/04/26", "%d/%m/%Y"));
+		assertNull(Dates.parse("05/04/2026 ", "%d/%m/%Y"));
+		assertNull(Dates.parse("1 January 2026", "%d %b %Y"));
+		assertNull(Dates.parse("1 Jan 2026", "%d %B %Y"));
+		assertNull(Dates.parse("05/04/2026", "%q"));
+		assertNull(Dates.parse("", "%d/%m/%Y"));
+	}
+
+	@Test
+	void clampsDayToMonthEndLikeSmartResolution() {
+		assertEquals(LocalDate.of(2026, 2, 28), Dates.parse("31/02/2026", "%d/%m/%Y"));
+		assertEquals(LocalDate.of(2024, 2, 29), Dates.parse("30/02/2024", "%d/%m/%Y"));
+		assertEquals(LocalDate.of(1900, 2, 28), Dates.parse("29 Feb", "%d %b"));
+		assertNull(Dates.parse("32/01/2026", "%d/%m/%Y"));
+	}
+
+	@Test
+	void matchesTheFormatterParserOnStatementLines() {
+		Random random = new Random(17);
+		List<String> tokens = new ArrayList<>();
+		for (List<Word> words : DatesBenchmark.corpus(random, 300)) {
+			for (int i = 0; i < words.size(); i++) {
+				tokens.add(Tokens.norm(words.get(i).text()));
+				if (i + 2 < words.size()) {
+					tokens.add(words.get(i).text() + " " + words.get(i + 1).text() + " " + words.get(i + 2).text());
+				}
+			}
+		}
+		String alphabet = "0123456789/-. JanFebSepMayDECjuly";
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int length = 1 + random.nextInt(14);
+			for (int k = 0; k < length; k++) {
+				sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			tokens.add(sb.toString());
+		}
+
+		for (String token : tokens) {
+			for (String fmtId : Dates.DATE_FORMATS) {
+				assertEquals(DatesBenchmark.legacyParse(token, fmtId), Dates.parse(token, fmtId),
+						token + " as " + fmtId);
+			}
+		}
+	}
+
+	@Test
+	void classifiesLikeTheDateTokenPattern() {
+		Random random = new Random(23);
+		String alphabet = "0123456789/-. \tJanFebSepMayDECjuly|,:";
+		for (int i = 0; i < 20000; i++) {
+			String token = randomText(random, alphabet, 1 + random.nextInt(14));
+			assertEquals(Tokens.isDateToken(token), Dates.isDateShape(token), token);
+		}
+	}
+
+	@Test
+	void spansMatchTheJoinedNormalizedWords() {
+		Random random = new Random(29);
+		List<List<Word>> lines = DatesBenchmark.corpus(random, 300);
+		String alphabet = "0123456789/-. JanSepDEC|,;:";
+		for (int i = 0; i < 2000; i++) {
+			List<Word> words = new ArrayList<>();
+			for (int k = 1 + random.nextInt(6); k > 0; k--) {
+				words.add(new Word(randomText(random, alphabet, 1 + random.nextInt(7)), 0, 0, 0, 1));
+			}
+			lines.add(words);
+		}
+
+		for (List<Word> words : lines) {
+			assertEquals(DatesBenchmark.legacyFindDatesInWords(words, Dates.DATE_FORMATS),
+					Dates.findDatesInWords(words, Dates.DATE_FORMATS), words.toString());
+			assertEquals(DatesBenchmark.legacyDateAnchor(words), Dates.dateAnchor(words), words.toString());
+		}
+	}
+
+	private static String randomText(Random random, String alphabet, int length) {
+		StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < length; k++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+}
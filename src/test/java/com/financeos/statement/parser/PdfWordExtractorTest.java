@@ -0,0 +1,82 @@
+package com.financeos.statement.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfWordExtractorTest {
+
+	@Test
+	void parallelExtractionMatchesSerialOnALongStatement() throws Exception {
+		byte[] pdf = generateStatement(45);
+
+		List<Line> serial = new PdfWordExtractor(1).extract(pdf, null);
+		List<Line> parallel = new PdfWordExtractor(4).extract(pdf, null);
+
+		assertEquals(serial, parallel);
+		// Page furniture repeated on every page is kept once, as on the serial path.
+		assertEquals(1, serial.stream().filter(l -> l.text().equals("HDFC BANK LTD")).count());
+		assertEquals(45 * 20, serial.stream().filter(l -> l.text().contains("UPI/")).count());
+	}
+
+	@Test
+	void parallelExtractionMatchesSerialAcrossRangeSplits() throws Exception {
+		for (int pages : new int[] {1, PdfWordExtractor.MIN_PAGES_PER_RANGE * 2, 33}) {
+			byte[] pdf = generateStatement(pages);
+			assertEquals(new PdfWordExtractor(1).extract(pdf, null), new PdfWordExtractor(3).extract(pdf, null),
+					pages + " pages");
+		}
+	}
+
+	private static byte[] generateStatement(int pages) throws Exception {
+		PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+		try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			double balance = 50000;
+			for (int p = 0; p < pages; p++) {
+				PDPage page = new PDPage();
+				doc.addPage(page);
+				try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+					cs.setFont(font, 10);
+					text(cs, 50, 750, "HDFC BANK LTD");
+					text(cs, 50, 735, "Page " + (p + 1) + " of " + pages);
+					if (p == 0) {
+						text(cs, 50, 715, "Statement Period: 01/04/2026 to 30/04/2026");
+						text(cs, 50, 700, "Opening Balance: 50,000.00");
+					}
+					text(cs, 50, 680, "Date");
+					text(cs, 150, 680, "Description");
+					text(cs, 320, 680, "Debit");
+					text(cs, 400, 680, "Credit");
+					text(cs, 480, 680, "Balance");
+					for (int r = 0; r < 20; r++) {
+						int n = p * 20 + r;
+						double amount = 100 + (n * 37) % 900;
+						balance -= amount;
+						float y = 660 - r * 15;
+						text(cs, 50, y, String.format("%02d/04/2026", 1 + n % 28));
+						text(cs, 150, y, "UPI/" + (100000 + n) + "/MERCHANT " + (n % 7));
+						text(cs, 320, y, String.format("%,.2f", amount));
+						text(cs, 480, y, String.format("%,.2f", balance));
+					}
+				}
+			}
+			doc.save(out);
+			return out.toByteArray();
+		}
+	}
+
+	private static void text(PDPageContentStream cs, float x, float y, String s) throws Exception {
+		cs.beginText();
+		cs.newLineAtOffset(x, y);
+		cs.showText(s);
+		cs.endText();
+	}
+}